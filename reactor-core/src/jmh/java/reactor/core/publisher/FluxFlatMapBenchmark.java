@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link FluxFlatMap} with scalar, synchronous and hidden (non-fuseable) inner
+ * sources, for varying outer sizes and inner prefetch.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FluxFlatMapBenchmark {
+
+	@Param({"1", "1000", "1000000"})
+	int count;
+
+	@Param({"32", "256"})
+	int prefetch;
+
+	Flux<Integer> source;
+	Flux<Integer> inner;
+
+	@Setup
+	public void setup() {
+		source = Flux.range(0, count);
+		inner = Flux.range(0, 2);
+	}
+
+	@Benchmark
+	public void scalarInner(Blackhole bh) {
+		source.flatMap(Flux::just, Integer.MAX_VALUE, prefetch)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void rangeInner(Blackhole bh) {
+		source.flatMap(v -> inner, Integer.MAX_VALUE, prefetch)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void hiddenInner(Blackhole bh) {
+		source.flatMap(v -> inner.hide(), Integer.MAX_VALUE, prefetch)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void boundedConcurrency(Blackhole bh) {
+		source.flatMap(v -> inner, 16, prefetch)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+}
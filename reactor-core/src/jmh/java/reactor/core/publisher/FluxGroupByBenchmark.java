@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link FluxGroupBy} followed by a merge of all groups, with low and high
+ * key cardinality.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FluxGroupByBenchmark {
+
+	@Param({"1000", "1000000"})
+	int count;
+
+	@Param({"4", "1024"})
+	int groups;
+
+	@Param({"32", "256"})
+	int prefetch;
+
+	Flux<Integer> source;
+
+	@Setup
+	public void setup() {
+		source = Flux.range(0, count);
+	}
+
+	@Benchmark
+	public void groupByFlatMap(Blackhole bh) {
+		int g = groups;
+		source.groupBy(v -> v % g, prefetch)
+		      .flatMap(group -> group, Integer.MAX_VALUE)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void groupByHiddenFlatMap(Blackhole bh) {
+		int g = groups;
+		source.groupBy(v -> v % g, prefetch)
+		      .flatMap(Flux::hide, Integer.MAX_VALUE)
+		      .subscribe(new PerfSubscriber(bh));
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link FluxMap} / {@link FluxFilter} and their {@code Fuseable} variants. The
+ * unfused flavor inserts {@link Flux#hide()} to prevent queue fusion with the source.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FluxMapFilterBenchmark {
+
+	@Param({"1", "1000", "1000000"})
+	int count;
+
+	Flux<Integer> fused;
+	Flux<Integer> unfused;
+
+	@Setup
+	public void setup() {
+		fused = Flux.range(0, count);
+		unfused = Flux.range(0, count).hide();
+	}
+
+	@Benchmark
+	public void mapFused(Blackhole bh) {
+		fused.map(v -> v + 1)
+		     .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void mapUnfused(Blackhole bh) {
+		unfused.map(v -> v + 1)
+		       .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void filterFused(Blackhole bh) {
+		fused.filter(v -> (v & 1) == 0)
+		     .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void filterUnfused(Blackhole bh) {
+		unfused.filter(v -> (v & 1) == 0)
+		       .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void mapFilterChainFused(Blackhole bh) {
+		fused.map(v -> v + 1)
+		     .filter(v -> (v & 1) == 0)
+		     .map(v -> v * 3)
+		     .filter(v -> v % 5 != 0)
+		     .subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	public void mapFilterChainUnfused(Blackhole bh) {
+		unfused.map(v -> v + 1)
+		       .filter(v -> (v & 1) == 0)
+		       .map(v -> v * 3)
+		       .filter(v -> v % 5 != 0)
+		       .subscribe(new PerfSubscriber(bh));
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Measures the {@link FluxPublishOn} queue-drain hop onto a single-threaded worker,
+ * with a fuseable (queue-fused) and a hidden source.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FluxPublishOnBenchmark {
+
+	@Param({"1", "1000", "1000000"})
+	int count;
+
+	@Param({"32", "256"})
+	int prefetch;
+
+	Scheduler scheduler;
+
+	Flux<Integer> fused;
+	Flux<Integer> unfused;
+
+	@Setup
+	public void setup() {
+		scheduler = Schedulers.newSingle("publishOn-benchmark");
+		fused = Flux.range(0, count);
+		unfused = Flux.range(0, count).hide();
+	}
+
+	@TearDown
+	public void teardown() {
+		scheduler.dispose();
+	}
+
+	@Benchmark
+	public void publishOnFused(Blackhole bh) {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		fused.publishOn(scheduler, prefetch)
+		     .subscribe(s);
+		s.await(count);
+	}
+
+	@Benchmark
+	public void publishOnUnfused(Blackhole bh) {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		unfused.publishOn(scheduler, prefetch)
+		       .subscribe(s);
+		s.await(count);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Measures {@link ParallelRunOn}: splitting a source into rails, hopping each rail onto
+ * a {@link Scheduler} worker and merging the rails back with {@link ParallelFlux#sequential()}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelFluxRunOnBenchmark {
+
+	@Param({"1000", "1000000"})
+	int count;
+
+	@Param({"2", "4"})
+	int parallelism;
+
+	@Param({"32", "256"})
+	int prefetch;
+
+	Scheduler scheduler;
+
+	Flux<Integer> source;
+
+	@Setup
+	public void setup() {
+		scheduler = Schedulers.newParallel("runOn-benchmark", parallelism);
+		source = Flux.range(0, count);
+	}
+
+	@TearDown
+	public void teardown() {
+		scheduler.dispose();
+	}
+
+	@Benchmark
+	public void runOn(Blackhole bh) {
+		PerfSubscriber s = new PerfSubscriber(bh);
+		source.parallel(parallelism, prefetch)
+		      .runOn(scheduler, prefetch)
+		      .map(v -> v + 1)
+		      .sequential(prefetch)
+		      .subscribe(s);
+		s.await(count);
+	}
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.infra.Blackhole;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * An unbounded {@link Subscriber} that feeds every signal into a JMH {@link Blackhole}
+ * and allows the benchmark thread to wait for termination of asynchronous sequences.
+ */
+final class PerfSubscriber implements Subscriber<Object> {
+
+	final Blackhole      bh;
+	final CountDownLatch latch;
+
+	PerfSubscriber(Blackhole bh) {
+		this.bh = bh;
+		this.latch = new CountDownLatch(1);
+	}
+
+	@Override
+	public void onSubscribe(Subscription s) {
+		s.request(Long.MAX_VALUE);
+	}
+
+	@Override
+	public void onNext(Object o) {
+		bh.consume(o);
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		bh.consume(t);
+		latch.countDown();
+	}
+
+	@Override
+	public void onComplete() {
+		bh.consume(true);
+		latch.countDown();
+	}
+
+	/**
+	 * Block until the sequence terminates, spinning first as most asynchronous runs
+	 * are short.
+	 */
+	void await(long count) {
+		if (count <= 1000) {
+			while (latch.getCount() != 0L) {
+				Thread.yield();
+			}
+			return;
+		}
+		try {
+			if (!latch.await(60, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("Benchmark sequence timed out");
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of an {@code onNext} on a size-bound, and a size and time-bound,
+ * {@link ReplayProcessor} with one live subscriber. Run with {@code -prof gc} to check
+ * the allocation rate per value, notably for a history of 1.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReplayProcessorBenchmark {
+
+	static final int COUNT = 1024;
+
+	@Param({"1", "16", "1000"})
+	int history;
+
+	ReplayProcessor<Integer> sized;
+
+	ReplayProcessor<Integer> timed;
+
+	//boxed once, so that only the buffer allocates while measuring
+	Integer[] values;
+
+	@Setup
+	public void setup(Blackhole bh) {
+		values = new Integer[COUNT];
+		for (int i = 0; i < COUNT; i++) {
+			values[i] = i;
+		}
+		sized = ReplayProcessor.create(history);
+		sized.subscribe(new PerfSubscriber(bh));
+		timed = ReplayProcessor.createSizeAndTimeout(history, Duration.ofHours(1));
+		timed.subscribe(new PerfSubscriber(bh));
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public void sizeBound() {
+		ReplayProcessor<Integer> p = sized;
+		for (Integer v : values) {
+			p.onNext(v);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public void sizeAndTimeBound() {
+		ReplayProcessor<Integer> p = timed;
+		for (Integer v : values) {
+			p.onNext(v);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.EventLoopProcessor.Slot;
+import reactor.util.concurrent.WaitStrategy;
+
+/**
+ * Compares the {@code sun.misc.Unsafe} backed multi-producer ring buffer with its
+ * atomic fallback, claiming and publishing either one slot or a range of slots at a
+ * time from 1 and 4 producer threads. No gating sequence is registered, so producers
+ * never wait on a consumer. The {@code unsafe} variant requires {@code sun.misc.Unsafe}
+ * to be accessible.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RingBufferBenchmark {
+
+	@Param({"unsafe", "atomic"})
+	String impl;
+
+	@Param({"1024"})
+	int bufferSize;
+
+	@Param({"16"})
+	int batch;
+
+	RingBuffer<Slot<Object>> ringBuffer;
+
+	@Setup
+	public void setup() {
+		RingBufferProducer sequencer;
+		if ("unsafe".equals(impl)) {
+			if (!RingBuffer.hasUnsafe()) {
+				throw new IllegalStateException("This JVM does not support sun.misc.Unsafe");
+			}
+			sequencer = new MultiProducerRingBuffer(bufferSize, WaitStrategy.busySpin(), null);
+			ringBuffer = new UnsafeRingBuffer<>(Slot::new, sequencer);
+		}
+		else {
+			sequencer = new AtomicMultiProducerRingBuffer(bufferSize, WaitStrategy.busySpin(), null);
+			ringBuffer = new NotFunRingBuffer<>(Slot::new, sequencer);
+		}
+	}
+
+	@Benchmark
+	public long claimPublish() {
+		long seq = ringBuffer.next();
+		ringBuffer.get(seq).value = this;
+		ringBuffer.publish(seq);
+		return seq;
+	}
+
+	@Benchmark
+	public long claimPublishBatch() {
+		int n = batch;
+		long hi = ringBuffer.next(n);
+		long lo = hi - (n - 1);
+		for (long seq = lo; seq <= hi; seq++) {
+			ringBuffer.get(seq).value = this;
+		}
+		ringBuffer.publish(lo, hi);
+		return hi;
+	}
+
+	@Benchmark
+	@Threads(4)
+	public long claimPublishContended() {
+		return claimPublish();
+	}
+
+	@Benchmark
+	@Threads(4)
+	public long claimPublishBatchContended() {
+		return claimPublishBatch();
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link SpscArrayQueue} and {@link SpscLinkedArrayQueue}, both in a
+ * single-threaded offer-then-drain burst (the typical fused operator usage) and with
+ * one producer and one consumer thread exchanging values.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class SpscQueueBenchmark {
+
+	@Param({"array", "linked"})
+	String type;
+
+	@Param({"32", "256", "1024"})
+	int capacity;
+
+	Queue<Integer> queue;
+	boolean        bounded;
+
+	static final Integer VALUE = 1;
+
+	@Setup
+	public void setup() {
+		if ("array".equals(type)) {
+			queue = new SpscArrayQueue<>(capacity);
+			bounded = true;
+		}
+		else {
+			queue = new SpscLinkedArrayQueue<>(capacity);
+		}
+	}
+
+	@Benchmark
+	@Group("burst")
+	@GroupThreads(1)
+	public void offerThenPoll(Blackhole bh) {
+		Queue<Integer> q = queue;
+		int c = capacity;
+		for (int i = 0; i < c; i++) {
+			q.offer(VALUE);
+		}
+		Integer v;
+		while ((v = q.poll()) != null) {
+			bh.consume(v);
+		}
+	}
+
+	@Benchmark
+	@Group("exchange")
+	@GroupThreads(1)
+	public boolean offer() {
+		Queue<Integer> q = queue;
+		//the linked queue is unbounded: keep the producer from running away
+		if (bounded || q.size() < capacity) {
+			return q.offer(VALUE);
+		}
+		return false;
+	}
+
+	@Benchmark
+	@Group("exchange")
+	@GroupThreads(1)
+	public Integer poll() {
+		return queue.poll();
+	}
+}
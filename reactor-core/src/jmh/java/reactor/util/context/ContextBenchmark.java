@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.context;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link Context#put} and {@link Context#get} on contexts of several sizes,
+ * against the copy-on-write {@link HashMap} that used to back {@link ContextN}: each
+ * {@code put} copied the whole map into a new one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContextBenchmark {
+
+	@Param({"2", "8", "15"})
+	int size;
+
+	Object[] keys;
+
+	Context context;
+
+	Map<Object, Object> map;
+
+	static final Object NEW_KEY = "newKey";
+	static final Object VALUE   = "value";
+
+	@Setup
+	public void setup() {
+		keys = new Object[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = "key" + i;
+		}
+		context = build();
+		map = buildMap();
+	}
+
+	Context build() {
+		Context c = Context.empty();
+		for (Object k : keys) {
+			c = c.put(k, VALUE);
+		}
+		return c;
+	}
+
+	static Map<Object, Object> copyAndPut(Map<Object, Object> m, Object key, Object value) {
+		Map<Object, Object> copy = new HashMap<>(m.size() + 1, 1f);
+		copy.putAll(m);
+		copy.put(key, value);
+		return copy;
+	}
+
+	Map<Object, Object> buildMap() {
+		Map<Object, Object> m = new HashMap<>(1, 1f);
+		for (Object k : keys) {
+			m = copyAndPut(m, k, VALUE);
+		}
+		return m;
+	}
+
+	@Benchmark
+	public Context contextPut() {
+		return context.put(NEW_KEY, VALUE);
+	}
+
+	@Benchmark
+	public Map<Object, Object> hashMapPut() {
+		return copyAndPut(map, NEW_KEY, VALUE);
+	}
+
+	@Benchmark
+	public Context contextBuild() {
+		return build();
+	}
+
+	@Benchmark
+	public Map<Object, Object> hashMapBuild() {
+		return buildMap();
+	}
+
+	@Benchmark
+	public void contextGet(Blackhole bh) {
+		Context c = context;
+		for (Object k : keys) {
+			bh.consume(c.get(k));
+		}
+	}
+
+	@Benchmark
+	public void hashMapGet(Blackhole bh) {
+		Map<Object, Object> m = map;
+		for (Object k : keys) {
+			bh.consume(m.get(k));
+		}
+	}
+}
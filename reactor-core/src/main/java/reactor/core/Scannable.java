@@ -187,7 +187,21 @@ public interface Scannable {
 		 * query but will return {@link Integer#MIN_VALUE} when actual buffer size is
 		 * oversized for int.
 		 */
-		BUFFERED(0);
+		BUFFERED(0),
+
+		/**
+		 * An {@link Integer} attribute implemented by components that pool resources,
+		 * like threads in a {@link reactor.core.scheduler.Scheduler}, exposing how many
+		 * of these resources are currently in use.
+		 */
+		ACTIVE(null),
+
+		/**
+		 * An {@link Integer} attribute implemented by components that pool resources,
+		 * like threads in a {@link reactor.core.scheduler.Scheduler}, exposing how many
+		 * of these resources are currently unused but kept around for reuse.
+		 */
+		IDLE(null);
 
 		final Integer defaultValue;
 
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+/**
+ * The prefetch of an operator requesting from its source in batches, adapted between
+ * a minimum and a maximum each time it replenishes, that is once {@link #limit} values
+ * have been consumed.
+ * <p>
+ * If the queue is found drained at that point, the consumer is waiting on the source
+ * and the prefetch doubles, so that the source can run further ahead. If it still holds
+ * all the outstanding values for a few replenishments in a row, the consumer is the
+ * bottleneck and the prefetch halves, to stop buffering more than it drains. The queue
+ * must be able to hold {@link #max} values.
+ * <p>
+ * Only accessed by the draining thread, except {@link #prefetch} which can be scanned.
+ */
+final class AdaptivePrefetch {
+
+	/**
+	 * The number of consecutive replenishments finding the queue full before shrinking.
+	 */
+	static final int SHRINK_AFTER = 4;
+
+	final int min;
+
+	final int max;
+
+	/**
+	 * The current number of values requested but not consumed yet.
+	 */
+	volatile int prefetch;
+
+	/**
+	 * The number of values to consume before replenishing.
+	 */
+	int limit;
+
+	int full;
+
+	AdaptivePrefetch(int min, int max) {
+		if (min <= 0) {
+			throw new IllegalArgumentException("minPrefetch > 0 required but it was " + min);
+		}
+		if (max < min) {
+			throw new IllegalArgumentException("maxPrefetch >= minPrefetch required but it was " + max);
+		}
+		this.min = min;
+		this.max = max;
+		this.prefetch = min;
+		this.limit = limitOf(min);
+	}
+
+	static int limitOf(int prefetch) {
+		return prefetch - (prefetch >> 2);
+	}
+
+	/**
+	 * Adapt the prefetch to the occupancy of the queue.
+	 *
+	 * @param consumed the number of values consumed since the last replenishment, at
+	 * least {@link #limit}
+	 * @param queued the number of values still in the queue
+	 *
+	 * @return the number of values to request
+	 */
+	long replenish(long consumed, int queued) {
+		int p = prefetch;
+		int next = p;
+		if (queued == 0) {
+			full = 0;
+			if (p < max) {
+				next = p > max >> 1 ? max : p << 1;
+			}
+		}
+		else if (queued >= p - consumed) {
+			if (++full >= SHRINK_AFTER && p > min) {
+				full = 0;
+				next = Math.max(min, p >> 1);
+			}
+		}
+		else {
+			full = 0;
+		}
+
+		if (next != p) {
+			prefetch = next;
+			limit = limitOf(next);
+		}
+		return consumed + next - p;
+	}
+}
@@ -103,10 +103,46 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 		return new EmitterProcessor<>(autoCancel, bufferSize);
 	}
 
+	/**
+	 * Create a new {@link EmitterProcessor} where each {@link Subscriber} keeps its own
+	 * cursor over a shared ring of the provided size, instead of all subscribers being
+	 * paced by the slowest one.
+	 * <p>
+	 * In this mode, {@link #onNext} never waits for subscribers: a subscribed source is
+	 * requested to stay at most {@code maxLag} elements ahead of the fastest subscriber,
+	 * and a subscriber falling further behind either skips the overwritten elements
+	 * ({@link BufferOverflowStrategy#DROP_OLDEST}) or is terminated with an overflow
+	 * error ({@link BufferOverflowStrategy#ERROR}). A new {@link Subscriber} starts at
+	 * the position of the fastest current one.
+	 *
+	 * @param <E> Type of processed signals
+	 * @param maxLag the ring size, i.e. how far a subscriber can lag behind the
+	 * producer (rounded up to a power of two)
+	 * @param autoCancel automatically cancel
+	 * @param lagStrategy what to do with subscribers lagging more than {@code maxLag}
+	 * elements behind, either {@link BufferOverflowStrategy#DROP_OLDEST} or {@link
+	 * BufferOverflowStrategy#ERROR}
+	 *
+	 * @return a fresh processor
+	 */
+	public static <E> EmitterProcessor<E> create(int maxLag,
+			boolean autoCancel,
+			BufferOverflowStrategy lagStrategy) {
+		return new EmitterProcessor<>(autoCancel,
+				FluxPublishRing.checkMaxLag(maxLag),
+				FluxPublishRing.checkLagStrategy(lagStrategy));
+	}
+
 	final int prefetch;
 
 	final boolean autoCancel;
 
+	/**
+	 * The shared ring when subscribers keep independent cursors, null otherwise.
+	 */
+	@Nullable
+	final FluxPublishRing.RingSubscriber<T> ring;
+
 	volatile Subscription s;
 	@SuppressWarnings("rawtypes")
 	static final AtomicReferenceFieldUpdater<EmitterProcessor, Subscription> S =
@@ -149,11 +185,22 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 		}
 		this.autoCancel = autoCancel;
 		this.prefetch = prefetch;
+		this.ring = null;
+		SUBSCRIBERS.lazySet(this, EMPTY);
+	}
+
+	EmitterProcessor(boolean autoCancel, int maxLag, BufferOverflowStrategy lagStrategy) {
+		this.autoCancel = autoCancel;
+		this.ring = new FluxPublishRing.RingSubscriber<>(maxLag, lagStrategy, autoCancel, null);
+		this.prefetch = ring.capacity;
 		SUBSCRIBERS.lazySet(this, EMPTY);
 	}
 
 	@Override
 	public Stream<? extends Scannable> inners() {
+		if (ring != null) {
+			return ring.inners();
+		}
 		return Stream.of(subscribers);
 	}
 
@@ -163,6 +210,10 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 		if (s == null) {
 			throw Exceptions.argumentIsNullException();
 		}
+		if (ring != null) {
+			ring.subscribe(s);
+			return;
+		}
 		EmitterInner<T> inner = new EmitterInner<>(s, this);
 		s.onSubscribe(inner);
 
@@ -193,12 +244,19 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 	 * @return the number of parked elements in the emitter backlog.
 	 */
 	public int getPending() {
+		if (ring != null) {
+			return ring.getPending();
+		}
 		Queue<T> q = queue;
 		return q != null ? q.size() : 0;
 	}
 
 	@Override
 	public void onSubscribe(final Subscription s) {
+		if (ring != null) {
+			ring.onSubscribe(s);
+			return;
+		}
 		if (Operators.setOnce(S, this, s)) {
 			if (s instanceof Fuseable.QueueSubscription) {
 				@SuppressWarnings("unchecked") Fuseable.QueueSubscription<T> f =
@@ -232,6 +290,10 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 		if (t == null && sourceMode == Fuseable.NONE) {
 			throw Exceptions.argumentIsNullException();
 		}
+		if (ring != null) {
+			ring.onNext(t);
+			return;
+		}
 
 		if (done) {
 			return;
@@ -272,6 +334,10 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 		if (t == null) {
 			throw Exceptions.argumentIsNullException();
 		}
+		if (ring != null) {
+			ring.onError(t);
+			return;
+		}
 		if (done) {
 			Operators.onErrorDropped(t);
 			return;
@@ -287,6 +353,10 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 
 	@Override
 	public void onComplete() {
+		if (ring != null) {
+			ring.onComplete();
+			return;
+		}
 		if (done) {
 			return;
 		}
@@ -297,6 +367,9 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 	@Override
 	@Nullable
 	public Throwable getError() {
+		if (ring != null) {
+			return ring.error;
+		}
 		return error;
 	}
 
@@ -304,6 +377,9 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 	 * @return true if all subscribers have actually been cancelled and the processor auto shut down
 	 */
 	public boolean isCancelled() {
+		if (ring != null) {
+			return Operators.cancelledSubscription() == ring.s;
+		}
 		return Operators.cancelledSubscription() == s;
 	}
 
@@ -314,6 +390,9 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 
 	@Override
 	public boolean isTerminated() {
+		if (ring != null) {
+			return ring.done && getPending() == 0;
+		}
 		return done && getPending() == 0;
 	}
 
@@ -325,7 +404,7 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 	@Override
 	@Nullable
 	public Object scanUnsafe(Attr key) {
-		if (key == ScannableAttr.PARENT) return s;
+		if (key == ScannableAttr.PARENT) return ring != null ? ring.s : s;
 		if (key == IntAttr.BUFFERED) return getPending();
 		if (key == BooleanAttr.CANCELLED) return isCancelled();
 
@@ -544,6 +623,9 @@ public final class EmitterProcessor<T> extends FluxProcessor<T, T> {
 
 	@Override
 	public long downstreamCount() {
+		if (ring != null) {
+			return ring.subscribers.length;
+		}
 		return subscribers.length;
 	}
 
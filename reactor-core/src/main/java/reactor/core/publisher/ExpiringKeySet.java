@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * A {@link java.util.Set} forgetting its keys after a time to live, and once it holds
+ * a maximum number of keys.
+ * <p>
+ * The keys are kept in two generations: new keys are added to the current one, which
+ * becomes the previous one, replacing it, every {@code ttl} or when both reach
+ * {@code maxKeys} keys together. A key is thus remembered for at least {@code ttl} and
+ * at most twice that, unless evicted earlier to stay within {@code maxKeys}. Expiring
+ * a whole generation at once is checked on {@link #add} against the clock of a
+ * {@link Scheduler}, so no task needs to sweep the keys.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <K> the key type
+ */
+final class ExpiringKeySet<K> extends AbstractSet<K> {
+
+	final Scheduler clock;
+
+	final long ttl;
+
+	final int maxKeys;
+
+	OpenKeySet<K> current;
+
+	OpenKeySet<K> previous;
+
+	/**
+	 * The time at which the current generation started, in milliseconds.
+	 */
+	long generationStart;
+
+	ExpiringKeySet(long ttl, int maxKeys, Scheduler clock) {
+		if (ttl <= 0) {
+			throw new IllegalArgumentException("ttl > 0 required but it was " + ttl);
+		}
+		if (maxKeys <= 0) {
+			throw new IllegalArgumentException("maxKeys > 0 required but it was " + maxKeys);
+		}
+		this.ttl = ttl;
+		this.maxKeys = maxKeys;
+		this.clock = clock;
+		this.current = new OpenKeySet<>();
+		this.previous = new OpenKeySet<>();
+		this.generationStart = clock.now(TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public boolean add(K key) {
+		long now = clock.now(TimeUnit.MILLISECONDS);
+		long elapsed = now - generationStart;
+		if (elapsed >= ttl) {
+			if (elapsed >= ttl << 1) {
+				previous.clear();
+				current.clear();
+			}
+			else {
+				rotate();
+			}
+			generationStart = now;
+		}
+
+		if (current.contains(key) || previous.contains(key)) {
+			return false;
+		}
+		current.add(key);
+		if (current.size() + previous.size() >= maxKeys) {
+			rotate();
+			generationStart = now;
+		}
+		return true;
+	}
+
+	void rotate() {
+		OpenKeySet<K> p = previous;
+		p.clear();
+		previous = current;
+		current = p;
+	}
+
+	@Override
+	public boolean contains(Object key) {
+		return current.contains(key) || previous.contains(key);
+	}
+
+	@Override
+	public void clear() {
+		current.clear();
+		previous.clear();
+	}
+
+	@Override
+	public int size() {
+		return current.size() + previous.size();
+	}
+
+	@Override
+	public Iterator<K> iterator() {
+		return Stream.concat(previous.stream(), current.stream())
+		             .iterator();
+	}
+}
@@ -16,13 +16,13 @@
 
 package reactor.core.publisher;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +42,9 @@ import java.util.function.Function;
 import java.util.function.LongConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.logging.Level;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
@@ -1400,6 +1403,26 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxRange(start, count));
 	}
 
+	/**
+	 * Build a {@link Flux} that will only emit a sequence of {@code count} incrementing longs,
+	 * starting from {@code start}. That is, emit longs between {@code start} (included)
+	 * and {@code start + count} (excluded) then complete.
+	 *
+	 * @param start the first long to be emit
+	 * @param count the total number of incrementing values to emit, including the first value
+	 * @return a ranged {@link Flux}
+	 * @see #range(int, int)
+	 */
+	public static Flux<Long> rangeLong(long start, long count) {
+		if (count == 1) {
+			return just(start);
+		}
+		if (count == 0) {
+			return empty();
+		}
+		return onAssembly(new FluxRangeLong(start, count));
+	}
+
 	/**
 	 * Creates a {@link Flux} that mirrors the most recently emitted {@link Publisher},
 	 * forwarding its data until a new {@link Publisher} comes in in the source.
@@ -1896,6 +1919,23 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxAwaitOnSubscribe<>(this));
 	}
 
+	/**
+	 * Compute the arithmetic mean of the double values extracted from each element of
+	 * this {@link Flux}, emitted when onComplete is observed. An empty sequence
+	 * completes without a value.
+	 * <p>
+	 * The running sum and count are kept in primitive fields, no intermediate value is
+	 * boxed.
+	 *
+	 * @param mapper the function extracting a double from each element
+	 *
+	 * @return a new {@link Mono} of the average
+	 * @see #sumDouble(ToDoubleFunction)
+	 */
+	public final Mono<Double> averageDouble(ToDoubleFunction<? super T> mapper) {
+		return Mono.onAssembly(new MonoSumDouble<>(this, mapper, true));
+	}
+
 	/**
 	 * Subscribe to this {@link Flux} and <strong>block indefinitely</strong>
 	 * until the upstream signals its first value or completes. Returns that value,
@@ -2492,6 +2532,36 @@ public abstract class Flux<T> implements Publisher<T> {
 		return replay(history, ttl).autoConnect();
 	}
 
+	/**
+	 * Turn this {@link Flux} into a hot source and cache last emitted signals for further
+	 * {@link Subscriber}, storing them off-heap. Will retain an unbounded volume of onNext
+	 * signals, each serialized by the encoder into direct {@link ByteBuffer} chunks and
+	 * decoded again for each {@link Subscriber} as it replays. Completion and Error will
+	 * also be replayed.
+	 * <p>
+	 * The encoder should return a buffer whose remaining bytes represent the value. The
+	 * decoder is given a read-only buffer holding exactly these bytes and must not keep a
+	 * reference to it. If the encoder fails, the source is cancelled and the error
+	 * replayed after the values cached so far.
+	 * <p>
+	 * <img width="500" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/cache.png"
+	 * alt="">
+	 *
+	 * @param encoder the {@link Function} serializing a value into a {@link ByteBuffer}
+	 * @param decoder the {@link Function} deserializing a value from a {@link ByteBuffer}
+	 *
+	 * @return a replaying {@link Flux}
+	 */
+	public final Flux<T> cache(Function<? super T, ? extends ByteBuffer> encoder,
+			Function<? super ByteBuffer, ? extends T> decoder) {
+		Objects.requireNonNull(encoder, "encoder");
+		Objects.requireNonNull(decoder, "decoder");
+		return onAssembly(new FluxReplay<>(this,
+				() -> new FluxReplay.SerializedReplayBuffer<T>(encoder,
+						decoder,
+						FluxReplay.SerializedReplayBuffer.CHUNK_SIZE))).autoConnect();
+	}
+
 	/**
 	 * Cast the current {@link Flux} produced type into a target produced type.
 	 *
@@ -2945,6 +3015,33 @@ public abstract class Flux<T> implements Publisher<T> {
 				FluxConcatMap.ErrorMode.IMMEDIATE));
 	}
 
+	/**
+	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
+	 * then flatten these inner publishers into a single {@link Flux}, sequentially and
+	 * preserving order using concatenation.
+	 * <p>
+	 * Errors will immediately short circuit current concat backlog. Unlike
+	 * {@link #concatMap(Function, int)}, the prefetch is adaptive: it starts at
+	 * {@code minPrefetch} and grows up to {@code maxPrefetch} while the source is
+	 * slower than the inner publishers, or shrinks back while they lag behind. The
+	 * current value can be observed through {@link reactor.core.Scannable.IntAttr#PREFETCH}.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/concatmap.png" alt="">
+	 *
+	 * @param mapper the function to transform this sequence of T into concatenated sequences of V
+	 * @param minPrefetch the minimum demand requested from this {@link Flux}
+	 * @param maxPrefetch the maximum demand requested from this {@link Flux}
+	 * @param <V> the produced concatenated type
+	 *
+	 * @return a concatenated {@link Flux}
+	 */
+	public final <V> Flux<V> concatMap(Function<? super T, ? extends Publisher<? extends V>>
+			mapper, int minPrefetch, int maxPrefetch) {
+		return onAssembly(new FluxConcatMap<>(this, mapper, QueueSupplier.get(maxPrefetch),
+				minPrefetch, maxPrefetch, FluxConcatMap.ErrorMode.IMMEDIATE));
+	}
+
 	/**
 	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
 	 * then flatten these inner publishers into a single {@link Flux}, sequentially and
@@ -3460,7 +3557,7 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * @return a filtering {@link Flux} only emitting distinct values
 	 */
 	public final Flux<T> distinct() {
-		return distinct(hashcodeSupplier());
+		return distinct(hashcodeSupplier(), IntKeySet::new);
 	}
 
 	/**
@@ -3477,7 +3574,7 @@ public abstract class Flux<T> implements Publisher<T> {
 	 * @return a filtering {@link Flux} only emitting values with distinct keys
 	 */
 	public final <V> Flux<T> distinct(Function<? super T, ? extends V> keySelector) {
-		return distinct(keySelector, hashSetSupplier());
+		return distinct(keySelector, keySetSupplier());
 	}
 
 	/**
@@ -3508,6 +3605,125 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxDistinct<>(this, keySelector, distinctCollectionSupplier));
 	}
 
+	/**
+	 * For each {@link Subscriber}, track elements from this {@link Flux} that have been
+	 * seen and filter out duplicates, as compared by a key extracted through the user
+	 * provided {@link Function}, remembering at most {@code maxKeys} keys: past that,
+	 * the least recently seen key is forgotten and a value with that key would be
+	 * emitted again. This bounds the memory used on infinite sequences.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/distinctk.png" alt="">
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 * @param maxKeys the maximum number of keys to remember
+	 * @param <V> the type of the key extracted from each value in this sequence
+	 *
+	 * @return a filtering {@link Flux} only emitting values with distinct keys among the
+	 * last {@code maxKeys} ones
+	 */
+	public final <V> Flux<T> distinct(Function<? super T, ? extends V> keySelector, int maxKeys) {
+		if (maxKeys <= 0) {
+			throw new IllegalArgumentException("maxKeys > 0 required but it was " + maxKeys);
+		}
+		return distinct(keySelector, () -> new LruKeySet<V>(maxKeys));
+	}
+
+	/**
+	 * For each {@link Subscriber}, track elements from this {@link Flux} that have been
+	 * seen and filter out duplicates, as compared by a key extracted through the user
+	 * provided {@link Function}, remembering each key for a limited time: a value is
+	 * filtered out if a value with the same key was emitted less than {@code ttl} ago,
+	 * and may also be if it was emitted less than twice the {@code ttl} ago, as keys are
+	 * forgotten by generation. Keys can also be forgotten earlier once {@code maxKeys}
+	 * keys are remembered, bounding the memory used on infinite sequences.
+	 * Time is measured on the {@link Schedulers#parallel()} Scheduler.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/distinctk.png" alt="">
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 * @param ttl the minimum duration a key is remembered for, unless evicted by {@code maxKeys}
+	 * @param maxKeys the maximum number of keys to remember
+	 * @param <V> the type of the key extracted from each value in this sequence
+	 *
+	 * @return a filtering {@link Flux} only emitting values with distinct keys within
+	 * the {@code ttl}
+	 */
+	public final <V> Flux<T> distinct(Function<? super T, ? extends V> keySelector,
+			Duration ttl, int maxKeys) {
+		return distinct(keySelector, ttl, maxKeys, Schedulers.parallel());
+	}
+
+	/**
+	 * For each {@link Subscriber}, track elements from this {@link Flux} that have been
+	 * seen and filter out duplicates, as compared by a key extracted through the user
+	 * provided {@link Function}, remembering each key for a limited time: a value is
+	 * filtered out if a value with the same key was emitted less than {@code ttl} ago,
+	 * and may also be if it was emitted less than twice the {@code ttl} ago, as keys are
+	 * forgotten by generation. Keys can also be forgotten earlier once {@code maxKeys}
+	 * keys are remembered, bounding the memory used on infinite sequences.
+	 * Time is measured on the provided {@link Scheduler}.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/distinctk.png" alt="">
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 * @param ttl the minimum duration a key is remembered for, unless evicted by {@code maxKeys}
+	 * @param maxKeys the maximum number of keys to remember
+	 * @param timer the {@link Scheduler} whose clock measures the {@code ttl}
+	 * @param <V> the type of the key extracted from each value in this sequence
+	 *
+	 * @return a filtering {@link Flux} only emitting values with distinct keys within
+	 * the {@code ttl}
+	 */
+	public final <V> Flux<T> distinct(Function<? super T, ? extends V> keySelector,
+			Duration ttl, int maxKeys, Scheduler timer) {
+		long ttlMillis = ttl.toMillis();
+		if (ttlMillis <= 0) {
+			throw new IllegalArgumentException("ttl > 0ms required but it was " + ttl);
+		}
+		if (maxKeys <= 0) {
+			throw new IllegalArgumentException("maxKeys > 0 required but it was " + maxKeys);
+		}
+		Objects.requireNonNull(timer, "timer");
+		return distinct(keySelector, () -> new ExpiringKeySet<V>(ttlMillis, maxKeys, timer));
+	}
+
+	/**
+	 * For each {@link Subscriber}, track elements from this {@link Flux} that have been
+	 * seen and filter out duplicates, as compared by an {@code int} key extracted through
+	 * the user provided {@link ToIntFunction}. The keys are stored unboxed.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/distinctk.png" alt="">
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 *
+	 * @return a filtering {@link Flux} only emitting values with distinct keys
+	 */
+	public final Flux<T> distinctInt(ToIntFunction<? super T> keySelector) {
+		Objects.requireNonNull(keySelector, "keySelector");
+		return distinct(keySelector::applyAsInt, IntKeySet::new);
+	}
+
+	/**
+	 * For each {@link Subscriber}, track elements from this {@link Flux} that have been
+	 * seen and filter out duplicates, as compared by a {@code long} key extracted through
+	 * the user provided {@link ToLongFunction}. The keys are stored unboxed.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/distinctk.png" alt="">
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 *
+	 * @return a filtering {@link Flux} only emitting values with distinct keys
+	 */
+	public final Flux<T> distinctLong(ToLongFunction<? super T> keySelector) {
+		Objects.requireNonNull(keySelector, "keySelector");
+		return distinct(keySelector::applyAsLong, LongKeySet::new);
+	}
+
 	/**
 	 * Filter out subsequent repetitions of an element (that is, if they arrive right after
 	 * one another).
@@ -3857,6 +4073,10 @@ public abstract class Flux<T> implements Publisher<T> {
 	 */
 	public final Flux<T> filter(Predicate<? super T> p) {
 		if (this instanceof Fuseable) {
+			Flux<T> fused = FluxMapFilterFuseable.fuseFilter(this, p);
+			if (fused != null) {
+				return onAssembly(fused);
+			}
 			return onAssembly(new FluxFilterFuseable<>(this, p));
 		}
 		return onAssembly(new FluxFilter<>(this, p));
@@ -4023,6 +4243,43 @@ public abstract class Flux<T> implements Publisher<T> {
 		return flatMap(mapper, false, concurrency, prefetch);
 	}
 
+	/**
+	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
+	 * then flatten these inner publishers into a single {@link Flux} through merging,
+	 * which allow them to interleave.
+	 * <p>
+	 * The concurrency argument allows to control how many {@link Publisher} can be
+	 * subscribed to and merged in parallel. Unlike {@link #flatMap(Function, int, int)},
+	 * the prefetch of each inner {@link Publisher} is adaptive: it starts at
+	 * {@code minPrefetch} and grows up to {@code maxPrefetch} while that inner is slower
+	 * than the merge, or shrinks back while its values pile up. The current value can
+	 * be observed through {@link reactor.core.Scannable.IntAttr#PREFETCH}.
+	 *
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/flatmapc.png" alt="">
+	 *
+	 * @param mapper the {@link Function} to transform input sequence into N sequences {@link Publisher}
+	 * @param concurrency the maximum number of in-flight inner sequences
+	 * @param minPrefetch the minimum in-flight elements from each inner {@link Publisher} sequence
+	 * @param maxPrefetch the maximum in-flight elements from each inner {@link Publisher} sequence
+	 * @param <V> the merged output sequence type
+	 *
+	 * @return a merged {@link Flux}
+	 */
+	public final <V> Flux<V> flatMap(Function<? super T, ? extends Publisher<? extends V>> mapper, int
+			concurrency, int minPrefetch, int maxPrefetch) {
+		return onAssembly(new FluxFlatMap<>(
+				this,
+				mapper,
+				false,
+				concurrency,
+				QueueSupplier.get(concurrency),
+				minPrefetch,
+				maxPrefetch,
+				QueueSupplier.get(maxPrefetch)
+		));
+	}
+
 	/**
 	 * Transform the elements emitted by this {@link Flux} asynchronously into Publishers,
 	 * then flatten these inner publishers into a single {@link Flux} through merging,
@@ -4425,6 +4682,95 @@ public abstract class Flux<T> implements Publisher<T> {
 				QueueSupplier.unbounded(prefetch), prefetch));
 	}
 
+	/**
+	 * Divide this sequence into a fixed number of 'rails', each running on its own
+	 * {@link Worker} of the given {@link Scheduler}, by hashing the key produced by the
+	 * provided keyMapper {@link Function}: all the values of a given key go to the same
+	 * rail, in order.
+	 * <p>
+	 * Unlike {@code groupBy(keyMapper).flatMap(g -> g.publishOn(scheduler))}, this
+	 * doesn't create a queue per key, so the memory and the number of workers used stay
+	 * bounded by the number of rails whatever the number of keys.
+	 * <p>
+	 * A value waits for its rail to request before being dispatched and so do all the
+	 * values after it, to keep the order: a slow rail slows the others.
+	 *
+	 * @param keyMapper the key mapping {@link Function} that evaluates an incoming data and returns a key.
+	 * @param scheduler the {@link Scheduler} providing a {@link Worker} per rail
+	 * @param rails the number of rails
+	 *
+	 * @return a {@link ParallelFlux} of the values of this sequence, dispatched by key
+	 */
+	public final ParallelFlux<T> groupByOnRails(Function<? super T, ?> keyMapper,
+			Scheduler scheduler, int rails) {
+		return groupByOnRails(keyMapper, scheduler, rails, QueueSupplier.SMALL_BUFFER_SIZE);
+	}
+
+	/**
+	 * Divide this sequence into a fixed number of 'rails', each running on its own
+	 * {@link Worker} of the given {@link Scheduler}, by hashing the key produced by the
+	 * provided keyMapper {@link Function}: all the values of a given key go to the same
+	 * rail, in order.
+	 * <p>
+	 * Unlike {@code groupBy(keyMapper).flatMap(g -> g.publishOn(scheduler))}, this
+	 * doesn't create a queue per key, so the memory and the number of workers used stay
+	 * bounded by the number of rails whatever the number of keys.
+	 * <p>
+	 * A value waits for its rail to request before being dispatched and so do all the
+	 * values after it, to keep the order: a slow rail slows the others.
+	 *
+	 * @param keyMapper the key mapping {@link Function} that evaluates an incoming data and returns a key.
+	 * @param scheduler the {@link Scheduler} providing a {@link Worker} per rail
+	 * @param rails the number of rails
+	 * @param prefetch the number of values to prefetch from the source, and on each rail
+	 *
+	 * @return a {@link ParallelFlux} of the values of this sequence, dispatched by key
+	 */
+	public final ParallelFlux<T> groupByOnRails(Function<? super T, ?> keyMapper,
+			Scheduler scheduler, int rails, int prefetch) {
+		return ParallelFlux.onAssembly(new ParallelKeyedSource<>(this, keyMapper, rails,
+				prefetch, QueueSupplier.get(prefetch)))
+		                   .runOn(scheduler, prefetch);
+	}
+
+	/**
+	 * Divide this sequence into a fixed number of 'rails', each running on its own
+	 * {@link Worker} of the given {@link Scheduler}, by hashing the key produced by the
+	 * provided keyMapper {@link Function}, then map each value along with a state
+	 * associated to its key. All the values of a given key go to the same rail, in order,
+	 * so the state of a key is only ever accessed from one {@link Worker} at a time and
+	 * can be mutable.
+	 * <p>
+	 * The state of a key is created by the stateFactory the first time the key is seen
+	 * and kept until the rail terminates, so the number of distinct keys should stay
+	 * bounded.
+	 *
+	 * @param keyMapper the key mapping {@link Function} that evaluates an incoming data and returns a key.
+	 * @param scheduler the {@link Scheduler} providing a {@link Worker} per rail
+	 * @param rails the number of rails
+	 * @param stateFactory the {@link Function} creating the non-null state of a new key
+	 * @param mapper the {@link BiFunction} mapping a value along with the state of its key
+	 * @param <K> the key type extracted from each value of this sequence
+	 * @param <S> the state type
+	 * @param <R> the mapped value type
+	 *
+	 * @return a {@link ParallelFlux} of the mapped values, dispatched by key
+	 */
+	public final <K, S, R> ParallelFlux<R> groupByOnRails(Function<? super T, ? extends K> keyMapper,
+			Scheduler scheduler,
+			int rails,
+			Function<? super K, ? extends S> stateFactory,
+			BiFunction<? super S, ? super T, ? extends R> mapper) {
+		Objects.requireNonNull(keyMapper, "keyMapper");
+		Objects.requireNonNull(stateFactory, "stateFactory");
+		Objects.requireNonNull(mapper, "mapper");
+		//the key is computed once and carried along to find the state on the rail
+		Flux<Tuple2<K, T>> keyed = map(t -> Tuples.<K, T>of(Objects.requireNonNull(keyMapper.apply(t),
+				"The keySelector returned a null value"), t));
+		return ParallelFlux.onAssembly(new ParallelKeyedMap<>(keyed.groupByOnRails(Tuple2::getT1,
+				scheduler, rails), stateFactory, mapper));
+	}
+
 	/**
 	 * Map values from two Publishers into time windows and emit combination of values
 	 * in case their windows overlap. The emitted elements are obtained by passing the
@@ -4758,6 +5104,10 @@ public abstract class Flux<T> implements Publisher<T> {
 	 */
 	public final <V> Flux<V> map(Function<? super T, ? extends V> mapper) {
 		if (this instanceof Fuseable) {
+			Flux<V> fused = FluxMapFilterFuseable.fuseMap(this, mapper);
+			if (fused != null) {
+				return onAssembly(fused);
+			}
 			return onAssembly(new FluxMapFuseable<>(this, mapper));
 		}
 		return onAssembly(new FluxMap<>(this, mapper));
@@ -4779,6 +5129,20 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxMaterialize<>(this));
 	}
 
+	/**
+	 * Emit the largest of the long values extracted from each element of this
+	 * {@link Flux}, when onComplete is observed. An empty sequence completes without a
+	 * value.
+	 *
+	 * @param mapper the function extracting a long from each element
+	 *
+	 * @return a new {@link Mono} of the maximum
+	 * @see #minLong(ToLongFunction)
+	 */
+	public final Mono<Long> maxLong(ToLongFunction<? super T> mapper) {
+		return Mono.onAssembly(new MonoMinMaxLong<>(this, mapper, true));
+	}
+
 	/**
 	 * Merge data from this {@link Flux} and a {@link Publisher} into an interleaved merged
 	 * sequence. Unlike {@link #concatWith(Publisher) concat}, inner sources are subscribed
@@ -4803,6 +5167,20 @@ public abstract class Flux<T> implements Publisher<T> {
 		return merge(this, other);
 	}
 
+	/**
+	 * Emit the smallest of the long values extracted from each element of this
+	 * {@link Flux}, when onComplete is observed. An empty sequence completes without a
+	 * value.
+	 *
+	 * @param mapper the function extracting a long from each element
+	 *
+	 * @return a new {@link Mono} of the minimum
+	 * @see #maxLong(ToLongFunction)
+	 */
+	public final Mono<Long> minLong(ToLongFunction<? super T> mapper) {
+		return Mono.onAssembly(new MonoMinMaxLong<>(this, mapper, false));
+	}
+
 	/**
 	 * Emit only the first item emitted by this {@link Flux}, into a new {@link Mono}.
 	 * <p>
@@ -5305,6 +5683,30 @@ public abstract class Flux<T> implements Publisher<T> {
 				.get(prefetch)));
 	}
 
+	/**
+	 * Prepare a {@link ConnectableFlux} which shares this {@link Flux} sequence through a
+	 * bounded ring, where each {@link Subscriber} consumes at its own pace. This will
+	 * effectively turn any type of sequence into a hot sequence.
+	 * <p>
+	 * Unlike {@link #publish(int)}, a {@link Subscriber} missing demand doesn't pause the
+	 * others: the source is requested to stay at most {@code maxLag} elements ahead of
+	 * the fastest {@link Subscriber}. Subscribers lagging further behind either skip the
+	 * overwritten elements ({@link BufferOverflowStrategy#DROP_OLDEST}) or are terminated
+	 * with an overflow error ({@link BufferOverflowStrategy#ERROR}). A new {@link
+	 * Subscriber} starts at the position of the fastest current one.
+	 *
+	 * @param maxLag how many elements a subscriber can lag behind the source, which
+	 * is also how far the source can get ahead of the fastest subscriber
+	 * @param lagStrategy what to do with subscribers lagging more than {@code maxLag}
+	 * elements behind, either {@link BufferOverflowStrategy#DROP_OLDEST} or {@link
+	 * BufferOverflowStrategy#ERROR}
+	 *
+	 * @return a new {@link ConnectableFlux}
+	 */
+	public final ConnectableFlux<T> publish(int maxLag, BufferOverflowStrategy lagStrategy) {
+		return onAssembly(new FluxPublishRing<>(this, maxLag, lagStrategy));
+	}
+
 	/**
 	 * Shares a sequence for the duration of a function that may transform it and
 	 * consume it as many times as necessary without causing multiple subscriptions
@@ -5431,6 +5833,69 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxPublishOn<>(this, scheduler, delayError, prefetch, QueueSupplier.get(prefetch)));
 	}
 
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}
+	 * {@link Worker}, with an adaptive prefetch.
+	 * <p>
+	 * This operator influences the threading context where the rest of the operators in
+	 * the chain below it will execute, up to a new occurrence of {@code publishOn}.
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/publishon.png" alt="">
+	 * <p>
+	 * The demand requested from this {@link Flux} starts at {@code minPrefetch}. It grows
+	 * up to {@code maxPrefetch} while the {@link Worker} drains the boundary faster than
+	 * it is filled, and shrinks back while values pile up. The current value can be
+	 * observed through {@link reactor.core.Scannable.IntAttr#PREFETCH}.
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Worker} where to publish
+	 * @param minPrefetch the minimum asynchronous boundary capacity
+	 * @param maxPrefetch the maximum asynchronous boundary capacity
+	 *
+	 * @return a {@link Flux} producing asynchronously
+	 */
+	public final Flux<T> publishOn(Scheduler scheduler, int minPrefetch, int maxPrefetch) {
+		if (this instanceof Callable) {
+			return publishOn(scheduler, true, maxPrefetch);
+		}
+
+		return onAssembly(new FluxPublishOn<>(this, scheduler, true, minPrefetch,
+				maxPrefetch, 0L, QueueSupplier.get(maxPrefetch)));
+	}
+
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}
+	 * {@link Worker}, coalescing the values that arrive close together.
+	 * <p>
+	 * This operator influences the threading context where the rest of the operators in
+	 * the chain below it will execute, up to a new occurrence of {@code publishOn}.
+	 * <p>
+	 * <img class="marble" src="https://raw.githubusercontent.com/reactor/reactor-core/v3.1.0.M2/src/docs/marble/publishon.png" alt="">
+	 * <p>
+	 * Instead of scheduling a task as soon as a value arrives at an idle boundary, the
+	 * task is delayed by up to {@code maxDelay}, and all values arriving in the meantime
+	 * are published in that single run. This trades a bounded latency for far fewer
+	 * task submissions with sources that trickle values. Signals also wait for a
+	 * pending run. If the {@link Worker} cannot delay tasks, values are published as
+	 * with {@link #publishOn(Scheduler, int)}.
+	 * <p>
+	 * As this {@link Flux} is only requested more once published values are consumed,
+	 * the prefetch should cover the values it can produce within {@code maxDelay}.
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Worker} where to publish
+	 * @param prefetch the asynchronous boundary capacity
+	 * @param maxDelay the maximum time a value waits before being published
+	 *
+	 * @return a {@link Flux} producing asynchronously
+	 */
+	public final Flux<T> publishOn(Scheduler scheduler, int prefetch, Duration maxDelay) {
+		if (this instanceof Callable) {
+			return publishOn(scheduler, true, prefetch);
+		}
+
+		return onAssembly(new FluxPublishOn<>(this, scheduler, true, prefetch, prefetch,
+				maxDelay.toNanos(), QueueSupplier.get(prefetch)));
+	}
+
 	/**
 	 * Reduce the values from this {@link Flux} sequence into an single object of the same
 	 * type than the emitted items. Reduction is performed using a {@link BiFunction} that
@@ -6465,6 +6930,53 @@ public abstract class Flux<T> implements Publisher<T> {
 		return subscriber;
 	}
 
+	/**
+	 * Sum the double values extracted from each element of this {@link Flux}, emitted
+	 * when onComplete is observed. An empty sequence emits {@code 0.0}.
+	 * <p>
+	 * The sum is accumulated in primitive fields using Kahan summation, which keeps the
+	 * rounding error low on long sequences.
+	 *
+	 * @param mapper the function extracting a double from each element
+	 *
+	 * @return a new {@link Mono} of the sum
+	 */
+	public final Mono<Double> sumDouble(ToDoubleFunction<? super T> mapper) {
+		return Mono.onAssembly(new MonoSumDouble<>(this, mapper, false));
+	}
+
+	/**
+	 * Sum the int values extracted from each element of this {@link Flux}, emitted when
+	 * onComplete is observed. An empty sequence emits {@code 0}. The sum overflows like
+	 * {@code int} arithmetic.
+	 * <p>
+	 * The sum is accumulated in a primitive field, no intermediate value is boxed.
+	 *
+	 * @param mapper the function extracting an int from each element
+	 *
+	 * @return a new {@link Mono} of the sum
+	 */
+	public final Mono<Integer> sumInt(ToIntFunction<? super T> mapper) {
+		Objects.requireNonNull(mapper, "mapper");
+		return Mono.onAssembly(new MonoSumLong<>(this, mapper::applyAsInt, sum -> (int) sum));
+	}
+
+	/**
+	 * Sum the long values extracted from each element of this {@link Flux}, emitted when
+	 * onComplete is observed. An empty sequence emits {@code 0}.
+	 * <p>
+	 * The sum is accumulated in a primitive field, no intermediate value is boxed.
+	 * Synchronous fuseable sources such as {@link #rangeLong(long, long)} are drained
+	 * in a single loop.
+	 *
+	 * @param mapper the function extracting a long from each element
+	 *
+	 * @return a new {@link Mono} of the sum
+	 */
+	public final Mono<Long> sumLong(ToLongFunction<? super T> mapper) {
+		return Mono.onAssembly(new MonoSumLong<>(this, mapper, Long::valueOf));
+	}
+
 	/**
 	 * Switch to an alternative {@link Publisher} if this sequence is completed without any data.
 	 * <p>
@@ -7070,7 +7582,7 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxWindowBoundary<>(this,
 				boundary,
 				QueueSupplier.unbounded(QueueSupplier.XS_BUFFER_SIZE),
-				QueueSupplier.unbounded(QueueSupplier.XS_BUFFER_SIZE)));
+				QueueSupplier.mpscUnbounded(QueueSupplier.XS_BUFFER_SIZE)));
 	}
 
 	/**
@@ -7363,7 +7875,7 @@ public abstract class Flux<T> implements Publisher<T> {
 		return onAssembly(new FluxWindowWhen<>(this,
 				bucketOpening,
 				closeSelector,
-				QueueSupplier.unbounded(QueueSupplier.XS_BUFFER_SIZE),
+				QueueSupplier.mpscUnbounded(QueueSupplier.XS_BUFFER_SIZE),
 				QueueSupplier.unbounded(QueueSupplier.XS_BUFFER_SIZE)));
 	}
 
@@ -7749,7 +8261,7 @@ public abstract class Flux<T> implements Publisher<T> {
 	}
 
 	@SuppressWarnings("unchecked")
-	static <O> Supplier<Set<O>> hashSetSupplier() {
+	static <O> Supplier<Set<O>> keySetSupplier() {
 		return SET_SUPPLIER;
 	}
 
@@ -7804,7 +8316,7 @@ public abstract class Flux<T> implements Publisher<T> {
 	@SuppressWarnings("rawtypes")
 	static final Supplier        LIST_SUPPLIER           = ArrayList::new;
 	@SuppressWarnings("rawtypes")
-	static final Supplier        SET_SUPPLIER            = HashSet::new;
+	static final Supplier        SET_SUPPLIER            = OpenKeySet::new;
 	static final BooleanSupplier ALWAYS_BOOLEAN_SUPPLIER = () -> true;
 	@SuppressWarnings("rawtypes")
 	static final Function        HASHCODE_EXTRACTOR      = Object::hashCode;
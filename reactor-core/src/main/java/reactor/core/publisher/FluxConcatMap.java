@@ -48,6 +48,8 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 
 	final int prefetch;
 
+	final int minPrefetch;
+
 	final ErrorMode errorMode;
 
 	/**
@@ -70,11 +72,19 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 			Function<? super T, ? extends Publisher<? extends R>> mapper,
 			Supplier<? extends Queue<T>> queueSupplier,
 			int prefetch, ErrorMode errorMode, Context ctx) {
+		return subscriber(s, mapper, queueSupplier, prefetch, prefetch, errorMode, ctx);
+	}
+
+	static <T, R> Subscriber<T> subscriber(Subscriber<? super R> s,
+			Function<? super T, ? extends Publisher<? extends R>> mapper,
+			Supplier<? extends Queue<T>> queueSupplier,
+			int minPrefetch, int prefetch, ErrorMode errorMode, Context ctx) {
 		switch (errorMode) {
 			case BOUNDARY:
 				return new ConcatMapDelayed<>(s,
 						mapper,
 						queueSupplier,
+						minPrefetch,
 						prefetch,
 						false,
 						ctx);
@@ -82,11 +92,13 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 				return new ConcatMapDelayed<>(s,
 						mapper,
 						queueSupplier,
+						minPrefetch,
 						prefetch,
 						true,
 						ctx);
 			default:
-				return new ConcatMapImmediate<>(s, mapper, queueSupplier, prefetch, ctx);
+				return new ConcatMapImmediate<>(s, mapper, queueSupplier, minPrefetch,
+						prefetch, ctx);
 		}
 	}
 
@@ -95,13 +107,30 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 			Supplier<? extends Queue<T>> queueSupplier,
 			int prefetch,
 			ErrorMode errorMode) {
+		this(source, mapper, queueSupplier, prefetch, prefetch, errorMode);
+	}
+
+	/**
+	 * @param minPrefetch if lower than {@code prefetch}, the request batch adapts
+	 * between both bounds, see {@link AdaptivePrefetch}
+	 */
+	FluxConcatMap(Flux<? extends T> source,
+			Function<? super T, ? extends Publisher<? extends R>> mapper,
+			Supplier<? extends Queue<T>> queueSupplier,
+			int minPrefetch,
+			int prefetch,
+			ErrorMode errorMode) {
 		super(source);
-		if (prefetch <= 0) {
-			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+		if (minPrefetch <= 0) {
+			throw new IllegalArgumentException("prefetch > 0 required but it was " + minPrefetch);
+		}
+		if (prefetch < minPrefetch) {
+			throw new IllegalArgumentException("maxPrefetch >= minPrefetch required but it was " + prefetch);
 		}
 		this.mapper = Objects.requireNonNull(mapper, "mapper");
 		this.queueSupplier = Objects.requireNonNull(queueSupplier, "queueSupplier");
 		this.prefetch = prefetch;
+		this.minPrefetch = minPrefetch;
 		this.errorMode = Objects.requireNonNull(errorMode, "errorMode");
 	}
 
@@ -117,8 +146,8 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 			return;
 		}
 
-		source.subscribe(subscriber(s, mapper, queueSupplier, prefetch, errorMode, ctx),
-				ctx);
+		source.subscribe(subscriber(s, mapper, queueSupplier, minPrefetch, prefetch,
+				errorMode, ctx), ctx);
 	}
 
 	static final class ConcatMapImmediate<T, R>
@@ -134,7 +163,10 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 
 		final int prefetch;
 
-		final int limit;
+		@Nullable
+		final AdaptivePrefetch adaptive;
+
+		int limit;
 
 		Subscription s;
 
@@ -170,11 +202,25 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 		ConcatMapImmediate(Subscriber<? super R> actual,
 				Function<? super T, ? extends Publisher<? extends R>> mapper,
 				Supplier<? extends Queue<T>> queueSupplier, int prefetch, Context ctx) {
+			this(actual, mapper, queueSupplier, prefetch, prefetch, ctx);
+		}
+
+		ConcatMapImmediate(Subscriber<? super R> actual,
+				Function<? super T, ? extends Publisher<? extends R>> mapper,
+				Supplier<? extends Queue<T>> queueSupplier, int minPrefetch, int prefetch,
+				Context ctx) {
 			this.actual = actual;
 			this.mapper = mapper;
 			this.queueSupplier = queueSupplier;
 			this.prefetch = prefetch;
-			this.limit = prefetch - (prefetch >> 2);
+			if (minPrefetch < prefetch) {
+				this.adaptive = new AdaptivePrefetch(minPrefetch, prefetch);
+				this.limit = adaptive.limit;
+			}
+			else {
+				this.adaptive = null;
+				this.limit = prefetch - (prefetch >> 2);
+			}
 			this.inner = new ConcatMapInner<>(this);
 		}
 
@@ -184,7 +230,7 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 			if (key == ScannableAttr.PARENT) return s;
 			if (key == BooleanAttr.TERMINATED) return done;
 			if (key == BooleanAttr.CANCELLED) return cancelled;
-			if (key == IntAttr.PREFETCH) return prefetch;
+			if (key == IntAttr.PREFETCH) return adaptive != null ? adaptive.prefetch : prefetch;
 			if (key == IntAttr.BUFFERED) return queue != null ? queue.size() : 0;
 			if (key == ThrowableAttr.ERROR) return error;
 
@@ -224,8 +270,28 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 
 				actual.onSubscribe(this);
 
-				s.request(prefetch == Integer.MAX_VALUE ? Long.MAX_VALUE : prefetch);
+				if (adaptive != null) {
+					s.request(adaptive.prefetch);
+				}
+				else {
+					s.request(prefetch == Integer.MAX_VALUE ? Long.MAX_VALUE : prefetch);
+				}
+			}
+		}
+
+		/**
+		 * @param consumed the number of values consumed since the last replenishment
+		 *
+		 * @return the number of values to request from the source
+		 */
+		long replenish(int consumed) {
+			AdaptivePrefetch a = adaptive;
+			if (a == null || sourceMode != Fuseable.NONE) {
+				return consumed;
 			}
+			long n = a.replenish(consumed, queue.size());
+			limit = a.limit;
+			return n;
 		}
 
 		@Override
@@ -364,7 +430,7 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 								int c = consumed + 1;
 								if (c == limit) {
 									consumed = 0;
-									s.request(c);
+									s.request(replenish(c));
 								}
 								else {
 									consumed = c;
@@ -463,7 +529,10 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 
 		final int prefetch;
 
-		final int limit;
+		@Nullable
+		final AdaptivePrefetch adaptive;
+
+		int limit;
 
 		final boolean veryEnd;
 
@@ -497,11 +566,25 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 				Function<? super T, ? extends Publisher<? extends R>> mapper,
 				Supplier<? extends Queue<T>> queueSupplier,
 				int prefetch, boolean veryEnd, Context ctx) {
+			this(actual, mapper, queueSupplier, prefetch, prefetch, veryEnd, ctx);
+		}
+
+		ConcatMapDelayed(Subscriber<? super R> actual,
+				Function<? super T, ? extends Publisher<? extends R>> mapper,
+				Supplier<? extends Queue<T>> queueSupplier,
+				int minPrefetch, int prefetch, boolean veryEnd, Context ctx) {
 			this.actual = actual;
 			this.mapper = mapper;
 			this.queueSupplier = queueSupplier;
 			this.prefetch = prefetch;
-			this.limit = prefetch - (prefetch >> 2);
+			if (minPrefetch < prefetch) {
+				this.adaptive = new AdaptivePrefetch(minPrefetch, prefetch);
+				this.limit = adaptive.limit;
+			}
+			else {
+				this.adaptive = null;
+				this.limit = prefetch - (prefetch >> 2);
+			}
 			this.veryEnd = veryEnd;
 			this.inner = new ConcatMapInner<>(this);
 		}
@@ -517,7 +600,7 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 			if (key == ScannableAttr.PARENT) return s;
 			if (key == BooleanAttr.TERMINATED) return done;
 			if (key == BooleanAttr.CANCELLED) return cancelled;
-			if (key == IntAttr.PREFETCH) return prefetch;
+			if (key == IntAttr.PREFETCH) return adaptive != null ? adaptive.prefetch : prefetch;
 			if (key == IntAttr.BUFFERED) return queue != null ? queue.size() : 0;
 			if (key == ThrowableAttr.ERROR) return error;
 			if (key == BooleanAttr.DELAY_ERROR) return true;
@@ -560,8 +643,28 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 
 				actual.onSubscribe(this);
 
-				s.request(prefetch == Integer.MAX_VALUE ? Long.MAX_VALUE : prefetch);
+				if (adaptive != null) {
+					s.request(adaptive.prefetch);
+				}
+				else {
+					s.request(prefetch == Integer.MAX_VALUE ? Long.MAX_VALUE : prefetch);
+				}
+			}
+		}
+
+		/**
+		 * @param consumed the number of values consumed since the last replenishment
+		 *
+		 * @return the number of values to request from the source
+		 */
+		long replenish(int consumed) {
+			AdaptivePrefetch a = adaptive;
+			if (a == null || sourceMode != Fuseable.NONE) {
+				return consumed;
 			}
+			long n = a.replenish(consumed, queue.size());
+			limit = a.limit;
+			return n;
 		}
 
 		@Override
@@ -697,7 +800,7 @@ final class FluxConcatMap<T, R> extends FluxOperator<T, R> {
 								int c = consumed + 1;
 								if (c == limit) {
 									consumed = 0;
-									s.request(c);
+									s.request(replenish(c));
 								}
 								else {
 									consumed = c;
@@ -55,6 +55,8 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 
 	final int prefetch;
 
+	final int minPrefetch;
+
 	final Supplier<? extends Queue<R>> innerQueueSupplier;
 
 	FluxFlatMap(Flux<? extends T> source,
@@ -64,9 +66,28 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 			Supplier<? extends Queue<R>> mainQueueSupplier,
 			int prefetch,
 			Supplier<? extends Queue<R>> innerQueueSupplier) {
+		this(source, mapper, delayError, maxConcurrency, mainQueueSupplier, prefetch,
+				prefetch, innerQueueSupplier);
+	}
+
+	/**
+	 * @param minPrefetch if lower than {@code prefetch}, the request batch of each inner
+	 * adapts between both bounds, see {@link AdaptivePrefetch}
+	 */
+	FluxFlatMap(Flux<? extends T> source,
+			Function<? super T, ? extends Publisher<? extends R>> mapper,
+			boolean delayError,
+			int maxConcurrency,
+			Supplier<? extends Queue<R>> mainQueueSupplier,
+			int minPrefetch,
+			int prefetch,
+			Supplier<? extends Queue<R>> innerQueueSupplier) {
 		super(source);
-		if (prefetch <= 0) {
-			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+		if (minPrefetch <= 0) {
+			throw new IllegalArgumentException("prefetch > 0 required but it was " + minPrefetch);
+		}
+		if (prefetch < minPrefetch) {
+			throw new IllegalArgumentException("maxPrefetch >= minPrefetch required but it was " + prefetch);
 		}
 		if (maxConcurrency <= 0) {
 			throw new IllegalArgumentException("maxConcurrency > 0 required but it was " + maxConcurrency);
@@ -74,6 +95,7 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 		this.mapper = Objects.requireNonNull(mapper, "mapper");
 		this.delayError = delayError;
 		this.prefetch = prefetch;
+		this.minPrefetch = minPrefetch;
 		this.maxConcurrency = maxConcurrency;
 		this.mainQueueSupplier =
 				Objects.requireNonNull(mainQueueSupplier, "mainQueueSupplier");
@@ -98,6 +120,7 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 				delayError,
 				maxConcurrency,
 				mainQueueSupplier,
+				minPrefetch,
 				prefetch,
 				innerQueueSupplier), ctx);
 	}
@@ -185,6 +208,7 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 		final boolean                                               delayError;
 		final int                                                   maxConcurrency;
 		final int                                                   prefetch;
+		final int                                                   minPrefetch;
 		final int                                                   limit;
 		final Function<? super T, ? extends Publisher<? extends R>> mapper;
 		final Supplier<? extends Queue<R>>                          mainQueueSupplier;
@@ -234,12 +258,25 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 				Supplier<? extends Queue<R>> mainQueueSupplier,
 				int prefetch,
 				Supplier<? extends Queue<R>> innerQueueSupplier) {
+			this(actual, mapper, delayError, maxConcurrency, mainQueueSupplier, prefetch,
+					prefetch, innerQueueSupplier);
+		}
+
+		FlatMapMain(Subscriber<? super R> actual,
+				Function<? super T, ? extends Publisher<? extends R>> mapper,
+				boolean delayError,
+				int maxConcurrency,
+				Supplier<? extends Queue<R>> mainQueueSupplier,
+				int minPrefetch,
+				int prefetch,
+				Supplier<? extends Queue<R>> innerQueueSupplier) {
 			this.actual = actual;
 			this.mapper = mapper;
 			this.delayError = delayError;
 			this.maxConcurrency = maxConcurrency;
 			this.mainQueueSupplier = mainQueueSupplier;
 			this.prefetch = prefetch;
+			this.minPrefetch = minPrefetch;
 			this.innerQueueSupplier = innerQueueSupplier;
 			this.limit = maxConcurrency - (maxConcurrency >> 2);
 		}
@@ -370,7 +407,7 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 				emitScalar(v);
 			}
 			else {
-				FlatMapInner<R> inner = new FlatMapInner<>(this, prefetch);
+				FlatMapInner<R> inner = new FlatMapInner<>(this, minPrefetch, prefetch);
 				if (add(inner)) {
 
 					p.subscribe(inner);
@@ -850,7 +887,10 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 
 		final int prefetch;
 
-		final int limit;
+		@Nullable
+		final AdaptivePrefetch adaptive;
+
+		int limit;
 
 		volatile Subscription s;
 		@SuppressWarnings("rawtypes")
@@ -873,9 +913,20 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 		int index;
 
 		FlatMapInner(FlatMapMain<?, R> parent, int prefetch) {
+			this(parent, prefetch, prefetch);
+		}
+
+		FlatMapInner(FlatMapMain<?, R> parent, int minPrefetch, int prefetch) {
 			this.parent = parent;
 			this.prefetch = prefetch;
-			this.limit = prefetch - (prefetch >> 2);
+			if (minPrefetch < prefetch) {
+				this.adaptive = new AdaptivePrefetch(minPrefetch, prefetch);
+				this.limit = adaptive.limit;
+			}
+			else {
+				this.adaptive = null;
+				this.limit = prefetch - (prefetch >> 2);
+			}
 		}
 
 		@Override
@@ -898,7 +949,7 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 					}
 					// NONE is just fall-through as the queue will be created on demand
 				}
-				s.request(prefetch);
+				s.request(adaptive != null ? adaptive.prefetch : prefetch);
 			}
 		}
 
@@ -930,13 +981,29 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 			long p = produced + n;
 			if (p >= limit) {
 				produced = 0L;
-				s.request(p);
+				s.request(replenish(p));
 			}
 			else {
 				produced = p;
 			}
 		}
 
+		/**
+		 * @param consumed the number of values consumed since the last replenishment
+		 *
+		 * @return the number of values to request from the source
+		 */
+		long replenish(long consumed) {
+			AdaptivePrefetch a = adaptive;
+			if (a == null || sourceMode != Fuseable.NONE) {
+				return consumed;
+			}
+			Queue<R> q = queue;
+			long n = a.replenish(consumed, q == null ? 0 : q.size());
+			limit = a.limit;
+			return n;
+		}
+
 		@Override
 		public Context currentContext() {
 			return parent.currentContext();
@@ -955,7 +1022,7 @@ final class FluxFlatMap<T, R> extends FluxOperator<T, R> {
 			if (key == BooleanAttr.TERMINATED) return done && (queue == null || queue.isEmpty());
 			if (key == BooleanAttr.CANCELLED) return s == Operators.cancelledSubscription();
 			if (key == IntAttr.BUFFERED) return queue == null ? 0 : queue.size();
-			if (key == IntAttr.PREFETCH) return prefetch;
+			if (key == IntAttr.PREFETCH) return adaptive != null ? adaptive.prefetch : prefetch;
 
 			return null;
 		}
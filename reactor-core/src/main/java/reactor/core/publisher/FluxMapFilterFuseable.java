@@ -0,0 +1,541 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.util.context.Context;
+
+/**
+ * Applies a chain of consecutive {@link Flux#map map} and {@link Flux#filter filter}
+ * stages with a single subscriber, instead of one {@link FluxMapFuseable} or
+ * {@link FluxFilterFuseable} subscriber per stage.
+ * <p>
+ * The chain is built at assembly time by {@link #fuseMap} and {@link #fuseFilter},
+ * when a map or filter is applied on top of another fuseable map, filter or chain.
+ * Each value then goes through the stages in a plain loop, only paying one
+ * {@code onNext} or {@code poll} per element for the whole chain.
+ *
+ * @param <T> the source value type
+ * @param <R> the result value type
+ */
+final class FluxMapFilterFuseable<T, R> extends FluxOperator<T, R> implements Fuseable {
+
+	/**
+	 * Return a chain applying the given mapper after the given upstream stages, if
+	 * these can be fused.
+	 *
+	 * @param upstream the {@link Flux} the mapper is applied on
+	 * @param mapper the mapper function
+	 *
+	 * @return a chain replacing the upstream stages, or null if these are not fuseable
+	 * map or filter stages
+	 */
+	@Nullable
+	static <T, V> Flux<V> fuseMap(Flux<T> upstream, Function<? super T, ? extends V> mapper) {
+		return fuse(upstream, new MapStage(Objects.requireNonNull(mapper, "mapper")));
+	}
+
+	/**
+	 * Return a chain applying the given predicate after the given upstream stages, if
+	 * these can be fused.
+	 *
+	 * @param upstream the {@link Flux} the predicate is applied on
+	 * @param predicate the filter predicate
+	 *
+	 * @return a chain replacing the upstream stages, or null if these are not fuseable
+	 * map or filter stages
+	 */
+	@Nullable
+	static <T> Flux<T> fuseFilter(Flux<T> upstream, Predicate<? super T> predicate) {
+		return fuse(upstream,
+				new FilterStage(Objects.requireNonNull(predicate, "predicate")));
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	static <V> Flux<V> fuse(Flux<?> upstream, Stage stage) {
+		if (upstream instanceof FluxMapFilterFuseable) {
+			FluxMapFilterFuseable<?, ?> chain = (FluxMapFilterFuseable<?, ?>) upstream;
+			Stage[] stages = new Stage[chain.stages.length + 1];
+			System.arraycopy(chain.stages, 0, stages, 0, chain.stages.length);
+			stages[chain.stages.length] = stage;
+			return new FluxMapFilterFuseable<>(chain.source, stages);
+		}
+		if (upstream instanceof FluxMapFuseable) {
+			FluxMapFuseable<?, ?> map = (FluxMapFuseable<?, ?>) upstream;
+			return new FluxMapFilterFuseable<>(map.source,
+					new Stage[]{new MapStage(map.mapper), stage});
+		}
+		if (upstream instanceof FluxFilterFuseable) {
+			FluxFilterFuseable<?> filter = (FluxFilterFuseable<?>) upstream;
+			return new FluxMapFilterFuseable<>(filter.source,
+					new Stage[]{new FilterStage(filter.predicate), stage});
+		}
+		return null;
+	}
+
+	final Stage[] stages;
+
+	@SuppressWarnings("unchecked")
+	FluxMapFilterFuseable(Flux<?> source, Stage[] stages) {
+		super((Flux<? extends T>) source);
+		this.stages = stages;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void subscribe(Subscriber<? super R> s, Context ctx) {
+		if (s instanceof ConditionalSubscriber) {
+			source.subscribe(new MapFilterFuseableConditionalSubscriber<>((ConditionalSubscriber<? super R>) s,
+					stages), ctx);
+			return;
+		}
+		source.subscribe(new MapFilterFuseableSubscriber<>(s, stages), ctx);
+	}
+
+	/**
+	 * A single map or filter step of the chain.
+	 */
+	abstract static class Stage {
+
+		/**
+		 * @param v the value to process
+		 *
+		 * @return the processed value, or null if it was filtered out
+		 */
+		@Nullable
+		abstract Object apply(Object v);
+	}
+
+	static final class MapStage extends Stage {
+
+		final Function<Object, Object> mapper;
+
+		@SuppressWarnings("unchecked")
+		MapStage(Function<?, ?> mapper) {
+			this.mapper = (Function<Object, Object>) mapper;
+		}
+
+		@Override
+		Object apply(Object v) {
+			return Objects.requireNonNull(mapper.apply(v),
+					"The mapper returned a null value.");
+		}
+	}
+
+	static final class FilterStage extends Stage {
+
+		final Predicate<Object> predicate;
+
+		@SuppressWarnings("unchecked")
+		FilterStage(Predicate<?> predicate) {
+			this.predicate = (Predicate<Object>) predicate;
+		}
+
+		@Override
+		@Nullable
+		Object apply(Object v) {
+			return predicate.test(v) ? v : null;
+		}
+	}
+
+	/**
+	 * Run a value through all the stages, rethrowing any stage failure.
+	 */
+	@Nullable
+	static Object applyAll(Stage[] stages, Object v) {
+		for (Stage stage : stages) {
+			v = stage.apply(v);
+			if (v == null) {
+				return null;
+			}
+		}
+		return v;
+	}
+
+	static final class MapFilterFuseableSubscriber<T, R>
+			implements InnerOperator<T, R>, QueueSubscription<R>,
+			           ConditionalSubscriber<T> {
+
+		final Subscriber<? super R> actual;
+		final Stage[]               stages;
+
+		QueueSubscription<T> s;
+
+		boolean done;
+
+		int sourceMode;
+
+		MapFilterFuseableSubscriber(Subscriber<? super R> actual, Stage[] stages) {
+			this.actual = actual;
+			this.stages = stages;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = (QueueSubscription<T>) s;
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (sourceMode == ASYNC) {
+				actual.onNext(null);
+			}
+			else if (!tryOnNext(t) && !done) {
+				s.request(1);
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean tryOnNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return true;
+			}
+
+			Object v = t;
+			try {
+				for (Stage stage : stages) {
+					v = stage.apply(v);
+					if (v == null) {
+						return false;
+					}
+				}
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, v));
+				return true;
+			}
+
+			actual.onNext((R) v);
+			return true;
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			actual.onComplete();
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == BooleanAttr.TERMINATED) return done;
+
+			return InnerOperator.super.scanUnsafe(key);
+		}
+
+		@Override
+		public Subscriber<? super R> actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		@Nullable
+		@SuppressWarnings("unchecked")
+		public R poll() {
+			if (sourceMode == ASYNC) {
+				long dropped = 0;
+				for (; ; ) {
+					T v = s.poll();
+					if (v == null) {
+						if (dropped != 0) {
+							request(dropped);
+						}
+						return null;
+					}
+					Object u = applyAll(stages, v);
+					if (u != null) {
+						if (dropped != 0) {
+							request(dropped);
+						}
+						return (R) u;
+					}
+					dropped++;
+				}
+			}
+			else {
+				for (; ; ) {
+					T v = s.poll();
+					if (v == null) {
+						return null;
+					}
+					Object u = applyAll(stages, v);
+					if (u != null) {
+						return (R) u;
+					}
+				}
+			}
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return s.isEmpty();
+		}
+
+		@Override
+		public void clear() {
+			s.clear();
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			int m;
+			if ((requestedMode & Fuseable.THREAD_BARRIER) != 0) {
+				return Fuseable.NONE;
+			}
+			else {
+				m = s.requestFusion(requestedMode);
+			}
+			sourceMode = m;
+			return m;
+		}
+
+		@Override
+		public int size() {
+			return s.size();
+		}
+	}
+
+	static final class MapFilterFuseableConditionalSubscriber<T, R>
+			implements InnerOperator<T, R>, QueueSubscription<R>,
+			           ConditionalSubscriber<T> {
+
+		final ConditionalSubscriber<? super R> actual;
+		final Stage[]                          stages;
+
+		QueueSubscription<T> s;
+
+		boolean done;
+
+		int sourceMode;
+
+		MapFilterFuseableConditionalSubscriber(ConditionalSubscriber<? super R> actual,
+				Stage[] stages) {
+			this.actual = actual;
+			this.stages = stages;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = (QueueSubscription<T>) s;
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public void onNext(T t) {
+			if (sourceMode == ASYNC) {
+				actual.onNext(null);
+				return;
+			}
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+
+			Object v = t;
+			try {
+				for (Stage stage : stages) {
+					v = stage.apply(v);
+					if (v == null) {
+						s.request(1);
+						return;
+					}
+				}
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, v));
+				return;
+			}
+
+			actual.onNext((R) v);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean tryOnNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return true;
+			}
+
+			Object v = t;
+			try {
+				for (Stage stage : stages) {
+					v = stage.apply(v);
+					if (v == null) {
+						return false;
+					}
+				}
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, v));
+				return true;
+			}
+
+			return actual.tryOnNext((R) v);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			actual.onComplete();
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == BooleanAttr.TERMINATED) return done;
+
+			return InnerOperator.super.scanUnsafe(key);
+		}
+
+		@Override
+		public Subscriber<? super R> actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		@Nullable
+		@SuppressWarnings("unchecked")
+		public R poll() {
+			if (sourceMode == ASYNC) {
+				long dropped = 0;
+				for (; ; ) {
+					T v = s.poll();
+					if (v == null) {
+						if (dropped != 0) {
+							request(dropped);
+						}
+						return null;
+					}
+					Object u = applyAll(stages, v);
+					if (u != null) {
+						if (dropped != 0) {
+							request(dropped);
+						}
+						return (R) u;
+					}
+					dropped++;
+				}
+			}
+			else {
+				for (; ; ) {
+					T v = s.poll();
+					if (v == null) {
+						return null;
+					}
+					Object u = applyAll(stages, v);
+					if (u != null) {
+						return (R) u;
+					}
+				}
+			}
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return s.isEmpty();
+		}
+
+		@Override
+		public void clear() {
+			s.clear();
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			int m;
+			if ((requestedMode & Fuseable.THREAD_BARRIER) != 0) {
+				return Fuseable.NONE;
+			}
+			else {
+				m = s.requestFusion(requestedMode);
+			}
+			sourceMode = m;
+			return m;
+		}
+
+		@Override
+		public int size() {
+			return s.size();
+		}
+	}
+}
@@ -18,6 +18,7 @@ package reactor.core.publisher;
 
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.function.Supplier;
@@ -49,18 +50,46 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 
 	final int prefetch;
 
+	final int minPrefetch;
+
+	final long maxDelay;
+
+	FluxPublishOn(Flux<? extends T> source,
+			Scheduler scheduler,
+			boolean delayError,
+			int prefetch,
+			Supplier<? extends Queue<T>> queueSupplier) {
+		this(source, scheduler, delayError, prefetch, prefetch, 0L, queueSupplier);
+	}
+
+	/**
+	 * @param minPrefetch if lower than {@code prefetch}, the request batch adapts
+	 * between both bounds, see {@link AdaptivePrefetch}
+	 * @param maxDelay if positive, the nanoseconds a value can wait for the next drain,
+	 * so that values arriving in the meantime are drained in the same scheduled run
+	 */
 	FluxPublishOn(Flux<? extends T> source,
 			Scheduler scheduler,
 			boolean delayError,
+			int minPrefetch,
 			int prefetch,
+			long maxDelay,
 			Supplier<? extends Queue<T>> queueSupplier) {
 		super(source);
-		if (prefetch <= 0) {
-			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+		if (maxDelay < 0L) {
+			throw new IllegalArgumentException("maxDelay >= 0 required but it was " + maxDelay);
+		}
+		if (minPrefetch <= 0) {
+			throw new IllegalArgumentException("prefetch > 0 required but it was " + minPrefetch);
+		}
+		if (prefetch < minPrefetch) {
+			throw new IllegalArgumentException("maxPrefetch >= minPrefetch required but it was " + prefetch);
 		}
 		this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
 		this.delayError = delayError;
 		this.prefetch = prefetch;
+		this.minPrefetch = minPrefetch;
+		this.maxDelay = maxDelay;
 		this.queueSupplier = Objects.requireNonNull(queueSupplier, "queueSupplier");
 	}
 
@@ -89,7 +118,9 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 					scheduler,
 					worker,
 					delayError,
+					minPrefetch,
 					prefetch,
+					maxDelay,
 					queueSupplier), ctx);
 			return;
 		}
@@ -97,7 +128,9 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 				scheduler,
 				worker,
 				delayError,
+				minPrefetch,
 				prefetch,
+				maxDelay,
 				queueSupplier), ctx);
 	}
 
@@ -114,7 +147,12 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 
 		final int prefetch;
 
-		final int limit;
+		@Nullable
+		final AdaptivePrefetch adaptive;
+
+		int limit;
+
+		final long maxDelay;
 
 		final Supplier<? extends Queue<T>> queueSupplier;
 
@@ -150,17 +188,36 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 				boolean delayError,
 				int prefetch,
 				Supplier<? extends Queue<T>> queueSupplier) {
+			this(actual, scheduler, worker, delayError, prefetch, prefetch, 0L, queueSupplier);
+		}
+
+		PublishOnSubscriber(Subscriber<? super T> actual,
+				Scheduler scheduler,
+				Worker worker,
+				boolean delayError,
+				int minPrefetch,
+				int prefetch,
+				long maxDelay,
+				Supplier<? extends Queue<T>> queueSupplier) {
 			this.actual = actual;
 			this.worker = worker;
 			this.scheduler = scheduler;
 			this.delayError = delayError;
 			this.prefetch = prefetch;
+			this.maxDelay = maxDelay;
 			this.queueSupplier = queueSupplier;
-			if (prefetch != Integer.MAX_VALUE) {
-				this.limit = prefetch - (prefetch >> 2);
+			if (minPrefetch < prefetch) {
+				this.adaptive = new AdaptivePrefetch(minPrefetch, prefetch);
+				this.limit = adaptive.limit;
 			}
 			else {
-				this.limit = Integer.MAX_VALUE;
+				this.adaptive = null;
+				if (prefetch != Integer.MAX_VALUE) {
+					this.limit = prefetch - (prefetch >> 2);
+				}
+				else {
+					this.limit = Integer.MAX_VALUE;
+				}
 			}
 		}
 
@@ -204,7 +261,10 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 		}
 
 		void initialRequest() {
-			if (prefetch == Integer.MAX_VALUE) {
+			if (adaptive != null) {
+				s.request(adaptive.prefetch);
+			}
+			else if (prefetch == Integer.MAX_VALUE) {
 				s.request(Long.MAX_VALUE);
 			}
 			else {
@@ -212,10 +272,25 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 			}
 		}
 
+		/**
+		 * @param consumed the number of values consumed since the last replenishment
+		 *
+		 * @return the number of values to request from the source
+		 */
+		long replenish(long consumed) {
+			AdaptivePrefetch a = adaptive;
+			if (a == null || sourceMode != NONE) {
+				return consumed;
+			}
+			long n = a.replenish(consumed, queue.size());
+			limit = a.limit;
+			return n;
+		}
+
 		@Override
 		public void onNext(T t) {
 			if (t == null) {//async fusion
-				if (trySchedule() == Scheduler.REJECTED) {
+				if (tryScheduleNext() == Scheduler.REJECTED) {
 					throw Operators.onRejectedExecution(this, null, t);
 				}
 				return;
@@ -231,7 +306,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 						t);
 				done = true;
 			}
-			if (trySchedule() == Scheduler.REJECTED) {
+			if (tryScheduleNext() == Scheduler.REJECTED) {
 				throw Operators.onRejectedExecution(this, null, t);
 			}
 		}
@@ -294,6 +369,27 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 			return worker.schedule(this);
 		}
 
+		/**
+		 * Schedule a drain for a new value, delayed by {@link #maxDelay} if positive so
+		 * that the values arriving in the meantime are drained in the same run.
+		 */
+		@Nullable
+		Disposable tryScheduleNext() {
+			if (maxDelay == 0L) {
+				return trySchedule();
+			}
+			if (WIP.getAndIncrement(this) != 0) {
+				return null;
+			}
+
+			Disposable d = worker.schedule(this, maxDelay, TimeUnit.NANOSECONDS);
+			if (d == Scheduler.REJECTED) {
+				//the worker cannot delay tasks, or has been disposed
+				return worker.schedule(this);
+			}
+			return d;
+		}
+
 		void runSync() {
 			int missed = 1;
 
@@ -398,7 +494,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 						if (r != Long.MAX_VALUE) {
 							r = REQUESTED.addAndGet(this, -e);
 						}
-						s.request(e);
+						s.request(replenish(e));
 						e = 0L;
 					}
 				}
@@ -528,7 +624,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 			if (key == IntAttr.BUFFERED) return queue != null ? queue.size() : 0;
 			if (key == ThrowableAttr.ERROR) return error;
 			if (key == BooleanAttr.DELAY_ERROR) return delayError;
-			if (key == IntAttr.PREFETCH) return prefetch;
+			if (key == IntAttr.PREFETCH) return adaptive != null ? adaptive.prefetch : prefetch;
 
 			return InnerOperator.super.scanUnsafe(key);
 		}
@@ -556,7 +652,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 				long p = produced + 1;
 				if (p == limit) {
 					produced = 0;
-					s.request(p);
+					s.request(replenish(p));
 				}
 				else {
 					produced = p;
@@ -593,7 +689,12 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 
 		final int prefetch;
 
-		final int limit;
+		@Nullable
+		final AdaptivePrefetch adaptive;
+
+		int limit;
+
+		final long maxDelay;
 
 		final Supplier<? extends Queue<T>> queueSupplier;
 
@@ -633,17 +734,36 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 				boolean delayError,
 				int prefetch,
 				Supplier<? extends Queue<T>> queueSupplier) {
+			this(actual, scheduler, worker, delayError, prefetch, prefetch, 0L, queueSupplier);
+		}
+
+		PublishOnConditionalSubscriber(ConditionalSubscriber<? super T> actual,
+				Scheduler scheduler,
+				Worker worker,
+				boolean delayError,
+				int minPrefetch,
+				int prefetch,
+				long maxDelay,
+				Supplier<? extends Queue<T>> queueSupplier) {
 			this.actual = actual;
 			this.worker = worker;
 			this.scheduler = scheduler;
 			this.delayError = delayError;
 			this.prefetch = prefetch;
+			this.maxDelay = maxDelay;
 			this.queueSupplier = queueSupplier;
-			if (prefetch != Integer.MAX_VALUE) {
-				this.limit = prefetch - (prefetch >> 2);
+			if (minPrefetch < prefetch) {
+				this.adaptive = new AdaptivePrefetch(minPrefetch, prefetch);
+				this.limit = adaptive.limit;
 			}
 			else {
-				this.limit = Integer.MAX_VALUE;
+				this.adaptive = null;
+				if (prefetch != Integer.MAX_VALUE) {
+					this.limit = prefetch - (prefetch >> 2);
+				}
+				else {
+					this.limit = Integer.MAX_VALUE;
+				}
 			}
 		}
 
@@ -687,7 +807,10 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 		}
 
 		void initialRequest() {
-			if (prefetch == Integer.MAX_VALUE) {
+			if (adaptive != null) {
+				s.request(adaptive.prefetch);
+			}
+			else if (prefetch == Integer.MAX_VALUE) {
 				s.request(Long.MAX_VALUE);
 			}
 			else {
@@ -695,10 +818,25 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 			}
 		}
 
+		/**
+		 * @param consumed the number of values consumed since the last replenishment
+		 *
+		 * @return the number of values to request from the source
+		 */
+		long replenish(long consumed) {
+			AdaptivePrefetch a = adaptive;
+			if (a == null || sourceMode != NONE) {
+				return consumed;
+			}
+			long n = a.replenish(consumed, queue.size());
+			limit = a.limit;
+			return n;
+		}
+
 		@Override
 		public void onNext(T t) {
 			if (t == null) {//async fusion
-				if (trySchedule() == Scheduler.REJECTED) {
+				if (tryScheduleNext() == Scheduler.REJECTED) {
 					throw Operators.onRejectedExecution(this, null, null);
 				}
 				return;
@@ -712,7 +850,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 				error = Operators.onOperatorError(s, Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL), t);
 				done = true;
 			}
-			if (trySchedule() == Scheduler.REJECTED) {
+			if (tryScheduleNext() == Scheduler.REJECTED) {
 				throw Operators.onRejectedExecution(this, null, t);
 			}
 		}
@@ -775,6 +913,27 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 			return worker.schedule(this);
 		}
 
+		/**
+		 * Schedule a drain for a new value, delayed by {@link #maxDelay} if positive so
+		 * that the values arriving in the meantime are drained in the same run.
+		 */
+		@Nullable
+		Disposable tryScheduleNext() {
+			if (maxDelay == 0L) {
+				return trySchedule();
+			}
+			if (WIP.getAndIncrement(this) != 0) {
+				return null;
+			}
+
+			Disposable d = worker.schedule(this, maxDelay, TimeUnit.NANOSECONDS);
+			if (d == Scheduler.REJECTED) {
+				//the worker cannot delay tasks, or has been disposed
+				return worker.schedule(this);
+			}
+			return d;
+		}
+
 		void runSync() {
 			int missed = 1;
 
@@ -877,7 +1036,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 					polled++;
 
 					if (polled == limit) {
-						s.request(polled);
+						s.request(replenish(polled));
 						polled = 0L;
 					}
 				}
@@ -961,7 +1120,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 			if (key == IntAttr.BUFFERED) return queue != null ? queue.size() : 0;
 			if (key == ThrowableAttr.ERROR) return error;
 			if (key == BooleanAttr.DELAY_ERROR) return delayError;
-			if (key == IntAttr.PREFETCH) return prefetch;
+			if (key == IntAttr.PREFETCH) return adaptive != null ? adaptive.prefetch : prefetch;
 
 			return InnerOperator.super.scanUnsafe(key);
 		}
@@ -1037,7 +1196,7 @@ final class FluxPublishOn<T> extends FluxOperator<T, T> implements Fuseable {
 				long p = consumed + 1;
 				if (p == limit) {
 					consumed = 0;
-					s.request(p);
+					s.request(replenish(p));
 				}
 				else {
 					consumed = p;
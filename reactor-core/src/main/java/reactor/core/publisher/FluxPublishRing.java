@@ -0,0 +1,643 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.util.concurrent.QueueSupplier;
+import reactor.util.context.Context;
+
+/**
+ * A connectable publisher which shares an underlying source through a bounded ring
+ * where each subscriber keeps its own cursor. Unlike {@link FluxPublish}, a subscriber
+ * without demand does not pause the others: the source is requested to stay at most
+ * {@code maxLag} elements ahead of the fastest subscriber, and subscribers falling
+ * further behind are handled according to a {@link BufferOverflowStrategy}.
+ *
+ * @param <T> the value type
+ */
+final class FluxPublishRing<T> extends ConnectableFlux<T> implements Scannable {
+
+	final Flux<? extends T> source;
+
+	final int maxLag;
+
+	final BufferOverflowStrategy lagStrategy;
+
+	volatile RingSubscriber<T> connection;
+	@SuppressWarnings("rawtypes")
+	static final AtomicReferenceFieldUpdater<FluxPublishRing, RingSubscriber> CONNECTION =
+			AtomicReferenceFieldUpdater.newUpdater(FluxPublishRing.class,
+					RingSubscriber.class,
+					"connection");
+
+	FluxPublishRing(Flux<? extends T> source,
+			int maxLag,
+			BufferOverflowStrategy lagStrategy) {
+		this.source = Objects.requireNonNull(source, "source");
+		this.maxLag = checkMaxLag(maxLag);
+		this.lagStrategy = checkLagStrategy(lagStrategy);
+	}
+
+	static int checkMaxLag(int maxLag) {
+		if (maxLag <= 0) {
+			throw new IllegalArgumentException("maxLag > 0 required but it was " + maxLag);
+		}
+		return maxLag;
+	}
+
+	static BufferOverflowStrategy checkLagStrategy(BufferOverflowStrategy lagStrategy) {
+		Objects.requireNonNull(lagStrategy, "lagStrategy");
+		if (lagStrategy == BufferOverflowStrategy.DROP_LATEST) {
+			throw new IllegalArgumentException("DROP_LATEST is not supported for lagging " +
+					"subscribers, use DROP_OLDEST or ERROR");
+		}
+		return lagStrategy;
+	}
+
+	@Override
+	public void connect(Consumer<? super Disposable> cancelSupport) {
+		boolean doConnect;
+		RingSubscriber<T> s;
+		for (; ; ) {
+			s = connection;
+			if (s == null || s.isTerminated()) {
+				RingSubscriber<T> u = new RingSubscriber<>(maxLag, lagStrategy, false, this);
+
+				if (!CONNECTION.compareAndSet(this, s, u)) {
+					continue;
+				}
+
+				s = u;
+			}
+
+			doConnect = s.tryConnect();
+			break;
+		}
+
+		cancelSupport.accept(s);
+		if (doConnect) {
+			source.subscribe(s);
+		}
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> s, Context ctx) {
+		for (; ; ) {
+			RingSubscriber<T> c = connection;
+			if (c == null || c.isTerminated()) {
+				RingSubscriber<T> u = new RingSubscriber<>(maxLag, lagStrategy, false, this);
+				if (!CONNECTION.compareAndSet(this, c, u)) {
+					continue;
+				}
+
+				c = u;
+			}
+
+			c.subscribe(s);
+			break;
+		}
+	}
+
+	@Override
+	public int getPrefetch() {
+		return maxLag;
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == IntAttr.PREFETCH) return getPrefetch();
+		if (key == ScannableAttr.PARENT) return source;
+
+		return null;
+	}
+
+	/**
+	 * The shared ring and its upstream subscription. Values are written once by the
+	 * (serialized) producer, and each {@link RingInner} drains them on its own, so a
+	 * signal costs the producer a slot write plus a wake-up of each subscriber.
+	 *
+	 * @param <T> the value type
+	 */
+	static final class RingSubscriber<T> implements InnerConsumer<T>, Disposable {
+
+		/**
+		 * The maximum number of elements the source can be ahead of the fastest
+		 * subscriber, and a subscriber can be behind the source.
+		 */
+		final int maxLag;
+
+		/**
+		 * The length of the ring, {@link #maxLag} rounded up to a power of two for
+		 * indexing.
+		 */
+		final int capacity;
+
+		final int mask;
+
+		final int limit;
+
+		final BufferOverflowStrategy lagStrategy;
+
+		final boolean autoCancel;
+
+		@Nullable
+		final FluxPublishRing<T> parent;
+
+		final AtomicReferenceArray<T> buffer;
+
+		/**
+		 * The number of slots reserved by the producer, always written before the slot
+		 * itself so that readers can detect a slot being overwritten.
+		 */
+		volatile long claimed;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<RingSubscriber> CLAIMED =
+				AtomicLongFieldUpdater.newUpdater(RingSubscriber.class, "claimed");
+
+		/**
+		 * The number of slots readable by subscribers.
+		 */
+		volatile long produced;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<RingSubscriber> PRODUCED =
+				AtomicLongFieldUpdater.newUpdater(RingSubscriber.class, "produced");
+
+		/**
+		 * The cursor of the fastest subscriber, which drives the upstream demand.
+		 */
+		volatile long leader;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<RingSubscriber> LEADER =
+				AtomicLongFieldUpdater.newUpdater(RingSubscriber.class, "leader");
+
+		volatile long upstreamRequested;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<RingSubscriber> UPSTREAM_REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(RingSubscriber.class,
+						"upstreamRequested");
+
+		volatile Subscription s;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<RingSubscriber, Subscription> S =
+				AtomicReferenceFieldUpdater.newUpdater(RingSubscriber.class,
+						Subscription.class,
+						"s");
+
+		volatile RingInner<T>[] subscribers;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<RingSubscriber, RingInner[]> SUBSCRIBERS =
+				AtomicReferenceFieldUpdater.newUpdater(RingSubscriber.class,
+						RingInner[].class,
+						"subscribers");
+
+		volatile int connected;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<RingSubscriber> CONNECTED =
+				AtomicIntegerFieldUpdater.newUpdater(RingSubscriber.class, "connected");
+
+		@SuppressWarnings("rawtypes")
+		static final RingInner[] EMPTY      = new RingInner[0];
+		@SuppressWarnings("rawtypes")
+		static final RingInner[] TERMINATED = new RingInner[0];
+
+		volatile boolean done;
+
+		Throwable error;
+
+		@SuppressWarnings("unchecked")
+		RingSubscriber(int maxLag,
+				BufferOverflowStrategy lagStrategy,
+				boolean autoCancel,
+				@Nullable FluxPublishRing<T> parent) {
+			this.maxLag = maxLag;
+			this.capacity = QueueSupplier.ceilingNextPowerOfTwo(maxLag);
+			this.mask = capacity - 1;
+			this.limit = maxLag - (maxLag >> 2);
+			this.lagStrategy = lagStrategy;
+			this.autoCancel = autoCancel;
+			this.parent = parent;
+			this.buffer = new AtomicReferenceArray<>(capacity);
+			SUBSCRIBERS.lazySet(this, EMPTY);
+		}
+
+		boolean tryConnect() {
+			return connected == 0 && CONNECTED.compareAndSet(this, 0, 1);
+		}
+
+		boolean isTerminated() {
+			return done || subscribers == TERMINATED;
+		}
+
+		/**
+		 * Subscribe the given {@link Subscriber} at the position of the fastest current
+		 * subscriber, or at the oldest retained element if that one has been overwritten.
+		 */
+		void subscribe(Subscriber<? super T> actual) {
+			RingInner<T> inner = new RingInner<>(actual, this);
+			inner.index = Math.max(leader, produced - maxLag);
+			actual.onSubscribe(inner);
+
+			if (inner.isCancelled()) {
+				return;
+			}
+
+			if (add(inner)) {
+				if (inner.isCancelled()) {
+					remove(inner);
+				}
+				else {
+					inner.drain();
+				}
+			}
+			else {
+				Throwable e = error;
+				if (e != null) {
+					actual.onError(e);
+				}
+				else {
+					actual.onComplete();
+				}
+			}
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			UPSTREAM_REQUESTED.lazySet(this, leader + maxLag);
+			if (Operators.setOnce(S, this, s)) {
+				s.request(maxLag);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			long p = produced;
+			CLAIMED.set(this, p + 1);
+			buffer.lazySet((int) p & mask, t);
+			PRODUCED.lazySet(this, p + 1);
+
+			for (RingInner<T> inner : subscribers) {
+				inner.drain();
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			error = t;
+			done = true;
+			drainAll();
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			drainAll();
+		}
+
+		void drainAll() {
+			if (parent != null) {
+				CONNECTION.compareAndSet(parent, this, null);
+			}
+			for (RingInner<T> inner : subscribers) {
+				inner.drain();
+			}
+		}
+
+		/**
+		 * Record the new position of a subscriber and top up the upstream demand so
+		 * that the source stays at most {@code maxLag} ahead of the fastest one.
+		 */
+		void advance(long index) {
+			for (; ; ) {
+				long l = leader;
+				if (index <= l) {
+					break;
+				}
+				if (LEADER.compareAndSet(this, l, index)) {
+					break;
+				}
+			}
+			Subscription s = this.s;
+			if (s == null) {
+				return;
+			}
+			for (; ; ) {
+				long u = upstreamRequested;
+				long target = leader + maxLag;
+				long delta = target - u;
+				if (delta < limit) {
+					return;
+				}
+				if (UPSTREAM_REQUESTED.compareAndSet(this, u, target)) {
+					s.request(delta);
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void dispose() {
+			if (SUBSCRIBERS.get(this) == TERMINATED) {
+				return;
+			}
+			if (Operators.terminate(S, this)) {
+				if (parent != null) {
+					CONNECTION.compareAndSet(parent, this, null);
+				}
+				CancellationException ex = new CancellationException("Disconnected");
+				for (RingInner<T> inner : terminate()) {
+					inner.cancel();
+					inner.actual.onError(ex);
+				}
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return s == Operators.cancelledSubscription() || done;
+		}
+
+		@SuppressWarnings("unchecked")
+		RingInner<T>[] terminate() {
+			return SUBSCRIBERS.getAndSet(this, TERMINATED);
+		}
+
+		boolean add(RingInner<T> inner) {
+			for (; ; ) {
+				RingInner<T>[] a = subscribers;
+				if (a == TERMINATED) {
+					return false;
+				}
+				int n = a.length;
+				@SuppressWarnings("unchecked")
+				RingInner<T>[] b = new RingInner[n + 1];
+				System.arraycopy(a, 0, b, 0, n);
+				b[n] = inner;
+				if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+					return true;
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		void remove(RingInner<T> inner) {
+			for (; ; ) {
+				RingInner<T>[] a = subscribers;
+				if (a == TERMINATED || a == EMPTY) {
+					return;
+				}
+				int n = a.length;
+				int j = -1;
+				for (int i = 0; i < n; i++) {
+					if (a[i] == inner) {
+						j = i;
+						break;
+					}
+				}
+
+				if (j < 0) {
+					return;
+				}
+
+				RingInner<T>[] b;
+				if (n == 1) {
+					b = EMPTY;
+				}
+				else {
+					b = new RingInner[n - 1];
+					System.arraycopy(a, 0, b, 0, j);
+					System.arraycopy(a, j + 1, b, j, n - j - 1);
+				}
+				if (SUBSCRIBERS.compareAndSet(this, a, b)) {
+					if (autoCancel && b == EMPTY && Operators.terminate(S, this)) {
+						terminate();
+					}
+					return;
+				}
+			}
+		}
+
+		/**
+		 * @return the number of elements the slowest subscriber has yet to consume
+		 */
+		int getPending() {
+			RingInner<T>[] a = subscribers;
+			long p = produced;
+			long min = p;
+			for (RingInner<T> inner : a) {
+				min = Math.min(min, inner.index);
+			}
+			if (a.length == 0) {
+				min = leader;
+			}
+			return (int) Math.min(maxLag, p - min);
+		}
+
+		@Override
+		public Stream<? extends Scannable> inners() {
+			return Stream.of(subscribers);
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == IntAttr.PREFETCH) return maxLag;
+			if (key == IntAttr.CAPACITY) return capacity;
+			if (key == IntAttr.BUFFERED) return getPending();
+			if (key == ThrowableAttr.ERROR) return error;
+			if (key == BooleanAttr.TERMINATED) return isTerminated();
+			if (key == BooleanAttr.CANCELLED) return s == Operators.cancelledSubscription();
+
+			return null;
+		}
+	}
+
+	/**
+	 * A subscriber of the ring with its own cursor, requested amount and drain loop.
+	 *
+	 * @param <T> the value type
+	 */
+	static final class RingInner<T> extends FluxPublish.PubSubInner<T> {
+
+		final RingSubscriber<T> parent;
+
+		volatile long index;
+
+		volatile int wip;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<RingInner> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(RingInner.class, "wip");
+
+		boolean done;
+
+		RingInner(Subscriber<? super T> actual, RingSubscriber<T> parent) {
+			super(actual);
+			this.parent = parent;
+		}
+
+		@Override
+		void drainParent() {
+			drain();
+		}
+
+		@Override
+		void removeAndDrainParent() {
+			parent.remove(this);
+		}
+
+		void drain() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+
+			int missed = 1;
+
+			RingSubscriber<T> p = parent;
+			Subscriber<? super T> a = actual;
+			AtomicReferenceArray<T> buffer = p.buffer;
+			int maxLag = p.maxLag;
+			int mask = p.mask;
+
+			for (; ; ) {
+				if (done) {
+					return;
+				}
+
+				long r = requested;
+				long i = index;
+				long e = 0L;
+
+				for (; ; ) {
+					if (isCancelled()) {
+						return;
+					}
+
+					boolean d = p.done;
+					long available = p.produced;
+
+					if (i == available) {
+						if (d) {
+							done = true;
+							p.remove(this);
+							Throwable ex = p.error;
+							if (ex != null) {
+								a.onError(ex);
+							}
+							else {
+								a.onComplete();
+							}
+							return;
+						}
+						break;
+					}
+
+					if (available - i > maxLag) {
+						if (lagged()) {
+							return;
+						}
+						i = available - maxLag;
+						continue;
+					}
+
+					if (e == r) {
+						break;
+					}
+
+					T v = buffer.get((int) i & mask);
+
+					//the producer may have moved more than maxLag ahead (and reserved
+					//this slot again) while we read it
+					if (p.claimed - maxLag > i) {
+						if (lagged()) {
+							return;
+						}
+						i = p.claimed - maxLag;
+						continue;
+					}
+
+					a.onNext(v);
+
+					e++;
+					i++;
+				}
+
+				index = i;
+				if (e != 0L) {
+					produced(this, e);
+				}
+				p.advance(i);
+
+				missed = WIP.addAndGet(this, -missed);
+				if (missed == 0) {
+					break;
+				}
+			}
+		}
+
+		/**
+		 * Apply the lag strategy after the producer overwrote values this subscriber
+		 * had yet to consume.
+		 *
+		 * @return true if this subscriber has been terminated
+		 */
+		boolean lagged() {
+			if (parent.lagStrategy == BufferOverflowStrategy.ERROR) {
+				done = true;
+				cancel();
+				actual.onError(Exceptions.failWithOverflow(
+						"Subscriber lagged more than " + parent.maxLag + " elements behind"));
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return parent;
+			if (key == BooleanAttr.TERMINATED) return done;
+			if (key == IntAttr.BUFFERED) return (int) Math.min(parent.maxLag, parent.produced - index);
+
+			return super.scanUnsafe(key);
+		}
+	}
+}
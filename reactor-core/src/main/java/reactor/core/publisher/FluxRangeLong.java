@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.reactivestreams.Subscriber;
+import reactor.core.Fuseable;
+import javax.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Emits a range of long values.
+ *
+ * @see <a href="https://github.com/reactor/reactive-streams-commons">Reactive-Streams-Commons</a>
+ */
+final class FluxRangeLong extends Flux<Long>
+		implements Fuseable {
+
+	final long start;
+
+	final long end;
+
+	FluxRangeLong(long start, long count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("count >= required but it was " + count);
+		}
+		if (count > 0 && start > Long.MAX_VALUE - (count - 1)) {
+			throw new IllegalArgumentException("start + count must be less than Long.MAX_VALUE + 1");
+		}
+
+		this.start = start;
+		//may overflow to Long.MIN_VALUE for a range ending on Long.MAX_VALUE, which the
+		//index != end loops below handle
+		this.end = start + count;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public void subscribe(Subscriber<? super Long> s, Context context) {
+		long st = start;
+		long en = end;
+		if (st == en) {
+			Operators.complete(s);
+			return;
+		} else
+		if (st + 1 == en) {
+			s.onSubscribe(Operators.scalarSubscription(s, st));
+			return;
+		}
+		
+		if (s instanceof ConditionalSubscriber) {
+			s.onSubscribe(new RangeLongSubscriptionConditional((ConditionalSubscriber<? super Long>)s, st, en));
+			return;
+		}
+		s.onSubscribe(new RangeLongSubscription(s, st, en));
+	}
+
+	static final class RangeLongSubscription implements InnerProducer<Long>,
+	                                                SynchronousSubscription<Long> {
+
+		final Subscriber<? super Long> actual;
+
+		final long end;
+
+		volatile boolean cancelled;
+
+		long index;
+
+		volatile long requested;
+		static final AtomicLongFieldUpdater<RangeLongSubscription> REQUESTED =
+		  AtomicLongFieldUpdater.newUpdater(RangeLongSubscription.class, "requested");
+
+		RangeLongSubscription(Subscriber<? super Long> actual, long start, long end) {
+			this.actual = actual;
+			this.index = start;
+			this.end = end;
+		}
+
+		@Override
+		public Subscriber<? super Long> actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				if (Operators.getAndAddCap(REQUESTED, this, n) == 0) {
+					if (n == Long.MAX_VALUE) {
+						fastPath();
+					} else {
+						slowPath(n);
+					}
+				}
+			}
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		void fastPath() {
+			final long e = end;
+			final Subscriber<? super Long> a = actual;
+
+			for (long i = index; i != e; i++) {
+				if (cancelled) {
+					return;
+				}
+
+				a.onNext(i);
+			}
+
+			if (cancelled) {
+				return;
+			}
+
+			a.onComplete();
+		}
+
+		void slowPath(long n) {
+			final Subscriber<? super Long> a = actual;
+
+			long f = end;
+			long e = 0;
+			long i = index;
+
+			for (; ; ) {
+
+				if (cancelled) {
+					return;
+				}
+
+				while (e != n && i != f) {
+
+					a.onNext(i);
+
+					if (cancelled) {
+						return;
+					}
+
+					e++;
+					i++;
+				}
+
+				if (cancelled) {
+					return;
+				}
+
+				if (i == f) {
+					a.onComplete();
+					return;
+				}
+
+				n = requested;
+				if (n == e) {
+					index = i;
+					n = REQUESTED.addAndGet(this, -e);
+					if (n == 0) {
+						return;
+					}
+					e = 0;
+				}
+			}
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == BooleanAttr.CANCELLED) return cancelled;
+			if (key == LongAttr.REQUESTED_FROM_DOWNSTREAM) return requested;
+			if (key == BooleanAttr.TERMINATED) return isEmpty();
+
+			return InnerProducer.super.scanUnsafe(key);
+		}
+
+		@Override
+		@Nullable
+		public Long poll() {
+			long i = index;
+			if (i == end) {
+				return null;
+			}
+			index = i + 1;
+			return i;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return index == end;
+		}
+
+		@Override
+		public void clear() {
+			index = end;
+		}
+		
+		@Override
+		public int size() {
+			return (int) Math.min(end - index, Integer.MAX_VALUE);
+		}
+	}
+	
+	static final class RangeLongSubscriptionConditional
+			implements InnerProducer<Long>,
+			           SynchronousSubscription<Long> {
+
+		final ConditionalSubscriber<? super Long> actual;
+
+		final long end;
+
+		volatile boolean cancelled;
+
+		long index;
+
+		volatile long requested;
+		static final AtomicLongFieldUpdater<RangeLongSubscriptionConditional> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(RangeLongSubscriptionConditional.class, "requested");
+
+		RangeLongSubscriptionConditional(ConditionalSubscriber<? super Long> actual,
+				long start,
+				long end) {
+			this.actual = actual;
+			this.index = start;
+			this.end = end;
+		}
+
+		@Override
+		public Subscriber<? super Long> actual() {
+			return actual;
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				if (Operators.getAndAddCap(REQUESTED, this, n) == 0) {
+					if (n == Long.MAX_VALUE) {
+						fastPath();
+					} else {
+						slowPath(n);
+					}
+				}
+			}
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		void fastPath() {
+			final long e = end;
+			final ConditionalSubscriber<? super Long> a = actual;
+
+			for (long i = index; i != e; i++) {
+				if (cancelled) {
+					return;
+				}
+
+				a.tryOnNext(i);
+			}
+
+			if (cancelled) {
+				return;
+			}
+
+			a.onComplete();
+		}
+
+		void slowPath(long n) {
+			final ConditionalSubscriber<? super Long> a = actual;
+
+			long f = end;
+			long e = 0;
+			long i = index;
+
+			for (; ; ) {
+
+				if (cancelled) {
+					return;
+				}
+
+				while (e != n && i != f) {
+
+					boolean b = a.tryOnNext(i);
+
+					if (cancelled) {
+						return;
+					}
+
+					if (b) {
+						e++;
+					}
+					i++;
+				}
+
+				if (cancelled) {
+					return;
+				}
+
+				if (i == f) {
+					a.onComplete();
+					return;
+				}
+
+				n = requested;
+				if (n == e) {
+					index = i;
+					n = REQUESTED.addAndGet(this, -e);
+					if (n == 0) {
+						return;
+					}
+					e = 0;
+				}
+			}
+		}
+
+		@Override
+		public Object scanUnsafe(Attr key) {
+			if (key == BooleanAttr.CANCELLED) return cancelled;
+			if (key == LongAttr.REQUESTED_FROM_DOWNSTREAM) return requested;
+			if (key == BooleanAttr.TERMINATED) return isEmpty();
+
+			return InnerProducer.super.scanUnsafe(key);
+		}
+
+		@Override
+		@Nullable
+		public Long poll() {
+			long i = index;
+			if (i == end) {
+				return null;
+			}
+			index = i + 1;
+			return i;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return index == end;
+		}
+
+		@Override
+		public void clear() {
+			index = end;
+		}
+
+		@Override
+		public int size() {
+			return (int) Math.min(end - index, Integer.MAX_VALUE);
+		}
+	}
+}
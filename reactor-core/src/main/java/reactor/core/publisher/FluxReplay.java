@@ -16,14 +16,16 @@
 
 package reactor.core.publisher;
 
+import java.nio.ByteBuffer;
 import java.util.Objects;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import org.reactivestreams.Publisher;
@@ -48,6 +50,9 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 	final long           ttl;
 	final Scheduler scheduler;
 
+	@Nullable
+	final Supplier<? extends ReplayBuffer<T>> bufferSupplier;
+
 	volatile ReplaySubscriber<T> connection;
 
 	interface ReplaySubscription<T> extends QueueSubscription<T>, InnerProducer<T> {
@@ -109,82 +114,451 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 		int capacity();
 	}
 
-	static final class SizeAndTimeBoundReplayBuffer<T> implements ReplayBuffer<T> {
+	/**
+	 * A size-bound, and optionally time-bound, {@link ReplayBuffer} storing values in
+	 * fixed-size array chunks linked together, with the time stamps of a timed buffer in
+	 * a parallel {@code long[]} per chunk. Chunks hold between {@link #MIN_CHUNK_SIZE}
+	 * and {@link #CHUNK_SIZE} values whatever the limit, so that a small history doesn't
+	 * allocate a chunk per value.
+	 * <p>
+	 * Each subscription counts as a reader of the chunk it is positioned in, and evicted
+	 * values are cleared up to the first chunk with readers, so that a lagging subscriber
+	 * keeps replaying from where it was. A chunk becomes garbage once it is fully evicted
+	 * and no subscriber is positioned in it anymore.
+	 * <p>
+	 * Retained chunks are also indexed in a {@link ChunkTable}, so that a new subscriber
+	 * can be positioned on a given absolute index in constant time, or on a given time
+	 * stamp with a binary search over the chunks and then within one of them.
+	 *
+	 * @param <T> the value type
+	 */
+	static final class ChunkedReplayBuffer<T> implements ReplayBuffer<T> {
+
+		static final int CHUNK_SIZE = 64;
+
+		static final int MIN_CHUNK_SIZE = 16;
+
+		static final class Chunk<T> {
 
-		static final class TimedNode<T> extends AtomicReference<TimedNode<T>> {
+			final long base;
 
-			final T    value;
-			final long time;
+			final Object[] values;
 
-			TimedNode(@Nullable T value, long time) {
-				this.value = value;
-				this.time = time;
+			@Nullable
+			final long[] times;
+
+			volatile Chunk<T> next;
+
+			/**
+			 * The number of subscriptions positioned in this chunk.
+			 */
+			volatile int readers;
+			@SuppressWarnings("rawtypes")
+			static final AtomicIntegerFieldUpdater<Chunk> READERS =
+					AtomicIntegerFieldUpdater.newUpdater(Chunk.class, "readers");
+
+			Chunk(long base, int size, boolean timed) {
+				this.base = base;
+				this.values = new Object[size];
+				this.times = timed ? new long[size] : null;
 			}
 		}
 
-		final int            limit;
-		final long           maxAge;
+		/**
+		 * A ring of the retained chunks, the chunk starting at index {@code i} being in
+		 * slot {@code (i >> shift) & mask}. Slots of evicted chunks are cleared by the
+		 * writer and may read as {@code null}, or as a newer chunk once reused. The
+		 * table is only replaced when more chunks than slots are retained.
+		 */
+		static final class ChunkTable<T> {
+
+			final Chunk<T>[] chunks;
+
+			final int mask;
+
+			@SuppressWarnings("unchecked")
+			ChunkTable(int length) {
+				this.chunks = new Chunk[length];
+				this.mask = length - 1;
+			}
+		}
+
+		final int       limit;
+		final int       chunkSize;
+		final int       shift;
+		final long      maxAge;
+		@Nullable
 		final Scheduler scheduler;
-		int size;
 
-		volatile TimedNode<T> head;
+		/**
+		 * The chunk holding {@link #headIndex}, updated after it.
+		 */
+		volatile Chunk<T> head;
+
+		/**
+		 * The absolute index of the oldest retained value.
+		 */
+		volatile long headIndex;
+
+		/**
+		 * The number of values added so far, published after each value.
+		 */
+		volatile long produced;
+
+		/**
+		 * The index of retained chunks, replaced when it grows.
+		 */
+		volatile ChunkTable<T> table;
+
+		/**
+		 * The number of chunks indexed in {@link #table}, published after each of them.
+		 */
+		volatile long indexed;
 
-		TimedNode<T> tail;
+		Chunk<T> tail;
+
+		int tailOffset;
+
+		/**
+		 * The index up to which evicted values have been cleared, in
+		 * {@link #clearedChunk}, only accessed by the writer.
+		 */
+		long cleared;
+
+		Chunk<T> clearedChunk;
 
 		Throwable error;
 		volatile boolean done;
 
-		SizeAndTimeBoundReplayBuffer(int limit,
-				long maxAge,
-				Scheduler scheduler) {
+		ChunkedReplayBuffer(int limit) {
+			this(limit, 0L, null);
+		}
+
+		ChunkedReplayBuffer(int limit, long maxAge, @Nullable Scheduler scheduler) {
+			if (limit < 0) {
+				throw new IllegalArgumentException("Limit cannot be negative");
+			}
 			this.limit = limit;
 			this.maxAge = maxAge;
 			this.scheduler = scheduler;
-			TimedNode<T> h = new TimedNode<>(null, 0L);
-			this.tail = h;
-			this.head = h;
+			this.chunkSize = limit >= CHUNK_SIZE ? CHUNK_SIZE :
+					QueueSupplier.ceilingNextPowerOfTwo(Math.max(MIN_CHUNK_SIZE, limit));
+			this.shift = Integer.numberOfTrailingZeros(chunkSize);
+			Chunk<T> c = new Chunk<>(0L, chunkSize, scheduler != null);
+			this.tail = c;
+			this.head = c;
+			this.clearedChunk = c;
+			ChunkTable<T> t = new ChunkTable<>(8);
+			t.chunks[0] = c;
+			this.table = t;
+			this.indexed = 1L;
+		}
+
+		@Override
+		public int capacity() {
+			return limit;
+		}
+
+		@Override
+		public void add(T value) {
+			Chunk<T> t = tail;
+			int o = tailOffset;
+			boolean added = false;
+			if (o == chunkSize) {
+				Chunk<T> n = new Chunk<>(t.base + chunkSize, chunkSize, scheduler != null);
+				t.next = n;
+				tail = n;
+				t = n;
+				o = 0;
+				added = true;
+			}
+			t.values[o] = value;
+			if (t.times != null) {
+				t.times[o] = now();
+			}
+			tailOffset = o + 1;
+			long p = produced + 1;
+			produced = p;
+			if (added) {
+				//only indexed once its first value is visible, for seekTime
+				append(t);
+			}
+
+			long hi = headIndex;
+			long next = Math.max(hi, p - limit);
+			Chunk<T> h = head;
+			if (scheduler != null) {
+				next = skipOutdated(h, next);
+			}
+			if (next != hi) {
+				//published before clearing, so that a reader finding a cleared slot
+				//also finds where to resume
+				headIndex = next;
+				Chunk<T> c = chunkOf(h, next);
+				head = c;
+				if (c != h) {
+					unindex(h, c);
+				}
+			}
+			if (cleared != next) {
+				clearEvicted(next);
+			}
+		}
+
+		void append(Chunk<T> c) {
+			ChunkTable<T> t = table;
+			long n = c.base >> shift;
+			long first = head.base >> shift;
+			if (n - first > t.mask) {
+				ChunkTable<T> g = new ChunkTable<>(t.chunks.length << 1);
+				for (long i = first; i < n; i++) {
+					g.chunks[(int) i & g.mask] = t.chunks[(int) i & t.mask];
+				}
+				table = g;
+				t = g;
+			}
+			t.chunks[(int) n & t.mask] = c;
+			indexed = n + 1;
+		}
+
+		/**
+		 * Clear the table slots of the chunks before the new head.
+		 */
+		void unindex(Chunk<T> oldHead, Chunk<T> newHead) {
+			ChunkTable<T> t = table;
+			for (long i = oldHead.base >> shift; i < newHead.base >> shift; i++) {
+				t.chunks[(int) i & t.mask] = null;
+			}
+		}
+
+		/**
+		 * Clear the evicted values before the given index, stopping at the first chunk
+		 * a subscription is positioned in. Subscriptions only move forward and take a
+		 * chunk before leaving the previous one, so a chunk found without readers here
+		 * is only read again by a new subscription, which skips the cleared slots.
+		 */
+		void clearEvicted(long to) {
+			Chunk<T> c = clearedChunk;
+			int n = chunkSize;
+			long i = cleared;
+			int o = (int) (i - c.base);
+			for (; i < to; i++, o++) {
+				if (o == n) {
+					c = c.next;
+					o = 0;
+				}
+				if (c.readers != 0) {
+					break;
+				}
+				c.values[o] = null;
+			}
+			cleared = i;
+			clearedChunk = c;
+		}
+
+		long now() {
+			Scheduler s = scheduler;
+			return s != null ? s.now(TimeUnit.MILLISECONDS) : 0L;
+		}
+
+		/**
+		 * @return the chunk holding the given index, starting from a chunk at or before
+		 * it (or the chunk ending right before it if there is no next chunk yet)
+		 */
+		Chunk<T> chunkOf(Chunk<T> c, long index) {
+			int n = chunkSize;
+			while (index - c.base >= n) {
+				Chunk<T> next = c.next;
+				if (next == null) {
+					break;
+				}
+				c = next;
+			}
+			return c;
+		}
+
+		/**
+		 * @return the index of the first value from the given one that isn't outdated,
+		 * or the number of values produced if all of them are
+		 */
+		long skipOutdated(Chunk<T> c, long index) {
+			long oldest = now() - maxAge;
+			long p = produced;
+			while (index < p) {
+				c = chunkOf(c, index);
+				long ts = c.times[(int) (index - c.base)];
+				if (ts > oldest) {
+					break;
+				}
+				index++;
+			}
+			return index;
+		}
+
+		/**
+		 * @return the absolute index of the first retained value stamped after the given
+		 * time, or the number of values produced if there is none, assuming time stamps
+		 * never decrease
+		 */
+		long indexAfter(long time) {
+			long last = indexed - 1;
+			//read after the count of indexed chunks, so that all of them are covered
+			ChunkTable<T> t = table;
+			long p = produced;
+			Chunk<T>[] chunks = t.chunks;
+
+			//last chunk starting at or before the time, skipping evicted slots
+			Chunk<T> c = null;
+			long first = Math.max(headIndex >> shift, last - t.mask);
+			long l = first;
+			long r = last;
+			while (l <= r) {
+				long mid = (l + r) >>> 1;
+				Chunk<T> m = chunks[(int) mid & t.mask];
+				if (m == null || m.base != mid << shift) {
+					l = mid + 1;
+				}
+				else if (m.times[0] <= time) {
+					c = m;
+					l = mid + 1;
+				}
+				else {
+					r = mid - 1;
+				}
+			}
+			if (c == null) {
+				return headIndex;
+			}
+
+			long[] times = c.times;
+			int lo = 0;
+			int hi = (int) Math.min(chunkSize, p - c.base) - 1;
+			while (lo <= hi) {
+				int mid = (lo + hi) >>> 1;
+				if (times[mid] <= time) {
+					lo = mid + 1;
+				}
+				else {
+					hi = mid - 1;
+				}
+			}
+			return Math.max(c.base + lo, headIndex);
+		}
+
+		/**
+		 * Move a subscription to the given chunk, becoming one of its readers before
+		 * leaving the previous one.
+		 */
+		@SuppressWarnings("unchecked")
+		void position(ReplaySubscription<T> rs, @Nullable Chunk<T> c) {
+			Chunk<T> previous = (Chunk<T>) rs.node();
+			if (previous == c) {
+				return;
+			}
+			if (c != null) {
+				Chunk.READERS.incrementAndGet(c);
+			}
+			rs.node(c);
+			if (previous != null) {
+				Chunk.READERS.decrementAndGet(previous);
+			}
+		}
+
+		/**
+		 * Position a subscription that has not started yet on the given absolute index,
+		 * clamped to the retained values.
+		 */
+		Chunk<T> seek(ReplaySubscription<T> rs, long index) {
+			//headIndex is written before head, so it is never behind the chunk read here
+			Chunk<T> h = head;
+			index = Math.max(index, headIndex);
+			ChunkTable<T> t = table;
+			index = Math.min(index, produced);
+
+			Chunk<T> c = t.chunks[(int) (index >> shift) & t.mask];
+			if (c == null || c.base > index || c.base < h.base) {
+				c = h;
+			}
+			c = chunkOf(c, index);
+			position(rs, c);
+			rs.tailIndex((int) (index - c.base));
+			return c;
 		}
 
+		/**
+		 * Position a subscription that has not started yet on the first retained value
+		 * stamped at or after the given time, in milliseconds of this buffer's
+		 * {@link Scheduler}.
+		 */
+		void seekTime(ReplaySubscription<T> rs, long time) {
+			long index = time == Long.MIN_VALUE ? headIndex : indexAfter(time - 1);
+			if (!done) {
+				index = Math.max(index, indexAfter(now() - maxAge));
+			}
+			seek(rs, index);
+		}
+
+		/**
+		 * Position a subscription that has not started yet on the oldest retained value,
+		 * skipping outdated values if requested.
+		 */
 		@SuppressWarnings("unchecked")
+		Chunk<T> start(ReplaySubscription<T> rs, boolean skipOutdated) {
+			Chunk<T> c = (Chunk<T>) rs.node();
+			if (c != null) {
+				return c;
+			}
+			return seek(rs, skipOutdated ? indexAfter(now() - maxAge) : headIndex);
+		}
+
+		/**
+		 * @return the absolute index of the next value the subscription would see
+		 */
+		long indexOf(ReplaySubscription<T> rs) {
+			Chunk<T> c = start(rs, scheduler != null);
+			long index = c.base + rs.tailIndex();
+			if (scheduler != null) {
+				index = skipOutdated(c, index);
+			}
+			return index;
+		}
+
+		@Override
+		public void onError(Throwable ex) {
+			error = ex;
+			done = true;
+		}
+
+		@Override
+		public void onComplete() {
+			done = true;
+		}
+
 		void replayNormal(ReplaySubscription<T> rs) {
-			int missed = 1;
 			final Subscriber<? super T> a = rs.actual();
+			final int n = chunkSize;
+
+			int missed = 1;
 
 			for (; ; ) {
-				@SuppressWarnings("unchecked") TimedNode<T> node =
-						(TimedNode<T>) rs.node();
-				if (node == null) {
-					node = head;
-					if (!done) {
-						// skip old entries
-						long limit = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
-						TimedNode<T> next = node;
-						while (next != null) {
-							long ts = next.time;
-							if (ts > limit) {
-								break;
-							}
-							node = next;
-							next = node.get();
-						}
-					}
-				}
+
+				Chunk<T> node = start(rs, scheduler != null && !done);
+				int offset = rs.tailIndex();
 
 				long r = rs.requested();
 				long e = 0L;
 
 				while (e != r) {
 					if (rs.isCancelled()) {
-						rs.node(null);
+						position(rs, null);
 						return;
 					}
 
 					boolean d = done;
-					TimedNode<T> next = node.get();
-					boolean empty = next == null;
+					boolean empty = node.base + offset == produced;
 
 					if (d && empty) {
-						rs.node(null);
+						position(rs, null);
 						Throwable ex = error;
 						if (ex != null) {
 							a.onError(ex);
@@ -199,23 +573,38 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 						break;
 					}
 
-					a.onNext(next.value);
+					if (offset == n) {
+						node = node.next;
+						offset = 0;
+					}
+
+					@SuppressWarnings("unchecked") T v = (T) node.values[offset];
+
+					if (v == null) {
+						//evicted while lagging behind, resume from the oldest value
+						long h = headIndex;
+						node = chunkOf(node, h);
+						offset = (int) (h - node.base);
+						continue;
+					}
+
+					a.onNext(v);
 
 					e++;
-					node = next;
+					offset++;
 				}
 
 				if (e == r) {
 					if (rs.isCancelled()) {
-						rs.node(null);
+						position(rs, null);
 						return;
 					}
 
 					boolean d = done;
-					boolean empty = node.get() == null;
+					boolean empty = node.base + offset == produced;
 
 					if (d && empty) {
-						rs.node(null);
+						position(rs, null);
 						Throwable ex = error;
 						if (ex != null) {
 							a.onError(ex);
@@ -233,7 +622,8 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 					}
 				}
 
-				rs.node(node);
+				position(rs, node);
+				rs.tailIndex(offset);
 
 				missed = rs.leave(missed);
 				if (missed == 0) {
@@ -250,7 +640,7 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 			for (; ; ) {
 
 				if (rs.isCancelled()) {
-					rs.node(null);
+					position(rs, null);
 					return;
 				}
 
@@ -277,9 +667,17 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 		}
 
 		@Override
-		public void onError(Throwable ex) {
-			done = true;
-			error = ex;
+		public void replay(ReplaySubscription<T> rs) {
+			if (!rs.enter()) {
+				return;
+			}
+
+			if (rs.fusionMode() == NONE) {
+				replayNormal(rs);
+			}
+			else {
+				replayFused(rs);
+			}
 		}
 
 		@Override
@@ -288,149 +686,55 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 			return error;
 		}
 
-		@Override
-		public void onComplete() {
-			done = true;
-		}
-
 		@Override
 		public boolean isDone() {
 			return done;
 		}
 
-		@SuppressWarnings("unchecked")
-		TimedNode<T> latestHead(ReplaySubscription<T> rs) {
-			long now = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
-
-			TimedNode<T> h = (TimedNode<T>) rs.node();
-			if (h == null) {
-				h = head;
-			}
-			TimedNode<T> n;
-			while ((n = h.get()) != null) {
-				if (n.time > now) {
-					break;
-				}
-				h = n;
-			}
-			return h;
-		}
-
 		@Override
 		@Nullable
 		public T poll(ReplaySubscription<T> rs) {
-			TimedNode<T> node = latestHead(rs);
-			TimedNode<T> next;
-			long now = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
-			while ((next = node.get()) != null) {
-				if (next.time > now) {
-					node = next;
-					break;
+			long index = indexOf(rs);
+			@SuppressWarnings("unchecked") Chunk<T> node = (Chunk<T>) rs.node();
+			for (; ; ) {
+				if (index == produced) {
+					return null;
 				}
-				node = next;
-			}
-			if (next == null) {
-				return null;
+				node = chunkOf(node, index);
+				int offset = (int) (index - node.base);
+				if (offset == chunkSize) {
+					node = node.next;
+					offset = 0;
+				}
+				@SuppressWarnings("unchecked") T v = (T) node.values[offset];
+				if (v != null) {
+					position(rs, node);
+					rs.tailIndex(offset + 1);
+					return v;
+				}
+				//evicted while lagging behind, resume from the oldest value
+				index = Math.max(index + 1, headIndex);
 			}
-			rs.node(next);
-
-			return node.value;
 		}
 
 		@Override
 		public void clear(ReplaySubscription<T> rs) {
-			rs.node(null);
+			position(rs, null);
 		}
 
 		@Override
-		@SuppressWarnings("unchecked")
 		public boolean isEmpty(ReplaySubscription<T> rs) {
-			TimedNode<T> node = latestHead(rs);
-			return node.get() == null;
+			return indexOf(rs) == produced;
 		}
 
 		@Override
 		public int size(ReplaySubscription<T> rs) {
-			TimedNode<T> node = latestHead(rs);
-			int count = 0;
-
-			TimedNode<T> next;
-			while ((next = node.get()) != null && count != Integer.MAX_VALUE) {
-				count++;
-				node = next;
-			}
-
-			return count;
+			return (int) Math.min(Integer.MAX_VALUE, produced - indexOf(rs));
 		}
 
 		@Override
 		public int size() {
-			TimedNode<T> node = head;
-			int count = 0;
-
-			TimedNode<T> next;
-			while ((next = node.get()) != null && count != Integer.MAX_VALUE) {
-				count++;
-				node = next;
-			}
-
-			return count;
-		}
-
-		@Override
-		public int capacity() {
-			return limit;
-		}
-
-		@Override
-		public void add(T value) {
-			TimedNode<T> n = new TimedNode<>(value, scheduler.now(TimeUnit.MILLISECONDS));
-			tail.set(n);
-			tail = n;
-			int s = size;
-			if (s == limit) {
-				head = head.get();
-			}
-			else {
-				size = s + 1;
-			}
-			long limit = scheduler.now(TimeUnit.MILLISECONDS) - maxAge;
-
-			TimedNode<T> h = head;
-			TimedNode<T> next;
-			int removed = 0;
-			for (; ; ) {
-				next = h.get();
-				if (next == null) {
-					break;
-				}
-
-				if (next.time > limit) {
-					if (removed != 0) {
-						size = size - removed;
-						head = h;
-					}
-					break;
-				}
-
-				h = next;
-				removed++;
-			}
-		}
-
-		@Override
-		@SuppressWarnings("unchecked")
-		public void replay(ReplaySubscription<T> rs) {
-			if (!rs.enter()) {
-				return;
-			}
-
-			if (rs.fusionMode() == NONE) {
-				replayNormal(rs);
-			}
-			else {
-				replayFused(rs);
-			}
+			return (int) Math.min(Integer.MAX_VALUE, produced - headIndex);
 		}
 	}
 
@@ -691,46 +995,137 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 
 	}
 
-	static final class SizeBoundReplayBuffer<T> implements ReplayBuffer<T> {
+	/**
+	 * An unbounded {@link ReplayBuffer} storing values serialized into direct
+	 * {@link ByteBuffer} chunks, through a user-provided encoder, and decoding them again
+	 * for each subscriber as it replays. This keeps a large history off the heap, at the
+	 * cost of one encoding per value and one decoding per value and subscriber.
+	 * <p>
+	 * Each value is stored as its encoded length followed by its bytes. A value larger
+	 * than the chunk size gets a chunk of its own.
+	 *
+	 * @param <T> the value type
+	 */
+	static final class SerializedReplayBuffer<T> implements ReplayBuffer<T> {
 
-		final int limit;
+		static final int CHUNK_SIZE = 1 << 20;
 
-		volatile Node<T> head;
+		static final class Chunk {
 
-		Node<T> tail;
+			/**
+			 * The absolute index of the first value of this chunk.
+			 */
+			final long base;
 
-		int size;
+			final ByteBuffer buffer;
+
+			/**
+			 * The number of values written in this chunk, final once next is set.
+			 */
+			volatile int count;
+
+			volatile Chunk next;
+
+			Chunk(long base, ByteBuffer buffer) {
+				this.base = base;
+				this.buffer = buffer;
+			}
+		}
+
+		final Function<? super T, ? extends ByteBuffer> encoder;
+
+		final Function<? super ByteBuffer, ? extends T> decoder;
+
+		final int chunkSize;
+
+		final Chunk head;
+
+		Chunk tail;
+
+		int tailOffset;
+
+		volatile long produced;
 
 		volatile boolean done;
 		Throwable error;
 
-		SizeBoundReplayBuffer(int limit) {
-			if(limit < 0){
-				throw new IllegalArgumentException("Limit cannot be negative");
+		SerializedReplayBuffer(Function<? super T, ? extends ByteBuffer> encoder,
+				Function<? super ByteBuffer, ? extends T> decoder,
+				int chunkSize) {
+			this.encoder = Objects.requireNonNull(encoder, "encoder");
+			this.decoder = Objects.requireNonNull(decoder, "decoder");
+			if (chunkSize <= 4) {
+				throw new IllegalArgumentException("chunkSize > 4 required but it was " + chunkSize);
 			}
-			this.limit = limit;
-			Node<T> n = new Node<>(null);
-			this.tail = n;
-			this.head = n;
+			this.chunkSize = chunkSize;
+			Chunk c = new Chunk(0L, ByteBuffer.allocateDirect(chunkSize));
+			this.head = c;
+			this.tail = c;
 		}
 
 		@Override
 		public int capacity() {
-			return limit;
+			return Integer.MAX_VALUE;
 		}
 
 		@Override
 		public void add(T value) {
-			Node<T> n = new Node<>(value);
-			tail.set(n);
-			tail = n;
-			int s = size;
-			if (s == limit) {
-				head = head.get();
+			ByteBuffer encoded;
+			try {
+				encoded = Objects.requireNonNull(encoder.apply(value),
+						"The encoder returned a null ByteBuffer");
 			}
-			else {
-				size = s + 1;
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(null, e, value));
+				return;
+			}
+			int len = encoded.remaining();
+
+			Chunk t = tail;
+			int o = tailOffset;
+			if (t.buffer.capacity() - o < len + 4) {
+				Chunk n = new Chunk(produced,
+						ByteBuffer.allocateDirect(Math.max(chunkSize, len + 4)));
+				t.next = n;
+				tail = n;
+				t = n;
+				o = 0;
 			}
+
+			ByteBuffer b = t.buffer.duplicate();
+			b.position(o);
+			b.putInt(len);
+			b.put(encoded.duplicate());
+
+			tailOffset = o + 4 + len;
+			t.count = t.count + 1;
+			produced = produced + 1;
+		}
+
+		T decode(Chunk c, int offset) {
+			ByteBuffer b = c.buffer.duplicate();
+			int len = b.getInt(offset);
+			b.limit(offset + 4 + len);
+			b.position(offset + 4);
+			return Objects.requireNonNull(decoder.apply(b.slice().asReadOnlyBuffer()),
+					"The decoder returned a null value");
+		}
+
+		/**
+		 * @return the chunk holding the value at the given index within the given chunk,
+		 * or null if no such value has been written yet
+		 */
+		@Nullable
+		static Chunk next(Chunk c, int index) {
+			while (index == c.count) {
+				Chunk n = c.next;
+				if (n == null || index != c.count) {
+					return n == null ? null : c;
+				}
+				c = n;
+				index = 0;
+			}
+			return c;
 		}
 
 		@Override
@@ -745,29 +1140,31 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 		}
 
 		void replayNormal(ReplaySubscription<T> rs) {
-			final Subscriber<? super T> a = rs.actual();
-
 			int missed = 1;
 
+			final Subscriber<? super T> a = rs.actual();
+
 			for (; ; ) {
 
 				long r = rs.requested();
 				long e = 0L;
 
-				@SuppressWarnings("unchecked") Node<T> node = (Node<T>) rs.node();
+				Chunk node = (Chunk) rs.node();
 				if (node == null) {
 					node = head;
 				}
+				int offset = rs.tailIndex();
+				int index = rs.index();
 
-				while (e != r) {
+				for (; ; ) {
 					if (rs.isCancelled()) {
 						rs.node(null);
 						return;
 					}
 
 					boolean d = done;
-					Node<T> next = node.get();
-					boolean empty = next == null;
+					Chunk c = next(node, index);
+					boolean empty = c == null;
 
 					if (d && empty) {
 						rs.node(null);
@@ -781,36 +1178,32 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 						return;
 					}
 
-					if (empty) {
+					if (empty || e == r) {
 						break;
 					}
 
-					a.onNext(next.value);
-
-					e++;
-					node = next;
-				}
+					if (c != node) {
+						node = c;
+						offset = 0;
+						index = 0;
+					}
 
-				if (e == r) {
-					if (rs.isCancelled()) {
+					T v;
+					try {
+						v = decode(node, offset);
+					}
+					catch (Throwable ex) {
+						rs.cancel();
 						rs.node(null);
+						a.onError(Operators.onOperatorError(rs, ex));
 						return;
 					}
 
-					boolean d = done;
-					boolean empty = node.get() == null;
+					a.onNext(v);
 
-					if (d && empty) {
-						rs.node(null);
-						Throwable ex = error;
-						if (ex != null) {
-							a.onError(ex);
-						}
-						else {
-							a.onComplete();
-						}
-						return;
-					}
+					e++;
+					offset += 4 + node.buffer.getInt(offset);
+					index++;
 				}
 
 				if (e != 0L) {
@@ -819,6 +1212,8 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 					}
 				}
 
+				rs.index(index);
+				rs.tailIndex(offset);
 				rs.node(node);
 
 				missed = rs.leave(missed);
@@ -887,34 +1282,29 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 			return done;
 		}
 
-		static final class Node<T> extends AtomicReference<Node<T>> {
-
-			/** */
-			private static final long serialVersionUID = 3713592843205853725L;
-
-			final T value;
-
-			Node(@Nullable T value) {
-				this.value = value;
-			}
-		}
-
 		@Override
 		@Nullable
 		public T poll(ReplaySubscription<T> rs) {
-			@SuppressWarnings("unchecked") Node<T> node = (Node<T>) rs.node();
+			Chunk node = (Chunk) rs.node();
 			if (node == null) {
 				node = head;
 				rs.node(node);
 			}
-
-			Node<T> next = node.get();
-			if (next == null) {
+			int index = rs.index();
+			Chunk c = next(node, index);
+			if (c == null) {
 				return null;
 			}
-			rs.node(next);
-
-			return next.value;
+			int offset = rs.tailIndex();
+			if (c != node) {
+				offset = 0;
+				index = 0;
+				rs.node(c);
+			}
+			T v = decode(c, offset);
+			rs.index(index + 1);
+			rs.tailIndex(offset + 4 + c.buffer.getInt(offset));
+			return v;
 		}
 
 		@Override
@@ -924,43 +1314,20 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 
 		@Override
 		public boolean isEmpty(ReplaySubscription<T> rs) {
-			@SuppressWarnings("unchecked") Node<T> node = (Node<T>) rs.node();
-			if (node == null) {
-				node = head;
-				rs.node(node);
-			}
-			return node.get() == null;
+			Chunk node = (Chunk) rs.node();
+			return next(node != null ? node : head, rs.index()) == null;
 		}
 
 		@Override
 		public int size(ReplaySubscription<T> rs) {
-			@SuppressWarnings("unchecked") Node<T> node = (Node<T>) rs.node();
-			if (node == null) {
-				node = head;
-			}
-			int count = 0;
-
-			Node<T> next;
-			while ((next = node.get()) != null && count != Integer.MAX_VALUE) {
-				count++;
-				node = next;
-			}
-
-			return count;
+			Chunk node = (Chunk) rs.node();
+			long consumed = node != null ? node.base + rs.index() : 0L;
+			return (int) Math.min(Integer.MAX_VALUE, produced - consumed);
 		}
 
 		@Override
 		public int size() {
-			Node<T> node = head;
-			int count = 0;
-
-			Node<T> next;
-			while ((next = node.get()) != null && count != Integer.MAX_VALUE) {
-				count++;
-				node = next;
-			}
-
-			return count;
+			return (int) Math.min(Integer.MAX_VALUE, produced);
 		}
 	}
 
@@ -984,6 +1351,15 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 		}
 		this.ttl = ttl;
 		this.scheduler = scheduler;
+		this.bufferSupplier = null;
+	}
+
+	FluxReplay(Publisher<T> source, Supplier<? extends ReplayBuffer<T>> bufferSupplier) {
+		this.source = Objects.requireNonNull(source, "source");
+		this.bufferSupplier = Objects.requireNonNull(bufferSupplier, "bufferSupplier");
+		this.history = Integer.MAX_VALUE;
+		this.ttl = 0L;
+		this.scheduler = null;
 	}
 
 	@Override
@@ -992,14 +1368,17 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 	}
 
 	ReplaySubscriber<T> newState() {
+		if (bufferSupplier != null) {
+			return new ReplaySubscriber<>(bufferSupplier.get(), this);
+		}
 		if (scheduler != null) {
-			return new ReplaySubscriber<>(new SizeAndTimeBoundReplayBuffer<>(history,
+			return new ReplaySubscriber<>(new ChunkedReplayBuffer<>(history,
 					ttl,
 					scheduler),
 					this);
 		}
 		if (history != Integer.MAX_VALUE) {
-			return new ReplaySubscriber<>(new SizeBoundReplayBuffer<>(history),
+			return new ReplaySubscriber<>(new ChunkedReplayBuffer<>(history),
 					this);
 		}
 		return new ReplaySubscriber<>(new UnboundedReplayBuffer<>(QueueSupplier.SMALL_BUFFER_SIZE),
@@ -1127,6 +1506,14 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 			}
 			else {
 				b.add(t);
+				if (b.isDone()) {
+					//the buffer failed to store the value
+					Operators.terminate(S, this);
+					for (ReplaySubscription<T> rs : terminate()) {
+						b.replay(rs);
+					}
+					return;
+				}
 				for (ReplaySubscription<T> rs : subscribers) {
 					b.replay(rs);
 				}
@@ -1357,7 +1744,12 @@ final class FluxReplay<T> extends ConnectableFlux<T> implements Scannable, Fusea
 					p.remove(this);
 				}
 				if (enter()) {
-					node = null;
+					if (p != null) {
+						p.buffer.clear(this);
+					}
+					else {
+						node = null;
+					}
 				}
 			}
 		}
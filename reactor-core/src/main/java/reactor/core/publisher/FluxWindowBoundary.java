@@ -174,9 +174,7 @@ final class FluxWindowBoundary<T, U> extends FluxOperator<T, Flux<T>> {
 				Operators.onNextDropped(t);
 				return;
 			}
-			synchronized (this) {
-				queue.offer(t);
-			}
+			queue.offer(t);
 			drain();
 		}
 
@@ -200,9 +198,7 @@ final class FluxWindowBoundary<T, U> extends FluxOperator<T, Flux<T>> {
 			}
 			done = true;
 			boundary.cancel();
-			synchronized (this) {
-				queue.offer(DONE);
-			}
+			queue.offer(DONE);
 			drain();
 		}
 
@@ -238,9 +234,7 @@ final class FluxWindowBoundary<T, U> extends FluxOperator<T, Flux<T>> {
 		}
 
 		void boundaryNext() {
-			synchronized (this) {
-				queue.offer(BOUNDARY_MARKER);
-			}
+			queue.offer(BOUNDARY_MARKER);
 
 			if (cancelled != 0) {
 				boundary.cancel();
@@ -260,9 +254,7 @@ final class FluxWindowBoundary<T, U> extends FluxOperator<T, Flux<T>> {
 
 		void boundaryComplete() {
 			cancelMain();
-			synchronized (this) {
-				queue.offer(DONE);
-			}
+			queue.offer(DONE);
 			drain();
 		}
 
@@ -183,9 +183,7 @@ final class FluxWindowWhen<T, U, V> extends FluxOperator<T, Flux<T>> {
 
 		@Override
 		public void onNext(T t) {
-			synchronized (this) {
-				queue.offer(t);
-			}
+			queue.offer(t);
 			drain();
 		}
 
@@ -226,9 +224,7 @@ final class FluxWindowWhen<T, U, V> extends FluxOperator<T, Flux<T>> {
 
 		void starterNext(U u) {
 			NewWindow<U> nw = new NewWindow<>(u);
-			synchronized (this) {
-				queue.offer(nw);
-			}
+			queue.offer(nw);
 			drain();
 		}
 
@@ -251,9 +247,7 @@ final class FluxWindowWhen<T, U, V> extends FluxOperator<T, Flux<T>> {
 
 		void endSignal(WindowStartEndEnder<T, V> end) {
 			remove(end);
-			synchronized (this) {
-				queue.offer(end);
-			}
+			queue.offer(end);
 			drain();
 		}
 
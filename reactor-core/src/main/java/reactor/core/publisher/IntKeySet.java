@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import reactor.util.concurrent.QueueSupplier;
+
+/**
+ * A {@link java.util.Set} of {@code int} keys stored unboxed in an array, used as an
+ * open-addressed hash table with linear probing, 0 marking the empty slots and being
+ * tracked separately. Keys can be added but not removed, other than by
+ * {@link #clear()}.
+ * <p>
+ * Not thread-safe.
+ */
+final class IntKeySet extends AbstractSet<Integer> {
+
+	int[] keys;
+
+	int mask;
+
+	int used;
+
+	int maxUsed;
+
+	boolean containsZero;
+
+	IntKeySet() {
+		this(16);
+	}
+
+	IntKeySet(int capacity) {
+		init(QueueSupplier.ceilingNextPowerOfTwo(Math.max(2, capacity)));
+	}
+
+	void init(int capacity) {
+		this.keys = new int[capacity];
+		this.mask = capacity - 1;
+		this.maxUsed = capacity - (capacity >> 2);
+	}
+
+	@Override
+	public boolean add(Integer key) {
+		return add(key.intValue());
+	}
+
+	/**
+	 * Add the given key, without boxing it.
+	 *
+	 * @param key the key to add
+	 *
+	 * @return true if the key was not in the set yet
+	 */
+	boolean add(int key) {
+		if (key == 0) {
+			if (containsZero) {
+				return false;
+			}
+			containsZero = true;
+			return true;
+		}
+		int[] a = keys;
+		int m = mask;
+		int pos = OpenKeySet.mix(key) & m;
+		for (; ; ) {
+			int k = a[pos];
+			if (k == 0) {
+				break;
+			}
+			if (k == key) {
+				return false;
+			}
+			pos = (pos + 1) & m;
+		}
+		a[pos] = key;
+		if (++used >= maxUsed) {
+			rehash();
+		}
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object key) {
+		return key instanceof Integer && contains(((Integer) key).intValue());
+	}
+
+	boolean contains(int key) {
+		if (key == 0) {
+			return containsZero;
+		}
+		int[] a = keys;
+		int m = mask;
+		int pos = OpenKeySet.mix(key) & m;
+		for (; ; ) {
+			int k = a[pos];
+			if (k == 0) {
+				return false;
+			}
+			if (k == key) {
+				return true;
+			}
+			pos = (pos + 1) & m;
+		}
+	}
+
+	void rehash() {
+		int[] a = keys;
+		init(a.length << 1);
+		int[] b = keys;
+		int m = mask;
+		for (int k : a) {
+			if (k != 0) {
+				int pos = OpenKeySet.mix(k) & m;
+				while (b[pos] != 0) {
+					pos = (pos + 1) & m;
+				}
+				b[pos] = k;
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, 0);
+		used = 0;
+		containsZero = false;
+	}
+
+	@Override
+	public int size() {
+		return containsZero ? used + 1 : used;
+	}
+
+	@Override
+	public Iterator<Integer> iterator() {
+		return new Iterator<Integer>() {
+			final int[] a = keys;
+			int index = -1;
+			int remaining = used;
+			boolean zero = containsZero;
+
+			@Override
+			public boolean hasNext() {
+				return zero || remaining != 0;
+			}
+
+			@Override
+			public Integer next() {
+				if (zero) {
+					zero = false;
+					return 0;
+				}
+				if (remaining == 0) {
+					throw new NoSuchElementException();
+				}
+				while (a[++index] == 0) {
+				}
+				remaining--;
+				return a[index];
+			}
+		};
+	}
+}
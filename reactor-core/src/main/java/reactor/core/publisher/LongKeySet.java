@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import reactor.util.concurrent.QueueSupplier;
+
+/**
+ * A {@link java.util.Set} of {@code long} keys stored unboxed in an array, used as an
+ * open-addressed hash table with linear probing, 0 marking the empty slots and being
+ * tracked separately. Keys can be added but not removed, other than by
+ * {@link #clear()}.
+ * <p>
+ * Not thread-safe.
+ */
+final class LongKeySet extends AbstractSet<Long> {
+
+	long[] keys;
+
+	int mask;
+
+	int used;
+
+	int maxUsed;
+
+	boolean containsZero;
+
+	LongKeySet() {
+		this(16);
+	}
+
+	LongKeySet(int capacity) {
+		init(QueueSupplier.ceilingNextPowerOfTwo(Math.max(2, capacity)));
+	}
+
+	void init(int capacity) {
+		this.keys = new long[capacity];
+		this.mask = capacity - 1;
+		this.maxUsed = capacity - (capacity >> 2);
+	}
+
+	static int mix(long x) {
+		return OpenKeySet.mix((int) (x ^ (x >>> 32)));
+	}
+
+	@Override
+	public boolean add(Long key) {
+		return add(key.longValue());
+	}
+
+	/**
+	 * Add the given key, without boxing it.
+	 *
+	 * @param key the key to add
+	 *
+	 * @return true if the key was not in the set yet
+	 */
+	boolean add(long key) {
+		if (key == 0L) {
+			if (containsZero) {
+				return false;
+			}
+			containsZero = true;
+			return true;
+		}
+		long[] a = keys;
+		int m = mask;
+		int pos = mix(key) & m;
+		for (; ; ) {
+			long k = a[pos];
+			if (k == 0L) {
+				break;
+			}
+			if (k == key) {
+				return false;
+			}
+			pos = (pos + 1) & m;
+		}
+		a[pos] = key;
+		if (++used >= maxUsed) {
+			rehash();
+		}
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object key) {
+		return key instanceof Long && contains(((Long) key).longValue());
+	}
+
+	boolean contains(long key) {
+		if (key == 0L) {
+			return containsZero;
+		}
+		long[] a = keys;
+		int m = mask;
+		int pos = mix(key) & m;
+		for (; ; ) {
+			long k = a[pos];
+			if (k == 0L) {
+				return false;
+			}
+			if (k == key) {
+				return true;
+			}
+			pos = (pos + 1) & m;
+		}
+	}
+
+	void rehash() {
+		long[] a = keys;
+		init(a.length << 1);
+		long[] b = keys;
+		int m = mask;
+		for (long k : a) {
+			if (k != 0L) {
+				int pos = mix(k) & m;
+				while (b[pos] != 0L) {
+					pos = (pos + 1) & m;
+				}
+				b[pos] = k;
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, 0L);
+		used = 0;
+		containsZero = false;
+	}
+
+	@Override
+	public int size() {
+		return containsZero ? used + 1 : used;
+	}
+
+	@Override
+	public Iterator<Long> iterator() {
+		return new Iterator<Long>() {
+			final long[] a = keys;
+			int index = -1;
+			int remaining = used;
+			boolean zero = containsZero;
+
+			@Override
+			public boolean hasNext() {
+				return zero || remaining != 0;
+			}
+
+			@Override
+			public Long next() {
+				if (zero) {
+					zero = false;
+					return 0L;
+				}
+				if (remaining == 0) {
+					throw new NoSuchElementException();
+				}
+				while (a[++index] == 0L) {
+				}
+				remaining--;
+				return a[index];
+			}
+		};
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A {@link java.util.Set} remembering at most a given number of keys: adding a key
+ * beyond that evicts the least recently added or re-added one.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <K> the key type
+ */
+final class LruKeySet<K> extends AbstractSet<K> {
+
+	final LinkedHashMap<K, Boolean> map;
+
+	LruKeySet(int maxKeys) {
+		if (maxKeys <= 0) {
+			throw new IllegalArgumentException("maxKeys > 0 required but it was " + maxKeys);
+		}
+		this.map = new LinkedHashMap<K, Boolean>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) {
+				return size() > maxKeys;
+			}
+		};
+	}
+
+	@Override
+	public boolean add(K key) {
+		return map.put(key, Boolean.TRUE) == null;
+	}
+
+	@Override
+	public boolean contains(Object key) {
+		return map.containsKey(key);
+	}
+
+	@Override
+	public boolean remove(Object key) {
+		return map.remove(key) != null;
+	}
+
+	@Override
+	public void clear() {
+		map.clear();
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@Override
+	public Iterator<K> iterator() {
+		return map.keySet()
+		          .iterator();
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.util.context.Context;
+
+/**
+ * Emits the smallest or largest of the long values extracted from the source sequence,
+ * tracked in a primitive field, or nothing for an empty source.
+ * <p>
+ * Synchronous fuseable sources like {@link Flux#range(int, int) range} or
+ * {@link Flux#fromArray(Object[]) arrays} are drained by polling in a single loop.
+ *
+ * @param <T> the source value type
+ */
+final class MonoMinMaxLong<T> extends MonoFromFluxOperator<T, Long> implements Fuseable {
+
+	final ToLongFunction<? super T> mapper;
+	final boolean                   max;
+
+	MonoMinMaxLong(Flux<? extends T> source, ToLongFunction<? super T> mapper, boolean max) {
+		super(source);
+		this.mapper = Objects.requireNonNull(mapper, "mapper");
+		this.max = max;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super Long> s, Context ctx) {
+		source.subscribe(new MinMaxLongSubscriber<>(s, mapper, max), ctx);
+	}
+
+	static final class MinMaxLongSubscriber<T> extends Operators.MonoSubscriber<T, Long> {
+
+		final ToLongFunction<? super T> mapper;
+		final boolean                   max;
+
+		Subscription s;
+
+		boolean done;
+
+		boolean hasValue;
+		long    value;
+
+		MinMaxLongSubscriber(Subscriber<? super Long> actual,
+				ToLongFunction<? super T> mapper,
+				boolean max) {
+			super(actual);
+			this.mapper = mapper;
+			this.max = max;
+		}
+
+		void accept(long v) {
+			if (!hasValue) {
+				hasValue = true;
+				value = v;
+			}
+			else if (max ? v > value : v < value) {
+				value = v;
+			}
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == BooleanAttr.TERMINATED) return done;
+
+			return super.scanUnsafe(key);
+		}
+
+		@Override
+		public void cancel() {
+			super.cancel();
+			s.cancel();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				if (s instanceof QueueSubscription) {
+					@SuppressWarnings("unchecked")
+					QueueSubscription<T> qs = (QueueSubscription<T>) s;
+					if (qs.requestFusion(Fuseable.SYNC) == Fuseable.SYNC) {
+						actual.onSubscribe(this);
+						drainSync(qs);
+						return;
+					}
+				}
+
+				actual.onSubscribe(this);
+
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		void drainSync(QueueSubscription<T> qs) {
+			ToLongFunction<? super T> mapper = this.mapper;
+			for (; ; ) {
+				if (isCancelled()) {
+					return;
+				}
+				T v = null;
+				try {
+					v = qs.poll();
+					if (v == null) {
+						break;
+					}
+					accept(mapper.applyAsLong(v));
+				}
+				catch (Throwable e) {
+					onError(Operators.onOperatorError(qs, e, v));
+					return;
+				}
+			}
+			onComplete();
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			try {
+				accept(mapper.applyAsLong(t));
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, t));
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			if (hasValue) {
+				complete(value);
+			}
+			else {
+				actual.onComplete();
+			}
+		}
+	}
+}
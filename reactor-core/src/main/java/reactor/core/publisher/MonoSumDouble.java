@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.util.context.Context;
+
+/**
+ * Sums the double values extracted from the source sequence into primitive fields,
+ * using Kahan summation to limit the accumulated rounding error. Emits either the sum,
+ * 0 for an empty source, or the average, nothing for an empty source.
+ * <p>
+ * Synchronous fuseable sources like {@link Flux#range(int, int) range} or
+ * {@link Flux#fromArray(Object[]) arrays} are drained by polling in a single loop.
+ *
+ * @param <T> the source value type
+ */
+final class MonoSumDouble<T> extends MonoFromFluxOperator<T, Double> implements Fuseable {
+
+	final ToDoubleFunction<? super T> mapper;
+	final boolean                     average;
+
+	MonoSumDouble(Flux<? extends T> source,
+			ToDoubleFunction<? super T> mapper,
+			boolean average) {
+		super(source);
+		this.mapper = Objects.requireNonNull(mapper, "mapper");
+		this.average = average;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super Double> s, Context ctx) {
+		source.subscribe(new SumDoubleSubscriber<>(s, mapper, average), ctx);
+	}
+
+	static final class SumDoubleSubscriber<T> extends Operators.MonoSubscriber<T, Double> {
+
+		final ToDoubleFunction<? super T> mapper;
+		final boolean                     average;
+
+		Subscription s;
+
+		boolean done;
+
+		double sum;
+		double compensation;
+		long   count;
+
+		SumDoubleSubscriber(Subscriber<? super Double> actual,
+				ToDoubleFunction<? super T> mapper,
+				boolean average) {
+			super(actual);
+			this.mapper = mapper;
+			this.average = average;
+		}
+
+		void add(double v) {
+			double y = v - compensation;
+			double t = sum + y;
+			compensation = (t - sum) - y;
+			sum = t;
+			count++;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == BooleanAttr.TERMINATED) return done;
+
+			return super.scanUnsafe(key);
+		}
+
+		@Override
+		public void cancel() {
+			super.cancel();
+			s.cancel();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				if (s instanceof QueueSubscription) {
+					@SuppressWarnings("unchecked")
+					QueueSubscription<T> qs = (QueueSubscription<T>) s;
+					if (qs.requestFusion(Fuseable.SYNC) == Fuseable.SYNC) {
+						actual.onSubscribe(this);
+						drainSync(qs);
+						return;
+					}
+				}
+
+				actual.onSubscribe(this);
+
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		void drainSync(QueueSubscription<T> qs) {
+			ToDoubleFunction<? super T> mapper = this.mapper;
+			for (; ; ) {
+				if (isCancelled()) {
+					return;
+				}
+				T v = null;
+				try {
+					v = qs.poll();
+					if (v == null) {
+						break;
+					}
+					add(mapper.applyAsDouble(v));
+				}
+				catch (Throwable e) {
+					onError(Operators.onOperatorError(qs, e, v));
+					return;
+				}
+			}
+			onComplete();
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			try {
+				add(mapper.applyAsDouble(t));
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, t));
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			if (!average) {
+				complete(sum);
+			}
+			else if (count == 0L) {
+				actual.onComplete();
+			}
+			else {
+				complete(sum / count);
+			}
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.util.context.Context;
+
+/**
+ * Sums the long values extracted from the source sequence into a primitive field,
+ * emitting 0 for an empty source. The sum is only boxed once, by the result function,
+ * which can also narrow it.
+ * <p>
+ * Synchronous fuseable sources like {@link Flux#range(int, int) range} or
+ * {@link Flux#fromArray(Object[]) arrays} are drained by polling in a single loop.
+ *
+ * @param <T> the source value type
+ * @param <R> the sum type
+ */
+final class MonoSumLong<T, R> extends MonoFromFluxOperator<T, R> implements Fuseable {
+
+	final ToLongFunction<? super T> mapper;
+
+	final LongFunction<R> result;
+
+	MonoSumLong(Flux<? extends T> source,
+			ToLongFunction<? super T> mapper,
+			LongFunction<R> result) {
+		super(source);
+		this.mapper = Objects.requireNonNull(mapper, "mapper");
+		this.result = result;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super R> s, Context ctx) {
+		source.subscribe(new SumLongSubscriber<>(s, mapper, result), ctx);
+	}
+
+	static final class SumLongSubscriber<T, R> extends Operators.MonoSubscriber<T, R> {
+
+		final ToLongFunction<? super T> mapper;
+
+		final LongFunction<R> result;
+
+		Subscription s;
+
+		boolean done;
+
+		long sum;
+
+		SumLongSubscriber(Subscriber<? super R> actual,
+				ToLongFunction<? super T> mapper,
+				LongFunction<R> result) {
+			super(actual);
+			this.mapper = mapper;
+			this.result = result;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == BooleanAttr.TERMINATED) return done;
+
+			return super.scanUnsafe(key);
+		}
+
+		@Override
+		public void cancel() {
+			super.cancel();
+			s.cancel();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				if (s instanceof QueueSubscription) {
+					@SuppressWarnings("unchecked")
+					QueueSubscription<T> qs = (QueueSubscription<T>) s;
+					if (qs.requestFusion(Fuseable.SYNC) == Fuseable.SYNC) {
+						actual.onSubscribe(this);
+						drainSync(qs);
+						return;
+					}
+				}
+
+				actual.onSubscribe(this);
+
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		void drainSync(QueueSubscription<T> qs) {
+			long sum = 0L;
+			ToLongFunction<? super T> mapper = this.mapper;
+			for (; ; ) {
+				if (isCancelled()) {
+					return;
+				}
+				T v = null;
+				try {
+					v = qs.poll();
+					if (v == null) {
+						break;
+					}
+					sum += mapper.applyAsLong(v);
+				}
+				catch (Throwable e) {
+					onError(Operators.onOperatorError(qs, e, v));
+					return;
+				}
+			}
+			this.sum = sum;
+			onComplete();
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			try {
+				sum += mapper.applyAsLong(t);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, t));
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			complete(result.apply(sum));
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import reactor.util.concurrent.QueueSupplier;
+
+/**
+ * A {@link java.util.Set} of keys stored directly in an array, used as an open-addressed
+ * hash table with linear probing: unlike a {@link java.util.HashSet}, it doesn't
+ * allocate a node per key. Keys can be added but not removed, other than by
+ * {@link #clear()}, and must not be null.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <K> the key type
+ */
+final class OpenKeySet<K> extends AbstractSet<K> {
+
+	Object[] keys;
+
+	int mask;
+
+	int size;
+
+	int maxSize;
+
+	OpenKeySet() {
+		this(16);
+	}
+
+	OpenKeySet(int capacity) {
+		init(QueueSupplier.ceilingNextPowerOfTwo(Math.max(2, capacity)));
+	}
+
+	void init(int capacity) {
+		this.keys = new Object[capacity];
+		this.mask = capacity - 1;
+		this.maxSize = capacity - (capacity >> 2);
+	}
+
+	static int mix(int x) {
+		int h = x * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	@Override
+	public boolean add(K key) {
+		Object[] a = keys;
+		int m = mask;
+		int pos = mix(key.hashCode()) & m;
+		for (; ; ) {
+			Object k = a[pos];
+			if (k == null) {
+				break;
+			}
+			if (k.equals(key)) {
+				return false;
+			}
+			pos = (pos + 1) & m;
+		}
+		a[pos] = key;
+		if (++size >= maxSize) {
+			rehash();
+		}
+		return true;
+	}
+
+	@Override
+	public boolean contains(Object key) {
+		Object[] a = keys;
+		int m = mask;
+		int pos = mix(key.hashCode()) & m;
+		for (; ; ) {
+			Object k = a[pos];
+			if (k == null) {
+				return false;
+			}
+			if (k.equals(key)) {
+				return true;
+			}
+			pos = (pos + 1) & m;
+		}
+	}
+
+	void rehash() {
+		Object[] a = keys;
+		init(a.length << 1);
+		Object[] b = keys;
+		int m = mask;
+		for (Object k : a) {
+			if (k != null) {
+				int pos = mix(k.hashCode()) & m;
+				while (b[pos] != null) {
+					pos = (pos + 1) & m;
+				}
+				b[pos] = k;
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(keys, null);
+		size = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Iterator<K> iterator() {
+		return new Iterator<K>() {
+			final Object[] a = keys;
+			int index = -1;
+			int remaining = size;
+
+			@Override
+			public boolean hasNext() {
+				return remaining != 0;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public K next() {
+				if (remaining == 0) {
+					throw new NoSuchElementException();
+				}
+				while (a[++index] == null) {
+				}
+				remaining--;
+				return (K) a[index];
+			}
+		};
+	}
+}
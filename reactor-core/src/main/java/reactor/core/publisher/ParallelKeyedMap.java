@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Subscriber;
+import reactor.core.Scannable;
+import reactor.util.context.Context;
+import reactor.util.function.Tuple2;
+
+/**
+ * Maps each 'rail' of the source ParallelFlux of keyed values with a mapper function
+ * also receiving a state per key. The states live in a map per rail, only accessed by
+ * that rail, so the source must dispatch all the values of a given key to the same rail.
+ *
+ * @param <K> the key type
+ * @param <T> the input value type
+ * @param <S> the state type
+ * @param <R> the output value type
+ */
+final class ParallelKeyedMap<K, T, S, R> extends ParallelFlux<R> implements Scannable {
+
+	final ParallelFlux<Tuple2<K, T>> source;
+
+	final Function<? super K, ? extends S> stateFactory;
+
+	final BiFunction<? super S, ? super T, ? extends R> mapper;
+
+	ParallelKeyedMap(ParallelFlux<Tuple2<K, T>> source,
+			Function<? super K, ? extends S> stateFactory,
+			BiFunction<? super S, ? super T, ? extends R> mapper) {
+		this.source = source;
+		this.stateFactory = stateFactory;
+		this.mapper = mapper;
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == ScannableAttr.PARENT) return source;
+		if (key == IntAttr.PREFETCH) return getPrefetch();
+
+		return null;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super R>[] subscribers, Context ctx) {
+		if (!validate(subscribers)) {
+			return;
+		}
+
+		int n = subscribers.length;
+		@SuppressWarnings("unchecked")
+		Subscriber<? super Tuple2<K, T>>[] parents = new Subscriber[n];
+
+		for (int i = 0; i < n; i++) {
+			Map<K, S> states = new HashMap<>();
+			parents[i] = new FluxMap.MapSubscriber<>(subscribers[i],
+					v -> mapper.apply(state(states, v.getT1()), v.getT2()));
+		}
+
+		source.subscribe(parents, ctx);
+	}
+
+	S state(Map<K, S> states, K key) {
+		S state = states.get(key);
+		if (state == null) {
+			state = Objects.requireNonNull(stateFactory.apply(key),
+					"The stateFactory returned a null state");
+			states.put(key, state);
+		}
+		return state;
+	}
+
+	@Override
+	public int parallelism() {
+		return source.parallelism();
+	}
+}
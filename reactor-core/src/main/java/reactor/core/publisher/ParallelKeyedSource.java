@@ -0,0 +1,469 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.util.context.Context;
+
+/**
+ * Dispatches the values from upstream to the subscriber whose index is the hash of
+ * their key modulo the number of subscribers, so that all the values of a given key go
+ * to the same subscriber, in order.
+ * <p>
+ * A value waits for its subscriber to request before being dispatched and, to keep the
+ * order, so do all the values after it: a slow subscriber ends up slowing the others.
+ *
+ * @param <T> the value type
+ */
+final class ParallelKeyedSource<T> extends ParallelFlux<T> implements Scannable {
+	final Flux<? extends T> source;
+
+	final Function<? super T, ?> keySelector;
+
+	final int parallelism;
+
+	final int prefetch;
+
+	final Supplier<Queue<T>> queueSupplier;
+
+	ParallelKeyedSource(Publisher<? extends T> source,
+			Function<? super T, ?> keySelector,
+			int parallelism,
+			int prefetch,
+			Supplier<Queue<T>> queueSupplier) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism > 0 required but it was " + parallelism);
+		}
+		if (prefetch <= 0) {
+			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+		}
+		this.source = Flux.from(source);
+		this.keySelector = Objects.requireNonNull(keySelector, "keySelector");
+		this.parallelism = parallelism;
+		this.prefetch = prefetch;
+		this.queueSupplier = queueSupplier;
+	}
+
+	/**
+	 * @return the index of the rail the values of the given key are dispatched to
+	 */
+	static int railOf(Object key, int parallelism) {
+		int h = key.hashCode();
+		return ((h ^ (h >>> 16)) & Integer.MAX_VALUE) % parallelism;
+	}
+
+	@Override
+	public int getPrefetch() {
+		return prefetch;
+	}
+
+	@Override
+	public int parallelism() {
+		return parallelism;
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Scannable.Attr key) {
+		if (key == ScannableAttr.PARENT) return source;
+		if (key == IntAttr.PREFETCH) return getPrefetch();
+
+		return null;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T>[] subscribers, Context ctx) {
+		if (!validate(subscribers)) {
+			return;
+		}
+
+		source.subscribe(new ParallelKeyedSourceMain<>(ctx, subscribers, keySelector, prefetch, queueSupplier), ctx);
+	}
+
+	static final class ParallelKeyedSourceMain<T> implements InnerConsumer<T> {
+
+		final Subscriber<? super T>[] subscribers;
+
+		final Function<? super T, ?> keySelector;
+
+		final AtomicLongArray requests;
+
+		final long[] emissions;
+
+		final int prefetch;
+
+		final int limit;
+
+		final Supplier<Queue<T>> queueSupplier;
+
+		final Context context;
+
+		Subscription s;
+
+		Queue<T> queue;
+
+		Throwable error;
+
+		volatile boolean done;
+
+		volatile boolean cancelled;
+
+		volatile int wip;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<ParallelKeyedSourceMain> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(ParallelKeyedSourceMain.class, "wip");
+
+		/**
+		 * Counts how many subscribers were setup to delay triggering the
+		 * drain of upstream until all of them have been setup.
+		 */
+		volatile int subscriberCount;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<ParallelKeyedSourceMain> SUBSCRIBER_COUNT =
+				AtomicIntegerFieldUpdater.newUpdater(ParallelKeyedSourceMain.class, "subscriberCount");
+
+		/**
+		 * The value polled from the queue but not dispatched yet, its subscriber not
+		 * having requested, and the index of that subscriber.
+		 */
+		T pending;
+
+		int pendingRail;
+
+		int produced;
+
+		int sourceMode;
+
+		ParallelKeyedSourceMain(Context context,
+				Subscriber<? super T>[] subscribers,
+				Function<? super T, ?> keySelector,
+				int prefetch,
+				Supplier<Queue<T>> queueSupplier) {
+			this.subscribers = subscribers;
+			this.keySelector = keySelector;
+			this.prefetch = prefetch;
+			this.queueSupplier = queueSupplier;
+			this.limit = prefetch - (prefetch >> 2);
+			this.requests = new AtomicLongArray(subscribers.length);
+			this.emissions = new long[subscribers.length];
+			this.context = context;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return s;
+			if (key == IntAttr.PREFETCH) return prefetch;
+			if (key == BooleanAttr.TERMINATED) return done;
+			if (key == BooleanAttr.CANCELLED) return cancelled;
+			if (key == ThrowableAttr.ERROR) return error;
+			if (key == IntAttr.BUFFERED) return queue != null ? queue.size() : 0;
+
+			return null;
+		}
+
+		@Override
+		public Stream<? extends Scannable> inners() {
+			return Stream.of(subscribers).map(Scannable::from);
+		}
+
+		@Override
+		public Context currentContext() {
+			return context;
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				if (s instanceof Fuseable.QueueSubscription) {
+					@SuppressWarnings("unchecked")
+					Fuseable.QueueSubscription<T> qs = (Fuseable.QueueSubscription<T>) s;
+
+					int m = qs.requestFusion(Fuseable.ANY);
+
+					if (m == Fuseable.SYNC) {
+						sourceMode = m;
+						queue = qs;
+						done = true;
+						setupSubscribers();
+						drain();
+						return;
+					}
+					else if (m == Fuseable.ASYNC) {
+						sourceMode = m;
+						queue = qs;
+
+						setupSubscribers();
+
+						s.request(prefetch);
+
+						return;
+					}
+				}
+
+				queue = queueSupplier.get();
+
+				setupSubscribers();
+
+				s.request(prefetch);
+			}
+		}
+
+		void setupSubscribers() {
+			int m = subscribers.length;
+
+			for (int i = 0; i < m; i++) {
+				if (cancelled) {
+					return;
+				}
+
+				SUBSCRIBER_COUNT.lazySet(this, i + 1);
+
+				subscribers[i].onSubscribe(new ParallelKeyedSourceInner<>(this, i, m));
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t);
+				return;
+			}
+			if (sourceMode == Fuseable.NONE) {
+				if (!queue.offer(t)) {
+					onError(Operators.onOperatorError(s, Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL), t));
+					return;
+				}
+			}
+			drain();
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t);
+				return;
+			}
+			error = t;
+			done = true;
+			drain();
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			drain();
+		}
+
+		void cancel() {
+			if (!cancelled) {
+				cancelled = true;
+				this.s.cancel();
+
+				if (WIP.getAndIncrement(this) == 0) {
+					pending = null;
+					queue.clear();
+				}
+			}
+		}
+
+		void drain() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+
+			int missed = 1;
+
+			Queue<T> q = queue;
+			Subscriber<? super T>[] a = this.subscribers;
+			AtomicLongArray r = this.requests;
+			long[] e = this.emissions;
+			int n = e.length;
+			boolean sync = sourceMode == Fuseable.SYNC;
+			int consumed = produced;
+
+			for (;;) {
+
+				for (;;) {
+					if (cancelled) {
+						pending = null;
+						q.clear();
+						return;
+					}
+
+					boolean d = done;
+					if (d) {
+						Throwable ex = error;
+						if (ex != null) {
+							pending = null;
+							q.clear();
+							for (Subscriber<? super T> s : a) {
+								s.onError(ex);
+							}
+							return;
+						}
+					}
+
+					T v = pending;
+					int rail;
+
+					if (v == null) {
+						try {
+							v = q.poll();
+						}
+						catch (Throwable ex) {
+							ex = Operators.onOperatorError(s, ex);
+							for (Subscriber<? super T> s : a) {
+								s.onError(ex);
+							}
+							return;
+						}
+
+						if (v == null) {
+							if (d) {
+								for (Subscriber<? super T> s : a) {
+									s.onComplete();
+								}
+								return;
+							}
+							break;
+						}
+
+						try {
+							rail = railOf(Objects.requireNonNull(keySelector.apply(v),
+									"The keySelector returned a null value"), n);
+						}
+						catch (Throwable ex) {
+							ex = Operators.onOperatorError(s, ex, v);
+							q.clear();
+							for (Subscriber<? super T> s : a) {
+								s.onError(ex);
+							}
+							return;
+						}
+
+						if (!sync) {
+							int c = ++consumed;
+							if (c == limit) {
+								consumed = 0;
+								s.request(c);
+							}
+						}
+					}
+					else {
+						rail = pendingRail;
+					}
+
+					long erail = e[rail];
+					if (r.get(rail) == erail) {
+						pending = v;
+						pendingRail = rail;
+						break;
+					}
+
+					pending = null;
+
+					a[rail].onNext(v);
+
+					e[rail] = erail + 1;
+				}
+
+				int w = wip;
+				if (w == missed) {
+					produced = consumed;
+					missed = WIP.addAndGet(this, -missed);
+					if (missed == 0) {
+						break;
+					}
+				}
+				else {
+					missed = w;
+				}
+			}
+		}
+
+		static final class ParallelKeyedSourceInner<T> implements InnerProducer<T> {
+
+			final ParallelKeyedSourceMain<T> parent;
+
+			final int index;
+			final int length;
+
+			ParallelKeyedSourceInner(ParallelKeyedSourceMain<T> parent, int index, int length) {
+				this.index = index;
+				this.length = length;
+				this.parent = parent;
+			}
+
+			@Override
+			public Subscriber<? super T> actual() {
+				return parent.subscribers[index];
+			}
+
+			@Override
+			@Nullable
+			public Object scanUnsafe(Attr key) {
+				if (key == ScannableAttr.PARENT) return parent;
+
+				return InnerProducer.super.scanUnsafe(key);
+			}
+
+			@Override
+			public void request(long n) {
+				if (Operators.validate(n)) {
+					AtomicLongArray ra = parent.requests;
+					for (;;) {
+						long r = ra.get(index);
+						if (r == Long.MAX_VALUE) {
+							return;
+						}
+						long u = Operators.addCap(r, n);
+						if (ra.compareAndSet(index, r, u)) {
+							break;
+						}
+					}
+					if (parent.subscriberCount == length) {
+						parent.drain();
+					}
+				}
+			}
+
+			@Override
+			public void cancel() {
+				parent.cancel();
+			}
+		}
+	}
+}
@@ -16,11 +16,14 @@
 
 package reactor.core.publisher;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.reactivestreams.Subscriber;
@@ -132,11 +135,33 @@ public final class ReplayProcessor<T> extends FluxProcessor<T, T>
 			buffer = new FluxReplay.UnboundedReplayBuffer<>(historySize);
 		}
 		else {
-			buffer = new FluxReplay.SizeBoundReplayBuffer<>(historySize);
+			buffer = new FluxReplay.ChunkedReplayBuffer<>(historySize);
 		}
 		return new ReplayProcessor<>(buffer);
 	}
 
+	/**
+	 * Create a new unbounded {@link ReplayProcessor} that stores its history off-heap:
+	 * each value is serialized by the encoder into direct {@link ByteBuffer} chunks, and
+	 * decoded again for each {@link Subscriber} as it replays.
+	 * <p>
+	 * The encoder should return a buffer whose remaining bytes represent the value. The
+	 * decoder is given a read-only buffer holding exactly these bytes and must not keep a
+	 * reference to it. If the encoder fails, the processor terminates with that error.
+	 *
+	 * @param encoder the {@link Function} serializing a value into a {@link ByteBuffer}
+	 * @param decoder the {@link Function} deserializing a value from a {@link ByteBuffer}
+	 * @param <E> Type of processed signals
+	 *
+	 * @return a fresh processor
+	 */
+	public static <E> ReplayProcessor<E> createSerialized(Function<? super E, ? extends ByteBuffer> encoder,
+			Function<? super ByteBuffer, ? extends E> decoder) {
+		return new ReplayProcessor<>(new FluxReplay.SerializedReplayBuffer<>(encoder,
+				decoder,
+				FluxReplay.SerializedReplayBuffer.CHUNK_SIZE));
+	}
+
 	/**
 	 * Creates a time-bounded replay processor.
 	 * <p>
@@ -284,7 +309,7 @@ public final class ReplayProcessor<T> extends FluxProcessor<T, T>
 		if (size <= 0) {
 			throw new IllegalArgumentException("size > 0 required but it was " + size);
 		}
-		return new ReplayProcessor<>(new FluxReplay.SizeAndTimeBoundReplayBuffer<>(size,
+		return new ReplayProcessor<>(new FluxReplay.ChunkedReplayBuffer<>(size,
 				maxAge.toMillis(),
 				scheduler));
 	}
@@ -323,6 +348,77 @@ public final class ReplayProcessor<T> extends FluxProcessor<T, T>
 		buffer.replay(rs);
 	}
 
+	/**
+	 * Return a {@link Flux} replaying the history of this processor from the first
+	 * retained value received at or after the given {@link Instant}, then following
+	 * live values. Older values are skipped without scanning them, which lets a
+	 * reconnecting {@link Subscriber} resume from the time of the last value it saw.
+	 * <p>
+	 * Only supported by processors that time stamp their values, that is created with
+	 * {@link #createTimeout(Duration)} or {@link #createSizeAndTimeout(int, Duration)}
+	 * and their variants. Time stamps are compared with the epoch milliseconds of the
+	 * given instant, as given by the {@link Scheduler#now(java.util.concurrent.TimeUnit)}
+	 * of the processor's {@link Scheduler}.
+	 *
+	 * @param from the time of the first value to replay
+	 *
+	 * @return a {@link Flux} replaying from the given time
+	 * @throws UnsupportedOperationException if the history is not time stamped
+	 */
+	public Flux<T> replayFrom(Instant from) {
+		Objects.requireNonNull(from, "from");
+		if (!(buffer instanceof FluxReplay.ChunkedReplayBuffer) ||
+				((FluxReplay.ChunkedReplayBuffer<T>) buffer).scheduler == null) {
+			throw new UnsupportedOperationException("ReplayProcessor history is not time stamped");
+		}
+		return onAssembly(new ReplayFrom<>(this, from.toEpochMilli(), true));
+	}
+
+	/**
+	 * Return a {@link Flux} replaying the history of this processor from the value at
+	 * the given offset, that is the number of values received before it, then following
+	 * live values. If that value has already been evicted, replay starts from the oldest
+	 * retained one.
+	 * <p>
+	 * Only supported by bounded processors, that is not created with
+	 * {@link #create()} or with an unbounded history.
+	 *
+	 * @param offset the number of values received before the first one to replay
+	 *
+	 * @return a {@link Flux} replaying from the given offset
+	 * @throws UnsupportedOperationException if the history is unbounded
+	 */
+	public Flux<T> replayFrom(long offset) {
+		if (offset < 0L) {
+			throw new IllegalArgumentException("offset >= 0 required but it was " + offset);
+		}
+		if (!(buffer instanceof FluxReplay.ChunkedReplayBuffer)) {
+			throw new UnsupportedOperationException("ReplayProcessor history is not indexed");
+		}
+		return onAssembly(new ReplayFrom<>(this, offset, false));
+	}
+
+	void subscribeFrom(Subscriber<? super T> s, long from, boolean time) {
+		FluxReplay.ChunkedReplayBuffer<T> b = (FluxReplay.ChunkedReplayBuffer<T>) buffer;
+		FluxReplay.ReplaySubscription<T> rs = new ReplayInner<>(s, this);
+		//positioned before any request can replay from the oldest value
+		if (time) {
+			b.seekTime(rs, from);
+		}
+		else {
+			b.seek(rs, from);
+		}
+		s.onSubscribe(rs);
+
+		if (add(rs)) {
+			if (rs.isCancelled()) {
+				remove(rs);
+				return;
+			}
+		}
+		b.replay(rs);
+	}
+
 	@Override
 	@Nullable
 	public Throwable getError() {
@@ -432,6 +528,20 @@ public final class ReplayProcessor<T> extends FluxProcessor<T, T>
 		}
 		else {
 			b.add(t);
+			if (b.isDone()) {
+				//the buffer failed to store the value
+				Subscription s = subscription;
+				if (s != null) {
+					s.cancel();
+				}
+				@SuppressWarnings("unchecked") FluxReplay.ReplaySubscription<T>[] a =
+						SUBSCRIBERS.getAndSet(this, TERMINATED);
+
+				for (FluxReplay.ReplaySubscription<T> rs : a) {
+					b.replay(rs);
+				}
+				return;
+			}
 			for (FluxReplay.ReplaySubscription<T> rs : subscribers) {
 				b.replay(rs);
 			}
@@ -471,6 +581,34 @@ public final class ReplayProcessor<T> extends FluxProcessor<T, T>
 		}
 	}
 
+	static final class ReplayFrom<T> extends Flux<T> implements Scannable {
+
+		final ReplayProcessor<T> parent;
+
+		final long from;
+
+		final boolean time;
+
+		ReplayFrom(ReplayProcessor<T> parent, long from, boolean time) {
+			this.parent = parent;
+			this.from = from;
+			this.time = time;
+		}
+
+		@Override
+		public void subscribe(Subscriber<? super T> s, Context ctx) {
+			parent.subscribeFrom(s, from, time);
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == ScannableAttr.PARENT) return parent;
+
+			return null;
+		}
+	}
+
 	static final class ReplayInner<T>
 			implements FluxReplay.ReplaySubscription<T> {
 
@@ -572,7 +710,7 @@ public final class ReplayProcessor<T> extends FluxProcessor<T, T>
 				parent.remove(this);
 
 				if (enter()) {
-					node = null;
+					buffer.clear(this);
 				}
 			}
 		}
@@ -23,6 +23,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.reactivestreams.Subscriber;
@@ -185,7 +186,9 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 		}
 
 		/**
-		 * Configures a supplier of dispatched signals to preallocate in the ring buffer
+		 * Configures a supplier of dispatched signals to preallocate in the ring buffer.
+		 * The preallocated signals can then be updated in place and emitted with
+		 * {@link TopicProcessor#onNextInPlace(Consumer)}.
 		 * @param signalSupplier A supplier of dispatched signals to preallocate
 		 * @return builder with provided signal supplier
 		 */
@@ -861,6 +864,8 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 
 	final ExecutorService requestTaskExecutor;
 
+	final boolean preallocated;
+
 	TopicProcessor(String name,
 			int bufferSize,
 			WaitStrategy waitStrategy,
@@ -911,6 +916,7 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 		this.minimum = RingBuffer.newSequence(-1);
 		this.barrier = ringBuffer.newReader();
 		this.requestTaskExecutor = requestTaskExecutor;
+		this.preallocated = signalSupplier != null;
 	}
 
 	@Override
@@ -988,6 +994,34 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 		return ringBuffer.getPending();
 	}
 
+	/**
+	 * Emit a signal by updating in place the instance pre-allocated by the
+	 * {@link Builder#signalSupplier(Supplier) signal supplier} in the next ring buffer
+	 * slot. Subscribers receive that same instance, so a steady flow of fixed-shape
+	 * signals doesn't allocate. As the instance is reused once the ring buffer wraps,
+	 * subscribers must not retain it past their {@code onNext}.
+	 * <p>
+	 * The slot is published even if the translator throws, the exception being
+	 * rethrown afterwards. Calling {@link #onNext(Object)} on the same processor replaces
+	 * the pre-allocated instance of the slot it lands in with the given value.
+	 *
+	 * @param translator the callback updating the pre-allocated signal
+	 * @throws IllegalStateException if this processor doesn't pre-allocate its signals
+	 */
+	public void onNextInPlace(Consumer<? super E> translator) {
+		Objects.requireNonNull(translator, "translator");
+		if (!preallocated) {
+			throw new IllegalStateException("onNextInPlace requires a signalSupplier");
+		}
+		final long seqId = ringBuffer.next();
+		try {
+			translator.accept(ringBuffer.get(seqId).value);
+		}
+		finally {
+			ringBuffer.publish(seqId);
+		}
+	}
+
 	@Override
 	protected void requestTask(Subscription s) {
 		minimum.set(ringBuffer.getCursor());
@@ -1106,22 +1140,29 @@ public final class TopicProcessor<E> extends EventLoopProcessor<E>  {
 
 						final long availableSequence = processor.barrier.waitFor(nextSequence, waiter);
 						while (nextSequence <= availableSequence) {
-							event = processor.ringBuffer.get(nextSequence);
+							long end = availableSequence + 1L;
 
-								//if bounded and out of capacity
-								while (!unbounded && getAndSub(pendingRequest, 1L) ==
-												0) {
+							if (!unbounded) {
+								//claim as much demand as the available range in one go
+								long batch = availableSequence - nextSequence + 1L;
+								long r;
+								while ((r = getAndSub(pendingRequest, batch)) == 0L) {
 									//Todo Use WaitStrategy?
 									if(!running.get() || processor.isTerminated()){
 										WaitStrategy.alert();
 									}
 									LockSupport.parkNanos(1L);
 								}
+								if (r < batch) {
+									end = nextSequence + r;
+								}
+							}
 
-								//It's an unbounded subscriber or there is enough capacity to process the signal
+							//It's an unbounded subscriber or there is enough capacity to process the signals
+							for (; nextSequence < end; nextSequence++) {
+								event = processor.ringBuffer.get(nextSequence);
 								subscriber.onNext(event.value);
-								nextSequence++;
-
+							}
 						}
 						sequence.set(availableSequence);
 
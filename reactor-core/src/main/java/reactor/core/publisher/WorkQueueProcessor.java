@@ -84,11 +84,13 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 		WaitStrategy waitStrategy;
 		boolean share;
 		boolean autoCancel;
+		int batchSize;
 
 		Builder() {
 			this.bufferSize = QueueSupplier.SMALL_BUFFER_SIZE;
 			this.autoCancel = true;
 			this.share = false;
+			this.batchSize = 1;
 		}
 
 		/**
@@ -179,6 +181,24 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 			return this;
 		}
 
+		/**
+		 * Configures the maximum number of signals each subscriber claims from the work
+		 * queue at once. Default value is 1. A larger batch costs a single atomic
+		 * claim for several signals, which suits many small tasks fanned out to a pool
+		 * of subscribers. A claim never exceeds the signals already available or the
+		 * subscriber's demand, so batches shrink when the queue is nearly empty.
+		 * @param batchSize the maximum number of signals claimed at once, strictly positive
+		 * @return builder with provided batch size
+		 */
+		public Builder<T> batchSize(int batchSize) {
+			if (batchSize < 1) {
+				throw new IllegalArgumentException("batchSize must be strictly positive, " +
+						"was: " + batchSize);
+			}
+			this.batchSize = batchSize;
+			return this;
+		}
+
 		/**
 		 * Creates a new {@link WorkQueueProcessor} using the properties
 		 * of this builder.
@@ -197,7 +217,8 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 					bufferSize,
 					waitStrategy,
 					share,
-					autoCancel);
+					autoCancel,
+					batchSize);
 		}
 	}
 
@@ -748,6 +769,8 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 
 	final WaitStrategy writeWait;
 
+	final int batchSize;
+
 	volatile int replaying;
 
 	@SuppressWarnings("rawtypes")
@@ -777,13 +800,23 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 				bufferSize, waitStrategy, share, autoCancel);
 	}
 
-	@SuppressWarnings("unchecked")
 	WorkQueueProcessor(
 			@Nullable ThreadFactory threadFactory,
 			@Nullable ExecutorService executor,
 			ExecutorService requestTaskExecutor,
 			int bufferSize, WaitStrategy waitStrategy, boolean share,
 	                                boolean autoCancel) {
+		this(threadFactory, executor, requestTaskExecutor, bufferSize, waitStrategy,
+				share, autoCancel, 1);
+	}
+
+	@SuppressWarnings("unchecked")
+	WorkQueueProcessor(
+			@Nullable ThreadFactory threadFactory,
+			@Nullable ExecutorService executor,
+			ExecutorService requestTaskExecutor,
+			int bufferSize, WaitStrategy waitStrategy, boolean share,
+	                                boolean autoCancel, int batchSize) {
 		super(bufferSize, threadFactory,
 				executor,
 				autoCancel,
@@ -794,6 +827,7 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 		Objects.requireNonNull(requestTaskExecutor, "requestTaskExecutor");
 
 		this.writeWait = waitStrategy;
+		this.batchSize = batchSize;
 
 		ringBuffer.addGatingSequence(workSequence);
 		this.requestTaskExecutor = requestTaskExecutor;
@@ -974,7 +1008,9 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 		 */
 		@Override
 		public void run() {
-			long nextSequence;
+			long nextSequence = RingBuffer.INITIAL_CURSOR_VALUE;
+			//last sequence of the current claim, from nextSequence
+			long batchEnd = RingBuffer.INITIAL_CURSOR_VALUE;
 			boolean processedSequence = true;
 
 			try {
@@ -1031,8 +1067,10 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 									LockSupport.parkNanos(1L);
 								}
 								sequence.set(nextSequence - 1L);
+								batchEnd = nextSequence - 1L +
+										claimSize(nextSequence - 1L, cachedAvailableSequence, unbounded);
 							}
-							while (!processor.workSequence.compareAndSet(nextSequence - 1L, nextSequence));
+							while (!processor.workSequence.compareAndSet(nextSequence - 1L, batchEnd));
 						}
 
 						if (cachedAvailableSequence >= nextSequence) {
@@ -1048,8 +1086,17 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 								barrier.clearAlert();
 							}
 
-							processedSequence = true;
-							subscriber.onNext(event.value);
+							//read the slot before moving the gating sequence past it
+							T value = event.value;
+							if (nextSequence == batchEnd) {
+								processedSequence = true;
+							}
+							else {
+								//move on within the claimed batch, without touching workSequence
+								nextSequence++;
+								sequence.set(nextSequence - 1L);
+							}
+							subscriber.onNext(value);
 
 
 						}
@@ -1098,6 +1145,13 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 
 				if(!processedSequence) {
 					processor.claimedDisposed.add(sequence);
+					//the rest of the batch is published already, hand it to other subscribers
+					for (long s = nextSequence + 1L; s <= batchEnd; s++) {
+						Object v = processor.ringBuffer.get(s).value;
+						if (v != null) {
+							processor.claimedDisposed.add(v);
+						}
+					}
 				}
 				else{
 					processor.ringBuffer.removeGatingSequence(sequence);
@@ -1108,6 +1162,23 @@ public final class WorkQueueProcessor<E> extends EventLoopProcessor<E> {
 			}
 		}
 
+		/**
+		 * Compute how many sequences to claim after {@code current}: up to the
+		 * processor batch size, but never beyond what was seen published nor beyond the
+		 * pending demand, so that a nearly empty queue is claimed one signal at a time.
+		 */
+		long claimSize(long current, long availableSequence, boolean unbounded) {
+			int batchSize = processor.batchSize;
+			if (batchSize == 1 || availableSequence <= current) {
+				return 1L;
+			}
+			long n = Math.min(batchSize, availableSequence - current);
+			if (!unbounded) {
+				n = Math.min(n, pendingRequest.getAsLong());
+			}
+			return Math.max(1L, n);
+		}
+
 		@SuppressWarnings("unchecked")
 		boolean replay(final boolean unbounded) {
 			if (REPLAYING.compareAndSet(processor, 0, 1)) {
@@ -0,0 +1,667 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+
+import static reactor.core.scheduler.ExecutorServiceScheduler.CANCELLED;
+
+/**
+ * Dynamically creates single-threaded ScheduledExecutorService-based Workers, like
+ * {@link ElasticScheduler}, but caps the number of threads to {@code maxThreads}. Once
+ * that many threads are in use, new workers share the least loaded thread. This
+ * scheduler is time-capable (can schedule with delay / periodically).
+ * <p>
+ * Each thread accepts at most {@code maxTaskQueuedPerThread} pending immediate tasks
+ * (delayed and periodic ones are not counted). Past that, the {@link RejectionPolicy}
+ * either rejects the task or parks it until the thread catches up.
+ * <p>
+ * Threads that no worker uses are kept for {@code ttlSeconds} before being shut down.
+ * <p>
+ * The scheduler is {@link Scannable}: {@link IntAttr#CAPACITY} is the maximum number of
+ * threads, {@link IntAttr#ACTIVE} and {@link IntAttr#IDLE} the number of used and
+ * cached threads and {@link IntAttr#BUFFERED} the number of pending tasks. Each thread
+ * is also exposed through {@link #inners()}.
+ * <p>
+ * This scheduler is not restartable.
+ */
+final class BoundedElasticScheduler
+		implements Scheduler, Scannable, Supplier<ScheduledExecutorService> {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	static final AtomicLong EVICTOR_COUNTER = new AtomicLong();
+
+	static final ThreadFactory EVICTOR_FACTORY = r -> {
+		Thread t = new Thread(r, "boundedElastic-evictor-" + EVICTOR_COUNTER.incrementAndGet());
+		t.setDaemon(true);
+		return t;
+	};
+
+	static final int DEFAULT_TTL_SECONDS = 60;
+
+	static final ScheduledExecutorService SHUTDOWN;
+
+	static {
+		SHUTDOWN = Executors.newSingleThreadScheduledExecutor();
+		SHUTDOWN.shutdownNow();
+	}
+
+	final int maxThreads;
+
+	final int maxTaskQueuedPerThread;
+
+	final int ttlSeconds;
+
+	final RejectionPolicy rejectionPolicy;
+
+	final ThreadFactory factory;
+
+	final ScheduledExecutorService evictor;
+
+	/** threads used by at least one worker, guarded by this */
+	final List<BoundedState> busy;
+
+	/** unused threads, most recently released first, guarded by this */
+	final Deque<BoundedState> idle;
+
+	volatile boolean shutdown;
+
+	BoundedElasticScheduler(int maxThreads,
+			int maxTaskQueuedPerThread,
+			int ttlSeconds,
+			RejectionPolicy rejectionPolicy,
+			ThreadFactory factory) {
+		if (maxThreads <= 0) {
+			throw new IllegalArgumentException("maxThreads > 0 required but it was " + maxThreads);
+		}
+		if (maxTaskQueuedPerThread <= 0) {
+			throw new IllegalArgumentException("maxTaskQueuedPerThread > 0 required but it was " + maxTaskQueuedPerThread);
+		}
+		if (ttlSeconds <= 0) {
+			throw new IllegalArgumentException("ttlSeconds > 0 required but it was " + ttlSeconds);
+		}
+		this.maxThreads = maxThreads;
+		this.maxTaskQueuedPerThread = maxTaskQueuedPerThread;
+		this.ttlSeconds = ttlSeconds;
+		this.rejectionPolicy = Objects.requireNonNull(rejectionPolicy, "rejectionPolicy");
+		this.factory = factory;
+		this.busy = new ArrayList<>();
+		this.idle = new ArrayDeque<>();
+		this.evictor = Executors.newScheduledThreadPool(1, EVICTOR_FACTORY);
+		this.evictor.scheduleAtFixedRate(this::eviction,
+				ttlSeconds,
+				ttlSeconds,
+				TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Instantiates the default {@link ScheduledExecutorService} for one thread of the
+	 * BoundedElasticScheduler ({@code Executors.newSingleThreadScheduledExecutor}).
+	 */
+	@Override
+	public ScheduledExecutorService get() {
+		return Executors.newSingleThreadScheduledExecutor(factory);
+	}
+
+	@Override
+	public void start() {
+		throw new UnsupportedOperationException("Restarting not supported yet");
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return shutdown;
+	}
+
+	@Override
+	public void dispose() {
+		if (shutdown) {
+			return;
+		}
+		shutdown = true;
+
+		evictor.shutdownNow();
+
+		List<BoundedState> all;
+		synchronized (this) {
+			all = new ArrayList<>(busy);
+			all.addAll(idle);
+			busy.clear();
+			idle.clear();
+		}
+		for (BoundedState s : all) {
+			s.executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Pick a thread for a new worker or direct task: the most recently released idle
+	 * one, a new one if under {@code maxThreads}, or else the least loaded busy one.
+	 *
+	 * @return the picked {@link BoundedState}, or null if the scheduler is shut down
+	 */
+	@Nullable
+	BoundedState pick() {
+		synchronized (this) {
+			if (shutdown) {
+				return null;
+			}
+			BoundedState s = idle.pollFirst();
+			if (s == null) {
+				if (busy.size() < maxThreads) {
+					s = new BoundedState(this,
+							Schedulers.decorateScheduledExecutorService(Schedulers.BOUNDED_ELASTIC, this));
+				}
+				else {
+					for (BoundedState b : busy) {
+						if (s == null || b.workers < s.workers || (b.workers == s.workers && b.pending() < s.pending())) {
+							s = b;
+						}
+					}
+					//noinspection ConstantConditions
+					s.workers++;
+					return s;
+				}
+			}
+			s.workers = 1;
+			busy.add(s);
+			return s;
+		}
+	}
+
+	void release(BoundedState s) {
+		synchronized (this) {
+			if (--s.workers != 0 || !busy.remove(s)) {
+				return;
+			}
+			if (!shutdown) {
+				s.idleSince = System.currentTimeMillis();
+				idle.addFirst(s);
+				return;
+			}
+		}
+		s.executor.shutdownNow();
+	}
+
+	void eviction() {
+		long expired = System.currentTimeMillis() - ttlSeconds * 1000L;
+		List<BoundedState> evicted = new ArrayList<>();
+		synchronized (this) {
+			Iterator<BoundedState> it = idle.descendingIterator();
+			while (it.hasNext()) {
+				BoundedState s = it.next();
+				if (s.idleSince > expired) {
+					break;
+				}
+				it.remove();
+				evicted.add(s);
+			}
+		}
+		for (BoundedState s : evicted) {
+			s.executor.shutdownNow();
+		}
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		Objects.requireNonNull(task, "task");
+		BoundedState s = pick();
+		if (s == null) {
+			return REJECTED;
+		}
+		return s.submit(new BoundedTask(task, s, null, false));
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		if (delay <= 0L) {
+			return schedule(task);
+		}
+		BoundedState s = pick();
+		if (s == null) {
+			return REJECTED;
+		}
+		return s.schedule(new BoundedTask(task, s, null, false), delay, unit);
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		BoundedState s = pick();
+		if (s == null) {
+			return REJECTED;
+		}
+		return s.schedulePeriodically(new BoundedTask(task, s, null, true),
+				initialDelay,
+				period,
+				unit);
+	}
+
+	@Override
+	public Worker createWorker() {
+		BoundedState s = pick();
+		if (s == null) {
+			s = new BoundedState(this, SHUTDOWN);
+		}
+		return new BoundedWorker(s);
+	}
+
+	@Override
+	public Stream<? extends Scannable> inners() {
+		List<BoundedState> all;
+		synchronized (this) {
+			all = new ArrayList<>(busy);
+			all.addAll(idle);
+		}
+		return all.stream();
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return shutdown;
+		if (key == IntAttr.CAPACITY) return maxThreads;
+		synchronized (this) {
+			if (key == IntAttr.ACTIVE) return busy.size();
+			if (key == IntAttr.IDLE) return idle.size();
+			if (key == IntAttr.BUFFERED) {
+				int n = 0;
+				for (BoundedState s : busy) {
+					n += s.pending();
+				}
+				return n;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * One thread of the scheduler, with the accounting of its pending tasks.
+	 */
+	static final class BoundedState implements Scannable {
+
+		final BoundedElasticScheduler  parent;
+		final ScheduledExecutorService executor;
+
+		final Queue<BoundedTask> deferred;
+
+		/** number of workers and direct tasks using this thread, guarded by parent */
+		int  workers;
+		/** guarded by parent */
+		long idleSince;
+
+		volatile int queued;
+		static final AtomicIntegerFieldUpdater<BoundedState> QUEUED =
+				AtomicIntegerFieldUpdater.newUpdater(BoundedState.class, "queued");
+
+		volatile int deferredCount;
+		static final AtomicIntegerFieldUpdater<BoundedState> DEFERRED_COUNT =
+				AtomicIntegerFieldUpdater.newUpdater(BoundedState.class, "deferredCount");
+
+		volatile int wip;
+		static final AtomicIntegerFieldUpdater<BoundedState> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(BoundedState.class, "wip");
+
+		BoundedState(BoundedElasticScheduler parent, ScheduledExecutorService executor) {
+			this.parent = parent;
+			this.executor = executor;
+			this.deferred = new ConcurrentLinkedQueue<>();
+		}
+
+		int pending() {
+			return queued + deferredCount;
+		}
+
+		boolean tryAcquire() {
+			int max = parent.maxTaskQueuedPerThread;
+			for (; ; ) {
+				int q = queued;
+				if (q >= max) {
+					return false;
+				}
+				if (QUEUED.compareAndSet(this, q, q + 1)) {
+					return true;
+				}
+			}
+		}
+
+		void decrement() {
+			QUEUED.decrementAndGet(this);
+			if (deferredCount != 0) {
+				drain();
+			}
+		}
+
+		Disposable submit(BoundedTask t) {
+			//once tasks are parked, new ones queue behind them to preserve ordering
+			if (deferredCount == 0 && tryAcquire()) {
+				BoundedTask.COUNTED.lazySet(t, 1);
+				return execute(t) ? t : REJECTED;
+			}
+			if (parent.rejectionPolicy == RejectionPolicy.REJECT) {
+				t.dispose();
+				return REJECTED;
+			}
+			DEFERRED_COUNT.incrementAndGet(this);
+			deferred.offer(t);
+			drain();
+			return t;
+		}
+
+		boolean execute(BoundedTask t) {
+			try {
+				t.setFuture(executor.submit(t));
+				return true;
+			}
+			catch (RejectedExecutionException ex) {
+				t.dispose();
+				return false;
+			}
+		}
+
+		Disposable schedule(BoundedTask t, long delay, TimeUnit unit) {
+			try {
+				t.setFuture(executor.schedule(t, delay, unit));
+				return t;
+			}
+			catch (RejectedExecutionException ex) {
+				t.dispose();
+				return REJECTED;
+			}
+		}
+
+		Disposable schedulePeriodically(BoundedTask t,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			try {
+				t.setFuture(executor.scheduleAtFixedRate(t, initialDelay, period, unit));
+				return t;
+			}
+			catch (RejectedExecutionException ex) {
+				t.dispose();
+				return REJECTED;
+			}
+		}
+
+		void drain() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+			final Queue<BoundedTask> q = deferred;
+			int missed = 1;
+
+			for (; ; ) {
+				for (; ; ) {
+					BoundedTask t = q.peek();
+					if (t == null) {
+						break;
+					}
+					boolean skip = t.isDisposed();
+					if (!skip && !tryAcquire()) {
+						break;
+					}
+					q.poll();
+					DEFERRED_COUNT.decrementAndGet(this);
+					if (!skip) {
+						BoundedTask.COUNTED.lazySet(t, 1);
+						execute(t);
+					}
+				}
+
+				missed = WIP.addAndGet(this, -missed);
+				if (missed == 0) {
+					break;
+				}
+			}
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return executor.isShutdown();
+			if (key == IntAttr.CAPACITY) return parent.maxTaskQueuedPerThread;
+			if (key == IntAttr.BUFFERED) return pending();
+			if (key == ScannableAttr.PARENT) return parent;
+
+			return null;
+		}
+	}
+
+	static final class BoundedWorker implements Worker, Scannable {
+
+		final BoundedState state;
+
+		final TaskRegistry<BoundedTask> tasks;
+
+		volatile int disposed;
+		static final AtomicIntegerFieldUpdater<BoundedWorker> DISPOSED =
+				AtomicIntegerFieldUpdater.newUpdater(BoundedWorker.class, "disposed");
+
+		BoundedWorker(BoundedState state) {
+			this.state = state;
+			this.tasks = new TaskRegistry<>();
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			Objects.requireNonNull(task, "task");
+			BoundedTask t = new BoundedTask(task, state, this, false);
+			if (!tasks.add(t)) {
+				return REJECTED;
+			}
+			return state.submit(t);
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			Objects.requireNonNull(task, "task");
+			if (delay <= 0L) {
+				return schedule(task);
+			}
+			BoundedTask t = new BoundedTask(task, state, this, false);
+			if (!tasks.add(t)) {
+				return REJECTED;
+			}
+			return state.schedule(t, delay, unit);
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			Objects.requireNonNull(task, "task");
+			BoundedTask t = new BoundedTask(task, state, this, true);
+			if (!tasks.add(t)) {
+				return REJECTED;
+			}
+			return state.schedulePeriodically(t, initialDelay, period, unit);
+		}
+
+		@Override
+		public void dispose() {
+			if (DISPOSED.compareAndSet(this, 0, 1)) {
+				tasks.dispose();
+				state.parent.release(state);
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return disposed != 0;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return isDisposed();
+			if (key == ScannableAttr.PARENT) return state;
+
+			return null;
+		}
+	}
+
+	/**
+	 * A task of a {@link BoundedWorker}, or a direct task that holds on to its thread
+	 * until it is done or disposed.
+	 */
+	static final class BoundedTask extends TaskRegistry.Node implements Runnable {
+
+		static final int READY     = 0;
+		static final int RUNNING   = 1;
+		static final int DONE      = 2;
+		static final int DISPOSED  = 3;
+
+		final Runnable     task;
+		final BoundedState state;
+		@Nullable
+		final BoundedWorker worker;
+		final boolean      periodic;
+
+		volatile int status;
+		static final AtomicIntegerFieldUpdater<BoundedTask> STATUS =
+				AtomicIntegerFieldUpdater.newUpdater(BoundedTask.class, "status");
+
+		/** 1 while the task counts against the queue capacity of its thread */
+		volatile int counted;
+		static final AtomicIntegerFieldUpdater<BoundedTask> COUNTED =
+				AtomicIntegerFieldUpdater.newUpdater(BoundedTask.class, "counted");
+
+		volatile Future<?> future;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<BoundedTask, Future> FUTURE =
+				AtomicReferenceFieldUpdater.newUpdater(BoundedTask.class, Future.class, "future");
+
+		BoundedTask(Runnable task,
+				BoundedState state,
+				@Nullable BoundedWorker worker,
+				boolean periodic) {
+			this.task = task;
+			this.state = state;
+			this.worker = worker;
+			this.periodic = periodic;
+		}
+
+		@Override
+		public void run() {
+			if (periodic) {
+				if (status == READY) {
+					runTask();
+				}
+				return;
+			}
+			if (!STATUS.compareAndSet(this, READY, RUNNING)) {
+				uncount();
+				return;
+			}
+			try {
+				runTask();
+			}
+			finally {
+				uncount();
+				if (STATUS.compareAndSet(this, RUNNING, DONE)) {
+					finish();
+				}
+			}
+		}
+
+		void runTask() {
+			try {
+				task.run();
+			}
+			catch (Throwable ex) {
+				Schedulers.handleError(ex);
+			}
+		}
+
+		void setFuture(Future<?> f) {
+			if (!FUTURE.compareAndSet(this, null, f)) {
+				f.cancel(true);
+				uncount();
+			}
+		}
+
+		void uncount() {
+			if (counted != 0 && COUNTED.compareAndSet(this, 1, 0)) {
+				state.decrement();
+			}
+		}
+
+		void finish() {
+			BoundedWorker w = worker;
+			if (w != null) {
+				w.tasks.remove(this);
+			}
+			else {
+				state.parent.release(state);
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return status >= DONE;
+		}
+
+		@Override
+		public void dispose() {
+			for (; ; ) {
+				int s = status;
+				if (s >= DONE) {
+					return;
+				}
+				if (STATUS.compareAndSet(this, s, DISPOSED)) {
+					break;
+				}
+			}
+			Future<?> f = FUTURE.getAndSet(this, CANCELLED);
+			if (f != null) {
+				f.cancel(true);
+			}
+			uncount();
+			finish();
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nullable;
+
+import reactor.core.Scannable;
+
+/**
+ * The {@link SchedulerMetrics} shared by all the {@link InstrumentedExecutorService}
+ * of a same {@link Scheduler}. Counters are {@link LongAdder} so that workers running
+ * on different threads don't contend on a single cache line.
+ */
+final class DefaultSchedulerMetrics implements SchedulerMetrics, Scannable {
+
+	final String name;
+
+	final LongAdder submitted = new LongAdder();
+	final LongAdder completed = new LongAdder();
+	final LongAdder rejected  = new LongAdder();
+	final LongAdder active    = new LongAdder();
+
+	final LatencyHistogram executionTime = new LatencyHistogram();
+	final LatencyHistogram waitTime      = new LatencyHistogram();
+
+	final Set<InstrumentedExecutorService> executors = ConcurrentHashMap.newKeySet();
+
+	DefaultSchedulerMetrics(String name) {
+		this.name = name;
+	}
+
+	void register(InstrumentedExecutorService executor) {
+		executors.add(executor);
+	}
+
+	void unregister(InstrumentedExecutorService executor) {
+		executors.remove(executor);
+	}
+
+	boolean isTerminated() {
+		return executors.isEmpty();
+	}
+
+	@Override
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public long submittedTasks() {
+		return submitted.sum();
+	}
+
+	@Override
+	public long completedTasks() {
+		return completed.sum();
+	}
+
+	@Override
+	public long rejectedTasks() {
+		return rejected.sum();
+	}
+
+	@Override
+	public int activeTasks() {
+		return (int) active.sum();
+	}
+
+	@Override
+	public int queuedTasks() {
+		long queued = 0L;
+		for (InstrumentedExecutorService executor : executors) {
+			queued += executor.queuedTasks();
+		}
+		return (int) Math.min(queued, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public long executionTimeNanos(double percentile) {
+		return executionTime.percentile(percentile);
+	}
+
+	@Override
+	public long waitTimeNanos(double percentile) {
+		return waitTime.percentile(percentile);
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == IntAttr.ACTIVE) return activeTasks();
+		if (key == IntAttr.BUFFERED) return queuedTasks();
+		if (key == BooleanAttr.TERMINATED) return isTerminated();
+
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return name + "{submitted=" + submittedTasks() + ", completed=" + completedTasks() +
+				", rejected=" + rejectedTasks() + ", active=" + activeTasks() +
+				", queued=" + queuedTasks() + "}";
+	}
+}
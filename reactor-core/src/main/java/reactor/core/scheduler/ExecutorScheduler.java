@@ -25,7 +25,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 import reactor.core.Disposable;
-import reactor.util.concurrent.OpenHashSet;
 
 /**
  * Wraps a java.util.concurrent.Executor and provides the Scheduler API over it.
@@ -136,17 +135,19 @@ final class ExecutorScheduler implements Scheduler {
 	 * A Runnable that wraps a task and has reference back to its parent worker to
 	 * remove itself once completed or cancelled
 	 */
-	static final class ExecutorTrackedRunnable extends AtomicBoolean
-			implements Runnable, Disposable {
-
-		/** */
-		private static final long serialVersionUID = 3503344795919906192L;
+	static final class ExecutorTrackedRunnable extends TaskRegistry.Node
+			implements Runnable {
 
 		final Runnable     task;
 		final WorkerDelete parent;
 
 		final boolean callRemoveOnFinish;
 
+		volatile int disposed;
+		static final AtomicIntegerFieldUpdater<ExecutorTrackedRunnable> DISPOSED =
+				AtomicIntegerFieldUpdater.newUpdater(ExecutorTrackedRunnable.class,
+						"disposed");
+
 		ExecutorTrackedRunnable(Runnable task,
 				WorkerDelete parent,
 				boolean callRemoveOnFinish) {
@@ -157,7 +158,7 @@ final class ExecutorScheduler implements Scheduler {
 
 		@Override
 		public void run() {
-				if (!get()) {
+				if (disposed == 0) {
 					try {
 						task.run();
 					}
@@ -169,7 +170,7 @@ final class ExecutorScheduler implements Scheduler {
 							dispose();
 						}
 						else {
-							lazySet(true);
+							DISPOSED.lazySet(this, 1);
 						}
 					}
 				}
@@ -177,14 +178,14 @@ final class ExecutorScheduler implements Scheduler {
 
 		@Override
 		public void dispose() {
-			if (compareAndSet(false, true)) {
+			if (DISPOSED.compareAndSet(this, 0, 1)) {
 				parent.delete(this);
 			}
 		}
 
 		@Override
 		public boolean isDisposed() {
-			return get();
+			return disposed != 0;
 		}
 	}
 
@@ -197,11 +198,11 @@ final class ExecutorScheduler implements Scheduler {
 
 		volatile boolean terminated;
 
-		OpenHashSet<ExecutorTrackedRunnable> tasks;
+		final TaskRegistry<ExecutorTrackedRunnable> tasks;
 
 		ExecutorSchedulerWorker(Executor executor) {
 			this.executor = executor;
-			this.tasks = new OpenHashSet<>();
+			this.tasks = new TaskRegistry<>();
 		}
 
 		@Override
@@ -212,22 +213,15 @@ final class ExecutorScheduler implements Scheduler {
 			}
 
 			ExecutorTrackedRunnable r = new ExecutorTrackedRunnable(task, this, true);
-			synchronized (this) {
-				if (terminated) {
-					return REJECTED;
-				}
-				tasks.add(r);
+			if (!tasks.add(r)) {
+				return REJECTED;
 			}
 
 			try {
 				executor.execute(r);
 			}
 			catch (Throwable ex) {
-				synchronized (this) {
-					if (!terminated) {
-						tasks.remove(r);
-					}
-				}
+				r.dispose();
 				Schedulers.handleError(ex);
 				return REJECTED;
 			}
@@ -240,24 +234,8 @@ final class ExecutorScheduler implements Scheduler {
 			if (terminated) {
 				return;
 			}
-			OpenHashSet<ExecutorTrackedRunnable> list;
-			synchronized (this) {
-				if (terminated) {
-					return;
-				}
-				terminated = true;
-				list = tasks;
-				tasks = null;
-			}
-
-			if (!list.isEmpty()) {
-				Object[] a = list.keys();
-				for (Object o : a) {
-					if (o != null) {
-						((ExecutorTrackedRunnable) o).dispose();
-					}
-				}
-			}
+			terminated = true;
+			tasks.dispose();
 		}
 
 		@Override
@@ -267,11 +245,7 @@ final class ExecutorScheduler implements Scheduler {
 
 		@Override
 		public void delete(ExecutorTrackedRunnable r) {
-			synchronized (this) {
-				if (!terminated) {
-					tasks.remove(r);
-				}
-			}
+			tasks.remove(r);
 		}
 
 	}
@@ -0,0 +1,353 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * An {@link ExecutorService} delegating to the one a {@link Scheduler} would have used,
+ * recording submissions, rejections and task timings in a {@link DefaultSchedulerMetrics}.
+ * Tasks are wrapped so that futures returned by the delegate still cancel and interrupt
+ * the actual execution.
+ */
+class InstrumentedExecutorService implements ExecutorService {
+
+	final ExecutorService         delegate;
+	final DefaultSchedulerMetrics metrics;
+
+	InstrumentedExecutorService(ExecutorService delegate, DefaultSchedulerMetrics metrics) {
+		this.delegate = delegate;
+		this.metrics = metrics;
+		metrics.register(this);
+	}
+
+	int queuedTasks() {
+		ExecutorService d = delegate;
+		if (d instanceof ThreadPoolExecutor) {
+			return ((ThreadPoolExecutor) d).getQueue()
+			                               .size();
+		}
+		if (d instanceof ForkJoinPool) {
+			ForkJoinPool pool = (ForkJoinPool) d;
+			long queued = pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+			return (int) Math.min(queued, Integer.MAX_VALUE);
+		}
+		return 0;
+	}
+
+	final Runnable wrap(Runnable task, boolean immediate) {
+		return new InstrumentedRunnable(task, metrics, immediate ? System.nanoTime() : 0L);
+	}
+
+	final <T> Callable<T> wrap(Callable<T> task, boolean immediate) {
+		return new InstrumentedCallable<>(task, metrics, immediate ? System.nanoTime() : 0L);
+	}
+
+	final <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+		List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+		for (Callable<T> task : tasks) {
+			wrapped.add(wrap(task, true));
+		}
+		return wrapped;
+	}
+
+	final RejectedExecutionException rejected(RejectedExecutionException ree) {
+		metrics.rejected.increment();
+		return ree;
+	}
+
+	final void submitted(int count) {
+		metrics.submitted.add(count);
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		try {
+			delegate.execute(wrap(command, true));
+		}
+		catch (RejectedExecutionException ree) {
+			throw rejected(ree);
+		}
+		submitted(1);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		Future<?> f;
+		try {
+			f = delegate.submit(wrap(task, true));
+		}
+		catch (RejectedExecutionException ree) {
+			throw rejected(ree);
+		}
+		submitted(1);
+		return f;
+	}
+
+	@Override
+	public <T> Future<T> submit(Runnable task, T result) {
+		Future<T> f;
+		try {
+			f = delegate.submit(wrap(task, true), result);
+		}
+		catch (RejectedExecutionException ree) {
+			throw rejected(ree);
+		}
+		submitted(1);
+		return f;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		Future<T> f;
+		try {
+			f = delegate.submit(wrap(task, true));
+		}
+		catch (RejectedExecutionException ree) {
+			throw rejected(ree);
+		}
+		submitted(1);
+		return f;
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks)
+			throws InterruptedException {
+		submitted(tasks.size());
+		return delegate.invokeAll(wrapAll(tasks));
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks,
+			long timeout,
+			TimeUnit unit) throws InterruptedException {
+		submitted(tasks.size());
+		return delegate.invokeAll(wrapAll(tasks), timeout, unit);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+			throws InterruptedException, ExecutionException {
+		submitted(tasks.size());
+		return delegate.invokeAny(wrapAll(tasks));
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks,
+			long timeout,
+			TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+		submitted(tasks.size());
+		return delegate.invokeAny(wrapAll(tasks), timeout, unit);
+	}
+
+	@Override
+	public void shutdown() {
+		metrics.unregister(this);
+		delegate.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		metrics.unregister(this);
+		return delegate.shutdownNow();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit)
+			throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+
+	@Override
+	public String toString() {
+		return delegate.toString();
+	}
+
+	/**
+	 * The {@link ScheduledExecutorService} flavor, so that schedulers keep their time
+	 * capabilities when instrumented. Delayed tasks don't record a wait time, since
+	 * they are not meant to run as soon as possible.
+	 */
+	static final class Scheduled extends InstrumentedExecutorService
+			implements ScheduledExecutorService {
+
+		final ScheduledExecutorService scheduled;
+
+		Scheduled(ScheduledExecutorService delegate, DefaultSchedulerMetrics metrics) {
+			super(delegate, metrics);
+			this.scheduled = delegate;
+		}
+
+		@Override
+		public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+			ScheduledFuture<?> f;
+			try {
+				f = scheduled.schedule(wrap(command, delay <= 0L), delay, unit);
+			}
+			catch (RejectedExecutionException ree) {
+				throw rejected(ree);
+			}
+			submitted(1);
+			return f;
+		}
+
+		@Override
+		public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+				long delay,
+				TimeUnit unit) {
+			ScheduledFuture<V> f;
+			try {
+				f = scheduled.schedule(wrap(callable, delay <= 0L), delay, unit);
+			}
+			catch (RejectedExecutionException ree) {
+				throw rejected(ree);
+			}
+			submitted(1);
+			return f;
+		}
+
+		@Override
+		public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			ScheduledFuture<?> f;
+			try {
+				f = scheduled.scheduleAtFixedRate(wrap(command, false),
+						initialDelay,
+						period,
+						unit);
+			}
+			catch (RejectedExecutionException ree) {
+				throw rejected(ree);
+			}
+			submitted(1);
+			return f;
+		}
+
+		@Override
+		public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+				long initialDelay,
+				long delay,
+				TimeUnit unit) {
+			ScheduledFuture<?> f;
+			try {
+				f = scheduled.scheduleWithFixedDelay(wrap(command, false),
+						initialDelay,
+						delay,
+						unit);
+			}
+			catch (RejectedExecutionException ree) {
+				throw rejected(ree);
+			}
+			submitted(1);
+			return f;
+		}
+	}
+
+	static final class InstrumentedRunnable implements Runnable {
+
+		final Runnable                task;
+		final DefaultSchedulerMetrics metrics;
+		final long                    submittedAt;
+
+		InstrumentedRunnable(Runnable task, DefaultSchedulerMetrics metrics, long submittedAt) {
+			this.task = task;
+			this.metrics = metrics;
+			this.submittedAt = submittedAt;
+		}
+
+		@Override
+		public void run() {
+			long start = System.nanoTime();
+			if (submittedAt != 0L) {
+				metrics.waitTime.record(start - submittedAt);
+			}
+			metrics.active.increment();
+			try {
+				task.run();
+			}
+			finally {
+				metrics.active.decrement();
+				metrics.executionTime.record(System.nanoTime() - start);
+				metrics.completed.increment();
+			}
+		}
+
+		@Override
+		public String toString() {
+			return task.toString();
+		}
+	}
+
+	static final class InstrumentedCallable<T> implements Callable<T> {
+
+		final Callable<T>             task;
+		final DefaultSchedulerMetrics metrics;
+		final long                    submittedAt;
+
+		InstrumentedCallable(Callable<T> task, DefaultSchedulerMetrics metrics, long submittedAt) {
+			this.task = task;
+			this.metrics = metrics;
+			this.submittedAt = submittedAt;
+		}
+
+		@Override
+		public T call() throws Exception {
+			long start = System.nanoTime();
+			if (submittedAt != 0L) {
+				metrics.waitTime.record(start - submittedAt);
+			}
+			metrics.active.increment();
+			try {
+				return task.call();
+			}
+			finally {
+				metrics.active.decrement();
+				metrics.executionTime.record(System.nanoTime() - start);
+				metrics.completed.increment();
+			}
+		}
+
+		@Override
+		public String toString() {
+			return task.toString();
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of non-negative long values, with log-linear buckets: each
+ * power of two is split in {@link #SUB_BUCKETS} equal buckets, bounding the relative
+ * error of any reported value to 1/{@link #SUB_BUCKETS}. Values under
+ * 2 * {@link #SUB_BUCKETS} are counted exactly.
+ * <p>
+ * Recording is a single atomic increment and never allocates. Percentiles are computed
+ * from a racy walk of the buckets, which is good enough for monitoring.
+ */
+final class LatencyHistogram {
+
+	static final int SUB_BITS    = 3;
+	static final int SUB_BUCKETS = 1 << SUB_BITS;
+	static final int BUCKETS     = (63 - SUB_BITS + 1) * SUB_BUCKETS;
+
+	final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * Count a value, negative values being counted as 0.
+	 *
+	 * @param value the value to record
+	 */
+	void record(long value) {
+		counts.getAndIncrement(indexOf(value));
+	}
+
+	/**
+	 * @return the number of recorded values
+	 */
+	long count() {
+		long total = 0L;
+		for (int i = 0; i < BUCKETS; i++) {
+			total += counts.get(i);
+		}
+		return total;
+	}
+
+	/**
+	 * Return the upper bound of the bucket holding the value at the given percentile.
+	 *
+	 * @param percentile the percentile, between 0 and 1
+	 * @return the upper bound of the matching bucket, or 0 if nothing was recorded
+	 */
+	long percentile(double percentile) {
+		if (percentile < 0d || percentile > 1d) {
+			throw new IllegalArgumentException("percentile must be between 0 and 1, was " + percentile);
+		}
+		long total = count();
+		if (total == 0L) {
+			return 0L;
+		}
+		long rank = Math.max(1L, (long) Math.ceil(percentile * total));
+		long seen = 0L;
+		int last = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			long c = counts.get(i);
+			if (c != 0L) {
+				last = i;
+				seen += c;
+				if (seen >= rank) {
+					return highestValueAt(i);
+				}
+			}
+		}
+		//concurrent records made the walk see more than the total
+		return highestValueAt(last);
+	}
+
+	static int indexOf(long value) {
+		if (value < SUB_BUCKETS) {
+			return value < 0L ? 0 : (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+	}
+
+	static long highestValueAt(int index) {
+		if (index < SUB_BUCKETS) {
+			return index;
+		}
+		int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+		long sub = index % SUB_BUCKETS;
+		long lowest = (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+		return lowest + (1L << (exponent - SUB_BITS)) - 1L;
+	}
+}
@@ -27,7 +27,6 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Supplier;
 
 import reactor.core.Disposable;
-import reactor.util.concurrent.OpenHashSet;
 
 /**
  * Scheduler that hosts a fixed pool of single-threaded ScheduledExecutorService-based workers
@@ -191,13 +190,13 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
     static final class ParallelWorker implements Worker {
         final ScheduledExecutorService exec;
         
-        OpenHashSet<ParallelWorkerTask> tasks;
+        final TaskRegistry<ParallelWorkerTask> tasks;
         
         volatile boolean shutdown;
         
         public ParallelWorker(ScheduledExecutorService exec) {
             this.exec = exec;
-            this.tasks = new OpenHashSet<>();
+            this.tasks = new TaskRegistry<>();
         }
 
 	    @Override
@@ -208,11 +207,8 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
             
             ParallelWorkerTask pw = new ParallelWorkerTask(task, this);
             
-            synchronized (this) {
-                if (shutdown) {
-                    return REJECTED;
-                }
-                tasks.add(pw);
+            if (!tasks.add(pw)) {
+                return REJECTED;
             }
             
             Future<?> f;
@@ -240,11 +236,8 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
 
             ParallelWorkerTask pw = new ParallelWorkerTask(task, this);
 
-            synchronized (this) {
-                if (shutdown) {
-                    return REJECTED;
-                }
-                tasks.add(pw);
+            if (!tasks.add(pw)) {
+                return REJECTED;
             }
 
             Future<?> f;
@@ -273,11 +266,8 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
 
             ParallelWorkerTask pw = new ParallelWorkerTask(task, this);
 
-            synchronized (this) {
-                if (shutdown) {
-                    return REJECTED;
-                }
-                tasks.add(pw);
+            if (!tasks.add(pw)) {
+                return REJECTED;
             }
 
             Future<?> f;
@@ -303,20 +293,7 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
                 return;
             }
             shutdown = true;
-            OpenHashSet<ParallelWorkerTask> set;
-            synchronized (this) {
-                set = tasks;
-                tasks = null;
-            }
-            
-            if (set != null) {
-                Object[] a = set.keys();
-                for (Object o : a) {
-                    if (o != null) {
-                        ((ParallelWorkerTask)o).cancelFuture();
-                    }
-                }
-            }
+            tasks.dispose();
         }
 
         @Override
@@ -324,20 +301,8 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
             return shutdown;
         }
 
-        void remove(ParallelWorkerTask task) {
-            if (shutdown) {
-                return;
-            }
-            
-            synchronized (this) {
-                if (shutdown) {
-                    return;
-                }
-                tasks.remove(task);
-            }
-        }
-        
-        static final class ParallelWorkerTask implements Runnable, Disposable {
+        static final class ParallelWorkerTask extends TaskRegistry.Node
+                implements Runnable {
             final Runnable run;
             
             final ParallelWorker parent;
@@ -375,7 +340,7 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
                             break;
                         }
                         if (FUTURE.compareAndSet(this, f, FINISHED)) {
-                            parent.remove(this);
+                            parent.tasks.remove(this);
                             break;
                         }
                     }
@@ -401,7 +366,7 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
                                 f.cancel(parent.shutdown);
                             }
                             
-                            parent.remove(this);
+                            parent.tasks.remove(this);
                         }
                     }
                 }
@@ -414,16 +379,6 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
                     }
                 }
             }
-            
-            void cancelFuture() {
-                Future<?> f = future;
-                if (f != CANCELLED && f != FINISHED) {
-                    f = FUTURE.getAndSet(this, CANCELLED);
-                    if (f != null && f != CANCELLED && f != FINISHED) {
-                        f.cancel(true);
-                    }
-                }
-            }
         }
     }
 }
@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+import reactor.core.Disposable;
+
+/**
+ * A {@link Scheduler.Worker} not pinned to a thread, running its tasks in order and
+ * non-concurrently: it owns a FIFO queue and submits a drain of that queue to the
+ * executor of its scheduler whenever it goes from idle to busy. Delayed and periodic
+ * tasks are held by the timer of the scheduler and only enter the queue once due.
+ */
+abstract class QueueWorker implements Scheduler.Worker, Runnable {
+
+	final Queue<QueueWorkerTask> queue;
+
+	/**
+	 * Tracks the delayed and periodic tasks only: tasks already in the queue are
+	 * discarded by the drain once the worker is disposed.
+	 */
+	final TaskRegistry<QueueWorkerTask> timed;
+
+	/**
+	 * Maximum number of tasks a drain runs before resubmitting itself to the executor,
+	 * giving other workers a chance to use the thread.
+	 */
+	final int maxDrain;
+
+	volatile boolean terminated;
+
+	volatile int wip;
+	static final AtomicIntegerFieldUpdater<QueueWorker> WIP =
+			AtomicIntegerFieldUpdater.newUpdater(QueueWorker.class, "wip");
+
+	QueueWorker(int maxDrain) {
+		this.maxDrain = maxDrain;
+		this.queue = new ConcurrentLinkedQueue<>();
+		this.timed = new TaskRegistry<>();
+	}
+
+	/**
+	 * @return the executor running the drains of this worker
+	 */
+	abstract Executor executor();
+
+	/**
+	 * @return the timer holding the delayed and periodic tasks of this worker
+	 */
+	abstract Scheduler timer();
+
+	abstract QueueWorkerTask newTask(Runnable task, boolean periodic, boolean tracked);
+
+	/**
+	 * Account for a new queued task.
+	 *
+	 * @return true if the task can be queued
+	 */
+	boolean tryAcquire() {
+		return true;
+	}
+
+	/**
+	 * Account for a task leaving the queue.
+	 */
+	void release() {
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		Objects.requireNonNull(task, "task");
+		if (terminated) {
+			return Scheduler.REJECTED;
+		}
+		QueueWorkerTask t = newTask(task, false, false);
+		if (!enqueue(t)) {
+			return Scheduler.REJECTED;
+		}
+		return t;
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		if (delay <= 0L) {
+			return schedule(task);
+		}
+		QueueWorkerTask t = newTask(task, false, true);
+		if (!timed.add(t)) {
+			return Scheduler.REJECTED;
+		}
+		Disposable d = timer().schedule(t::submit, delay, unit);
+		if (d == Scheduler.REJECTED) {
+			t.dispose();
+			return Scheduler.REJECTED;
+		}
+		t.setTimer(d);
+		return t;
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		QueueWorkerTask t = newTask(task, true, true);
+		if (!timed.add(t)) {
+			return Scheduler.REJECTED;
+		}
+		Disposable d = timer().schedulePeriodically(t::submit,
+				initialDelay,
+				period,
+				unit);
+		if (d == Scheduler.REJECTED) {
+			t.dispose();
+			return Scheduler.REJECTED;
+		}
+		t.setTimer(d);
+		return t;
+	}
+
+	boolean enqueue(QueueWorkerTask t) {
+		if (terminated || !tryAcquire()) {
+			return false;
+		}
+		queue.offer(t);
+		if (terminated) {
+			//raced with dispose, which may have already drained the queue
+			clear();
+			t.dispose();
+			return false;
+		}
+		if (WIP.getAndIncrement(this) == 0) {
+			try {
+				executor().execute(this);
+			}
+			catch (RejectedExecutionException ex) {
+				clear();
+				t.dispose();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	void clear() {
+		while (queue.poll() != null) {
+			release();
+		}
+	}
+
+	@Override
+	public void run() {
+		final Queue<QueueWorkerTask> q = queue;
+		int missed = 1;
+		int e = 0;
+
+		for (; ; ) {
+			for (; ; ) {
+				if (terminated) {
+					clear();
+					return;
+				}
+
+				if (e == maxDrain) {
+					try {
+						executor().execute(this);
+					}
+					catch (RejectedExecutionException ex) {
+						clear();
+					}
+					return;
+				}
+
+				QueueWorkerTask t = q.poll();
+				if (t == null) {
+					break;
+				}
+
+				release();
+				t.run();
+				e++;
+			}
+
+			missed = WIP.addAndGet(this, -missed);
+			if (missed == 0) {
+				break;
+			}
+		}
+	}
+
+	@Override
+	public void dispose() {
+		if (terminated) {
+			return;
+		}
+		//tasks report being disposed as soon as the worker is terminated
+		timed.dispose();
+		terminated = true;
+
+		if (WIP.getAndIncrement(this) == 0) {
+			clear();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return terminated;
+	}
+}
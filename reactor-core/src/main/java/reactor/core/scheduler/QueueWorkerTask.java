@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import javax.annotation.Nullable;
+
+import reactor.core.Disposable;
+
+/**
+ * A task that is either submitted directly to the executor of its scheduler or, when it
+ * belongs to a {@link QueueWorker}, to that worker's queue. Cancellation is lazy: a
+ * disposed task stays wherever it is queued and is simply skipped when reached.
+ * <p>
+ * A periodic task is submitted again on each tick of its timer, unless its previous
+ * run is still queued or running: that tick is then skipped, so that a task slower
+ * than its period never runs concurrently with itself nor piles up in a queue.
+ */
+abstract class QueueWorkerTask extends TaskRegistry.Node implements Runnable {
+
+	static final int READY     = 0;
+	static final int DONE      = 1;
+	static final int CANCELLED = 2;
+
+	final Runnable    task;
+	@Nullable
+	final QueueWorker parent;
+	final boolean     periodic;
+	final boolean     tracked;
+
+	volatile int state;
+	static final AtomicIntegerFieldUpdater<QueueWorkerTask> STATE =
+			AtomicIntegerFieldUpdater.newUpdater(QueueWorkerTask.class, "state");
+
+	/**
+	 * 1 while a run of a periodic task is queued or running.
+	 */
+	volatile int queued;
+	static final AtomicIntegerFieldUpdater<QueueWorkerTask> QUEUED =
+			AtomicIntegerFieldUpdater.newUpdater(QueueWorkerTask.class, "queued");
+
+	volatile Disposable timer;
+	static final AtomicReferenceFieldUpdater<QueueWorkerTask, Disposable> TIMER =
+			AtomicReferenceFieldUpdater.newUpdater(QueueWorkerTask.class,
+					Disposable.class,
+					"timer");
+
+	QueueWorkerTask(Runnable task,
+			@Nullable QueueWorker parent,
+			boolean periodic,
+			boolean tracked) {
+		this.task = task;
+		this.parent = parent;
+		this.periodic = periodic;
+		this.tracked = tracked;
+	}
+
+	/**
+	 * Submit this task, which doesn't belong to a worker, to the executor of its
+	 * scheduler.
+	 *
+	 * @return true if the task could be submitted
+	 */
+	abstract boolean execute();
+
+	/**
+	 * Called when this task, which doesn't belong to a worker, is picked by the executor
+	 * of its scheduler, before it runs or is skipped.
+	 */
+	void onExecute() {
+	}
+
+	/**
+	 * Hand this task over for execution, either to its worker or to the executor. A
+	 * task that can't be submitted is disposed, which also stops its timer.
+	 *
+	 * @return true if the task could be submitted
+	 */
+	boolean submit() {
+		if (state != READY) {
+			return false;
+		}
+		if (periodic && !QUEUED.compareAndSet(this, 0, 1)) {
+			//the previous run is still pending, skip this tick
+			return true;
+		}
+		QueueWorker p = parent;
+		if (p != null ? p.enqueue(this) : execute()) {
+			return true;
+		}
+		if (periodic) {
+			QUEUED.lazySet(this, 0);
+		}
+		dispose();
+		return false;
+	}
+
+	@Override
+	public void run() {
+		QueueWorker p = parent;
+		if (p == null) {
+			onExecute();
+		}
+		if (state != READY || (p != null && p.terminated)) {
+			return;
+		}
+		try {
+			task.run();
+		}
+		catch (Throwable ex) {
+			Schedulers.handleError(ex);
+		}
+		finally {
+			if (periodic) {
+				QUEUED.lazySet(this, 0);
+			}
+			else if (STATE.compareAndSet(this, READY, DONE)) {
+				if (tracked && p != null) {
+					p.timed.remove(this);
+				}
+			}
+		}
+	}
+
+	void setTimer(Disposable d) {
+		if (!TIMER.compareAndSet(this, null, d)) {
+			d.dispose();
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		QueueWorker p = parent;
+		return state != READY || (p != null && p.terminated);
+	}
+
+	@Override
+	public void dispose() {
+		if (STATE.compareAndSet(this, READY, CANCELLED)) {
+			Disposable d = TIMER.getAndSet(this, Scheduler.REJECTED);
+			if (d != null) {
+				d.dispose();
+			}
+			QueueWorker p = parent;
+			if (tracked && p != null) {
+				p.timed.remove(this);
+			}
+		}
+	}
+}
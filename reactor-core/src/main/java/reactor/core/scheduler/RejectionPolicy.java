@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+/**
+ * Strategies to deal with a task submitted to a bounded {@link Scheduler} whose task
+ * queue is full.
+ *
+ * @see Schedulers#newBoundedElastic(int, int, int, RejectionPolicy, java.util.concurrent.ThreadFactory)
+ */
+public enum RejectionPolicy {
+
+	/**
+	 * Reject the task by returning {@link Scheduler#REJECTED}, which operators
+	 * propagate as a {@link java.util.concurrent.RejectedExecutionException}.
+	 */
+	REJECT,
+	/**
+	 * Park the task and return its {@link reactor.core.Disposable} right away. The task
+	 * is submitted once the queue has room again, unless it has been disposed in the
+	 * meantime. The number of parked tasks is not bounded.
+	 */
+	DEFER
+
+}
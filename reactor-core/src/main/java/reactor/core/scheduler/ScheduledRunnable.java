@@ -19,8 +19,6 @@ package reactor.core.scheduler;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
-import reactor.core.Disposable;
-
 import static reactor.core.scheduler.ExecutorServiceScheduler.CANCELLED;
 import static reactor.core.scheduler.ExecutorServiceScheduler.FINISHED;
 
@@ -33,7 +31,7 @@ import static reactor.core.scheduler.ExecutorServiceScheduler.FINISHED;
  *
  * @author Simon Baslé
  */
-final class ScheduledRunnable implements Runnable, Disposable {
+final class ScheduledRunnable extends TaskRegistry.Node implements Runnable {
 
 	private static final DisposableContainer<ScheduledRunnable> DISPOSED_PARENT = new EmptyDisposableContainer<>();
 	private static final DisposableContainer<ScheduledRunnable> DONE_PARENT = new EmptyDisposableContainer<>();
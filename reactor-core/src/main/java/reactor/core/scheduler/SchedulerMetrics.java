@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+/**
+ * Live counters and latency distributions of a {@link Scheduler}, recorded once
+ * {@link Schedulers#enableMetrics()} has been called and polled through
+ * {@link Schedulers#metrics()}.
+ * <p>
+ * Counters are cumulative since the {@link Scheduler} was created, except for
+ * {@link #activeTasks()} and {@link #queuedTasks()} which reflect its current state.
+ * Latencies are approximated by logarithmic buckets with a relative error under 12.5%.
+ *
+ * @see Schedulers#enableMetrics()
+ */
+public interface SchedulerMetrics {
+
+	/**
+	 * @return the name of the {@link Scheduler}, made of its flavor and a unique id
+	 */
+	String name();
+
+	/**
+	 * @return the number of tasks accepted by the {@link Scheduler}
+	 */
+	long submittedTasks();
+
+	/**
+	 * @return the number of task executions that finished, each run of a periodic task
+	 * counting as one
+	 */
+	long completedTasks();
+
+	/**
+	 * @return the number of tasks the {@link Scheduler} refused to accept
+	 */
+	long rejectedTasks();
+
+	/**
+	 * @return the number of tasks currently running
+	 */
+	int activeTasks();
+
+	/**
+	 * @return the number of tasks currently waiting for a thread, if the backing
+	 * executors expose it, or 0
+	 */
+	int queuedTasks();
+
+	/**
+	 * Return an upper bound of the time spent running tasks, at the given percentile.
+	 *
+	 * @param percentile the percentile, between 0 and 1
+	 * @return the execution time in nanoseconds, or 0 if no task ran yet
+	 */
+	long executionTimeNanos(double percentile);
+
+	/**
+	 * Return an upper bound of the time tasks submitted without delay waited before
+	 * running, at the given percentile.
+	 *
+	 * @param percentile the percentile, between 0 and 1
+	 * @return the wait time in nanoseconds, or 0 if no task ran yet
+	 */
+	long waitTimeNanos(double percentile);
+}
@@ -16,7 +16,13 @@
 
 package reactor.core.scheduler;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.WeakHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -40,8 +46,10 @@ import static reactor.core.Exceptions.unwrap;
  * subscribeOn} :
  * <p>
  * <ul> <li>{@link #fromExecutorService(ExecutorService)}}. </li> <li>{@link #newParallel}
- * : Optimized for fast {@link Runnable} executions </li> <li>{@link #single} : Optimized
- * for low-latency {@link Runnable} executions </li> <li>{@link #immediate}. </li> </ul>
+ * : Optimized for fast {@link Runnable} executions </li> <li>{@link #newWorkStealing} :
+ * Optimized for {@link Runnable} executions of uneven duration </li> <li>{@link #newVirtual} :
+ * Optimized for blocking {@link Runnable} executions </li> <li>{@link #single} :
+ * Optimized for low-latency {@link Runnable} executions </li> <li>{@link #immediate}. </li> </ul>
  * <p>
  * Factories prefixed with {@code new} return a new instance of their flavor of {@link Scheduler},
  * while other factories like {@link #elastic()} return a shared instance, that is the one
@@ -61,6 +69,8 @@ public abstract class Schedulers {
 
 	static volatile BiConsumer<Thread, ? super Throwable> onHandleErrorHook;
 
+	static volatile boolean metricsEnabled;
+
 	/**
 	 * Create a {@link Scheduler} which uses a backing {@link Executor} to schedule
 	 * Runnables for async operators.
@@ -223,6 +233,101 @@ public abstract class Schedulers {
 		return factory.newElastic(ttlSeconds, threadFactory);
 	}
 
+	/**
+	 * {@link Scheduler} that dynamically creates ExecutorService-based Workers and caches
+	 * the thread pools, reusing them once the Workers have been shut down, like
+	 * {@link #newElastic(String)} but with at most {@code maxThreads} threads. Once they
+	 * are all in use, new Workers share the least loaded thread.
+	 * <p>
+	 * Each thread accepts at most {@code maxTaskQueuedPerThread} pending tasks, further
+	 * tasks are {@link RejectionPolicy#REJECT rejected}. The default time-to-live for
+	 * unused threads is 60 seconds.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param name Thread prefix
+	 * @param maxThreads maximum number of threads
+	 * @param maxTaskQueuedPerThread maximum number of pending tasks per thread
+	 *
+	 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+	 * ExecutorService-based Workers
+	 */
+	public static Scheduler newBoundedElastic(String name, int maxThreads, int maxTaskQueuedPerThread) {
+		return newBoundedElastic(name,
+				maxThreads,
+				maxTaskQueuedPerThread,
+				BoundedElasticScheduler.DEFAULT_TTL_SECONDS,
+				RejectionPolicy.REJECT,
+				false);
+	}
+
+	/**
+	 * {@link Scheduler} that dynamically creates ExecutorService-based Workers and caches
+	 * the thread pools, reusing them once the Workers have been shut down, like
+	 * {@link #newElastic(String)} but with at most {@code maxThreads} threads. Once they
+	 * are all in use, new Workers share the least loaded thread.
+	 * <p>
+	 * Each thread accepts at most {@code maxTaskQueuedPerThread} pending tasks, further
+	 * tasks are handled according to the {@link RejectionPolicy}.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param name Thread prefix
+	 * @param maxThreads maximum number of threads
+	 * @param maxTaskQueuedPerThread maximum number of pending tasks per thread
+	 * @param ttlSeconds Time-to-live for an idle thread
+	 * @param rejectionPolicy what to do with tasks submitted to a full thread
+	 * @param daemon false if the {@link Scheduler} requires an explicit {@link
+	 * Scheduler#dispose()} to exit the VM.
+	 *
+	 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+	 * ExecutorService-based Workers
+	 */
+	public static Scheduler newBoundedElastic(String name,
+			int maxThreads,
+			int maxTaskQueuedPerThread,
+			int ttlSeconds,
+			RejectionPolicy rejectionPolicy,
+			boolean daemon) {
+		return newBoundedElastic(maxThreads,
+				maxTaskQueuedPerThread,
+				ttlSeconds,
+				rejectionPolicy,
+				new SchedulerThreadFactory(name, daemon, BoundedElasticScheduler.COUNTER));
+	}
+
+	/**
+	 * {@link Scheduler} that dynamically creates ExecutorService-based Workers and caches
+	 * the thread pools, reusing them once the Workers have been shut down, like
+	 * {@link #newElastic(int, ThreadFactory)} but with at most {@code maxThreads}
+	 * threads. Once they are all in use, new Workers share the least loaded thread.
+	 * <p>
+	 * Each thread accepts at most {@code maxTaskQueuedPerThread} pending tasks, further
+	 * tasks are handled according to the {@link RejectionPolicy}.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param maxThreads maximum number of threads
+	 * @param maxTaskQueuedPerThread maximum number of pending tasks per thread
+	 * @param ttlSeconds Time-to-live for an idle thread
+	 * @param rejectionPolicy what to do with tasks submitted to a full thread
+	 * @param threadFactory a {@link ThreadFactory} to use each thread initialization
+	 *
+	 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+	 * ExecutorService-based Workers
+	 */
+	public static Scheduler newBoundedElastic(int maxThreads,
+			int maxTaskQueuedPerThread,
+			int ttlSeconds,
+			RejectionPolicy rejectionPolicy,
+			ThreadFactory threadFactory) {
+		return factory.newBoundedElastic(maxThreads,
+				maxTaskQueuedPerThread,
+				ttlSeconds,
+				rejectionPolicy,
+				threadFactory);
+	}
+
 	/**
 	 * {@link Scheduler} that hosts a fixed pool of single-threaded ExecutorService-based
 	 * workers and is suited for parallel work.
@@ -326,6 +431,251 @@ public abstract class Schedulers {
 		return factory.newSingle(threadFactory);
 	}
 
+	/**
+	 * {@link Scheduler} backed by a hashed wheel timer, suited for large amounts of
+	 * timeouts and delays that are mostly cancelled before they fire (for instance as the
+	 * {@code timer} of {@link reactor.core.publisher.Mono#timeout(java.time.Duration, Scheduler)
+	 * timeout}, {@link reactor.core.publisher.Mono#delay(java.time.Duration, Scheduler) delay}
+	 * or {@link reactor.core.publisher.Flux#bufferTimeout(int, java.time.Duration, Scheduler)
+	 * bufferTimeout}). Scheduling and cancelling are O(1), but delays are only honored
+	 * with a precision of 10 milliseconds. All tasks run on the single timer thread and
+	 * should be kept short.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param name Thread prefix
+	 *
+	 * @return a new {@link Scheduler} backed by a hashed wheel timer
+	 */
+	public static Scheduler newTimerWheel(String name) {
+		return newTimerWheel(name,
+				Duration.ofNanos(TimerWheelScheduler.DEFAULT_TICK_NANOS),
+				TimerWheelScheduler.DEFAULT_WHEEL_SIZE);
+	}
+
+	/**
+	 * {@link Scheduler} backed by a hashed wheel timer, suited for large amounts of
+	 * timeouts and delays that are mostly cancelled before they fire. Scheduling and
+	 * cancelling are O(1), but delays are only honored with a precision of one
+	 * {@code tickDuration}. All tasks run on the single timer thread and should be kept
+	 * short.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param tickDuration the duration between two ticks of the wheel
+	 * @param wheelSize the number of buckets in the wheel, rounded up to a power of 2
+	 *
+	 * @return a new {@link Scheduler} backed by a hashed wheel timer
+	 */
+	public static Scheduler newTimerWheel(Duration tickDuration, int wheelSize) {
+		return newTimerWheel(TIMER_WHEEL, tickDuration, wheelSize);
+	}
+
+	/**
+	 * {@link Scheduler} backed by a hashed wheel timer, suited for large amounts of
+	 * timeouts and delays that are mostly cancelled before they fire. Scheduling and
+	 * cancelling are O(1), but delays are only honored with a precision of one
+	 * {@code tickDuration}. All tasks run on the single timer thread and should be kept
+	 * short.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param name Thread prefix
+	 * @param tickDuration the duration between two ticks of the wheel
+	 * @param wheelSize the number of buckets in the wheel, rounded up to a power of 2
+	 *
+	 * @return a new {@link Scheduler} backed by a hashed wheel timer
+	 */
+	public static Scheduler newTimerWheel(String name, Duration tickDuration, int wheelSize) {
+		return newTimerWheel(tickDuration.toNanos(),
+				wheelSize,
+				new SchedulerThreadFactory(name, true, TimerWheelScheduler.COUNTER));
+	}
+
+	/**
+	 * {@link Scheduler} backed by a hashed wheel timer, suited for large amounts of
+	 * timeouts and delays that are mostly cancelled before they fire.
+	 * <p>
+	 * This scheduler is not restartable.
+	 *
+	 * @param tickNanos the duration between two ticks of the wheel, in nanoseconds
+	 * @param wheelSize the number of buckets in the wheel, rounded up to a power of 2
+	 * @param threadFactory a {@link ThreadFactory} to use for the unique timer thread
+	 *
+	 * @return a new {@link Scheduler} backed by a hashed wheel timer
+	 */
+	public static Scheduler newTimerWheel(long tickNanos, int wheelSize, ThreadFactory threadFactory) {
+		return factory.newTimerWheel(tickNanos, wheelSize, threadFactory);
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a work-stealing pool of threads and is suited for
+	 * parallel work of uneven duration. Each {@link reactor.core.scheduler.Scheduler.Worker}
+	 * still runs its tasks in order and non-concurrently, but is not pinned to a thread:
+	 * idle threads pick up pending workers from busy ones, so a slow task only delays the
+	 * worker it belongs to.
+	 *
+	 * @param name Thread prefix
+	 *
+	 * @return a new {@link Scheduler} that hosts a work-stealing pool of threads
+	 */
+	public static Scheduler newWorkStealing(String name) {
+		return newWorkStealing(name, Runtime.getRuntime()
+		                                    .availableProcessors());
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a work-stealing pool of threads and is suited for
+	 * parallel work of uneven duration. Each {@link reactor.core.scheduler.Scheduler.Worker}
+	 * still runs its tasks in order and non-concurrently, but is not pinned to a thread:
+	 * idle threads pick up pending workers from busy ones, so a slow task only delays the
+	 * worker it belongs to.
+	 *
+	 * @param name Thread prefix
+	 * @param parallelism Number of pooled threads.
+	 *
+	 * @return a new {@link Scheduler} that hosts a work-stealing pool of threads
+	 */
+	public static Scheduler newWorkStealing(String name, int parallelism) {
+		return newWorkStealing(name, parallelism, false);
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a work-stealing pool of threads and is suited for
+	 * parallel work of uneven duration. Each {@link reactor.core.scheduler.Scheduler.Worker}
+	 * still runs its tasks in order and non-concurrently, but is not pinned to a thread:
+	 * idle threads pick up pending workers from busy ones, so a slow task only delays the
+	 * worker it belongs to.
+	 *
+	 * @param name Thread prefix
+	 * @param parallelism Number of pooled threads.
+	 * @param daemon false if the {@link Scheduler} requires an explicit {@link
+	 * Scheduler#dispose()} to exit the VM.
+	 *
+	 * @return a new {@link Scheduler} that hosts a work-stealing pool of threads
+	 */
+	public static Scheduler newWorkStealing(String name, int parallelism, boolean daemon) {
+		return newWorkStealing(parallelism,
+				new SchedulerThreadFactory(name, daemon, WorkStealingScheduler.COUNTER));
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a work-stealing pool of threads and is suited for
+	 * parallel work of uneven duration. Each {@link reactor.core.scheduler.Scheduler.Worker}
+	 * still runs its tasks in order and non-concurrently, but is not pinned to a thread:
+	 * idle threads pick up pending workers from busy ones, so a slow task only delays the
+	 * worker it belongs to.
+	 *
+	 * @param parallelism Number of pooled threads.
+	 * @param threadFactory a {@link ThreadFactory} used as a template for the name,
+	 * daemon flag and uncaught exception handler of the pooled threads
+	 *
+	 * @return a new {@link Scheduler} that hosts a work-stealing pool of threads
+	 */
+	public static Scheduler newWorkStealing(int parallelism, ThreadFactory threadFactory) {
+		return factory.newWorkStealing(parallelism, threadFactory);
+	}
+
+	/**
+	 * {@link Scheduler} suited for wrapping blocking calls, that runs each task on its own
+	 * virtual thread when the runtime supports them. Otherwise it falls back to a pool of
+	 * up to 10 times the number of CPU cores platform threads, which expire after 60
+	 * seconds of inactivity. At most 100000 tasks can be pending, further tasks are
+	 * rejected. Threads are daemon.
+	 *
+	 * @param name Thread prefix
+	 *
+	 * @return a new {@link Scheduler} that runs tasks on virtual threads when available
+	 */
+	public static Scheduler newVirtual(String name) {
+		return newVirtual(name,
+				VirtualScheduler.DEFAULT_MAX_THREADS,
+				VirtualScheduler.DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * {@link Scheduler} suited for wrapping blocking calls, that runs each task on its own
+	 * virtual thread when the runtime supports them. Otherwise it falls back to a pool of
+	 * up to {@code maxThreads} platform threads, which expire after 60 seconds of
+	 * inactivity. Threads are daemon.
+	 *
+	 * @param name Thread prefix
+	 * @param maxThreads maximum number of platform threads, when virtual threads are not
+	 * available
+	 * @param queueCapacity maximum number of pending tasks, further tasks are rejected
+	 *
+	 * @return a new {@link Scheduler} that runs tasks on virtual threads when available
+	 */
+	public static Scheduler newVirtual(String name, int maxThreads, int queueCapacity) {
+		return newVirtual(maxThreads,
+				queueCapacity,
+				new SchedulerThreadFactory(name, true, VirtualScheduler.COUNTER));
+	}
+
+	/**
+	 * {@link Scheduler} suited for wrapping blocking calls, that runs each task on its own
+	 * virtual thread when the runtime supports them. Otherwise it falls back to a pool of
+	 * up to {@code maxThreads} platform threads, which expire after 60 seconds of
+	 * inactivity.
+	 *
+	 * @param maxThreads maximum number of platform threads, when virtual threads are not
+	 * available
+	 * @param queueCapacity maximum number of pending tasks, further tasks are rejected
+	 * @param threadFactory a {@link ThreadFactory} to use for platform threads, also
+	 * naming the virtual threads if it is a {@code Supplier<String>}
+	 *
+	 * @return a new {@link Scheduler} that runs tasks on virtual threads when available
+	 */
+	public static Scheduler newVirtual(int maxThreads, int queueCapacity, ThreadFactory threadFactory) {
+		return factory.newVirtual(maxThreads, queueCapacity, threadFactory);
+	}
+
+	/**
+	 * Record {@link SchedulerMetrics} for the {@link Scheduler} instances created from
+	 * now on and backed by an {@link ExecutorService}, that is all flavors but the
+	 * {@link #immediate()} and {@link #newTimerWheel(String) timer wheel} ones. Schedulers
+	 * created before this call, like already cached shared ones, are not instrumented.
+	 * <p>
+	 * This adds a few counter increments and two {@link System#nanoTime()} calls per
+	 * task, so it is disabled by default.
+	 *
+	 * @see #metrics()
+	 */
+	public static void enableMetrics() {
+		log.info("Enabling scheduler metrics");
+		metricsEnabled = true;
+	}
+
+	/**
+	 * Stop instrumenting newly created {@link Scheduler} instances and forget about the
+	 * metrics of the already instrumented ones.
+	 */
+	public static void disableMetrics() {
+		log.info("Disabling scheduler metrics");
+		metricsEnabled = false;
+		METRICS.clear();
+	}
+
+	/**
+	 * Return the {@link SchedulerMetrics} of the instrumented {@link Scheduler} instances
+	 * that have not been disposed yet. Each returned instance keeps being updated, so
+	 * this can be polled once and the metrics read periodically.
+	 *
+	 * @return the metrics of live instrumented schedulers, empty unless
+	 * {@link #enableMetrics()} was called
+	 */
+	public static List<SchedulerMetrics> metrics() {
+		List<SchedulerMetrics> list = new ArrayList<>();
+		synchronized (METRICS) {
+			for (DefaultSchedulerMetrics m : METRICS.values()) {
+				if (!m.isTerminated()) {
+					list.add(m);
+				}
+			}
+		}
+		return list;
+	}
+
 	/**
 	 * Define a hook that is executed when a {@link Scheduler} has
 	 * {@link #handleError(Throwable) handled an error}. Note that it is executed after
@@ -487,6 +837,34 @@ public abstract class Schedulers {
 			return new ElasticScheduler(threadFactory, ttlSeconds);
 		}
 
+		/**
+		 * {@link Scheduler} that dynamically creates Workers resources and caches
+		 * eventually, reusing them once the Workers have been shut down.
+		 * <p>
+		 * The maximum number of created threads and of pending tasks per thread are
+		 * bounded.
+		 *
+		 * @param maxThreads maximum number of threads
+		 * @param maxTaskQueuedPerThread maximum number of pending tasks per thread
+		 * @param ttlSeconds Time-to-live for an idle thread
+		 * @param rejectionPolicy what to do with tasks submitted to a full thread
+		 * @param threadFactory a {@link ThreadFactory} to use
+		 *
+		 * @return a new {@link Scheduler} that dynamically creates a bounded number of
+		 * Workers resources
+		 */
+		default Scheduler newBoundedElastic(int maxThreads,
+				int maxTaskQueuedPerThread,
+				int ttlSeconds,
+				RejectionPolicy rejectionPolicy,
+				ThreadFactory threadFactory) {
+			return new BoundedElasticScheduler(maxThreads,
+					maxTaskQueuedPerThread,
+					ttlSeconds,
+					rejectionPolicy,
+					threadFactory);
+		}
+
 		/**
 		 * {@link Scheduler} that hosts a fixed pool of workers and is suited for parallel
 		 * work.
@@ -514,6 +892,51 @@ public abstract class Schedulers {
 		default Scheduler newSingle(ThreadFactory threadFactory) {
 			return new SingleScheduler(threadFactory);
 		}
+
+		/**
+		 * {@link Scheduler} that hosts a work-stealing pool and is suited for parallel
+		 * work of uneven duration.
+		 *
+		 * @param parallelism Number of pooled threads.
+		 * @param threadFactory a {@link ThreadFactory} used as a template for the pooled
+		 * threads
+		 *
+		 * @return a new {@link Scheduler} that hosts a work-stealing pool
+		 */
+		default Scheduler newWorkStealing(int parallelism, ThreadFactory threadFactory) {
+			return new WorkStealingScheduler(parallelism, threadFactory);
+		}
+
+		/**
+		 * {@link Scheduler} backed by a hashed wheel timer, suited for large amounts of
+		 * timeouts and delays that are mostly cancelled before they fire.
+		 *
+		 * @param tickNanos the duration between two ticks of the wheel, in nanoseconds
+		 * @param wheelSize the number of buckets in the wheel
+		 * @param threadFactory a {@link ThreadFactory} to use for the unique timer thread
+		 *
+		 * @return a new {@link Scheduler} backed by a hashed wheel timer
+		 */
+		default Scheduler newTimerWheel(long tickNanos, int wheelSize, ThreadFactory threadFactory) {
+			return new TimerWheelScheduler(tickNanos, wheelSize, threadFactory);
+		}
+
+		/**
+		 * {@link Scheduler} suited for wrapping blocking calls, that runs tasks on
+		 * virtual threads when available and falls back to a bounded pool of platform
+		 * threads otherwise.
+		 *
+		 * @param maxThreads maximum number of platform threads, when virtual threads
+		 * are not available
+		 * @param queueCapacity maximum number of pending tasks
+		 * @param threadFactory a {@link ThreadFactory} to use for platform threads
+		 *
+		 * @return a new {@link Scheduler} that runs tasks on virtual threads when
+		 * available
+		 */
+		default Scheduler newVirtual(int maxThreads, int queueCapacity, ThreadFactory threadFactory) {
+			return new VirtualScheduler(maxThreads, queueCapacity, threadFactory);
+		}
 	}
 
 	// Internals
@@ -521,6 +944,10 @@ public abstract class Schedulers {
 	static final String PARALLEL = "parallel"; //scale up common tasks
 	static final String SINGLE   = "single"; //non blocking tasks
 	static final String TIMER    = "timer"; //timed tasks
+	static final String WORK_STEALING = "workStealing"; //uneven parallel tasks
+	static final String TIMER_WHEEL   = "timerWheel"; //mostly cancelled timed tasks
+	static final String VIRTUAL       = "virtual"; //blocking tasks on virtual threads
+	static final String BOUNDED_ELASTIC = "boundedElastic"; //capped IO stuff
 
 	// Cached schedulers in atomic references:
 	static AtomicReference<CachedScheduler> CACHED_ELASTIC  = new AtomicReference<>();
@@ -571,6 +998,15 @@ public abstract class Schedulers {
 
 	static final Logger log = Loggers.getLogger(Schedulers.class);
 
+	static final AtomicLong METRICS_COUNTER = new AtomicLong();
+
+	/**
+	 * Metrics by owning {@link Scheduler}, held weakly so that schedulers which are
+	 * never disposed don't leak.
+	 */
+	static final Map<Object, DefaultSchedulerMetrics> METRICS =
+			Collections.synchronizedMap(new WeakHashMap<>());
+
 	static final class SchedulerThreadFactory
 			implements ThreadFactory, Supplier<String>, Thread.UncaughtExceptionHandler {
 
@@ -592,6 +1028,18 @@ public abstract class Schedulers {
 			return t;
 		}
 
+		/**
+		 * Name and configure a thread that had to be created elsewhere, like a
+		 * {@link java.util.concurrent.ForkJoinWorkerThread}, as if created by this factory.
+		 *
+		 * @param t the thread to configure
+		 */
+		void configure(Thread t) {
+			t.setName(name + "-" + COUNTER.incrementAndGet());
+			t.setDaemon(daemon);
+			t.setUncaughtExceptionHandler(this);
+		}
+
 		@Override
 		public void uncaughtException(Thread t, Throwable e) {
 			log.error("Scheduler worker in group " + t.getThreadGroup().getName() +
@@ -690,12 +1138,33 @@ public abstract class Schedulers {
 
 	static ExecutorService decorateExecutorService(String schedulerType,
 			Supplier<? extends ExecutorService> actual) {
-		return factory.decorateExecutorService(schedulerType, actual);
+		ExecutorService executor = factory.decorateExecutorService(schedulerType, actual);
+		if (metricsEnabled) {
+			return new InstrumentedExecutorService(executor,
+					metricsFor(schedulerType, actual));
+		}
+		return executor;
 	}
 
 	static ScheduledExecutorService decorateScheduledExecutorService(String schedulerType,
 			Supplier<? extends ScheduledExecutorService> actual) {
-		return factory.decorateScheduledExecutorService(schedulerType, actual);
+		ScheduledExecutorService executor =
+				factory.decorateScheduledExecutorService(schedulerType, actual);
+		if (metricsEnabled) {
+			return new InstrumentedExecutorService.Scheduled(executor,
+					metricsFor(schedulerType, actual));
+		}
+		return executor;
+	}
+
+	/**
+	 * Schedulers pass themselves as the executor {@link Supplier}, so all the executors
+	 * of a same scheduler, including the ones it re-creates on restart, share a single
+	 * {@link DefaultSchedulerMetrics}.
+	 */
+	static DefaultSchedulerMetrics metricsFor(String schedulerType, Object owner) {
+		return METRICS.computeIfAbsent(owner,
+				o -> new DefaultSchedulerMetrics(schedulerType + "-" + METRICS_COUNTER.incrementAndGet()));
 	}
 
 }
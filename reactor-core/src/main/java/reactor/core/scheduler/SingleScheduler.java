@@ -29,7 +29,6 @@ import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.Supplier;
 
 import reactor.core.Disposable;
-import reactor.util.concurrent.OpenHashSet;
 
 /**
  * Scheduler that works with a single-threaded ScheduledExecutorService and is suited for
@@ -164,13 +163,13 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 
 		final ScheduledExecutorService exec;
 
-		OpenHashSet<ScheduledRunnable> tasks;
+		final TaskRegistry<ScheduledRunnable> tasks;
 
 		volatile boolean shutdown;
 
 		SingleWorker(ScheduledExecutorService exec) {
 			this.exec = exec;
-			this.tasks = new OpenHashSet<>();
+			this.tasks = new TaskRegistry<>();
 		}
 
 		@Override
@@ -234,24 +233,8 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 			if (shutdown) {
 				return;
 			}
-			OpenHashSet<ScheduledRunnable> set;
-			synchronized (this) {
-				if (shutdown) {
-					return;
-				}
-				shutdown = true;
-				set = tasks;
-				tasks = null;
-			}
-
-			if (set != null && !set.isEmpty()) {
-				Object[] a = set.keys();
-				for (Object o : a) {
-					if (o != null) {
-						((ScheduledRunnable) o).dispose();
-					}
-				}
-			}
+			shutdown = true;
+			tasks.dispose();
 		}
 
 		@Override
@@ -262,13 +245,8 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 		@Override
 		public boolean add(ScheduledRunnable disposable) {
 			Objects.requireNonNull(disposable, "disposable is null");
-			if (!shutdown) {
-				synchronized (this) {
-					if (!shutdown) {
-						tasks.add(disposable);
-						return true;
-					}
-				}
+			if (!shutdown && tasks.add(disposable)) {
+				return true;
 			}
 			disposable.dispose();
 			return false;
@@ -276,17 +254,7 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 
 		@Override
 		public boolean remove(ScheduledRunnable task) {
-			if (shutdown) {
-				return false;
-			}
-
-			synchronized (this) {
-				if (shutdown) {
-					return false;
-				}
-				tasks.remove(task);
-				return true;
-			}
+			return !shutdown && tasks.remove(task);
 		}
 	}
 }
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import reactor.core.Disposable;
+
+/**
+ * A lock-free registry of the pending tasks of a {@link Scheduler.Worker}, used to
+ * dispose them all when the worker itself is disposed.
+ * <p>
+ * Tasks are {@link Node nodes} of an intrusive singly-linked stack: registering one is
+ * a single CAS on the head and doesn't allocate. Removal is lazy: {@link #remove} only
+ * counts, and tasks that report {@link Disposable#isDisposed()} are unlinked in batch
+ * once about half of the linked tasks have been removed, keeping the amortized cost
+ * constant. Only one thread sweeps at a time, and it never unlinks the current head, so
+ * it doesn't race with concurrent adds.
+ *
+ * @param <T> the type of the tracked tasks
+ */
+final class TaskRegistry<T extends TaskRegistry.Node>
+		implements DisposableContainer<T>, Disposable {
+
+	/**
+	 * Base class for tasks that can be tracked by a {@link TaskRegistry}.
+	 */
+	abstract static class Node implements Disposable {
+
+		volatile Node next;
+		static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+				AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+	}
+
+	static final Node TERMINATED = new Node() {
+		@Override
+		public void dispose() {
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return true;
+		}
+	};
+
+	static final int MIN_SWEEP = 64;
+
+	volatile Node head;
+	@SuppressWarnings("rawtypes")
+	static final AtomicReferenceFieldUpdater<TaskRegistry, Node> HEAD =
+			AtomicReferenceFieldUpdater.newUpdater(TaskRegistry.class, Node.class, "head");
+
+	volatile int sweeping;
+	@SuppressWarnings("rawtypes")
+	static final AtomicIntegerFieldUpdater<TaskRegistry> SWEEPING =
+			AtomicIntegerFieldUpdater.newUpdater(TaskRegistry.class, "sweeping");
+
+	/** approximate number of tasks added since the last sweep, only a heuristic */
+	int added;
+
+	/** approximate number of tasks removed since the last sweep, only a heuristic */
+	int removed;
+
+	/** number of tasks found alive by the last sweep */
+	int live;
+
+	/**
+	 * Register a task, unless this registry has been disposed.
+	 *
+	 * @param task the task to register
+	 * @return true if the task was registered, false if the registry is disposed
+	 */
+	@Override
+	public boolean add(T task) {
+		for (;;) {
+			Node h = head;
+			if (h == TERMINATED) {
+				return false;
+			}
+			Node.NEXT.lazySet(task, h);
+			if (HEAD.compareAndSet(this, h, task)) {
+				break;
+			}
+		}
+		added++;
+		return true;
+	}
+
+	/**
+	 * Signal that a task is done or cancelled. It is only unlinked by a later sweep, and
+	 * must report {@link Disposable#isDisposed()} by then.
+	 *
+	 * @param task the task to remove
+	 * @return true if the registry is not disposed
+	 */
+	@Override
+	public boolean remove(T task) {
+		if (head == TERMINATED) {
+			return false;
+		}
+		int r = removed + 1;
+		removed = r;
+		if (r >= MIN_SWEEP && 2 * r >= live + added) {
+			sweep();
+		}
+		return true;
+	}
+
+	@Override
+	public void dispose() {
+		Node n = head;
+		if (n == TERMINATED) {
+			return;
+		}
+		n = HEAD.getAndSet(this, TERMINATED);
+		while (n != null && n != TERMINATED) {
+			Node next = n.next;
+			if (!n.isDisposed()) {
+				n.dispose();
+			}
+			n = next;
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return head == TERMINATED;
+	}
+
+	/**
+	 * @return the number of linked tasks, including disposed ones not yet swept
+	 */
+	int size() {
+		int n = 0;
+		Node c = head;
+		while (c != null && c != TERMINATED) {
+			n++;
+			c = c.next;
+		}
+		return n;
+	}
+
+	void sweep() {
+		if (!SWEEPING.compareAndSet(this, 0, 1)) {
+			return;
+		}
+		try {
+			Node prev = head;
+			if (prev == null || prev == TERMINATED) {
+				return;
+			}
+			int n = 1;
+			Node c = prev.next;
+			while (c != null) {
+				Node next = c.next;
+				if (c.isDisposed()) {
+					prev.next = next;
+				}
+				else {
+					prev = c;
+					n++;
+				}
+				c = next;
+			}
+			live = n;
+			added = 0;
+			removed = 0;
+		}
+		finally {
+			SWEEPING.lazySet(this, 0);
+		}
+	}
+}
@@ -0,0 +1,542 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.Nullable;
+
+import reactor.core.Disposable;
+import reactor.util.concurrent.OpenHashSet;
+import reactor.util.concurrent.QueueSupplier;
+
+/**
+ * Scheduler backed by a hashed wheel timer, suited for large amounts of short-lived
+ * timeouts and delays that are mostly cancelled before they fire. This scheduler is
+ * time-capable (can schedule with delay / periodically).
+ * <p>
+ * Scheduling and cancelling a task are O(1) and lock-free: new and cancelled tasks are
+ * handed over through queues to a single tick thread, which alone owns the wheel. The
+ * wheel advances every {@code tickNanos}, so a delay is only honored with the precision
+ * of one tick. All tasks, including non-delayed ones, are executed on the tick thread and
+ * should therefore be short (signalling a timeout, handing work over to another
+ * {@link Scheduler}...).
+ * <p>
+ * This scheduler is not restartable.
+ */
+final class TimerWheelScheduler implements Scheduler, Runnable {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	static final long DEFAULT_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	static final int  DEFAULT_WHEEL_SIZE = 512;
+
+	/**
+	 * Maximum number of newly scheduled tasks moved onto the wheel per tick, so that a
+	 * burst of registrations cannot delay the expiration of due tasks for too long.
+	 */
+	static final int MAX_TRANSFER = 100_000;
+
+	final long          tickNanos;
+	final int           mask;
+	final Bucket[]      wheel;
+	final Thread        thread;
+	final long          startTime;
+
+	final Queue<TimerTask> immediate;
+	final Queue<TimerTask> pending;
+	final Queue<TimerTask> cancelled;
+
+	volatile boolean shutdown;
+
+	/**
+	 * Only accessed by the tick thread.
+	 */
+	long tick;
+
+	TimerWheelScheduler(long tickNanos, int wheelSize, ThreadFactory factory) {
+		if (tickNanos <= 0L) {
+			throw new IllegalArgumentException("tickNanos > 0 required but it was " + tickNanos);
+		}
+		if (wheelSize <= 0) {
+			throw new IllegalArgumentException("wheelSize > 0 required but it was " + wheelSize);
+		}
+		int size = QueueSupplier.ceilingNextPowerOfTwo(wheelSize);
+		this.tickNanos = tickNanos;
+		this.mask = size - 1;
+		this.wheel = new Bucket[size];
+		for (int i = 0; i < size; i++) {
+			wheel[i] = new Bucket();
+		}
+		this.immediate = new ConcurrentLinkedQueue<>();
+		this.pending = new ConcurrentLinkedQueue<>();
+		this.cancelled = new ConcurrentLinkedQueue<>();
+		this.startTime = System.nanoTime();
+		this.thread = factory.newThread(this);
+		this.thread.start();
+	}
+
+	@Override
+	public void start() {
+		throw new UnsupportedOperationException("Restarting not supported yet");
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return shutdown;
+	}
+
+	@Override
+	public void dispose() {
+		if (shutdown) {
+			return;
+		}
+		shutdown = true;
+		LockSupport.unpark(thread);
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		Objects.requireNonNull(task, "task");
+		TimerTask t = new TimerTask(task, this, null, 0L);
+		if (!submit(t, 0L)) {
+			return REJECTED;
+		}
+		return t;
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		TimerTask t = new TimerTask(task, this, null, 0L);
+		if (!submit(t, unit.toNanos(delay))) {
+			return REJECTED;
+		}
+		return t;
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		TimerTask t = new TimerTask(task, this, null, Math.max(tickNanos, unit.toNanos(period)));
+		if (!submit(t, unit.toNanos(initialDelay))) {
+			return REJECTED;
+		}
+		return t;
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new TimerWheelWorker(this);
+	}
+
+	/**
+	 * Hand a task over to the tick thread.
+	 *
+	 * @param t the task
+	 * @param delayNanos the delay before the first execution, non-positive values
+	 * indicate non-delayed execution
+	 *
+	 * @return true if the task was accepted
+	 */
+	boolean submit(TimerTask t, long delayNanos) {
+		if (shutdown) {
+			return false;
+		}
+		if (delayNanos <= 0L) {
+			immediate.offer(t);
+			LockSupport.unpark(thread);
+		}
+		else {
+			t.deadline = System.nanoTime() - startTime + delayNanos;
+			pending.offer(t);
+		}
+		if (shutdown) {
+			t.dispose();
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void run() {
+		for (; ; ) {
+			long deadline = waitForNextTick();
+			if (deadline < 0L) {
+				break;
+			}
+			processCancelled();
+			transferPending();
+			wheel[(int) (tick & mask)].expire(deadline);
+			tick++;
+		}
+
+		TimerTask t;
+		while ((t = immediate.poll()) != null) {
+			t.dispose();
+		}
+		while ((t = pending.poll()) != null) {
+			t.dispose();
+		}
+		for (Bucket b : wheel) {
+			b.clear();
+		}
+		cancelled.clear();
+	}
+
+	/**
+	 * Park until the end of the current tick, running non-delayed tasks as they come.
+	 *
+	 * @return the current time relative to {@link #startTime}, or -1 if the scheduler
+	 * has been shut down
+	 */
+	long waitForNextTick() {
+		long deadline = tickNanos * (tick + 1);
+		for (; ; ) {
+			TimerTask t;
+			while ((t = immediate.poll()) != null) {
+				if (shutdown) {
+					t.dispose();
+					return -1L;
+				}
+				t.run();
+				if (t.periodNanos != 0L && t.state == TimerTask.READY) {
+					t.deadline = System.nanoTime() - startTime + t.periodNanos;
+					pending.offer(t);
+				}
+			}
+			if (shutdown) {
+				return -1L;
+			}
+			long current = System.nanoTime() - startTime;
+			long sleep = deadline - current;
+			if (sleep <= 0L) {
+				return current;
+			}
+			LockSupport.parkNanos(this, sleep);
+		}
+	}
+
+	void processCancelled() {
+		TimerTask t;
+		while ((t = cancelled.poll()) != null) {
+			Bucket b = t.bucket;
+			if (b != null) {
+				b.remove(t);
+			}
+		}
+	}
+
+	void transferPending() {
+		for (int i = 0; i < MAX_TRANSFER; i++) {
+			TimerTask t = pending.poll();
+			if (t == null) {
+				break;
+			}
+			if (t.state == TimerTask.READY) {
+				place(t);
+			}
+		}
+	}
+
+	void place(TimerTask t) {
+		long calculated = t.deadline / tickNanos;
+		t.remainingRounds = (calculated - tick) / wheel.length;
+		long ticks = Math.max(calculated, tick);
+		wheel[(int) (ticks & mask)].add(t);
+	}
+
+	/**
+	 * A doubly-linked list of {@link TimerTask}, only accessed by the tick thread.
+	 */
+	final class Bucket {
+
+		TimerTask head;
+		TimerTask tail;
+
+		void add(TimerTask t) {
+			t.bucket = this;
+			if (head == null) {
+				head = tail = t;
+			}
+			else {
+				tail.next = t;
+				t.prev = tail;
+				tail = t;
+			}
+		}
+
+		void expire(long deadline) {
+			TimerTask t = head;
+			while (t != null) {
+				TimerTask next = t.next;
+				if (t.remainingRounds <= 0L) {
+					remove(t);
+					if (t.deadline <= deadline) {
+						t.run();
+						if (t.periodNanos != 0L && t.state == TimerTask.READY) {
+							t.deadline += t.periodNanos;
+							pending.offer(t);
+						}
+					}
+					else if (t.state == TimerTask.READY) {
+						//not due yet, placed again on the next tick
+						pending.offer(t);
+					}
+				}
+				else if (t.state != TimerTask.READY) {
+					remove(t);
+				}
+				else {
+					t.remainingRounds--;
+				}
+				t = next;
+			}
+		}
+
+		void remove(TimerTask t) {
+			if (t.bucket != this) {
+				return;
+			}
+			TimerTask next = t.next;
+			TimerTask prev = t.prev;
+			if (prev != null) {
+				prev.next = next;
+			}
+			if (next != null) {
+				next.prev = prev;
+			}
+			if (t == head) {
+				head = next;
+			}
+			if (t == tail) {
+				tail = prev;
+			}
+			t.prev = null;
+			t.next = null;
+			t.bucket = null;
+		}
+
+		void clear() {
+			TimerTask t = head;
+			while (t != null) {
+				TimerTask next = t.next;
+				remove(t);
+				t.dispose();
+				t = next;
+			}
+		}
+	}
+
+	static final class TimerWheelWorker implements Worker, DisposableContainer<TimerTask> {
+
+		final TimerWheelScheduler parent;
+
+		volatile boolean shutdown;
+
+		OpenHashSet<TimerTask> tasks;
+
+		TimerWheelWorker(TimerWheelScheduler parent) {
+			this.parent = parent;
+			this.tasks = new OpenHashSet<>();
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			return schedule(task, 0L, TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			Objects.requireNonNull(task, "task");
+			TimerTask t = new TimerTask(task, parent, this, 0L);
+			if (!add(t)) {
+				return REJECTED;
+			}
+			if (!parent.submit(t, unit.toNanos(delay))) {
+				remove(t);
+				return REJECTED;
+			}
+			return t;
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			Objects.requireNonNull(task, "task");
+			TimerTask t = new TimerTask(task,
+					parent,
+					this,
+					Math.max(parent.tickNanos, unit.toNanos(period)));
+			if (!add(t)) {
+				return REJECTED;
+			}
+			if (!parent.submit(t, unit.toNanos(initialDelay))) {
+				remove(t);
+				return REJECTED;
+			}
+			return t;
+		}
+
+		@Override
+		public void dispose() {
+			if (shutdown) {
+				return;
+			}
+			OpenHashSet<TimerTask> set;
+			synchronized (this) {
+				if (shutdown) {
+					return;
+				}
+				shutdown = true;
+				set = tasks;
+				tasks = null;
+			}
+
+			if (set != null && !set.isEmpty()) {
+				Object[] a = set.keys();
+				for (Object o : a) {
+					if (o != null) {
+						((TimerTask) o).dispose();
+					}
+				}
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return shutdown;
+		}
+
+		@Override
+		public boolean add(TimerTask t) {
+			if (!shutdown) {
+				synchronized (this) {
+					if (!shutdown) {
+						tasks.add(t);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public boolean remove(TimerTask t) {
+			if (!shutdown) {
+				synchronized (this) {
+					if (!shutdown) {
+						tasks.remove(t);
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+	}
+
+	static final class TimerTask implements Runnable, Disposable {
+
+		static final int READY     = 0;
+		static final int DONE      = 1;
+		static final int CANCELLED = 2;
+
+		final Runnable            task;
+		final TimerWheelScheduler scheduler;
+		@Nullable
+		final TimerWheelWorker    parent;
+		final long                periodNanos;
+
+		volatile int state;
+		static final AtomicIntegerFieldUpdater<TimerTask> STATE =
+				AtomicIntegerFieldUpdater.newUpdater(TimerTask.class, "state");
+
+		/**
+		 * Deadline relative to the scheduler start time, published to the tick thread
+		 * by the pending queue.
+		 */
+		long deadline;
+
+		//the following are only accessed by the tick thread
+		long      remainingRounds;
+		TimerTask next;
+		TimerTask prev;
+		Bucket    bucket;
+
+		TimerTask(Runnable task,
+				TimerWheelScheduler scheduler,
+				@Nullable TimerWheelWorker parent,
+				long periodNanos) {
+			this.task = task;
+			this.scheduler = scheduler;
+			this.parent = parent;
+			this.periodNanos = periodNanos;
+		}
+
+		@Override
+		public void run() {
+			if (state != READY) {
+				return;
+			}
+			try {
+				task.run();
+			}
+			catch (Throwable ex) {
+				Schedulers.handleError(ex);
+			}
+			finally {
+				if (periodNanos == 0L && STATE.compareAndSet(this, READY, DONE)) {
+					TimerWheelWorker p = parent;
+					if (p != null) {
+						p.remove(this);
+					}
+				}
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return state != READY;
+		}
+
+		@Override
+		public void dispose() {
+			if (STATE.compareAndSet(this, READY, CANCELLED)) {
+				TimerWheelWorker p = parent;
+				if (p != null) {
+					p.remove(this);
+				}
+				//non-delayed tasks are never on the wheel
+				if (deadline != 0L && !scheduler.shutdown) {
+					scheduler.cancelled.offer(this);
+				}
+			}
+		}
+	}
+}
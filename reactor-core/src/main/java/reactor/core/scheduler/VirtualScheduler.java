@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+
+/**
+ * Scheduler suited for wrapping blocking calls. Each task runs on its own virtual thread
+ * when the runtime supports them, so that blocking doesn't hold on to a platform thread
+ * and bursts don't translate into as many OS threads. This scheduler is time-capable
+ * (can schedule with delay / periodically).
+ * <p>
+ * On runtimes without virtual threads, it falls back to a pool of at most
+ * {@code maxThreads} platform threads, created on demand and expiring after 60 seconds
+ * of inactivity. In both cases at most {@code queueCapacity} tasks can be pending (that
+ * is submitted but not started yet), further tasks are rejected.
+ * <p>
+ * A {@link Worker} runs its tasks in order and non-concurrently: it owns a FIFO queue
+ * that is drained by a single task of the underlying executor at a time. Delayed and
+ * periodic tasks are held by a dedicated {@link TimerWheelScheduler} and only submitted
+ * once due.
+ * <p>
+ * The scheduler and its workers are {@link Scannable}: {@link IntAttr#CAPACITY} is the
+ * maximum number of threads ({@link Integer#MAX_VALUE} with virtual threads) and
+ * {@link IntAttr#BUFFERED} the number of pending tasks.
+ */
+final class VirtualScheduler implements Scheduler, Scannable, Supplier<ExecutorService> {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	static final int DEFAULT_MAX_THREADS = 10 * Runtime.getRuntime()
+	                                                   .availableProcessors();
+
+	static final int DEFAULT_QUEUE_CAPACITY = 100_000;
+
+	static final long FALLBACK_TTL_SECONDS = 60L;
+
+	static final ExecutorService TERMINATED;
+
+	static {
+		TERMINATED = Executors.newSingleThreadExecutor();
+		TERMINATED.shutdownNow();
+	}
+
+	/**
+	 * {@code Executors.newThreadPerTaskExecutor(ThreadFactory)}, looked up reflectively
+	 * so that this class still compiles and runs on Java 8, or null if not available.
+	 */
+	@Nullable
+	static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+	static {
+		Method m;
+		try {
+			m = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+		}
+		catch (Throwable e) {
+			m = null;
+		}
+		NEW_THREAD_PER_TASK_EXECUTOR = m;
+	}
+
+	/**
+	 * Create a {@link ThreadFactory} of virtual threads named after the given prefix, or
+	 * return null if the runtime doesn't support virtual threads.
+	 *
+	 * @param prefix the thread name prefix
+	 * @return a {@link ThreadFactory} of virtual threads or null
+	 */
+	@Nullable
+	static ThreadFactory virtualThreadFactory(String prefix) {
+		if (NEW_THREAD_PER_TASK_EXECUTOR == null) {
+			return null;
+		}
+		try {
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual")
+			                             .invoke(null);
+			builder = builderType.getMethod("name", String.class, long.class)
+			                     .invoke(builder, prefix, 1L);
+			return (ThreadFactory) builderType.getMethod("factory")
+			                                  .invoke(builder);
+		}
+		catch (Throwable e) {
+			//absent, or disabled preview feature
+			return null;
+		}
+	}
+
+	final int maxThreads;
+
+	final int queueCapacity;
+
+	final ThreadFactory factory;
+
+	final String name;
+
+	@Nullable
+	final ThreadFactory virtualFactory;
+
+	volatile ExecutorService executor;
+	static final AtomicReferenceFieldUpdater<VirtualScheduler, ExecutorService> EXECUTOR =
+			AtomicReferenceFieldUpdater.newUpdater(VirtualScheduler.class,
+					ExecutorService.class,
+					"executor");
+
+	volatile Scheduler timer;
+
+	volatile int pending;
+	static final AtomicIntegerFieldUpdater<VirtualScheduler> PENDING =
+			AtomicIntegerFieldUpdater.newUpdater(VirtualScheduler.class, "pending");
+
+	VirtualScheduler(int maxThreads, int queueCapacity, ThreadFactory factory) {
+		this(maxThreads, queueCapacity, factory, true);
+	}
+
+	VirtualScheduler(int maxThreads,
+			int queueCapacity,
+			ThreadFactory factory,
+			boolean preferVirtual) {
+		if (maxThreads <= 0) {
+			throw new IllegalArgumentException("maxThreads > 0 required but it was " + maxThreads);
+		}
+		if (queueCapacity <= 0) {
+			throw new IllegalArgumentException("queueCapacity > 0 required but it was " + queueCapacity);
+		}
+		this.maxThreads = maxThreads;
+		this.queueCapacity = queueCapacity;
+		this.factory = factory;
+		this.name = factory instanceof Supplier ? String.valueOf(((Supplier<?>) factory).get()) :
+				Schedulers.VIRTUAL;
+		this.virtualFactory = preferVirtual ? virtualThreadFactory(name + "-") : null;
+		init();
+	}
+
+	/**
+	 * Instantiates the default {@link ExecutorService} for the VirtualScheduler: a
+	 * thread-per-task executor of virtual threads if supported, otherwise a pool of up to
+	 * {@code maxThreads} platform threads from the configured {@link ThreadFactory}.
+	 */
+	@Override
+	public ExecutorService get() {
+		ThreadFactory vf = virtualFactory;
+		if (vf != null && NEW_THREAD_PER_TASK_EXECUTOR != null) {
+			try {
+				return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, vf);
+			}
+			catch (ReflectiveOperationException e) {
+				//fall back to platform threads
+			}
+		}
+		//the queue is bounded by the pending tasks accounting
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads,
+				maxThreads,
+				FALLBACK_TTL_SECONDS,
+				TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(),
+				factory);
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	/**
+	 * @return true if tasks run on virtual threads
+	 */
+	boolean isVirtual() {
+		return virtualFactory != null;
+	}
+
+	Scheduler newTimer() {
+		return new TimerWheelScheduler(TimerWheelScheduler.DEFAULT_TICK_NANOS,
+				TimerWheelScheduler.DEFAULT_WHEEL_SIZE,
+				new Schedulers.SchedulerThreadFactory(name + "-" + Schedulers.TIMER,
+						true,
+						TimerWheelScheduler.COUNTER));
+	}
+
+	void init() {
+		timer = newTimer();
+		EXECUTOR.lazySet(this, Schedulers.decorateExecutorService(Schedulers.VIRTUAL, this));
+	}
+
+	/**
+	 * Account for a new pending task, unless the queue capacity is reached.
+	 *
+	 * @return true if the task can be submitted
+	 */
+	boolean tryAcquire() {
+		for (; ; ) {
+			int p = pending;
+			if (p >= queueCapacity) {
+				return false;
+			}
+			if (PENDING.compareAndSet(this, p, p + 1)) {
+				return true;
+			}
+		}
+	}
+
+	void release() {
+		PENDING.decrementAndGet(this);
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return executor == TERMINATED;
+	}
+
+	@Override
+	public void start() {
+		ExecutorService b = null;
+		for (; ; ) {
+			ExecutorService a = executor;
+			if (a != TERMINATED) {
+				if (b != null) {
+					b.shutdownNow();
+				}
+				return;
+			}
+
+			if (b == null) {
+				b = Schedulers.decorateExecutorService(Schedulers.VIRTUAL, this);
+			}
+
+			if (EXECUTOR.compareAndSet(this, a, b)) {
+				timer = newTimer();
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void dispose() {
+		ExecutorService a = executor;
+		if (a != TERMINATED) {
+			a = EXECUTOR.getAndSet(this, TERMINATED);
+			if (a != TERMINATED) {
+				timer.dispose();
+				Schedulers.executorServiceShutdown(a, Schedulers.VIRTUAL);
+			}
+		}
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		Objects.requireNonNull(task, "task");
+		VirtualTask t = new VirtualTask(task, this, null, false, false);
+		if (!t.submit()) {
+			return REJECTED;
+		}
+		return t;
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		if (delay <= 0L) {
+			return schedule(task);
+		}
+		VirtualTask t = new VirtualTask(task, this, null, false, false);
+		Disposable d = timer.schedule(t::submit, delay, unit);
+		if (d == REJECTED) {
+			return REJECTED;
+		}
+		t.setTimer(d);
+		return t;
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		VirtualTask t = new VirtualTask(task, this, null, true, false);
+		Disposable d = timer.schedulePeriodically(t::submit, initialDelay, period, unit);
+		if (d == REJECTED) {
+			return REJECTED;
+		}
+		t.setTimer(d);
+		return t;
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new VirtualWorker(this);
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return isDisposed();
+		if (key == IntAttr.CAPACITY) return isVirtual() ? Integer.MAX_VALUE : maxThreads;
+		if (key == IntAttr.BUFFERED) return pending;
+
+		return null;
+	}
+
+	static final class VirtualWorker extends QueueWorker implements Scannable {
+
+		final VirtualScheduler parent;
+
+		VirtualWorker(VirtualScheduler parent) {
+			super(Integer.MAX_VALUE);
+			this.parent = parent;
+		}
+
+		@Override
+		Executor executor() {
+			return parent.executor;
+		}
+
+		@Override
+		Scheduler timer() {
+			return parent.timer;
+		}
+
+		@Override
+		QueueWorkerTask newTask(Runnable task, boolean periodic, boolean tracked) {
+			return new VirtualTask(task, parent, this, periodic, tracked);
+		}
+
+		@Override
+		boolean tryAcquire() {
+			return parent.tryAcquire();
+		}
+
+		@Override
+		void release() {
+			parent.release();
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == BooleanAttr.TERMINATED || key == BooleanAttr.CANCELLED) return terminated;
+			if (key == IntAttr.BUFFERED) return queue.size();
+			if (key == ScannableAttr.PARENT) return parent;
+
+			return null;
+		}
+	}
+
+	/**
+	 * A task of a {@link VirtualWorker}, or submitted directly to the executor, in which
+	 * case it counts as pending until picked by the executor.
+	 */
+	static final class VirtualTask extends QueueWorkerTask {
+
+		final VirtualScheduler scheduler;
+
+		VirtualTask(Runnable task,
+				VirtualScheduler scheduler,
+				@Nullable VirtualWorker parent,
+				boolean periodic,
+				boolean tracked) {
+			super(task, parent, periodic, tracked);
+			this.scheduler = scheduler;
+		}
+
+		@Override
+		boolean execute() {
+			if (!scheduler.tryAcquire()) {
+				return false;
+			}
+			try {
+				scheduler.executor.execute(this);
+				return true;
+			}
+			catch (RejectedExecutionException ex) {
+				scheduler.release();
+				return false;
+			}
+		}
+
+		@Override
+		void onExecute() {
+			scheduler.release();
+		}
+	}
+}
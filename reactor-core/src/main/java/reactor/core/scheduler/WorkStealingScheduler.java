@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+import reactor.core.Disposable;
+
+/**
+ * Scheduler that hosts a work-stealing {@link ForkJoinPool} and is suited for parallel
+ * work with uneven task durations. This scheduler is time-capable (can schedule with
+ * delay / periodically).
+ * <p>
+ * Unlike {@link ParallelScheduler}, a {@link Worker} is not pinned to a single thread:
+ * each worker owns a FIFO queue and submits a drain of that queue to the pool whenever
+ * it goes from idle to busy. Only one drain per worker runs at a time, so tasks of a
+ * given worker are still executed in order and never concurrently, but idle pool
+ * threads can steal pending drains from busy ones instead of waiting behind a slow
+ * worker. A drain gives its thread back after a batch of tasks so that a chatty worker
+ * cannot monopolize a pool thread.
+ * <p>
+ * Delayed and periodic tasks are held by a dedicated {@link TimerWheelScheduler} and
+ * only enter the pool (or their worker's queue) once due.
+ */
+final class WorkStealingScheduler implements Scheduler, Supplier<ExecutorService> {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	/**
+	 * Maximum number of tasks a worker drain runs before resubmitting itself to the
+	 * pool, giving other workers (and thieves) a chance to use the thread.
+	 */
+	static final int MAX_DRAIN = 256;
+
+	static final ExecutorService TERMINATED;
+
+	static {
+		TERMINATED = Executors.newSingleThreadExecutor();
+		TERMINATED.shutdownNow();
+	}
+
+	final int parallelism;
+
+	final ThreadFactory factory;
+
+	final String name;
+
+	volatile ExecutorService executor;
+	static final AtomicReferenceFieldUpdater<WorkStealingScheduler, ExecutorService> EXECUTOR =
+			AtomicReferenceFieldUpdater.newUpdater(WorkStealingScheduler.class,
+					ExecutorService.class,
+					"executor");
+
+	volatile Scheduler timer;
+
+	WorkStealingScheduler(int parallelism, ThreadFactory factory) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism > 0 required but it was " + parallelism);
+		}
+		this.parallelism = parallelism;
+		this.factory = factory;
+		this.name = factory instanceof Supplier ? String.valueOf(((Supplier<?>) factory).get()) :
+				Schedulers.WORK_STEALING;
+		init();
+	}
+
+	/**
+	 * Instantiates the default {@link ExecutorService} for the WorkStealingScheduler: an
+	 * asynchronous-mode (FIFO) {@link ForkJoinPool} whose threads take their name, daemon
+	 * flag and uncaught exception handler from the configured {@link ThreadFactory}.
+	 * A custom {@link ThreadFactory} can't create pool threads, so they copy those of a
+	 * template thread it creates instead.
+	 */
+	@Override
+	public ExecutorService get() {
+		return new ForkJoinPool(parallelism, pool -> {
+			ForkJoinWorkerThread t = new WorkStealingThread(pool);
+			if (factory instanceof Schedulers.SchedulerThreadFactory) {
+				((Schedulers.SchedulerThreadFactory) factory).configure(t);
+				return t;
+			}
+			Thread template = factory.newThread(ExecutorServiceScheduler.EMPTY);
+			t.setName(template.getName());
+			t.setDaemon(template.isDaemon());
+			t.setUncaughtExceptionHandler(template.getUncaughtExceptionHandler());
+			return t;
+		}, null, true);
+	}
+
+	Scheduler newTimer() {
+		return new TimerWheelScheduler(TimerWheelScheduler.DEFAULT_TICK_NANOS,
+				TimerWheelScheduler.DEFAULT_WHEEL_SIZE,
+				new Schedulers.SchedulerThreadFactory(name + "-" + Schedulers.TIMER,
+						true,
+						TimerWheelScheduler.COUNTER));
+	}
+
+	void init() {
+		timer = newTimer();
+		EXECUTOR.lazySet(this,
+				Schedulers.decorateExecutorService(Schedulers.WORK_STEALING, this));
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return executor == TERMINATED;
+	}
+
+	@Override
+	public void start() {
+		ExecutorService b = null;
+		for (; ; ) {
+			ExecutorService a = executor;
+			if (a != TERMINATED) {
+				if (b != null) {
+					b.shutdownNow();
+				}
+				return;
+			}
+
+			if (b == null) {
+				b = Schedulers.decorateExecutorService(Schedulers.WORK_STEALING, this);
+			}
+
+			if (EXECUTOR.compareAndSet(this, a, b)) {
+				timer = newTimer();
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void dispose() {
+		ExecutorService a = executor;
+		if (a != TERMINATED) {
+			a = EXECUTOR.getAndSet(this, TERMINATED);
+			if (a != TERMINATED) {
+				timer.dispose();
+				Schedulers.executorServiceShutdown(a, Schedulers.WORK_STEALING);
+			}
+		}
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		Objects.requireNonNull(task, "task");
+		WorkStealingTask t = new WorkStealingTask(task, this, null, false, false);
+		if (!t.submit()) {
+			return REJECTED;
+		}
+		return t;
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		if (delay <= 0L) {
+			return schedule(task);
+		}
+		WorkStealingTask t = new WorkStealingTask(task, this, null, false, false);
+		Disposable d = timer.schedule(t::submit, delay, unit);
+		if (d == REJECTED) {
+			return REJECTED;
+		}
+		t.setTimer(d);
+		return t;
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		Objects.requireNonNull(task, "task");
+		WorkStealingTask t = new WorkStealingTask(task, this, null, true, false);
+		Disposable d = timer.schedulePeriodically(t::submit, initialDelay, period, unit);
+		if (d == REJECTED) {
+			return REJECTED;
+		}
+		t.setTimer(d);
+		return t;
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new WorkStealingWorker(this);
+	}
+
+	static final class WorkStealingThread extends ForkJoinWorkerThread {
+
+		WorkStealingThread(ForkJoinPool pool) {
+			super(pool);
+		}
+	}
+
+	static final class WorkStealingWorker extends QueueWorker {
+
+		final WorkStealingScheduler parent;
+
+		WorkStealingWorker(WorkStealingScheduler parent) {
+			super(MAX_DRAIN);
+			this.parent = parent;
+		}
+
+		@Override
+		Executor executor() {
+			return parent.executor;
+		}
+
+		@Override
+		Scheduler timer() {
+			return parent.timer;
+		}
+
+		@Override
+		QueueWorkerTask newTask(Runnable task, boolean periodic, boolean tracked) {
+			return new WorkStealingTask(task, parent, this, periodic, tracked);
+		}
+	}
+
+	/**
+	 * A task of a {@link WorkStealingWorker}, or submitted directly to the pool.
+	 */
+	static final class WorkStealingTask extends QueueWorkerTask {
+
+		final WorkStealingScheduler scheduler;
+
+		WorkStealingTask(Runnable task,
+				WorkStealingScheduler scheduler,
+				@Nullable WorkStealingWorker parent,
+				boolean periodic,
+				boolean tracked) {
+			super(task, parent, periodic, tracked);
+			this.scheduler = scheduler;
+		}
+
+		@Override
+		boolean execute() {
+			try {
+				scheduler.executor.execute(this);
+				return true;
+			}
+			catch (RejectedExecutionException ex) {
+				return false;
+			}
+		}
+	}
+}
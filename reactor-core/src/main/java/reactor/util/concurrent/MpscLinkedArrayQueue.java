@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.Nullable;
+
+/**
+ * An unbounded, array-backed multi-producer, single-consumer queue with a fixed link
+ * size.
+ * <p>
+ * This implementation is based on JCTools' MPSC algorithm: <a
+ * href='https://github.com/JCTools/JCTools/blob/master/jctools-core/src/main/java/org/jctools/queues/atomic/MpscUnboundedAtomicArrayQueue.java'>MpscUnboundedAtomicArrayQueue</a>.
+ * The producer index moves by steps of 2, an odd value meaning that a producer is
+ * linking a new array: other producers spin until it is done, which happens once per
+ * link. Each array holds {@code linkSize} elements plus the reference to the next one.
+ *
+ * @param <T> the value type
+ */
+final class MpscLinkedArrayQueue<T> extends MpscLinkedArrayQueueP3<T> {
+
+	static final Object JUMP = new Object();
+
+	MpscLinkedArrayQueue(int linkSize) {
+		super(QueueSupplier.ceilingNextPowerOfTwo(Math.max(8, linkSize)));
+	}
+
+	@Override
+	public boolean offer(T e) {
+		Objects.requireNonNull(e, "e");
+
+		long mask;
+		AtomicReferenceArray<Object> buffer;
+		long pi;
+
+		for (; ; ) {
+			long limit = producerLimit;
+			pi = producerIndex;
+			if ((pi & 1) == 1) {
+				//a new array is being linked
+				continue;
+			}
+			mask = producerMask;
+			buffer = producerBuffer;
+
+			if (limit <= pi) {
+				long ci = consumerIndex;
+				if (ci + mask > pi) {
+					//the consumer made room in the current array
+					PRODUCER_LIMIT.compareAndSet(this, limit, ci + mask);
+					continue;
+				}
+				if (PRODUCER_INDEX.compareAndSet(this, pi, pi + 1)) {
+					resize(mask, buffer, pi, e);
+					return true;
+				}
+				continue;
+			}
+			if (PRODUCER_INDEX.compareAndSet(this, pi, pi + 2)) {
+				break;
+			}
+		}
+
+		buffer.lazySet(offset(pi, mask), e);
+		return true;
+	}
+
+	void resize(long oldMask, AtomicReferenceArray<Object> oldBuffer, long pi, T e) {
+		int length = oldBuffer.length();
+		AtomicReferenceArray<Object> newBuffer = new AtomicReferenceArray<>(length);
+		producerBuffer = newBuffer;
+		long newMask = (long) (length - 2) << 1;
+		producerMask = newMask;
+
+		newBuffer.lazySet(offset(pi, newMask), e);
+		oldBuffer.lazySet(length - 1, newBuffer);
+
+		PRODUCER_LIMIT.lazySet(this, pi + newMask);
+		//publish the new array to other producers
+		PRODUCER_INDEX.lazySet(this, pi + 2);
+		//then to the consumer
+		oldBuffer.lazySet(offset(pi, oldMask), JUMP);
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T poll() {
+		AtomicReferenceArray<Object> buffer = consumerBuffer;
+		long ci = consumerIndex;
+		long mask = consumerMask;
+
+		int offset = offset(ci, mask);
+		Object v = buffer.get(offset);
+		if (v == null) {
+			if (ci == producerIndex) {
+				return null;
+			}
+			//a producer claimed the slot but hasn't published its element yet
+			do {
+				v = buffer.get(offset);
+			}
+			while (v == null);
+		}
+
+		if (v == JUMP) {
+			buffer = nextBuffer(buffer);
+			offset = offset(ci, consumerMask);
+			v = buffer.get(offset);
+		}
+
+		buffer.lazySet(offset, null);
+		CONSUMER_INDEX.lazySet(this, ci + 2);
+		return (T) v;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public T peek() {
+		AtomicReferenceArray<Object> buffer = consumerBuffer;
+		long ci = consumerIndex;
+		long mask = consumerMask;
+
+		int offset = offset(ci, mask);
+		Object v = buffer.get(offset);
+		if (v == null && ci != producerIndex) {
+			do {
+				v = buffer.get(offset);
+			}
+			while (v == null);
+		}
+
+		if (v == JUMP) {
+			buffer = nextBuffer(buffer);
+			v = buffer.get(offset(ci, consumerMask));
+		}
+		return (T) v;
+	}
+
+	@SuppressWarnings("unchecked")
+	AtomicReferenceArray<Object> nextBuffer(AtomicReferenceArray<Object> buffer) {
+		int next = buffer.length() - 1;
+		AtomicReferenceArray<Object> b = (AtomicReferenceArray<Object>) buffer.get(next);
+		buffer.lazySet(next, null);
+		consumerBuffer = b;
+		consumerMask = (long) (b.length() - 2) << 1;
+		return b;
+	}
+
+	static int offset(long index, long mask) {
+		return (int) ((index & mask) >> 1);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return producerIndex == consumerIndex;
+	}
+
+	@Override
+	public int size() {
+		long ci = consumerIndex;
+		for (; ; ) {
+			long pi = producerIndex;
+			long ci2 = consumerIndex;
+			if (ci == ci2) {
+				return (int) ((pi - ci) >> 1);
+			}
+			ci = ci2;
+		}
+	}
+
+	@Override
+	public void clear() {
+		while (poll() != null && !isEmpty()) {
+		}
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		throw new UnsupportedOperationException();
+	}
+}
+
+abstract class MpscLinkedArrayQueueP1<T> extends AbstractQueue<T> {
+
+	volatile long p00, p01, p02, p03, p04, p05, p06, p07;
+	volatile long p08, p09, p0A, p0B, p0C, p0D, p0E;
+}
+
+abstract class MpscLinkedArrayQueueProducer<T> extends MpscLinkedArrayQueueP1<T> {
+
+	volatile long producerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscLinkedArrayQueueProducer> PRODUCER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscLinkedArrayQueueProducer.class,
+					"producerIndex");
+
+	volatile long producerLimit;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscLinkedArrayQueueProducer> PRODUCER_LIMIT =
+			AtomicLongFieldUpdater.newUpdater(MpscLinkedArrayQueueProducer.class,
+					"producerLimit");
+
+	//only written while the producer index is odd, and read after it was seen even
+	long                         producerMask;
+	AtomicReferenceArray<Object> producerBuffer;
+}
+
+abstract class MpscLinkedArrayQueueP2<T> extends MpscLinkedArrayQueueProducer<T> {
+
+	volatile long p00, p01, p02, p03, p04, p05, p06, p07;
+	volatile long p08, p09, p0A, p0B, p0C, p0D, p0E;
+}
+
+abstract class MpscLinkedArrayQueueConsumer<T> extends MpscLinkedArrayQueueP2<T> {
+
+	volatile long consumerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscLinkedArrayQueueConsumer> CONSUMER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscLinkedArrayQueueConsumer.class,
+					"consumerIndex");
+
+	long                         consumerMask;
+	AtomicReferenceArray<Object> consumerBuffer;
+}
+
+abstract class MpscLinkedArrayQueueP3<T> extends MpscLinkedArrayQueueConsumer<T> {
+
+	volatile long p00, p01, p02, p03, p04, p05, p06, p07;
+	volatile long p08, p09, p0A, p0B, p0C, p0D, p0E;
+
+	MpscLinkedArrayQueueP3(int linkSize) {
+		AtomicReferenceArray<Object> buffer = new AtomicReferenceArray<>(linkSize + 1);
+		long mask = (long) (linkSize - 1) << 1;
+		producerBuffer = buffer;
+		producerMask = mask;
+		consumerBuffer = buffer;
+		consumerMask = mask;
+		PRODUCER_LIMIT.lazySet(this, mask);
+	}
+}
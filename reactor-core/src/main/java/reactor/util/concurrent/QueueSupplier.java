@@ -25,7 +25,8 @@ import java.util.function.Supplier;
 import javax.annotation.Nullable;
 
 /**
- * Provide a 1-producer/1-consumer ready queue adapted for a given capacity.
+ * Provide a 1-producer/1-consumer ready queue adapted for a given capacity, or a
+ * multi-producer/1-consumer one through the {@code mpsc} factories.
  *
  * @param <T> the queue element type
  */
@@ -88,6 +89,50 @@ public final class QueueSupplier<T> implements Supplier<Queue<T>> {
 		return Integer.bitCount(x) == 1;
 	}
 
+	/**
+	 * Returns a bounded, array-based Queue safe for any number of concurrent producers
+	 * and a single consumer. Integer.max sized capacity will return an unbounded
+	 * {@link #mpscUnbounded(int)} queue.
+	 *
+	 * @param batchSize the bounded or unbounded (int.max) queue size
+	 * @param <T> the reified {@link Queue} generic type
+	 * @return an unbounded or bounded multi-producer {@link Queue} {@link Supplier}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Supplier<Queue<T>> mpsc(int batchSize) {
+		if (batchSize == Integer.MAX_VALUE) {
+			return MPSC_UNBOUNDED;
+		}
+		if (batchSize == XS_BUFFER_SIZE) {
+			return MPSC_XS_SUPPLIER;
+		}
+		if (batchSize == SMALL_BUFFER_SIZE) {
+			return MPSC_SMALL_SUPPLIER;
+		}
+		int capacity = Math.max(8, batchSize);
+		return () -> new MpscArrayQueue<>(capacity);
+	}
+
+	/**
+	 * Returns an unbounded, linked-array-based Queue safe for any number of concurrent
+	 * producers and a single consumer. Integer.max sized link will return the default
+	 * {@link #SMALL_BUFFER_SIZE} size.
+	 *
+	 * @param linkSize the link size
+	 * @param <T> the reified {@link Queue} generic type
+	 * @return an unbounded multi-producer {@link Queue} {@link Supplier}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> Supplier<Queue<T>> mpscUnbounded(int linkSize) {
+		if (linkSize == XS_BUFFER_SIZE) {
+			return MPSC_XS_UNBOUNDED;
+		}
+		else if (linkSize == Integer.MAX_VALUE || linkSize == SMALL_BUFFER_SIZE) {
+			return MPSC_UNBOUNDED;
+		}
+		return () -> new MpscLinkedArrayQueue<>(linkSize);
+	}
+
 	/**
 	 *
 	 * @param <T> the reified {@link Queue} generic type
@@ -318,4 +363,14 @@ public final class QueueSupplier<T> implements Supplier<Queue<T>> {
 			() -> new SpscLinkedArrayQueue<>(SMALL_BUFFER_SIZE);
 	@SuppressWarnings("rawtypes")
 	static final Supplier XS_UNBOUNDED = () -> new SpscLinkedArrayQueue<>(XS_BUFFER_SIZE);
+	@SuppressWarnings("rawtypes")
+	static final Supplier MPSC_XS_SUPPLIER    = () -> new MpscArrayQueue<>(XS_BUFFER_SIZE);
+	@SuppressWarnings("rawtypes")
+	static final Supplier MPSC_SMALL_SUPPLIER = () -> new MpscArrayQueue<>(SMALL_BUFFER_SIZE);
+	@SuppressWarnings("rawtypes")
+	static final Supplier MPSC_UNBOUNDED      =
+			() -> new MpscLinkedArrayQueue<>(SMALL_BUFFER_SIZE);
+	@SuppressWarnings("rawtypes")
+	static final Supplier MPSC_XS_UNBOUNDED   =
+			() -> new MpscLinkedArrayQueue<>(XS_BUFFER_SIZE);
 }
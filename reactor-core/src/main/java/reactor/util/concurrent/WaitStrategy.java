@@ -22,7 +22,9 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
 
+import reactor.core.Scannable;
 
 /**
  * Strategy employed to wait for specific {@link LongSupplier} values with various spinning strategies.
@@ -30,6 +32,72 @@ import java.util.function.LongSupplier;
 public abstract class WaitStrategy
 {
 
+    /**
+     * The phase in which an {@link #adaptive() adaptive} strategy is mostly satisfying
+     * its waits.
+     */
+    public enum Phase {
+        /** waits are satisfied while busy spinning */
+        SPIN,
+        /** waits are satisfied while yielding the thread */
+        YIELD,
+        /** waits fall back to the blocking strategy */
+        BLOCK
+    }
+
+    /**
+     * {@link Scannable} attributes associated with a {@link Phase} value.
+     */
+    public enum PhaseAttr implements Scannable.Attr<Phase> {
+
+        /**
+         * The {@link Phase} an {@link #adaptive() adaptive} strategy is mostly
+         * satisfying its waits in, or null if it hasn't waited enough yet.
+         */
+        PHASE(null);
+
+        final Phase defaultValue;
+
+        PhaseAttr(@Nullable Phase defaultValue) {
+            this.defaultValue = defaultValue;
+        }
+
+        @Override
+        @Nullable
+        public Phase defaultValue() {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Adaptive strategy that spins, then yields, then waits using {@link #liteBlocking()},
+     * tuning the spin and yield budgets of each consumer from its recent waits.
+     * <p>
+     * Budgets grow while waits are satisfied late in the spin or yield phases or
+     * after a short block, which cuts wake-up latency under load, and shrink while
+     * waits mostly end up blocking for long, which frees the CPU during quiet periods.
+     * The returned strategy is {@link Scannable} and reports its dominant {@link PhaseAttr#PHASE phase}.
+     *
+     * @return the wait strategy
+     */
+    public static WaitStrategy adaptive() {
+        return adaptive(Adaptive.MAX_SPINS, Adaptive.MAX_YIELDS, liteBlocking());
+    }
+
+    /**
+     * Adaptive strategy that spins, then yields, then waits using the given fallback
+     * strategy, tuning the spin and yield budgets of each consumer from its recent
+     * waits. See {@link #adaptive()}.
+     *
+     * @param maxSpins the upper bound of the spin budget, at least 1
+     * @param maxYields the upper bound of the yield budget, at least 0
+     * @param fallback the target wait strategy to fall back on
+     * @return the wait strategy
+     */
+    public static WaitStrategy adaptive(int maxSpins, int maxYields, WaitStrategy fallback) {
+        return new Adaptive(maxSpins, maxYields, fallback);
+    }
+
     /**
      * Blocking strategy that uses a lock and condition variable for consumer waiting on a barrier.
      *
@@ -530,4 +598,163 @@ public abstract class WaitStrategy
 
 	    private static final int SPIN_TRIES = 100;
     }
+
+    final static class Adaptive extends WaitStrategy implements Scannable {
+
+        final int          maxSpins;
+        final int          maxYields;
+        final WaitStrategy fallbackStrategy;
+
+        //budgets and statistics of each consumer thread
+        final ThreadLocal<State> states;
+
+        volatile Phase phase;
+
+        Adaptive(int maxSpins, int maxYields, WaitStrategy fallbackStrategy) {
+            if (maxSpins < 1) {
+                throw new IllegalArgumentException("maxSpins > 0 required but it was " + maxSpins);
+            }
+            if (maxYields < 0) {
+                throw new IllegalArgumentException("maxYields >= 0 required but it was " + maxYields);
+            }
+            this.maxSpins = maxSpins;
+            this.maxYields = maxYields;
+            this.fallbackStrategy = fallbackStrategy;
+            this.states = ThreadLocal.withInitial(() -> new State(Math.min(MIN_SPINS, maxSpins), 0));
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            fallbackStrategy.signalAllWhenBlocking();
+        }
+
+        @Override
+        @Nullable
+        public Object scanUnsafe(Attr key) {
+            if (key == PhaseAttr.PHASE) return phase;
+
+            return null;
+        }
+
+        @Override
+        public long waitFor(long sequence, LongSupplier cursor, Runnable barrier)
+                throws InterruptedException {
+            long availableSequence;
+            if ((availableSequence = cursor.getAsLong()) >= sequence) {
+                return availableSequence;
+            }
+
+            State state = states.get();
+
+            int spins = state.spinBudget;
+            for (int i = 0; i < spins; i++) {
+                barrier.run();
+                if ((availableSequence = cursor.getAsLong()) >= sequence) {
+                    //satisfied in the last quarter of the budget: a bit more spinning would have helped
+                    if (i >= spins - (spins >> 2)) {
+                        state.lateSpins++;
+                    }
+                    state.spinHits++;
+                    adapt(state);
+                    return availableSequence;
+                }
+            }
+
+            int yields = state.yieldBudget;
+            for (int i = 0; i < yields; i++) {
+                barrier.run();
+                Thread.yield();
+                if ((availableSequence = cursor.getAsLong()) >= sequence) {
+                    state.yieldHits++;
+                    adapt(state);
+                    return availableSequence;
+                }
+            }
+
+            long start = System.nanoTime();
+            try {
+                return fallbackStrategy.waitFor(sequence, cursor, barrier);
+            }
+            finally {
+                if (System.nanoTime() - start < SHORT_BLOCK_NANOS) {
+                    state.shortBlocks++;
+                }
+                state.blocks++;
+                adapt(state);
+            }
+        }
+
+        void adapt(State state) {
+            if (++state.waits < WINDOW) {
+                return;
+            }
+            int spinHits = state.spinHits;
+            int yieldHits = state.yieldHits;
+            int blocks = state.blocks;
+
+            if (blocks > WINDOW / 2) {
+                if (state.shortBlocks > blocks / 2) {
+                    //short waits that paid a wake-up: try catching them by yielding
+                    state.yieldBudget = Math.min(maxYields, Math.max(1, state.yieldBudget << 1));
+                }
+                else {
+                    //quiet period, stop burning cycles
+                    state.spinBudget = Math.max(Math.min(MIN_SPINS, maxSpins), state.spinBudget >> 1);
+                    state.yieldBudget = state.yieldBudget >> 1;
+                }
+            }
+            else if (yieldHits > spinHits || state.lateSpins > spinHits / 2) {
+                //waits end just past the spin budget, spinning is cheaper than yielding
+                state.spinBudget = Math.min(maxSpins, state.spinBudget << 1);
+            }
+
+            Phase p;
+            if (blocks >= spinHits && blocks >= yieldHits) {
+                p = Phase.BLOCK;
+            }
+            else if (yieldHits > spinHits) {
+                p = Phase.YIELD;
+            }
+            else {
+                p = Phase.SPIN;
+            }
+            if (phase != p) {
+                phase = p;
+            }
+            state.reset();
+        }
+
+        static final class State {
+
+            int spinBudget;
+            int yieldBudget;
+
+            int waits;
+            int spinHits;
+            int lateSpins;
+            int yieldHits;
+            int blocks;
+            int shortBlocks;
+
+            State(int spinBudget, int yieldBudget) {
+                this.spinBudget = spinBudget;
+                this.yieldBudget = yieldBudget;
+            }
+
+            void reset() {
+                waits = 0;
+                spinHits = 0;
+                lateSpins = 0;
+                yieldHits = 0;
+                blocks = 0;
+                shortBlocks = 0;
+            }
+        }
+
+        static final int  WINDOW            = 64;
+        static final int  MIN_SPINS         = 64;
+        static final int  MAX_SPINS         = 10_000;
+        static final int  MAX_YIELDS        = 100;
+        static final long SHORT_BLOCK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    }
 }
@@ -31,8 +31,7 @@ import javax.annotation.Nullable;
  * Note that contexts are optimized for single key/value storage, and a user might want
  * to represent his own context instead of using more costly {@link #put}.
  * Past one user key/value pair, the context will use a copy-on-write {@link Context}
- * backed by
- * a new {@link java.util.Map} on each {@link #put}.
+ * backed by a compact open-addressed array, copied on each {@link #put}.
  *
  * @author Stephane Maldini
  */
@@ -15,63 +15,187 @@
  */
 package reactor.util.context;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.Function;
 import java.util.stream.Stream;
 import javax.annotation.Nullable;
 
-@SuppressWarnings("unchecked")
-final class ContextN extends HashMap<Object, Object>
-		implements Context, Function<Map.Entry<Object, Object>, Map.Entry<Object, Object>> {
+/**
+ * A {@link Context} of two or more key/value pairs stored in a single flat array,
+ * used as an open-addressed hash table with linear probing: keys at even indexes,
+ * each followed by its value. The table is kept at most half full, so that lookups
+ * usually hit on the first probe, and {@link #put} only copies that array.
+ */
+final class ContextN implements Context {
+
+	final Object[] table;
+
+	final int size;
 
 	ContextN(Object key1, Object value1, Object key2, Object value2) {
-		super(2, 1f);
-		super.put(key1, value1);
-		super.put(key2, value2);
+		Object[] t = new Object[tableLength(2)];
+		insert(t, key1, value1);
+		insert(t, key2, value2);
+		this.table = t;
+		this.size = 2;
+	}
+
+	ContextN(Object[] table, int size) {
+		this.table = table;
+		this.size = size;
+	}
+
+	/**
+	 * @return the length of a table holding the given number of pairs, that is twice
+	 * the smallest power of two at least twice that number
+	 */
+	static int tableLength(int size) {
+		return Integer.highestOneBit(size * 2 - 1) << 2;
 	}
 
-	ContextN(Map<Object, Object> map, Object key, @Nullable Object value) {
-		super(map.size() + 1, 1f);
-		putAll(map);
-		super.put(key, value);
+	static int indexOf(Object[] table, Object key) {
+		int h = key.hashCode();
+		return ((h ^ (h >>> 16)) << 1) & (table.length - 2);
+	}
+
+	static void insert(Object[] table, Object key, Object value) {
+		int mask = table.length - 2;
+		int i = indexOf(table, key);
+		while (table[i] != null) {
+			i = (i + 2) & mask;
+		}
+		table[i] = key;
+		table[i + 1] = value;
+	}
+
+	/**
+	 * @return the index of the given key in the table, or of the empty slot ending its
+	 * probe sequence if it is absent
+	 */
+	int slotOf(Object key) {
+		Object[] t = table;
+		int mask = t.length - 2;
+		int i = indexOf(t, key);
+		for (; ; ) {
+			Object k = t[i];
+			if (k == null || k == key || k.equals(key)) {
+				return i;
+			}
+			i = (i + 2) & mask;
+		}
 	}
 
 	@Override
 	public Context put(Object key, @Nullable Object value) {
 		Objects.requireNonNull(key, "key");
-		return new ContextN(this, key, value);
+		Object[] t = table;
+		int i = slotOf(key);
+
+		if (t[i] != null) {
+			if (value == null) {
+				return remove(i);
+			}
+			Object[] a = t.clone();
+			a[i + 1] = value;
+			return new ContextN(a, size);
+		}
+		if (value == null) {
+			return this;
+		}
+
+		int n = size + 1;
+		int length = tableLength(n);
+		if (length == t.length) {
+			Object[] a = t.clone();
+			a[i] = key;
+			a[i + 1] = value;
+			return new ContextN(a, n);
+		}
+		Object[] a = new Object[length];
+		for (int j = 0; j < t.length; j += 2) {
+			Object k = t[j];
+			if (k != null) {
+				insert(a, k, t[j + 1]);
+			}
+		}
+		insert(a, key, value);
+		return new ContextN(a, n);
 	}
 
-	@Override
-	@Nullable
-	public Object get(Object key) {
-		return super.get(key);
+	Context remove(int index) {
+		Object[] t = table;
+		if (size == 2) {
+			for (int j = 0; j < t.length; j += 2) {
+				if (j != index && t[j] != null) {
+					return new Context1(t[j], t[j + 1]);
+				}
+			}
+		}
+		Object[] a = new Object[tableLength(size - 1)];
+		for (int j = 0; j < t.length; j += 2) {
+			Object k = t[j];
+			if (j != index && k != null) {
+				insert(a, k, t[j + 1]);
+			}
+		}
+		return new ContextN(a, size - 1);
 	}
 
 	@Override
 	@Nullable
-	public Object getOrDefault(Object key, @Nullable Object defaultValue) {
-		Object v = get(key);
-		if(v == null){
-			return defaultValue;
+	@SuppressWarnings("unchecked")
+	public <T> T get(Object key) {
+		if (key == null) {
+			return null;
+		}
+		Object[] t = table;
+		int mask = t.length - 2;
+		int i = indexOf(t, key);
+		for (; ; ) {
+			Object k = t[i];
+			if (k == null) {
+				return null;
+			}
+			if (k == key || k.equals(key)) {
+				return (T) t[i + 1];
+			}
+			i = (i + 2) & mask;
 		}
-		return v;
 	}
 
 	@Override
-	public Stream<Entry<Object, Object>> stream() {
-		return entrySet().stream().map(this);
+	public Stream<Map.Entry<Object, Object>> stream() {
+		return Arrays.stream(entries());
 	}
 
-	@Override
-	public Entry<Object, Object> apply(Entry<Object, Object> o) {
-		return new Context1(o.getKey(), o.getValue());
+	@SuppressWarnings("unchecked")
+	Map.Entry<Object, Object>[] entries() {
+		Object[] t = table;
+		Map.Entry<Object, Object>[] entries = new Map.Entry[size];
+		int n = 0;
+		for (int j = 0; j < t.length; j += 2) {
+			Object k = t[j];
+			if (k != null) {
+				entries[n++] = new Context1(k, t[j + 1]);
+			}
+		}
+		return entries;
 	}
 
 	@Override
 	public String toString() {
-		return "ContextN"+super.toString();
+		StringBuilder sb = new StringBuilder("ContextN{");
+		Map.Entry<Object, Object>[] entries = entries();
+		for (int i = 0; i < entries.length; i++) {
+			if (i != 0) {
+				sb.append(", ");
+			}
+			sb.append(entries[i].getKey())
+			  .append('=')
+			  .append(entries[i].getValue());
+		}
+		return sb.append('}')
+		         .toString();
 	}
 }
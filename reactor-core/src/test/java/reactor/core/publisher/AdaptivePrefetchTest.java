@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptivePrefetchTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMin() {
+		new AdaptivePrefetch(0, 16);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMaxLowerThanMin() {
+		new AdaptivePrefetch(16, 8);
+	}
+
+	@Test
+	public void startsAtMin() {
+		AdaptivePrefetch test = new AdaptivePrefetch(8, 64);
+
+		assertThat(test.prefetch).isEqualTo(8);
+		assertThat(test.limit).isEqualTo(6);
+	}
+
+	@Test
+	public void growsWhileDrained() {
+		AdaptivePrefetch test = new AdaptivePrefetch(8, 64);
+
+		assertThat(test.replenish(6, 0)).isEqualTo(6 + 8);
+		assertThat(test.prefetch).isEqualTo(16);
+		assertThat(test.limit).isEqualTo(12);
+
+		assertThat(test.replenish(12, 0)).isEqualTo(12 + 16);
+		assertThat(test.replenish(24, 0)).isEqualTo(24 + 32);
+		assertThat(test.prefetch).isEqualTo(64);
+
+		assertThat(test.replenish(48, 0)).isEqualTo(48);
+		assertThat(test.prefetch).isEqualTo(64);
+	}
+
+	@Test
+	public void growsUpToNonPowerOfTwoMax() {
+		AdaptivePrefetch test = new AdaptivePrefetch(8, 100);
+
+		test.replenish(6, 0);
+		test.replenish(12, 0);
+		test.replenish(24, 0);
+
+		assertThat(test.prefetch).isEqualTo(64);
+		assertThat(test.replenish(48, 0)).isEqualTo(48 + 36);
+		assertThat(test.prefetch).isEqualTo(100);
+	}
+
+	@Test
+	public void shrinksAfterConsecutiveFullReplenishments() {
+		AdaptivePrefetch test = new AdaptivePrefetch(8, 64);
+		test.replenish(6, 0);
+		test.replenish(12, 0);
+		test.replenish(24, 0);
+
+		for (int i = 1; i < AdaptivePrefetch.SHRINK_AFTER; i++) {
+			assertThat(test.replenish(48, 16)).isEqualTo(48);
+		}
+		assertThat(test.replenish(48, 16)).isEqualTo(48 - 32);
+		assertThat(test.prefetch).isEqualTo(32);
+		assertThat(test.limit).isEqualTo(24);
+	}
+
+	@Test
+	public void partiallyFilledQueueKeepsPrefetch() {
+		AdaptivePrefetch test = new AdaptivePrefetch(8, 64);
+		test.replenish(6, 0);
+		test.replenish(12, 0);
+		test.replenish(24, 0);
+
+		for (int i = 0; i < AdaptivePrefetch.SHRINK_AFTER * 2; i++) {
+			assertThat(test.replenish(48, 16)).isEqualTo(48);
+			assertThat(test.replenish(48, 8)).isEqualTo(48);
+		}
+		assertThat(test.prefetch).isEqualTo(64);
+	}
+
+	@Test
+	public void doesNotShrinkBelowMin() {
+		AdaptivePrefetch test = new AdaptivePrefetch(8, 64);
+
+		for (int i = 0; i < AdaptivePrefetch.SHRINK_AFTER * 2; i++) {
+			assertThat(test.replenish(6, 2)).isEqualTo(6);
+		}
+		assertThat(test.prefetch).isEqualTo(8);
+	}
+}
@@ -208,4 +208,66 @@ public class ContextTests {
 		            .expectNext("barfoo1")
 		            .verifyComplete();
 	}
+
+	@Test
+	public void contextManyKeys() {
+		Context c = Context.empty();
+		for (int i = 0; i < 20; i++) {
+			c = c.put("key" + i, i);
+		}
+
+		for (int i = 0; i < 20; i++) {
+			assertThat(c.get("key" + i), is(i));
+		}
+		assertThat(c.get("key20"), Matchers.nullValue());
+		assertThat(c.stream().count(), is(20L));
+
+		Context updated = c.put("key7", "seven");
+		assertThat(updated.get("key7"), is("seven"));
+		assertThat(c.get("key7"), is(7));
+		assertThat(updated.stream().count(), is(20L));
+	}
+
+	@Test
+	public void contextNullValueRemovesKey() {
+		Context c = Context.empty()
+		                   .put("a", 1)
+		                   .put("b", 2)
+		                   .put("c", 3);
+
+		Context removed = c.put("b", null);
+		assertThat(removed.get("b"), Matchers.nullValue());
+		assertThat(removed.get("a"), is(1));
+		assertThat(removed.get("c"), is(3));
+		assertThat(removed.stream().count(), is(2L));
+
+		Context single = removed.put("a", null);
+		assertThat(single.get("c"), is(3));
+		assertThat(single.stream().count(), is(1L));
+
+		assertThat(c.put("d", null), is(c));
+	}
+
+	@Test
+	public void contextCollidingKeys() {
+		//"Aa" and "BB" share the same hash code
+		Context c = Context.empty()
+		                   .put("Aa", 1)
+		                   .put("BB", 2)
+		                   .put("AaAa", 3)
+		                   .put("BBBB", 4)
+		                   .put("AaBB", 5);
+
+		assertThat(c.get("Aa"), is(1));
+		assertThat(c.get("BB"), is(2));
+		assertThat(c.get("AaAa"), is(3));
+		assertThat(c.get("BBBB"), is(4));
+		assertThat(c.get("AaBB"), is(5));
+		assertThat(c.get("BBAa"), Matchers.nullValue());
+
+		Context removed = c.put("Aa", null);
+		assertThat(removed.get("Aa"), Matchers.nullValue());
+		assertThat(removed.get("BB"), is(2));
+		assertThat(removed.get("AaBB"), is(5));
+	}
 }
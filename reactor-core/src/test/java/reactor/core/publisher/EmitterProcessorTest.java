@@ -818,4 +818,82 @@ public class EmitterProcessorTest {
 
 		assertThat(test.scan(Scannable.ThrowableAttr.ERROR)).hasMessage("boom");
 	}
+
+	@Test
+	public void independentCursorsSlowSubscriberDoesNotPauseOthers() {
+		EmitterProcessor<Integer> processor =
+				EmitterProcessor.create(4, true, BufferOverflowStrategy.DROP_OLDEST);
+
+		AssertSubscriber<Integer> fast = AssertSubscriber.create();
+		AssertSubscriber<Integer> slow = AssertSubscriber.create(1);
+		processor.subscribe(fast);
+		processor.subscribe(slow);
+
+		for (int i = 1; i <= 10; i++) {
+			processor.onNext(i);
+		}
+
+		fast.assertValues(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		slow.assertValues(1);
+		assertThat(processor.getPending()).isEqualTo(4);
+
+		slow.request(10);
+		slow.assertValues(1, 7, 8, 9, 10);
+
+		processor.onComplete();
+		fast.assertComplete();
+		slow.assertComplete();
+	}
+
+	@Test
+	public void independentCursorsLaggingSubscriberErrors() {
+		EmitterProcessor<Integer> processor =
+				EmitterProcessor.create(4, true, BufferOverflowStrategy.ERROR);
+
+		AssertSubscriber<Integer> fast = AssertSubscriber.create();
+		AssertSubscriber<Integer> slow = AssertSubscriber.create(0);
+		processor.subscribe(fast);
+		processor.subscribe(slow);
+
+		for (int i = 1; i <= 5; i++) {
+			processor.onNext(i);
+		}
+		processor.onComplete();
+
+		fast.assertValues(1, 2, 3, 4, 5)
+		    .assertComplete();
+		slow.assertNoValues()
+		    .assertError(IllegalStateException.class);
+		assertThat(processor.downstreamCount()).isZero();
+	}
+
+	@Test
+	public void independentCursorsAutoCancel() {
+		AtomicLong requested = new AtomicLong();
+		EmitterProcessor<Integer> processor =
+				EmitterProcessor.create(8, true, BufferOverflowStrategy.DROP_OLDEST);
+
+		Disposable d = Flux.<Integer>never()
+		                   .doOnRequest(requested::addAndGet)
+		                   .doOnCancel(() -> requested.set(-1L))
+		                   .subscribeWith(processor)
+		                   .subscribe();
+
+		assertThat(requested.get()).isEqualTo(8L);
+		d.dispose();
+
+		assertThat(requested.get()).isEqualTo(-1L);
+		assertThat(processor.isCancelled()).isTrue();
+	}
+
+	@Test
+	public void independentCursorsFailDropLatest() {
+		try {
+			EmitterProcessor.create(8, true, BufferOverflowStrategy.DROP_LATEST);
+			Assert.fail("expected IllegalArgumentException");
+		}
+		catch (IllegalArgumentException e) {
+			assertThat(e).hasMessageContaining("DROP_LATEST");
+		}
+	}
 }
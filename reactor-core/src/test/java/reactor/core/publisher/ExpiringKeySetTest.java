@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+
+import org.junit.Test;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExpiringKeySetTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failTtl() {
+		new ExpiringKeySet<>(0, 10, VirtualTimeScheduler.create());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMaxKeys() {
+		new ExpiringKeySet<>(10, 0, VirtualTimeScheduler.create());
+	}
+
+	@Test
+	public void forgetsKeysAfterTtl() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		ExpiringKeySet<String> test = new ExpiringKeySet<>(1000, 100, vts);
+
+		assertThat(test.add("a")).isTrue();
+		vts.advanceTimeBy(Duration.ofMillis(999));
+		assertThat(test.add("a")).isFalse();
+		assertThat(test.add("b")).isTrue();
+
+		vts.advanceTimeBy(Duration.ofMillis(1));
+		assertThat(test.add("a")).isFalse();
+		assertThat(test.add("c")).isTrue();
+		assertThat(test).containsOnly("a", "b", "c");
+
+		vts.advanceTimeBy(Duration.ofMillis(1000));
+		assertThat(test.add("a")).isTrue();
+		assertThat(test.add("b")).isTrue();
+		assertThat(test.add("c")).isFalse();
+		assertThat(test).containsOnly("a", "b", "c");
+	}
+
+	@Test
+	public void forgetsAllKeysAfterTwiceTheTtl() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		ExpiringKeySet<String> test = new ExpiringKeySet<>(1000, 100, vts);
+
+		test.add("a");
+		vts.advanceTimeBy(Duration.ofMillis(500));
+		test.add("b");
+		vts.advanceTimeBy(Duration.ofMillis(1500));
+
+		assertThat(test.add("c")).isTrue();
+		assertThat(test).containsOnly("c");
+	}
+
+	@Test
+	public void boundedByMaxKeys() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		ExpiringKeySet<Integer> test = new ExpiringKeySet<>(1000, 4, vts);
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(test.add(i)).isTrue();
+			assertThat(test.size()).isLessThanOrEqualTo(4);
+		}
+		assertThat(test.add(99)).isFalse();
+		assertThat(test.add(0)).isTrue();
+	}
+}
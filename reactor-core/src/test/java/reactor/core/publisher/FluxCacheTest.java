@@ -16,13 +16,18 @@
 
 package reactor.core.publisher;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import reactor.test.StepVerifier;
 import reactor.test.scheduler.VirtualTimeScheduler;
 import reactor.util.function.Tuple2;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class FluxCacheTest {
 
 	@Test
@@ -112,4 +117,46 @@ public class FluxCacheTest {
 			VirtualTimeScheduler.reset();
 		}
 	}
+
+	@Test
+	public void cacheFluxSerialized() {
+		AtomicInteger subscriptions = new AtomicInteger();
+		Flux<String> source = Flux.range(1, 1000)
+		                          .map(String::valueOf)
+		                          .doOnSubscribe(s -> subscriptions.incrementAndGet())
+		                          .cache(v -> ByteBuffer.wrap(v.getBytes(StandardCharsets.UTF_8)),
+				                          b -> StandardCharsets.UTF_8.decode(b).toString());
+
+		StepVerifier.create(source)
+		            .expectNext("1", "2")
+		            .expectNextCount(997)
+		            .expectNext("1000")
+		            .verifyComplete();
+
+		StepVerifier.create(source, 3)
+		            .expectNext("1", "2", "3")
+		            .thenCancel()
+		            .verify();
+
+		assertThat(subscriptions.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void cacheFluxSerializedEncoderError() {
+		Flux<Integer> source = Flux.range(1, 5)
+		                           .cache(v -> {
+			                           if (v == 3) {
+				                           throw new IllegalStateException("boom");
+			                           }
+			                           return ByteBuffer.allocate(4).putInt(0, v);
+		                           }, ByteBuffer::getInt);
+
+		StepVerifier.create(source)
+		            .expectNext(1, 2)
+		            .verifyErrorMessage("boom");
+
+		StepVerifier.create(source)
+		            .expectNext(1, 2)
+		            .verifyErrorMessage("boom");
+	}
 }
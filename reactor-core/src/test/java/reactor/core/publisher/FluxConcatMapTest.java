@@ -17,6 +17,7 @@
 package reactor.core.publisher;
 
 import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
@@ -802,6 +803,44 @@ public class FluxConcatMapTest extends FluxOperatorTest<String, String> {
 		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isTrue();
 	}
 
+	@Test
+	public void adaptivePrefetchGrowsWhileDrained() {
+		List<Long> requests = new ArrayList<>();
+
+		StepVerifier.create(Flux.range(0, 1000)
+		                        .hide()
+		                        .doOnRequest(requests::add)
+		                        .concatMap(v -> Mono.just(v), 4, 64))
+		            .expectNextCount(1000)
+		            .verifyComplete();
+
+		assertThat(requests).startsWith(4L, 7L, 14L, 28L, 56L, 48L, 48L);
+	}
+
+	@Test
+	public void adaptivePrefetchShrinksWhileInnersLag() {
+		List<Long> requests = new ArrayList<>();
+		AssertSubscriber<Integer> ts = AssertSubscriber.create(200);
+
+		Flux.range(0, 10_000)
+		    .hide()
+		    .doOnRequest(requests::add)
+		    .concatMap(v -> Mono.just(v), 4, 64)
+		    .subscribe(ts);
+
+		ts.assertValueCount(200);
+		assertThat(requests).endsWith(48L);
+
+		for (int i = 0; i < 1000; i++) {
+			ts.request(1);
+		}
+
+		ts.assertValueCount(1200);
+		assertThat(requests).contains(16L, 8L, 4L, 2L)
+		                    .endsWith(3L, 3L, 3L);
+		ts.cancel();
+	}
+
 	@Test
 	public void scanConcatMapImmediate() {
 		Subscriber<Integer> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
@@ -16,6 +16,7 @@
 
 package reactor.core.publisher;
 
+import java.time.Duration;
 import java.util.AbstractCollection;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -34,6 +35,7 @@ import reactor.core.Fuseable;
 import reactor.core.Scannable;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.FluxOperatorTest;
+import reactor.test.scheduler.VirtualTimeScheduler;
 import reactor.test.subscriber.AssertSubscriber;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -472,4 +474,90 @@ public class FluxDistinctTest extends FluxOperatorTest<String, String> {
 		test.onError(new IllegalStateException("boom"));
 		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
 	}
+	@Test
+	public void distinctLong() {
+		StepVerifier.create(Flux.just(1L, 0L, 1L << 40, 1L, 0L, 3L, 1L << 40)
+		                        .distinctLong(v -> v))
+		            .expectNext(1L, 0L, 1L << 40, 3L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void distinctInt() {
+		StepVerifier.create(Flux.just("a", "bb", "cc", "", "ddd", "e")
+		                        .distinctInt(String::length))
+		            .expectNext("a", "bb", "", "ddd")
+		            .verifyComplete();
+	}
+
+	@Test
+	public void distinctManyKeys() {
+		StepVerifier.create(Flux.range(0, 100_000)
+		                        .concatWith(Flux.range(0, 100_000))
+		                        .distinct(v -> "k" + v))
+		            .expectNextCount(100_000)
+		            .verifyComplete();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMaxKeys() {
+		Flux.never()
+		    .distinct(v -> v, 0);
+	}
+
+	@Test
+	public void distinctMaxKeysForgetsLeastRecentlySeen() {
+		StepVerifier.create(Flux.just(1, 2, 1, 3, 1, 2, 4, 3)
+		                        .distinct(v -> v, 2))
+		            .expectNext(1, 2, 3, 2, 4, 3)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void distinctMaxKeysFused() {
+		StepVerifier.create(Flux.range(0, 10)
+		                        .map(v -> v % 3)
+		                        .distinct(v -> v, 3))
+		            .expectFusion()
+		            .expectNext(0, 1, 2)
+		            .verifyComplete();
+	}
+	@Test(expected = IllegalArgumentException.class)
+	public void failTtl() {
+		Flux.never()
+		    .distinct(v -> v, Duration.ZERO, 10);
+	}
+
+	@Test
+	public void distinctWithinTtl() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		DirectProcessor<Integer> source = DirectProcessor.create();
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+
+		source.distinct(v -> v, Duration.ofSeconds(1), 1000, vts)
+		      .subscribe(ts);
+
+		source.onNext(1);
+		source.onNext(2);
+		source.onNext(1);
+		vts.advanceTimeBy(Duration.ofMillis(1500));
+		source.onNext(2);
+		source.onNext(3);
+		vts.advanceTimeBy(Duration.ofMillis(1000));
+		source.onNext(1);
+		source.onNext(3);
+		source.onComplete();
+
+		ts.assertValues(1, 2, 3, 1)
+		  .assertComplete();
+	}
+
+	@Test
+	public void distinctWithinTtlBoundedByMaxKeys() {
+		StepVerifier.create(Flux.range(0, 10)
+		                        .concatWith(Flux.range(0, 10))
+		                        .distinct(v -> v, Duration.ofHours(1), 4))
+		            .expectNextCount(20)
+		            .verifyComplete();
+	}
 }
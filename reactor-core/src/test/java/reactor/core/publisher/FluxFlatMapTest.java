@@ -1255,6 +1255,45 @@ public class FluxFlatMapTest {
         assertThat(test.scan(Scannable.LongAttr.LARGE_BUFFERED)).isEqualTo(Integer.MAX_VALUE + 3L);
     }
 
+	@Test
+	public void adaptivePrefetchGrowsWhileDrained() {
+		List<Long> requests = new ArrayList<>();
+
+		StepVerifier.create(Flux.range(0, 2)
+		                        .flatMap(i -> Flux.range(0, 1000)
+		                                          .hide()
+		                                          .doOnRequest(requests::add), 1, 4, 64))
+		            .expectNextCount(2000)
+		            .verifyComplete();
+
+		assertThat(requests).startsWith(4L, 7L, 14L, 28L, 56L, 48L, 48L);
+		assertThat(requests.stream()
+		                   .filter(r -> r == 4L)).hasSize(2);
+	}
+
+	@Test
+	public void adaptivePrefetchAsyncInners() {
+		StepVerifier.create(Flux.range(0, 8)
+		                        .flatMap(i -> Flux.range(0, 10_000)
+		                                          .subscribeOn(Schedulers.parallel()), 4, 8, 256))
+		            .expectNextCount(80_000)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(10));
+	}
+
+    @Test
+    public void scanInnerAdaptivePrefetch() {
+        Subscriber<Integer> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
+        FluxFlatMap.FlatMapMain<Integer, Integer> main = new FluxFlatMap.FlatMapMain<>(actual,
+                i -> Mono.just(i), true, 5, QueueSupplier.<Integer>unbounded(), 8, 64,  QueueSupplier.<Integer>get(64));
+        FluxFlatMap.FlatMapInner<Integer> inner = new FluxFlatMap.FlatMapInner<>(main, 8, 64);
+        inner.onSubscribe(Operators.emptySubscription());
+
+        assertThat(inner.scan(Scannable.IntAttr.PREFETCH)).isEqualTo(8);
+        inner.request(6);
+        assertThat(inner.scan(Scannable.IntAttr.PREFETCH)).isEqualTo(16);
+    }
+
     @Test
     public void scanInner() {
         Subscriber<Integer> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
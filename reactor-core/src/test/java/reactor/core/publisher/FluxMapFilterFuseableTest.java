@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.FluxOperatorTest;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxMapFilterFuseableTest extends FluxOperatorTest<String, String> {
+
+	@Override
+	protected Scenario<String, String> defaultScenarioOptions(Scenario<String, String> defaultOptions) {
+		return defaultOptions.fusionMode(Fuseable.ANY);
+	}
+
+	@Override
+	protected List<Scenario<String, String>> scenarios_operatorError() {
+		return Arrays.asList(
+				scenario(f -> f.map(d -> d)
+				               .filter(d -> {
+					               throw exception();
+				               })),
+
+				scenario(f -> f.filter(d -> true)
+				               .map(d -> {
+					               throw exception();
+				               })),
+
+				scenario(f -> f.map(d -> d)
+				               .map(d -> null))
+		);
+	}
+
+	@Override
+	protected List<Scenario<String, String>> scenarios_operatorSuccess() {
+		return Arrays.asList(
+				scenario(f -> f.map(d -> d)
+				               .filter(d -> true)
+				               .map(d -> d)),
+
+				scenario(f -> f.filter(d -> true)
+				               .filter(d -> false))
+						.receiverEmpty()
+		);
+	}
+
+	@Override
+	protected List<Scenario<String, String>> scenarios_errorFromUpstreamFailure() {
+		return Arrays.asList(
+				scenario(f -> f.map(d -> d)
+				               .filter(d -> true))
+		);
+	}
+
+	@Test
+	public void consecutiveStagesAreCollapsed() {
+		Flux<Integer> source = Flux.range(1, 10);
+		Flux<String> chain = source.map(v -> v + 1)
+		                           .filter(v -> (v & 1) == 0)
+		                           .map(v -> v * 10)
+		                           .filter(v -> v > 20)
+		                           .map(String::valueOf);
+
+		assertThat(chain).isInstanceOf(FluxMapFilterFuseable.class);
+		assertThat(((FluxMapFilterFuseable<?, ?>) chain).stages).hasSize(5);
+		assertThat(((FluxMapFilterFuseable<?, ?>) chain).source).isSameAs(source);
+
+		StepVerifier.create(chain)
+		            .expectNext("40", "60", "80", "100")
+		            .verifyComplete();
+	}
+
+	@Test
+	public void upstreamStagesAreNotAltered() {
+		Flux<Integer> mapped = Flux.range(1, 3)
+		                           .map(v -> v * 2);
+		Flux<Integer> filtered = mapped.filter(v -> v > 2);
+
+		assertThat(mapped).isInstanceOf(FluxMapFuseable.class);
+		StepVerifier.create(mapped)
+		            .expectNext(2, 4, 6)
+		            .verifyComplete();
+		StepVerifier.create(filtered)
+		            .expectNext(4, 6)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void nonFuseableSourceIsNotCollapsed() {
+		Flux<Integer> chain = Flux.range(1, 3)
+		                          .hide()
+		                          .map(v -> v)
+		                          .filter(v -> true);
+
+		assertThat(chain).isInstanceOf(FluxFilter.class);
+	}
+
+	@Test
+	public void syncFusion() {
+		StepVerifier.create(Flux.range(1, 10)
+		                        .map(v -> v + 1)
+		                        .filter(v -> (v & 1) == 0))
+		            .expectFusion(Fuseable.SYNC)
+		            .expectNext(2, 4, 6, 8, 10)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void asyncFusionBackpressured() {
+		AssertSubscriber<Object> ts = AssertSubscriber.create(1);
+
+		UnicastProcessor<Integer> up =
+				UnicastProcessor.create(new ConcurrentLinkedQueue<>());
+
+		Flux.just(1)
+		    .hide()
+		    .flatMap(w -> up.map(v -> v + 1)
+		                    .filter(v -> (v & 1) == 0), false, 1, 1)
+		    .subscribe(ts);
+
+		up.onNext(0);
+		up.onNext(1);
+
+		ts.assertValues(2)
+		  .assertNoError()
+		  .assertNotComplete();
+
+		up.onComplete();
+
+		ts.assertValues(2)
+		  .assertNoError()
+		  .assertComplete();
+	}
+
+	@Test
+	public void conditionalDownstream() {
+		StepVerifier.create(Flux.range(1, 10)
+		                        .map(v -> v * 2)
+		                        .filter(v -> v % 3 != 0)
+		                        .filter(v -> v > 4))
+		            .expectNext(8, 10, 14, 16, 20)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void errorReportsValueEnteringFailingStage() {
+		StepVerifier.create(Flux.just(1, 2)
+		                        .map(v -> v * 10)
+		                        .map(v -> {
+			                        if (v == 20) {
+				                        throw new IllegalStateException("boom");
+			                        }
+			                        return v;
+		                        }))
+		            .expectNext(10)
+		            .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void scanSubscriber() {
+		Subscriber<String> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
+		FluxMapFilterFuseable.MapFilterFuseableSubscriber<String, String> test =
+				new FluxMapFilterFuseable.MapFilterFuseableSubscriber<>(actual,
+						new FluxMapFilterFuseable.Stage[0]);
+		Subscription parent = Operators.emptySubscription();
+		test.onSubscribe(parent);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+		assertThat(test.scan(Scannable.ScannableAttr.ACTUAL)).isSameAs(actual);
+
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+		test.onError(new IllegalStateException("boom"));
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+	}
+
+	@Test
+	public void scanConditionalSubscriber() {
+		@SuppressWarnings("unchecked")
+		Fuseable.ConditionalSubscriber<String> actual =
+				Mockito.mock(Fuseable.ConditionalSubscriber.class);
+		FluxMapFilterFuseable.MapFilterFuseableConditionalSubscriber<String, String> test =
+				new FluxMapFilterFuseable.MapFilterFuseableConditionalSubscriber<>(actual,
+						new FluxMapFilterFuseable.Stage[0]);
+		Subscription parent = Operators.emptySubscription();
+		test.onSubscribe(parent);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+		assertThat(test.scan(Scannable.ScannableAttr.ACTUAL)).isSameAs(actual);
+
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+		test.onError(new IllegalStateException("boom"));
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+	}
+}
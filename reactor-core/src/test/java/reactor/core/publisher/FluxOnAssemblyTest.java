@@ -82,7 +82,7 @@ public class FluxOnAssemblyTest {
 
 		String debugStack = sw.toString();
 
-		assertThat(debugStack).contains("Assembly trace from producer [reactor.core.publisher.FluxFilterFuseable] :");
+		assertThat(debugStack).contains("Assembly trace from producer [reactor.core.publisher.FluxMapFilterFuseable] :");
 	}
 
 	@Test
@@ -127,7 +127,7 @@ public class FluxOnAssemblyTest {
 
 		String debugStack = sw.toString();
 
-		assertThat(debugStack).contains("Assembly trace from producer [reactor.core.publisher.FluxFilterFuseable], described as [foo] :");
+		assertThat(debugStack).contains("Assembly trace from producer [reactor.core.publisher.FluxMapFilterFuseable], described as [foo] :");
 	}
 
 	@Test
@@ -145,7 +145,7 @@ public class FluxOnAssemblyTest {
 
 		String debugStack = sw.toString();
 
-		assertThat(debugStack).contains("Assembly site of producer [reactor.core.publisher.FluxFilterFuseable] is identified by light checkpoint [foo].");
+		assertThat(debugStack).contains("Assembly site of producer [reactor.core.publisher.FluxMapFilterFuseable] is identified by light checkpoint [foo].");
 	}
 
 	@Test
@@ -69,7 +69,7 @@ public class FluxProcessorTest {
 				(DelegateProcessor<Integer, Integer>)processor;
 
 		delegateProcessor.parents().findFirst().ifPresent(s ->
-				assertThat(s).isInstanceOf(FluxFilterFuseable.class));
+				assertThat(s).isInstanceOf(FluxMapFilterFuseable.class));
 
 
 		StepVerifier.create(processor)
@@ -17,6 +17,7 @@
 package reactor.core.publisher;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -54,6 +55,7 @@ import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.FluxOperatorTest;
+import reactor.test.scheduler.VirtualTimeScheduler;
 import reactor.test.subscriber.AssertSubscriber;
 import reactor.util.concurrent.QueueSupplier;
 
@@ -1252,6 +1254,112 @@ public class FluxPublishOnTest extends FluxOperatorTest<String, String> {
 		            .verifyError(NullPointerException.class);
 	}
 
+	@Test
+	public void adaptivePrefetchGrowsWhileDrained() {
+		List<Long> requests = new ArrayList<>();
+
+		StepVerifier.create(Flux.range(1, 1000)
+		                        .hide()
+		                        .doOnRequest(requests::add)
+		                        .publishOn(Schedulers.immediate(), 4, 64))
+		            .expectNextCount(1000)
+		            .verifyComplete();
+
+		Assertions.assertThat(requests)
+		          .startsWith(4L, 7L, 14L, 28L, 56L, 48L, 48L);
+	}
+
+	@Test
+	public void adaptivePrefetchAsync() {
+		StepVerifier.create(Flux.range(1, 100_000)
+		                        .hide()
+		                        .publishOn(Schedulers.parallel(), 8, 256)
+		                        .filter(v -> (v & 1) == 0))
+		            .expectNextCount(50_000)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(10));
+	}
+
+	@Test
+	public void coalescesValuesWithinMaxDelay() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+		DirectProcessor<Integer> source = DirectProcessor.create();
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+
+		source.publishOn(vts, 16, Duration.ofMillis(100))
+		      .subscribe(ts);
+		//runs the drain scheduled by the initial request
+		vts.advanceTime();
+
+		source.onNext(1);
+		vts.advanceTimeBy(Duration.ofMillis(50));
+		source.onNext(2);
+		source.onNext(3);
+		vts.advanceTimeBy(Duration.ofMillis(49));
+		ts.assertNoValues();
+
+		vts.advanceTimeBy(Duration.ofMillis(1));
+		ts.assertValues(1, 2, 3);
+
+		source.onNext(4);
+		source.onComplete();
+		ts.assertValues(1, 2, 3)
+		  .assertNotComplete();
+
+		vts.advanceTimeBy(Duration.ofMillis(100));
+		ts.assertValues(1, 2, 3, 4)
+		  .assertComplete();
+	}
+
+	@Test
+	public void coalescingBackpressured() {
+		VirtualTimeScheduler vts = VirtualTimeScheduler.create();
+
+		StepVerifier.withVirtualTime(() -> Flux.range(1, 100)
+		                                       .hide()
+		                                       .publishOn(vts, 8, Duration.ofMillis(10)),
+				() -> vts, Long.MAX_VALUE)
+		            .thenAwait(Duration.ofMillis(10))
+		            .expectNextCount(8)
+		            .thenAwait(Duration.ofSeconds(1))
+		            .expectNextCount(92)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void coalescingWithoutDelaySupport() {
+		StepVerifier.create(Flux.range(1, 10)
+		                        .hide()
+		                        .publishOn(Schedulers.immediate(), 4, Duration.ofHours(1)))
+		            .expectNext(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void coalescingAsync() {
+		StepVerifier.create(Flux.interval(Duration.ofMillis(1))
+		                        .take(50)
+		                        .publishOn(Schedulers.single(), 256, Duration.ofMillis(20)))
+		            .expectNextCount(50)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void scanSubscriberAdaptivePrefetch() {
+		Subscriber<Integer> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
+		FluxPublishOn.PublishOnSubscriber<Integer> test = new FluxPublishOn.PublishOnSubscriber<>(actual,
+				Schedulers.single(), Schedulers.single().createWorker(), true, 8, 64, 0L,
+				QueueSupplier.get(64));
+		test.onSubscribe(Operators.emptySubscription());
+
+		Assertions.assertThat(test.scan(Scannable.IntAttr.PREFETCH)).isEqualTo(8);
+		test.sourceMode = Fuseable.NONE;
+		test.replenish(6);
+		Assertions.assertThat(test.scan(Scannable.IntAttr.PREFETCH)).isEqualTo(16);
+		test.cancel();
+	}
+
 	@Test
     public void scanSubscriber() {
         Subscriber<Integer> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
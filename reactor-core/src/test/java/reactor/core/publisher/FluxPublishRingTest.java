@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxPublishRingTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failMaxLag() {
+		Flux.never()
+		    .publish(0, BufferOverflowStrategy.DROP_OLDEST);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failDropLatest() {
+		Flux.never()
+		    .publish(16, BufferOverflowStrategy.DROP_LATEST);
+	}
+
+	@Test
+	public void normal() {
+		ConnectableFlux<Integer> p = Flux.range(1, 5)
+		                                 .publish(16, BufferOverflowStrategy.ERROR);
+
+		AssertSubscriber<Integer> ts1 = AssertSubscriber.create();
+		AssertSubscriber<Integer> ts2 = AssertSubscriber.create();
+		p.subscribe(ts1);
+		p.subscribe(ts2);
+
+		ts1.assertNoValues();
+		ts2.assertNoValues();
+
+		p.connect();
+
+		ts1.assertValues(1, 2, 3, 4, 5)
+		   .assertNoError()
+		   .assertComplete();
+		ts2.assertValues(1, 2, 3, 4, 5)
+		   .assertNoError()
+		   .assertComplete();
+	}
+
+	@Test
+	public void slowSubscriberDoesNotPauseOthers() {
+		ConnectableFlux<Integer> p = Flux.range(1, 100)
+		                                 .publish(8, BufferOverflowStrategy.DROP_OLDEST);
+
+		AssertSubscriber<Integer> fast = AssertSubscriber.create();
+		AssertSubscriber<Integer> slow = AssertSubscriber.create(0);
+		p.subscribe(fast);
+		p.subscribe(slow);
+		p.connect();
+
+		fast.assertValueCount(100)
+		    .assertNoError()
+		    .assertComplete();
+		slow.assertNoValues()
+		    .assertNotComplete();
+
+		slow.request(100);
+
+		slow.assertValues(93, 94, 95, 96, 97, 98, 99, 100)
+		    .assertNoError()
+		    .assertComplete();
+	}
+
+	@Test
+	public void laggingSubscriberErrors() {
+		ConnectableFlux<Integer> p = Flux.range(1, 100)
+		                                 .publish(8, BufferOverflowStrategy.ERROR);
+
+		AssertSubscriber<Integer> fast = AssertSubscriber.create();
+		AssertSubscriber<Integer> slow = AssertSubscriber.create(4);
+		p.subscribe(fast);
+		p.subscribe(slow);
+		p.connect();
+
+		fast.assertValueCount(100)
+		    .assertNoError()
+		    .assertComplete();
+		slow.assertValues(1, 2, 3, 4)
+		    .assertErrorWith(e -> assertThat(Exceptions.isOverflow(e)).isTrue());
+	}
+
+	@Test
+	public void upstreamDemandFollowsFastestSubscriber() {
+		AtomicLong requested = new AtomicLong();
+		ConnectableFlux<Integer> p = Flux.range(1, 1000)
+		                                 .doOnRequest(requested::addAndGet)
+		                                 .publish(16, BufferOverflowStrategy.DROP_OLDEST);
+
+		AssertSubscriber<Integer> ts1 = AssertSubscriber.create(0);
+		AssertSubscriber<Integer> ts2 = AssertSubscriber.create(0);
+		p.subscribe(ts1);
+		p.subscribe(ts2);
+		p.connect();
+
+		assertThat(requested.get()).isEqualTo(16);
+
+		ts1.request(40);
+		ts1.assertValueCount(40);
+		assertThat(requested.get()).isBetween(40L, 56L);
+
+		ts2.request(10);
+		ts2.assertValueCount(10);
+		assertThat(requested.get()).isBetween(40L, 56L);
+	}
+
+	@Test
+	public void lagIsBoundedByMaxLagNotRingSize() {
+		AtomicLong requested = new AtomicLong();
+		ConnectableFlux<Integer> p = Flux.range(1, 100)
+		                                 .doOnRequest(requested::addAndGet)
+		                                 .publish(10, BufferOverflowStrategy.DROP_OLDEST);
+
+		AssertSubscriber<Integer> fast = AssertSubscriber.create(0);
+		AssertSubscriber<Integer> slow = AssertSubscriber.create(0);
+		p.subscribe(fast);
+		p.subscribe(slow);
+		p.connect();
+
+		assertThat(requested.get()).isEqualTo(10);
+
+		fast.request(100);
+		fast.assertValueCount(100)
+		    .assertComplete();
+
+		slow.request(100);
+		slow.assertValues(91, 92, 93, 94, 95, 96, 97, 98, 99, 100)
+		    .assertComplete();
+	}
+
+	@Test
+	public void laggingMoreThanMaxLagErrors() {
+		ConnectableFlux<Integer> p = Flux.range(1, 11)
+		                                 .publish(10, BufferOverflowStrategy.ERROR);
+
+		AssertSubscriber<Integer> fast = AssertSubscriber.create();
+		AssertSubscriber<Integer> slow = AssertSubscriber.create(0);
+		p.subscribe(fast);
+		p.subscribe(slow);
+		p.connect();
+
+		fast.assertValueCount(11)
+		    .assertComplete();
+		slow.request(1);
+		slow.assertNoValues()
+		    .assertErrorMessage("Subscriber lagged more than 10 elements behind");
+	}
+
+	@Test
+	public void lateSubscriberStartsAtFastestSubscriber() {
+		DirectProcessor<Integer> source = DirectProcessor.create();
+		ConnectableFlux<Integer> p = source.publish(16, BufferOverflowStrategy.DROP_OLDEST);
+
+		AssertSubscriber<Integer> ts1 = AssertSubscriber.create();
+		p.subscribe(ts1);
+		p.connect();
+
+		source.onNext(1);
+		source.onNext(2);
+
+		AssertSubscriber<Integer> ts2 = AssertSubscriber.create();
+		p.subscribe(ts2);
+
+		source.onNext(3);
+		source.onComplete();
+
+		ts1.assertValues(1, 2, 3)
+		   .assertComplete();
+		ts2.assertValues(3)
+		   .assertComplete();
+	}
+
+	@Test
+	public void disconnect() {
+		DirectProcessor<Integer> source = DirectProcessor.create();
+		ConnectableFlux<Integer> p = source.publish(16, BufferOverflowStrategy.DROP_OLDEST);
+
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+		p.subscribe(ts);
+		Disposable r = p.connect();
+
+		source.onNext(1);
+		r.dispose();
+
+		ts.assertValues(1)
+		  .assertError(CancellationException.class)
+		  .assertNotComplete();
+		assertThat(source.hasDownstreams()).isFalse();
+	}
+
+	@Test
+	public void subscribersOnDifferentThreadsSeeOrderedValues() {
+		ConnectableFlux<Integer> p = Flux.range(0, 10_000)
+		                                 .publish(32, BufferOverflowStrategy.DROP_OLDEST);
+
+		List<Flux<Boolean>> checks = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			checks.add(p.publishOn(Schedulers.parallel(), 4)
+			            .buffer(2, 1)
+			            .all(l -> l.size() < 2 || l.get(0) < l.get(1))
+			            .flux());
+		}
+
+		StepVerifier.create(Flux.merge(checks)
+		                        .doOnSubscribe(s -> p.connect()))
+		            .expectNext(true, true, true, true)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(10));
+	}
+
+	@Test
+	public void scanMain() {
+		DirectProcessor<Integer> parent = DirectProcessor.create();
+		FluxPublishRing<Integer> test =
+				new FluxPublishRing<>(parent, 123, BufferOverflowStrategy.ERROR);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+		assertThat(test.scan(Scannable.IntAttr.PREFETCH)).isEqualTo(123);
+	}
+
+	@Test
+	public void scanSubscriber() {
+		FluxPublishRing.RingSubscriber<Integer> test =
+				new FluxPublishRing.RingSubscriber<>(100, BufferOverflowStrategy.ERROR, false, null);
+		Subscription parent = Operators.emptySubscription();
+		test.onSubscribe(parent);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+		assertThat(test.scan(Scannable.IntAttr.PREFETCH)).isEqualTo(100);
+		assertThat(test.scan(Scannable.IntAttr.CAPACITY)).isEqualTo(128);
+		test.onNext(5);
+		assertThat(test.scan(Scannable.IntAttr.BUFFERED)).isEqualTo(1);
+
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+		assertThat(test.scan(Scannable.ThrowableAttr.ERROR)).isNull();
+		test.onError(new IllegalArgumentException("boom"));
+		assertThat(test.scan(Scannable.ThrowableAttr.ERROR)).hasMessage("boom");
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+
+		test = new FluxPublishRing.RingSubscriber<>(100, BufferOverflowStrategy.ERROR, false, null);
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isFalse();
+		test.onSubscribe(Operators.cancelledSubscription());
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isTrue();
+	}
+
+	@Test
+	public void scanInner() {
+		FluxPublishRing.RingSubscriber<Integer> parent =
+				new FluxPublishRing.RingSubscriber<>(8, BufferOverflowStrategy.ERROR, false, null);
+		parent.onSubscribe(Operators.emptySubscription());
+		FluxPublishRing.RingSubscriber<Integer> actual =
+				new FluxPublishRing.RingSubscriber<>(8, BufferOverflowStrategy.ERROR, false, null);
+		FluxPublishRing.RingInner<Integer> test = new FluxPublishRing.RingInner<>(actual, parent);
+		parent.add(test);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+		assertThat(test.scan(Scannable.ScannableAttr.ACTUAL)).isSameAs(actual);
+		parent.onNext(1);
+		parent.onNext(2);
+		assertThat(test.scan(Scannable.IntAttr.BUFFERED)).isEqualTo(2);
+		test.request(35);
+		assertThat(test.scan(Scannable.LongAttr.REQUESTED_FROM_DOWNSTREAM)).isEqualTo(33L);
+
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+		parent.onComplete();
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isFalse();
+		test.cancel();
+		assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isTrue();
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import org.junit.Test;
+
+import reactor.core.Fuseable;
+import reactor.test.StepVerifier;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxRangeLongTest {
+
+	@Test
+	public void normal() {
+		StepVerifier.create(Flux.rangeLong(1L, 5L))
+		            .expectNext(1L, 2L, 3L, 4L, 5L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void normalBackpressured() {
+		AssertSubscriber<Long> ts = AssertSubscriber.create(0);
+
+		Flux.rangeLong(1L, 10L).subscribe(ts);
+
+		ts.assertNoError()
+		  .assertNoValues()
+		  .assertNotComplete();
+
+		ts.request(5);
+
+		ts.assertNoError()
+		  .assertValues(1L, 2L, 3L, 4L, 5L)
+		  .assertNotComplete();
+
+		ts.request(10);
+
+		ts.assertNoError()
+		  .assertValueCount(10)
+		  .assertComplete();
+	}
+
+	@Test
+	public void beyondIntRange() {
+		long start = Integer.MAX_VALUE - 1L;
+		StepVerifier.create(Flux.rangeLong(start, 4L))
+		            .expectNext(start, start + 1, start + 2, start + 3)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void upToMaxValue() {
+		StepVerifier.create(Flux.rangeLong(Long.MAX_VALUE - 2L, 3L))
+		            .expectNext(Long.MAX_VALUE - 2L, Long.MAX_VALUE - 1L, Long.MAX_VALUE)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void emptyAndSingle() {
+		assertThat(Flux.rangeLong(10L, 0L)).isSameAs(Flux.empty());
+		StepVerifier.create(Flux.rangeLong(10L, 1L))
+		            .expectNext(10L)
+		            .verifyComplete();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void countNegative() {
+		Flux.rangeLong(1L, -1L);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void overflow() {
+		Flux.rangeLong(Long.MAX_VALUE, 2L);
+	}
+
+	@Test
+	public void syncFusion() {
+		StepVerifier.create(Flux.rangeLong(1L, 3L))
+		            .expectFusion(Fuseable.SYNC)
+		            .expectNext(1L, 2L, 3L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void conditional() {
+		StepVerifier.create(Flux.rangeLong(1L, 10L)
+		                        .filter(v -> (v & 1L) == 0L))
+		            .expectNext(2L, 4L, 6L, 8L, 10L)
+		            .verifyComplete();
+	}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+
+import reactor.core.Scannable;
+import reactor.test.StepVerifier;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MonoPrimitiveReduceTest {
+
+	@Test
+	public void sumLongSyncFused() {
+		StepVerifier.create(Flux.rangeLong(1L, 100_000L)
+		                        .sumLong(v -> v))
+		            .expectNext(5_000_050_000L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sumLongHidden() {
+		StepVerifier.create(Flux.range(1, 100)
+		                        .hide()
+		                        .sumLong(v -> v))
+		            .expectNext(5050L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sumLongEmpty() {
+		StepVerifier.create(Flux.<Integer>empty().sumLong(v -> v))
+		            .expectNext(0L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sumIntOverflowsLikeInt() {
+		StepVerifier.create(Flux.just(Integer.MAX_VALUE, 1)
+		                        .sumInt(v -> v))
+		            .expectNext(Integer.MIN_VALUE)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sumIntEmitsIntegerDirectly() {
+		Mono<Integer> test = Flux.range(1, 3)
+		                         .sumInt(v -> v);
+
+		assertThat(test).isInstanceOf(MonoSumLong.class);
+		StepVerifier.create(test)
+		            .expectNext(6)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sumDoubleCompensated() {
+		StepVerifier.create(Flux.range(0, 10)
+		                        .sumDouble(v -> 0.1d))
+		            .expectNext(1.0d)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sumDoubleEmpty() {
+		StepVerifier.create(Flux.<Integer>empty().sumDouble(v -> v))
+		            .expectNext(0.0d)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void average() {
+		StepVerifier.create(Flux.range(1, 4)
+		                        .averageDouble(v -> v))
+		            .expectNext(2.5d)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void averageEmpty() {
+		StepVerifier.create(Flux.<Integer>empty().averageDouble(v -> v))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void minMax() {
+		Flux<Integer> source = Flux.just(3, -7, 12, 0);
+		StepVerifier.create(source.minLong(v -> v))
+		            .expectNext(-7L)
+		            .verifyComplete();
+		StepVerifier.create(source.hide().maxLong(v -> v))
+		            .expectNext(12L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void minMaxEmpty() {
+		StepVerifier.create(Flux.<Integer>empty().minLong(v -> v))
+		            .verifyComplete();
+		StepVerifier.create(Flux.<Integer>empty().maxLong(v -> v))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void mapperFailureSyncFused() {
+		StepVerifier.create(Flux.range(1, 10)
+		                        .sumLong(v -> {
+			                        if (v == 5) {
+				                        throw new IllegalStateException("boom");
+			                        }
+			                        return v;
+		                        }))
+		            .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void mapperFailureHidden() {
+		StepVerifier.create(Flux.range(1, 10)
+		                        .hide()
+		                        .maxLong(v -> {
+			                        if (v == 5) {
+				                        throw new IllegalStateException("boom");
+			                        }
+			                        return v;
+		                        }))
+		            .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void upstreamError() {
+		StepVerifier.create(Flux.<Integer>error(new IllegalStateException("boom"))
+				.sumDouble(v -> v))
+		            .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void cancelBeforeValue() {
+		AssertSubscriber<Long> ts = AssertSubscriber.create();
+		DirectProcessor<Integer> dp = DirectProcessor.create();
+
+		dp.sumLong(v -> v).subscribe(ts);
+		dp.onNext(1);
+		ts.cancel();
+
+		assertThat(dp.hasDownstreams()).isFalse();
+		ts.assertNoValues();
+	}
+
+	@Test
+	public void scanSubscriber() {
+		AssertSubscriber<Long> actual = AssertSubscriber.create();
+		MonoSumLong.SumLongSubscriber<Integer, Long> test =
+				new MonoSumLong.SumLongSubscriber<>(actual, v -> v, Long::valueOf);
+		Subscription parent = Operators.emptySubscription();
+		test.onSubscribe(parent);
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+		test.onError(new IllegalStateException("boom"));
+		assertThat(test.scan(Scannable.BooleanAttr.TERMINATED)).isTrue();
+	}
+}
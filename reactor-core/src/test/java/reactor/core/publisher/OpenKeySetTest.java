@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OpenKeySetTest {
+
+	@Test
+	public void addGrowsAndRejectsDuplicates() {
+		OpenKeySet<String> test = new OpenKeySet<>(2);
+		for (int i = 0; i < 1000; i++) {
+			assertThat(test.add("k" + i)).isTrue();
+		}
+		for (int i = 0; i < 1000; i++) {
+			assertThat(test.add("k" + i)).isFalse();
+			assertThat(test.contains("k" + i)).isTrue();
+		}
+		assertThat(test.contains("k1000")).isFalse();
+		assertThat(test).hasSize(1000);
+
+		Set<String> copy = new HashSet<>(test);
+		assertThat(copy).hasSize(1000)
+		                .contains("k0", "k999");
+
+		test.clear();
+		assertThat(test).isEmpty();
+		assertThat(test.add("k0")).isTrue();
+	}
+
+	@Test
+	public void collidingKeys() {
+		OpenKeySet<Object> test = new OpenKeySet<>();
+		Object[] keys = new Object[40];
+		for (int i = 0; i < keys.length; i++) {
+			int id = i;
+			keys[i] = new Object() {
+				@Override
+				public int hashCode() {
+					return 7;
+				}
+
+				@Override
+				public boolean equals(Object obj) {
+					return obj == this;
+				}
+
+				@Override
+				public String toString() {
+					return "key" + id;
+				}
+			};
+			assertThat(test.add(keys[i])).isTrue();
+		}
+		for (Object k : keys) {
+			assertThat(test.add(k)).isFalse();
+		}
+		assertThat(test).containsOnly(keys);
+	}
+
+	@Test
+	public void longKeys() {
+		LongKeySet test = new LongKeySet(2);
+		for (long i = -500; i < 500; i++) {
+			assertThat(test.add(i << 32)).isTrue();
+		}
+		for (long i = -500; i < 500; i++) {
+			assertThat(test.add(i << 32)).isFalse();
+			assertThat(test.contains(i << 32)).isTrue();
+		}
+		assertThat(test.contains(1L)).isFalse();
+		assertThat(test.contains((Object) 0L)).isTrue();
+		assertThat(test.contains((Object) 0)).isFalse();
+		assertThat(test).hasSize(1000)
+		                .contains(0L, -500L << 32, 499L << 32);
+
+		test.clear();
+		assertThat(test).isEmpty();
+		assertThat(test.add(0L)).isTrue();
+		assertThat(test).containsExactly(0L);
+	}
+
+	@Test
+	public void intKeys() {
+		IntKeySet test = new IntKeySet(2);
+		for (int i = -500; i < 500; i++) {
+			assertThat(test.add(i * 1024)).isTrue();
+		}
+		for (int i = -500; i < 500; i++) {
+			assertThat(test.add(i * 1024)).isFalse();
+		}
+		assertThat(test.contains(1)).isFalse();
+		assertThat(test.contains((Object) 0L)).isFalse();
+		assertThat(test).hasSize(1000)
+		                .contains(0, -500 * 1024, 499 * 1024);
+
+		test.clear();
+		assertThat(test).isEmpty();
+	}
+
+	@Test
+	public void lruKeys() {
+		LruKeySet<Integer> test = new LruKeySet<>(3);
+		assertThat(test.add(1)).isTrue();
+		assertThat(test.add(2)).isTrue();
+		assertThat(test.add(3)).isTrue();
+		assertThat(test.add(1)).isFalse();
+		assertThat(test.add(4)).isTrue();
+
+		assertThat(test).containsExactly(3, 1, 4);
+		assertThat(test.add(2)).isTrue();
+		assertThat(test).containsExactly(1, 4, 2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failLruMaxKeys() {
+		new LruKeySet<>(0);
+	}
+}
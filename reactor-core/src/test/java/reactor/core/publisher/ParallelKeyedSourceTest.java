@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.subscriber.AssertSubscriber;
+import reactor.util.concurrent.QueueSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelKeyedSourceTest {
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failParallelism() {
+		Flux.never()
+		    .groupByOnRails(v -> v, Schedulers.parallel(), 0);
+	}
+
+	@SuppressWarnings("unchecked")
+	static void assertRails(ParallelFlux<Integer> test, int keys, int count) {
+		int n = test.parallelism();
+		AssertSubscriber<Integer>[] rails = new AssertSubscriber[n];
+		for (int i = 0; i < n; i++) {
+			rails[i] = AssertSubscriber.create();
+		}
+		test.subscribe(rails);
+
+		int total = 0;
+		for (int i = 0; i < n; i++) {
+			rails[i].await(Duration.ofSeconds(5))
+			        .assertNoError()
+			        .assertComplete();
+			Map<Integer, Integer> last = new HashMap<>();
+			for (Integer v : rails[i].values()) {
+				int key = v % keys;
+				assertThat(ParallelKeyedSource.railOf(key, n)).isEqualTo(i);
+				Integer previous = last.put(key, v);
+				assertThat(previous == null || previous < v).as("%s after %s", v, previous)
+				                                             .isTrue();
+			}
+			total += rails[i].values().size();
+		}
+		assertThat(total).isEqualTo(count);
+	}
+
+	@Test
+	public void sameKeySameRailInOrder() {
+		assertRails(Flux.range(0, 100_000)
+		                .hide()
+		                .groupByOnRails(v -> v % 37, Schedulers.parallel(), 4), 37, 100_000);
+	}
+
+	@Test
+	public void sameKeySameRailInOrderFused() {
+		assertRails(Flux.range(0, 100_000)
+		                .groupByOnRails(v -> v % 37, Schedulers.parallel(), 4), 37, 100_000);
+	}
+
+	@Test
+	public void sameKeySameRailInOrderAsync() {
+		assertRails(Flux.range(0, 100_000)
+		                .publishOn(Schedulers.single())
+		                .groupByOnRails(v -> v % 37, Schedulers.parallel(), 3, 16), 37, 100_000);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void waitsForTheRailOfTheNextValue() {
+		ParallelFlux<Integer> test = new ParallelKeyedSource<>(Flux.range(0, 10),
+				v -> v < 4 ? 0 : 1, 2, 16, QueueSupplier.get(16));
+		AssertSubscriber<Integer> rail0 = AssertSubscriber.create(0);
+		AssertSubscriber<Integer> rail1 = AssertSubscriber.create();
+		test.subscribe(new Subscriber[]{rail0, rail1});
+
+		rail0.assertNoValues();
+		rail1.assertNoValues();
+
+		rail0.request(3);
+		rail0.assertValues(0, 1, 2);
+		rail1.assertNoValues();
+
+		rail0.request(1);
+		rail0.assertValues(0, 1, 2, 3)
+		     .assertComplete();
+		rail1.assertValues(4, 5, 6, 7, 8, 9)
+		     .assertComplete();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void keySelectorError() {
+		ParallelFlux<Integer> test = new ParallelKeyedSource<>(Flux.range(0, 10),
+				v -> {
+					if (v == 3) {
+						throw new IllegalStateException("boom");
+					}
+					return v;
+				}, 2, 16, QueueSupplier.get(16));
+		AssertSubscriber<Integer> rail0 = AssertSubscriber.create();
+		AssertSubscriber<Integer> rail1 = AssertSubscriber.create();
+		test.subscribe(new Subscriber[]{rail0, rail1});
+
+		rail0.assertValues(0, 2)
+		     .assertErrorMessage("boom");
+		rail1.assertValues(1)
+		     .assertErrorMessage("boom");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void keySelectorNull() {
+		ParallelFlux<Integer> test = new ParallelKeyedSource<>(Flux.range(0, 10),
+				v -> null, 2, 16, QueueSupplier.get(16));
+		AssertSubscriber<Integer> rail0 = AssertSubscriber.create();
+		AssertSubscriber<Integer> rail1 = AssertSubscriber.create();
+		test.subscribe(new Subscriber[]{rail0, rail1});
+
+		rail0.assertNoValues()
+		     .assertError(NullPointerException.class);
+		rail1.assertNoValues()
+		     .assertError(NullPointerException.class);
+	}
+
+	@Test
+	public void perKeyState() {
+		StepVerifier.create(Flux.range(0, 10_000)
+		                        .groupByOnRails(v -> v % 10, Schedulers.parallel(), 4,
+				                        k -> new int[1], (count, v) -> v % 10 + ":" + ++count[0])
+		                        .sequential()
+		                        .collectList())
+		            .assertNext(l -> {
+			            assertThat(l).hasSize(10_000)
+			                         .doesNotHaveDuplicates();
+			            for (int k = 0; k < 10; k++) {
+				            assertThat(l).contains(k + ":1", k + ":1000")
+				                         .doesNotContain(k + ":1001");
+			            }
+		            })
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void perKeyStateIsolatedByRail() {
+		List<String> values = Flux.just("a", "b", "a", "c", "b", "a")
+		                          .groupByOnRails(v -> v, Schedulers.parallel(), 2,
+				                          k -> new StringBuilder(k), (sb, v) -> sb.append(v).toString())
+		                          .sequential()
+		                          .collectList()
+		                          .block(Duration.ofSeconds(5));
+
+		assertThat(values).containsExactlyInAnyOrder("aa", "bb", "aaa", "cc", "bbb", "aaaa");
+	}
+
+	@Test
+	public void perKeyStateComputesKeyOnce() {
+		AtomicInteger keyed = new AtomicInteger();
+		StepVerifier.create(Flux.range(0, 1000)
+		                        .groupByOnRails(v -> {
+			                        keyed.incrementAndGet();
+			                        return v % 10;
+		                        }, Schedulers.parallel(), 4, k -> new int[1], (count, v) -> ++count[0])
+		                        .sequential())
+		            .expectNextCount(1000)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+
+		assertThat(keyed.get()).isEqualTo(1000);
+	}
+
+	@Test
+	public void perKeyStateNull() {
+		StepVerifier.create(Flux.range(0, 10)
+		                        .groupByOnRails(v -> v, Schedulers.parallel(), 2,
+				                        k -> null, (state, v) -> v)
+		                        .sequential())
+		            .expectErrorMessage("The stateFactory returned a null state")
+		            .verify(Duration.ofSeconds(5));
+	}
+
+	@Test
+	public void scanOperator() {
+		DirectProcessor<Integer> parent = DirectProcessor.create();
+		ParallelKeyedSource<Integer> test = new ParallelKeyedSource<>(parent, v -> v, 3, 123,
+				QueueSupplier.get(123));
+
+		assertThat(test.scan(Scannable.ScannableAttr.PARENT)).isSameAs(parent);
+		assertThat(test.scan(Scannable.IntAttr.PREFETCH)).isEqualTo(123);
+		assertThat(test.parallelism()).isEqualTo(3);
+	}
+}
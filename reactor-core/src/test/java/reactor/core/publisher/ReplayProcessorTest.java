@@ -15,7 +15,14 @@
  */
 package reactor.core.publisher;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -633,6 +640,327 @@ public class ReplayProcessorTest {
 		assertThat(test.scan(Scannable.IntAttr.CAPACITY)).isEqualTo(Integer.MAX_VALUE);
 	}
 
+	@Test
+	public void boundedAcrossChunks() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.create(100);
+
+		for (int i = 0; i < 1000; i++) {
+			rp.onNext(i);
+		}
+		rp.onComplete();
+
+		StepVerifier.create(rp)
+		            .expectNextSequence(() -> IntStream.range(900, 1000).iterator())
+		            .verifyComplete();
+		StepVerifier.create(rp.hide())
+		            .expectNextCount(100)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void boundedLaggingSubscriberKeepsItsPosition() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.create(10);
+		AssertSubscriber<Integer> ts = AssertSubscriber.create(5);
+
+		rp.subscribe(ts);
+		for (int i = 0; i < 200; i++) {
+			rp.onNext(i);
+		}
+		rp.onComplete();
+
+		ts.assertValues(0, 1, 2, 3, 4)
+		  .assertNotComplete();
+
+		ts.request(Long.MAX_VALUE);
+		ts.assertValueCount(200)
+		  .assertComplete();
+	}
+
+	@Test
+	public void boundedSmallHistoryReusesChunksAndClearsEvictedValues() {
+		FluxReplay.ChunkedReplayBuffer<Integer> buffer = new FluxReplay.ChunkedReplayBuffer<>(1);
+		FluxReplay.ChunkedReplayBuffer.ChunkTable<Integer> table = buffer.table;
+		assertThat(buffer.chunkSize).isEqualTo(FluxReplay.ChunkedReplayBuffer.MIN_CHUNK_SIZE);
+
+		for (int i = 0; i < 1000; i++) {
+			buffer.add(i);
+		}
+
+		assertThat(buffer.table).isSameAs(table);
+		assertThat(buffer.head.values).containsOnly(999, null);
+		assertThat(buffer.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void boundedLaggingSubscriberDefersClearing() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.create(1);
+		FluxReplay.ChunkedReplayBuffer<Integer> buffer =
+				(FluxReplay.ChunkedReplayBuffer<Integer>) rp.buffer;
+		AssertSubscriber<Integer> ts = AssertSubscriber.create(2);
+
+		rp.subscribe(ts);
+		for (int i = 0; i < 10; i++) {
+			rp.onNext(i);
+		}
+		assertThat(buffer.head.values).contains(2, 3, 9);
+
+		ts.request(3);
+		ts.assertValues(0, 1, 2, 3, 4);
+		ts.cancel();
+		rp.onNext(10);
+
+		assertThat(buffer.head.values).containsOnly(10, null);
+	}
+
+	@Test
+	public void boundedFusedAcrossChunks() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.create(150);
+
+		for (int i = 0; i < 300; i++) {
+			rp.onNext(i);
+		}
+		rp.onComplete();
+
+		StepVerifier.create(rp)
+		            .expectFusion(Fuseable.ASYNC)
+		            .expectNext(150)
+		            .expectNextCount(148)
+		            .expectNext(299)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void timedAcrossChunks() {
+		ReplayProcessor<Integer> rp =
+				ReplayProcessor.createSizeAndTimeout(500, Duration.ofSeconds(1));
+
+		for (int i = 0; i < 200; i++) {
+			rp.onNext(i);
+		}
+
+		VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(2));
+
+		for (int i = 200; i < 300; i++) {
+			rp.onNext(i);
+		}
+
+		StepVerifier.create(rp.hide())
+		            .expectNext(200)
+		            .expectNextCount(98)
+		            .expectNext(299)
+		            .then(rp::onComplete)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void replayFromInstant() {
+		ReplayProcessor<Integer> rp =
+				ReplayProcessor.createSizeAndTimeout(10_000, Duration.ofHours(1));
+
+		for (int i = 0; i < 1000; i++) {
+			rp.onNext(i);
+			VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(1));
+		}
+
+		StepVerifier.create(rp.replayFrom(Instant.ofEpochSecond(500)))
+		            .expectNext(500)
+		            .expectNextCount(498)
+		            .expectNext(999)
+		            .then(() -> rp.onNext(1000))
+		            .expectNext(1000)
+		            .then(rp::onComplete)
+		            .verifyComplete();
+
+		StepVerifier.create(rp.replayFrom(Instant.ofEpochMilli(999_500)))
+		            .expectNext(1000)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void replayFromInstantAfterChunksWrapped() {
+		ReplayProcessor<Integer> rp =
+				ReplayProcessor.createSizeAndTimeout(200, Duration.ofHours(1));
+
+		for (int i = 0; i < 2000; i++) {
+			rp.onNext(i);
+			VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(1));
+		}
+
+		StepVerifier.create(rp.replayFrom(Instant.ofEpochSecond(1850)))
+		            .expectNext(1850)
+		            .expectNextCount(148)
+		            .expectNext(1999)
+		            .then(rp::onComplete)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void replayFromInstantSkipsOutdated() {
+		ReplayProcessor<Integer> rp =
+				ReplayProcessor.createSizeAndTimeout(10_000, Duration.ofSeconds(10));
+
+		for (int i = 0; i < 100; i++) {
+			rp.onNext(i);
+			VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(1));
+		}
+
+		StepVerifier.create(rp.replayFrom(Instant.EPOCH))
+		            .expectNext(91)
+		            .expectNextCount(7)
+		            .expectNext(99)
+		            .then(rp::onComplete)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void replayFromOffset() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.create(200);
+
+		for (int i = 0; i < 10_000; i++) {
+			rp.onNext(i);
+		}
+
+		StepVerifier.create(rp.replayFrom(9950))
+		            .expectNext(9950)
+		            .expectNextCount(48)
+		            .expectNext(9999)
+		            .thenCancel()
+		            .verify();
+
+		StepVerifier.create(rp.replayFrom(10))
+		            .expectNext(9800)
+		            .expectNextCount(198)
+		            .expectNext(9999)
+		            .thenCancel()
+		            .verify();
+
+		StepVerifier.create(rp.replayFrom(20_000))
+		            .then(() -> rp.onNext(10_000))
+		            .expectNext(10_000)
+		            .then(rp::onComplete)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void replayFromOffsetFused() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.create(100);
+
+		for (int i = 0; i < 1000; i++) {
+			rp.onNext(i);
+		}
+		rp.onComplete();
+
+		StepVerifier.create(rp.replayFrom(990))
+		            .expectFusion(Fuseable.ASYNC)
+		            .expectNext(990, 991, 992, 993, 994, 995, 996, 997, 998, 999)
+		            .verifyComplete();
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void replayFromOffsetUnbounded() {
+		ReplayProcessor.create()
+		               .replayFrom(0L);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void replayFromInstantNotTimed() {
+		ReplayProcessor.create(16)
+		               .replayFrom(Instant.EPOCH);
+	}
+
+	@Test
+	public void serializedAcrossChunks() {
+		ReplayProcessor<Long> rp = new ReplayProcessor<>(
+				new FluxReplay.SerializedReplayBuffer<>(v -> ByteBuffer.allocate(8).putLong(0, v),
+						ByteBuffer::getLong, 64));
+
+		AssertSubscriber<Long> ts = AssertSubscriber.create(10);
+		rp.subscribe(ts);
+
+		for (long i = 0; i < 100; i++) {
+			rp.onNext(i);
+		}
+		rp.onComplete();
+
+		ts.assertValueCount(10)
+		  .assertNotComplete();
+		ts.request(Long.MAX_VALUE);
+		ts.assertValueSequence(() -> LongStream.range(0, 100).iterator())
+		  .assertComplete();
+
+		StepVerifier.create(rp.hide())
+		            .expectNextSequence(() -> LongStream.range(0, 100).iterator())
+		            .verifyComplete();
+		StepVerifier.create(rp)
+		            .expectFusion(Fuseable.ASYNC)
+		            .expectNextSequence(() -> LongStream.range(0, 100).iterator())
+		            .verifyComplete();
+	}
+
+	@Test
+	public void serializedValueLargerThanChunk() {
+		ReplayProcessor<String> rp = new ReplayProcessor<>(
+				new FluxReplay.SerializedReplayBuffer<>(v -> ByteBuffer.wrap(v.getBytes(StandardCharsets.UTF_8)),
+						b -> StandardCharsets.UTF_8.decode(b).toString(), 16));
+		char[] large = new char[100];
+		Arrays.fill(large, 'x');
+		String big = new String(large);
+
+		rp.onNext("a");
+		rp.onNext(big);
+		rp.onNext("");
+		rp.onNext("b");
+		rp.onComplete();
+
+		StepVerifier.create(rp.hide())
+		            .expectNext("a", big, "", "b")
+		            .verifyComplete();
+	}
+
+	@Test
+	public void serializedDecoderError() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.createSerialized(
+				v -> ByteBuffer.allocate(4).putInt(0, v),
+				b -> {
+					int v = b.getInt();
+					if (v == 2) {
+						throw new IllegalStateException("boom");
+					}
+					return v;
+				});
+
+		rp.onNext(1);
+		rp.onNext(2);
+		rp.onNext(3);
+
+		StepVerifier.create(rp.hide())
+		            .expectNext(1)
+		            .verifyErrorMessage("boom");
+		assertThat(rp.downstreamCount()).isZero();
+	}
+
+	@Test
+	public void serializedEncoderErrorCancelsUpstream() {
+		ReplayProcessor<Integer> rp = ReplayProcessor.createSerialized(
+				v -> {
+					if (v == 3) {
+						throw new IllegalStateException("boom");
+					}
+					return ByteBuffer.allocate(4).putInt(0, v);
+				},
+				ByteBuffer::getInt);
+		AtomicBoolean cancelled = new AtomicBoolean();
+
+		Flux.range(1, 10)
+		    .doOnCancel(() -> cancelled.set(true))
+		    .subscribe(rp);
+
+		assertThat(cancelled.get()).isTrue();
+		StepVerifier.create(rp)
+		            .expectNext(1, 2)
+		            .verifyErrorMessage("boom");
+	}
+
 	@Before
 	public void virtualTime(){
     	VirtualTimeScheduler.getOrSet();
@@ -15,6 +15,11 @@
  */
 package reactor.core.publisher;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -30,6 +35,7 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import reactor.core.Scannable;
+import reactor.core.publisher.EventLoopProcessor.Slot;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.subscriber.AssertSubscriber;
@@ -741,6 +747,207 @@ public class TopicProcessorTest {
 		assertThat(test.scan(Scannable.LongAttr.LARGE_BUFFERED)).isEqualTo(Integer.MAX_VALUE + 3L);
 	}
 
+	@Test
+	public void onNextBatchLargerThanBuffer() {
+		TopicProcessor<Integer> processor = TopicProcessor.create("batch", 16);
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+		processor.subscribe(ts);
+
+		List<Integer> values = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			values.add(i);
+		}
+		processor.onNextBatch(values);
+		processor.onComplete();
+
+		ts.await(Duration.ofSeconds(5))
+		  .assertValueSequence(values)
+		  .assertComplete();
+	}
+
+	@Test
+	public void onNextBatchBoundedSubscriber() {
+		TopicProcessor<Integer> processor = TopicProcessor.create("batch", 16);
+		AssertSubscriber<Integer> ts = AssertSubscriber.create(3);
+		processor.subscribe(ts);
+
+		processor.onNextBatch(Arrays.asList(1, 2, 3, 4, 5));
+		processor.onNextBatch(Collections.emptyList());
+
+		ts.awaitAndAssertNextValues(1, 2, 3)
+		  .assertNotComplete();
+
+		ts.request(10);
+		processor.onNextBatch(Arrays.asList(6, 7));
+		processor.onComplete();
+
+		ts.awaitAndAssertNextValues(4, 5, 6, 7)
+		  .await(Duration.ofSeconds(5))
+		  .assertComplete();
+	}
+
+	@Test
+	public void onNextBatchShared() throws Exception {
+		TopicProcessor<Integer> processor = TopicProcessor.share("batch", 16);
+		AssertSubscriber<Integer> ts = AssertSubscriber.create();
+		processor.subscribe(ts);
+
+		int producers = 4;
+		int n = 1000;
+		ExecutorService es = Executors.newFixedThreadPool(producers);
+		try {
+			CountDownLatch latch = new CountDownLatch(producers);
+			for (int p = 0; p < producers; p++) {
+				int base = p * n;
+				es.submit(() -> {
+					List<Integer> batch = new ArrayList<>();
+					for (int i = 0; i < n; i++) {
+						batch.add(base + i);
+						if (batch.size() == 10) {
+							processor.onNextBatch(batch);
+							batch.clear();
+						}
+					}
+					latch.countDown();
+				});
+			}
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+			processor.onComplete();
+
+			ts.await(Duration.ofSeconds(10))
+			  .assertValueCount(producers * n)
+			  .assertComplete();
+
+			//values of each producer are seen in order
+			int[] last = new int[producers];
+			Arrays.fill(last, -1);
+			for (Integer v : ts.values()) {
+				int p = v / n;
+				assertThat(v % n).isEqualTo(last[p] + 1);
+				last[p] = v % n;
+			}
+		}
+		finally {
+			es.shutdownNow();
+		}
+	}
+
+	@Test
+	public void atomicMultiProducerRingBufferPublishesInOrder() {
+		RingBuffer<Slot<Integer>> ringBuffer =
+				new NotFunRingBuffer<>(Slot::new,
+						new AtomicMultiProducerRingBuffer(8, WaitStrategy.liteBlocking(), null));
+		RingBuffer.Sequence reader = RingBuffer.newSequence(RingBuffer.INITIAL_CURSOR_VALUE);
+		ringBuffer.addGatingSequence(reader);
+
+		long first = ringBuffer.next();
+		long hi = ringBuffer.next(3);
+		assertThat(first).isEqualTo(0L);
+		assertThat(hi).isEqualTo(3L);
+
+		RingBufferProducer sequencer = ringBuffer.getSequencer();
+		ringBuffer.publish(1L, 3L);
+		assertThat(sequencer.getHighestPublishedSequence(0L, 3L)).isEqualTo(-1L);
+
+		ringBuffer.publish(first);
+		assertThat(sequencer.getHighestPublishedSequence(0L, 3L)).isEqualTo(3L);
+		assertThat(ringBuffer.getPending()).isEqualTo(4);
+
+		reader.set(3L);
+		assertThat(ringBuffer.getPending()).isZero();
+
+		//wrap around the buffer and check the availability flags moved on
+		long wrapped = ringBuffer.next(8);
+		assertThat(wrapped).isEqualTo(11L);
+		assertThat(sequencer.getHighestPublishedSequence(4L, 11L)).isEqualTo(3L);
+		ringBuffer.publish(4L, 11L);
+		assertThat(sequencer.getHighestPublishedSequence(4L, 11L)).isEqualTo(11L);
+	}
+
+	static final class MutableSignal {
+
+		long value;
+	}
+
+	@Test
+	public void onNextInPlaceReusesPreallocatedSignals() throws InterruptedException {
+		List<MutableSignal> allocated = Collections.synchronizedList(new ArrayList<>());
+		TopicProcessor<MutableSignal> processor = TopicProcessor.<MutableSignal>builder()
+				.name("inPlace")
+				.bufferSize(4)
+				.signalSupplier(() -> {
+					MutableSignal signal = new MutableSignal();
+					allocated.add(signal);
+					return signal;
+				})
+				.build();
+
+		List<Long> received = Collections.synchronizedList(new ArrayList<>());
+		List<MutableSignal> instances = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch latch = new CountDownLatch(1);
+		processor.subscribe(signal -> {
+			received.add(signal.value);
+			instances.add(signal);
+		}, null, latch::countDown);
+
+		for (long i = 0; i < 20; i++) {
+			long v = i;
+			processor.onNextInPlace(signal -> signal.value = v);
+		}
+		processor.onComplete();
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(allocated).hasSize(4);
+		assertThat(received).hasSize(20);
+		for (int i = 0; i < 20; i++) {
+			assertThat(received.get(i)).isEqualTo((long) i);
+			assertThat(allocated).contains(instances.get(i));
+		}
+	}
+
+	@Test
+	public void onNextInPlacePublishesWhenTranslatorFails() {
+		TopicProcessor<MutableSignal> processor = TopicProcessor.<MutableSignal>builder()
+				.name("inPlace")
+				.bufferSize(4)
+				.signalSupplier(MutableSignal::new)
+				.build();
+		try {
+			processor.onNextInPlace(signal -> {
+				throw new IllegalStateException("boom");
+			});
+			fail("expected translator failure");
+		}
+		catch (IllegalStateException e) {
+			assertThat(e).hasMessage("boom");
+		}
+		assertThat(processor.ringBuffer.getCursor()).isEqualTo(0L);
+		processor.shutdown();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void onNextInPlaceRequiresSignalSupplier() {
+		TopicProcessor<MutableSignal> processor = TopicProcessor.create("inPlace", 4);
+		try {
+			processor.onNextInPlace(signal -> signal.value = 1L);
+		}
+		finally {
+			processor.shutdown();
+		}
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void onNextBatchRejectsNull() {
+		TopicProcessor<Integer> processor = TopicProcessor.create("batch", 16);
+		try {
+			processor.onNextBatch(Arrays.asList(1, null));
+		}
+		finally {
+			assertThat(processor.getAvailableCapacity()).isEqualTo(16);
+			processor.shutdown();
+		}
+	}
+
 	private void assertProcessor(TopicProcessor<Integer> processor,
 			boolean shared,
 			@Nullable String name,
@@ -754,7 +961,8 @@ public class TopicProcessorTest {
 		int expectedBufferSize = bufferSize != null ? bufferSize : QueueSupplier.SMALL_BUFFER_SIZE;
 		boolean expectedAutoCancel = autoCancel != null ? autoCancel : true;
 		WaitStrategy expectedWaitStrategy = waitStrategy != null ? waitStrategy : WaitStrategy.phasedOffLiteLock(200, 100, TimeUnit.MILLISECONDS);
-		Class<?> sequencerClass = shared ? MultiProducerRingBuffer.class : SingleProducerSequencer.class;
+		Class<?> sequencerClass = !shared ? SingleProducerSequencer.class :
+				RingBuffer.hasUnsafe() ? MultiProducerRingBuffer.class : AtomicMultiProducerRingBuffer.class;
 
 		assertEquals(expectedName, processor.name);
 		assertEquals(expectedBufferSize, processor.getBufferSize());
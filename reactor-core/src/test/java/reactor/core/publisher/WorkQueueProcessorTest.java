@@ -20,6 +20,8 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -1335,6 +1337,91 @@ public class WorkQueueProcessorTest {
 		Assertions.assertThat(test.scan(Scannable.BooleanAttr.CANCELLED)).isTrue();
 	}
 
+	@Test(timeout = 15000L)
+	public void batchedClaimsDeliverEachSignalOnce() throws Exception {
+		WorkQueueProcessor<Integer> processor = WorkQueueProcessor.<Integer>builder()
+				.name("batched")
+				.bufferSize(256)
+				.batchSize(16)
+				.build();
+
+		int subscribers = 3;
+		int n = 10_000;
+		Set<Integer> received = ConcurrentHashMap.newKeySet();
+		AtomicInteger count = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(subscribers);
+		for (int i = 0; i < subscribers; i++) {
+			processor.subscribe(v -> {
+				received.add(v);
+				count.incrementAndGet();
+			}, null, latch::countDown);
+		}
+
+		for (int i = 0; i < n; i++) {
+			processor.onNext(i);
+		}
+		processor.onComplete();
+
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		Assertions.assertThat(count.get()).isEqualTo(n);
+		Assertions.assertThat(received).hasSize(n);
+	}
+
+	@Test
+	public void batchedClaimsRespectDemand() {
+		WorkQueueProcessor<Integer> processor = WorkQueueProcessor.<Integer>builder()
+				.name("batched")
+				.bufferSize(16)
+				.batchSize(8)
+				.build();
+
+		StepVerifier.create(processor, 0)
+		            .then(() -> {
+			            for (int i = 1; i <= 10; i++) {
+				            processor.onNext(i);
+			            }
+		            })
+		            .thenRequest(3)
+		            .expectNext(1, 2, 3)
+		            .thenRequest(7)
+		            .expectNext(4, 5, 6, 7, 8, 9, 10)
+		            .thenRequest(1)
+		            .then(processor::onComplete)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+	}
+
+	@Test(timeout = 15000L)
+	public void batchedClaimsAreHandedOverOnCancel() throws Exception {
+		WorkQueueProcessor<Integer> processor = WorkQueueProcessor.<Integer>builder()
+				.name("batched")
+				.bufferSize(256)
+				.batchSize(16)
+				.build();
+
+		processor.subscribe(d -> {
+			throw Exceptions.failWithCancel();
+		});
+
+		int n = 100;
+		for (int i = 0; i < n; i++) {
+			processor.onNext(i);
+		}
+
+		Set<Integer> received = ConcurrentHashMap.newKeySet();
+		CountDownLatch latch = new CountDownLatch(1);
+		processor.subscribe(received::add, null, latch::countDown);
+		processor.onComplete();
+
+		assertTrue(latch.await(10, TimeUnit.SECONDS));
+		Assertions.assertThat(received).hasSize(n);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void failZeroBatchSize() {
+		WorkQueueProcessor.builder().batchSize(0);
+	}
+
 	private void assertProcessor(WorkQueueProcessor<Integer> processor,
 			boolean shared,
 			@Nullable String name,
@@ -1348,7 +1435,8 @@ public class WorkQueueProcessorTest {
 		int expectedBufferSize = bufferSize != null ? bufferSize : QueueSupplier.SMALL_BUFFER_SIZE;
 		boolean expectedAutoCancel = autoCancel != null ? autoCancel : true;
 		WaitStrategy expectedWaitStrategy = waitStrategy != null ? waitStrategy : WaitStrategy.liteBlocking();
-		Class<?> sequencerClass = shared ? MultiProducerRingBuffer.class : SingleProducerSequencer.class;
+		Class<?> sequencerClass = !shared ? SingleProducerSequencer.class :
+				RingBuffer.hasUnsafe() ? MultiProducerRingBuffer.class : AtomicMultiProducerRingBuffer.class;
 
 		assertEquals(expectedName, processor.name);
 		assertEquals(expectedBufferSize, processor.getBufferSize());
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newBoundedElastic("boundedElasticTest", 4, 100_000);
+	}
+
+	@Override
+	protected boolean shouldCheckInterrupted() {
+		return true;
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeMaxThreads() throws Exception {
+		Schedulers.newBoundedElastic("test", -1, 10);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeQueueCap() throws Exception {
+		Schedulers.newBoundedElastic("test", 1, -1);
+	}
+
+	@Test
+	public void threadsAreCappedAndShared() throws Exception {
+		Scheduler s = Schedulers.newBoundedElastic("capped", 2, 100);
+		try {
+			Set<Thread> threads = ConcurrentHashMap.newKeySet();
+			List<Scheduler.Worker> workers = new ArrayList<>();
+			CountDownLatch latch = new CountDownLatch(10);
+			for (int i = 0; i < 10; i++) {
+				Scheduler.Worker w = s.createWorker();
+				workers.add(w);
+				w.schedule(() -> {
+					threads.add(Thread.currentThread());
+					latch.countDown();
+				});
+			}
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(threads).hasSize(2);
+
+			Scannable scannable = Scannable.from(s);
+			assertThat(scannable.scan(Scannable.IntAttr.CAPACITY)).isEqualTo(2);
+			assertThat(scannable.scan(Scannable.IntAttr.ACTIVE)).isEqualTo(2);
+			assertThat(scannable.scan(Scannable.IntAttr.IDLE)).isZero();
+
+			workers.forEach(Disposable::dispose);
+
+			assertThat(scannable.scan(Scannable.IntAttr.ACTIVE)).isZero();
+			assertThat(scannable.scan(Scannable.IntAttr.IDLE)).isEqualTo(2);
+			assertThat(scannable.inners()).hasSize(2);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void fullThreadRejects() throws Exception {
+		Scheduler s = Schedulers.newBoundedElastic("reject", 1, 2);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			Scheduler.Worker w = s.createWorker();
+			assertThat(w.schedule(() -> await(release))).isNotSameAs(Scheduler.REJECTED);
+			assertThat(w.schedule(() -> { })).isNotSameAs(Scheduler.REJECTED);
+			assertThat(w.schedule(() -> { })).isSameAs(Scheduler.REJECTED);
+			assertThat(Scannable.from(s).scan(Scannable.IntAttr.BUFFERED)).isEqualTo(2);
+
+			StepVerifier.create(Mono.just(1)
+			                        .subscribeOn(s))
+			            .expectError(RejectedExecutionException.class)
+			            .verify(Duration.ofSeconds(5));
+
+			release.countDown();
+			while (Scannable.from(s).scan(Scannable.IntAttr.BUFFERED) != 0) {
+				Thread.sleep(10);
+			}
+			assertThat(w.schedule(() -> { })).isNotSameAs(Scheduler.REJECTED);
+		}
+		finally {
+			release.countDown();
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void fullThreadDefersInOrder() throws Exception {
+		Scheduler s = Schedulers.newBoundedElastic("defer",
+				1,
+				2,
+				60,
+				RejectionPolicy.DEFER,
+				true);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			Scheduler.Worker w = s.createWorker();
+			w.schedule(() -> await(release));
+
+			int n = 100;
+			List<Integer> seen = new ArrayList<>();
+			CountDownLatch done = new CountDownLatch(n);
+			Disposable[] tasks = new Disposable[n];
+			for (int i = 0; i < n; i++) {
+				int v = i;
+				tasks[i] = w.schedule(() -> {
+					seen.add(v);
+					done.countDown();
+				});
+				assertThat(tasks[i]).isNotSameAs(Scheduler.REJECTED);
+			}
+			//a parked task can still be cancelled
+			tasks[50].dispose();
+			done.countDown();
+
+			assertThat(Scannable.from(s).scan(Scannable.IntAttr.BUFFERED)).isEqualTo(n + 1);
+
+			release.countDown();
+			assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+
+			assertThat(seen).hasSize(n - 1)
+			                .isSorted()
+			                .doesNotContain(50);
+		}
+		finally {
+			release.countDown();
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void idleThreadsAreReused() throws Exception {
+		Scheduler s = Schedulers.newBoundedElastic("reuse", 4, 100);
+		try {
+			Set<Thread> threads = ConcurrentHashMap.newKeySet();
+			for (int i = 0; i < 10; i++) {
+				StepVerifier.create(Mono.fromCallable(Thread::currentThread)
+				                        .subscribeOn(s))
+				            .consumeNextWith(threads::add)
+				            .verifyComplete();
+				// the worker is disposed after the completion is signalled
+				awaitIdle(s, 1);
+			}
+			assertThat(threads).hasSize(1);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void releasedWorkerThreadIsReused() {
+		Scheduler s = Schedulers.newBoundedElastic("release", 4, 100);
+		try {
+			Scheduler.Worker w1 = s.createWorker();
+			assertThat(Scannable.from(s).scan(Scannable.IntAttr.ACTIVE)).isEqualTo(1);
+			w1.dispose();
+			assertThat(Scannable.from(s).scan(Scannable.IntAttr.IDLE)).isEqualTo(1);
+
+			Scheduler.Worker w2 = s.createWorker();
+			assertThat(Scannable.from(s).scan(Scannable.IntAttr.ACTIVE)).isEqualTo(1);
+			assertThat(Scannable.from(s).scan(Scannable.IntAttr.IDLE)).isEqualTo(0);
+			w2.dispose();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	static void awaitIdle(Scheduler s, int idle) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!Integer.valueOf(idle).equals(Scannable.from(s).scan(Scannable.IntAttr.IDLE))) {
+			assertThat(System.currentTimeMillis()).as("idle threads")
+			                                      .isLessThan(deadline);
+			Thread.sleep(1);
+		}
+	}
+
+	@Test
+	public void blockingBridge() {
+		Scheduler s = Schedulers.newBoundedElastic("bridge", 8, 1000);
+		try {
+			AtomicInteger concurrent = new AtomicInteger();
+			AtomicInteger max = new AtomicInteger();
+			StepVerifier.create(Flux.range(1, 100)
+			                        .flatMap(i -> Mono.fromCallable(() -> {
+				                        max.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+				                        Thread.sleep(5);
+				                        concurrent.decrementAndGet();
+				                        return i;
+			                        })
+			                                          .subscribeOn(s))
+			                        .count())
+			            .expectNext(100L)
+			            .verifyComplete();
+
+			assertThat(max.get()).isLessThanOrEqualTo(8);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SchedulerMetricsTest {
+
+	@Before
+	public void enable() {
+		Schedulers.enableMetrics();
+	}
+
+	@After
+	public void disable() {
+		Schedulers.disableMetrics();
+	}
+
+	@Test
+	public void histogramBucketsAreExactForSmallValues() {
+		for (long v = 0; v < 2 * LatencyHistogram.SUB_BUCKETS; v++) {
+			assertThat(LatencyHistogram.highestValueAt(LatencyHistogram.indexOf(v)))
+					.isEqualTo(v);
+		}
+		assertThat(LatencyHistogram.indexOf(Long.MAX_VALUE))
+				.isEqualTo(LatencyHistogram.BUCKETS - 1);
+		assertThat(LatencyHistogram.highestValueAt(LatencyHistogram.BUCKETS - 1))
+				.isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void histogramRelativeError() {
+		for (long v = 1; v > 0 && v < Long.MAX_VALUE / 3; v = v * 3 + 1) {
+			long high = LatencyHistogram.highestValueAt(LatencyHistogram.indexOf(v));
+			assertThat(high).isGreaterThanOrEqualTo(v);
+			assertThat((double) (high - v) / v).isLessThan(1d / LatencyHistogram.SUB_BUCKETS);
+		}
+	}
+
+	@Test
+	public void histogramPercentiles() {
+		LatencyHistogram h = new LatencyHistogram();
+		assertThat(h.percentile(0.5)).isZero();
+		for (int i = 1; i <= 100; i++) {
+			h.record(i * 1000L);
+		}
+		assertThat(h.count()).isEqualTo(100);
+		assertThat(h.percentile(0.5)).isBetween(50_000L, 50_000L + 50_000L / 8);
+		assertThat(h.percentile(0.99)).isBetween(99_000L, 99_000L + 99_000L / 8);
+		assertThat(h.percentile(1d)).isGreaterThanOrEqualTo(100_000L);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void histogramRejectsInvalidPercentile() {
+		new LatencyHistogram().percentile(1.5);
+	}
+
+	@Test
+	public void parallelSchedulerIsInstrumented() {
+		Scheduler s = Schedulers.newParallel("metrics", 2);
+		try {
+			StepVerifier.create(Flux.range(1, 100)
+			                        .flatMap(i -> Mono.fromCallable(() -> i)
+			                                          .subscribeOn(s))
+			                        .count())
+			            .expectNext(100L)
+			            .verifyComplete();
+
+			List<SchedulerMetrics> metrics = Schedulers.metrics();
+			assertThat(metrics).hasSize(1);
+
+			SchedulerMetrics m = metrics.get(0);
+			assertThat(m.name()).startsWith(Schedulers.PARALLEL);
+			assertThat(m.submittedTasks()).isEqualTo(100);
+			assertThat(m.completedTasks()).isEqualTo(100);
+			assertThat(m.rejectedTasks()).isZero();
+			assertThat(m.executionTimeNanos(0.99)).isPositive();
+			assertThat(Scannable.from(m)
+			                    .scan(Scannable.BooleanAttr.TERMINATED)).isFalse();
+		}
+		finally {
+			s.dispose();
+		}
+		assertThat(Schedulers.metrics()).isEmpty();
+	}
+
+	@Test(timeout = 10000)
+	public void activeAndQueuedTasks() throws Exception {
+		Scheduler s = Schedulers.newSingle("metrics");
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			s.schedule(() -> {
+				started.countDown();
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			s.schedule(() -> { });
+			s.schedule(() -> { });
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+			SchedulerMetrics m = Schedulers.metrics().get(0);
+			Scannable scannable = Scannable.from(m);
+			assertThat(m.activeTasks()).isEqualTo(1);
+			assertThat(scannable.scan(Scannable.IntAttr.ACTIVE)).isEqualTo(1);
+			assertThat(m.queuedTasks()).isEqualTo(2);
+			assertThat(scannable.scan(Scannable.IntAttr.BUFFERED)).isEqualTo(2);
+
+			release.countDown();
+			while (m.completedTasks() != 3) {
+				Thread.sleep(10);
+			}
+			assertThat(m.activeTasks()).isZero();
+			assertThat(m.queuedTasks()).isZero();
+			assertThat(m.waitTimeNanos(1d)).isPositive();
+		}
+		finally {
+			release.countDown();
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void executorServiceRejectionIsCounted() {
+		ExecutorService es = Executors.newSingleThreadExecutor();
+		es.shutdown();
+		Scheduler s = Schedulers.fromExecutorService(es);
+		try {
+			assertThat(s.schedule(() -> { })).isSameAs(Scheduler.REJECTED);
+			SchedulerMetrics m = Schedulers.metrics().get(0);
+			assertThat(m.rejectedTasks()).isEqualTo(1);
+			assertThat(m.submittedTasks()).isZero();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void notInstrumentedByDefault() {
+		Schedulers.disableMetrics();
+		Scheduler s = Schedulers.newParallel("metrics", 1);
+		try {
+			StepVerifier.create(Mono.just(1)
+			                        .subscribeOn(s))
+			            .expectNext(1)
+			            .verifyComplete();
+			assertThat(Schedulers.metrics()).isEmpty();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TaskRegistryTest {
+
+	static final class Task extends TaskRegistry.Node {
+
+		volatile boolean disposed;
+
+		@Override
+		public void dispose() {
+			disposed = true;
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return disposed;
+		}
+	}
+
+	@Test
+	public void removedTasksAreSwept() {
+		TaskRegistry<Task> registry = new TaskRegistry<>();
+
+		for (int i = 0; i < 10_000; i++) {
+			Task t = new Task();
+			assertThat(registry.add(t)).isTrue();
+			t.dispose();
+			assertThat(registry.remove(t)).isTrue();
+		}
+
+		assertThat(registry.size()).isLessThanOrEqualTo(TaskRegistry.MIN_SWEEP + 1);
+	}
+
+	@Test
+	public void liveTasksAreKept() {
+		TaskRegistry<Task> registry = new TaskRegistry<>();
+		List<Task> live = new ArrayList<>();
+
+		for (int i = 0; i < 1000; i++) {
+			Task t = new Task();
+			registry.add(t);
+			if (i % 10 == 0) {
+				live.add(t);
+			}
+			else {
+				t.dispose();
+			}
+		}
+		registry.sweep();
+
+		assertThat(registry.size()).isBetween(live.size(), live.size() + 1);
+
+		registry.dispose();
+
+		assertThat(registry.isDisposed()).isTrue();
+		assertThat(live).allMatch(Disposable::isDisposed);
+	}
+
+	@Test
+	public void addAfterDisposeIsRejected() {
+		TaskRegistry<Task> registry = new TaskRegistry<>();
+		registry.dispose();
+
+		Task t = new Task();
+		assertThat(registry.add(t)).isFalse();
+		assertThat(registry.remove(t)).isFalse();
+		assertThat(t.isDisposed()).isFalse();
+	}
+
+	@Test(timeout = 10000)
+	public void concurrentAddAndDisposeLosesNoTask() throws Exception {
+		for (int round = 0; round < 100; round++) {
+			TaskRegistry<Task> registry = new TaskRegistry<>();
+			int n = 2000;
+			Task[][] added = new Task[2][n];
+			boolean[][] accepted = new boolean[2][n];
+			CountDownLatch start = new CountDownLatch(1);
+			CountDownLatch done = new CountDownLatch(2);
+
+			for (int p = 0; p < 2; p++) {
+				int producer = p;
+				new Thread(() -> {
+					try {
+						start.await();
+						for (int i = 0; i < n; i++) {
+							Task t = new Task();
+							added[producer][i] = t;
+							accepted[producer][i] = registry.add(t);
+							if (i % 2 == 0) {
+								t.dispose();
+								registry.remove(t);
+							}
+						}
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					finally {
+						done.countDown();
+					}
+				}).start();
+			}
+
+			start.countDown();
+			Thread.yield();
+			registry.dispose();
+
+			assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+			for (int p = 0; p < 2; p++) {
+				for (int i = 0; i < n; i++) {
+					if (accepted[p][i]) {
+						assertThat(added[p][i].isDisposed()).isTrue();
+					}
+				}
+			}
+		}
+	}
+}
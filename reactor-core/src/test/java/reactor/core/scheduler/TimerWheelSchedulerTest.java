@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimerWheelSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newTimerWheel("timerWheelTest");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeWheelSize() throws Exception {
+		Schedulers.newTimerWheel(Duration.ofMillis(1), -1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void zeroTick() throws Exception {
+		Schedulers.newTimerWheel(Duration.ZERO, 16);
+	}
+
+	@Test
+	public void delayIsHonoredWithTickPrecision() {
+		Scheduler s = Schedulers.newTimerWheel("delay", Duration.ofMillis(5), 16);
+		try {
+			for (int i = 0; i < 5; i++) {
+				AtomicLong start = new AtomicLong();
+				AtomicLong end = new AtomicLong();
+				StepVerifier.create(Mono.delay(Duration.ofMillis(100), s)
+				                        .doOnSubscribe(sub -> start.set(System.nanoTime()))
+				                        .doOnTerminate((v, e) -> end.set(System.nanoTime())))
+				            .expectNext(0L)
+				            .verifyComplete();
+
+				assertThat(TimeUnit.NANOSECONDS.toMillis(end.get() - start.get()))
+						.isGreaterThanOrEqualTo(100L)
+						.isLessThan(200L);
+			}
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void delayLongerThanOneRevolution() {
+		//16 buckets of 2ms: a 100ms delay needs several rounds of the wheel
+		Scheduler s = Schedulers.newTimerWheel("rounds", Duration.ofMillis(2), 16);
+		try {
+			StepVerifier.create(Mono.delay(Duration.ofMillis(100), s))
+			            .expectSubscription()
+			            .expectNoEvent(Duration.ofMillis(90))
+			            .expectNext(0L)
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void monoAndFluxTimeout() {
+		Scheduler s = scheduler();
+		try {
+			StepVerifier.create(Mono.never()
+			                        .timeout(Duration.ofMillis(50), s))
+			            .verifyError(TimeoutException.class);
+
+			StepVerifier.create(Flux.just(1, 2, 3)
+			                        .timeout(Duration.ofMillis(500), s))
+			            .expectNext(1, 2, 3)
+			            .verifyComplete();
+
+			StepVerifier.create(Flux.concat(Flux.just(1), Flux.never())
+			                        .timeout(Duration.ofMillis(50), s))
+			            .expectNext(1)
+			            .verifyError(TimeoutException.class);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void bufferTimeout() {
+		Scheduler s = scheduler();
+		try {
+			StepVerifier.create(Flux.concat(Flux.just(1, 2, 3), Mono.delay(Duration.ofMillis(300)).then(Mono.just(4)))
+			                        .bufferTimeout(10, Duration.ofMillis(100), s))
+			            .expectNext(Arrays.asList(1, 2, 3))
+			            .expectNext(Arrays.asList(4))
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void cancelledTimersNeverFire() throws Exception {
+		Scheduler s = scheduler();
+		try {
+			AtomicInteger fired = new AtomicInteger();
+			int n = 100_000;
+			Disposable[] timers = new Disposable[n];
+			for (int i = 0; i < n; i++) {
+				timers[i] = s.schedule(fired::incrementAndGet, 1, TimeUnit.SECONDS);
+			}
+			for (Disposable d : timers) {
+				d.dispose();
+			}
+
+			CountDownLatch latch = new CountDownLatch(1);
+			s.schedule(latch::countDown, 1100, TimeUnit.MILLISECONDS);
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(fired.get()).isZero();
+			assertThat(timers).allMatch(Disposable::isDisposed);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void periodicRunsUntilDisposed() throws Exception {
+		Scheduler s = Schedulers.newTimerWheel("periodic", Duration.ofMillis(1), 8);
+		try {
+			CountDownLatch latch = new CountDownLatch(5);
+			Disposable d = s.schedulePeriodically(latch::countDown, 0, 10, TimeUnit.MILLISECONDS);
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(d.isDisposed()).isFalse();
+			d.dispose();
+			assertThat(d.isDisposed()).isTrue();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void workerTasksRunInOrder() throws Exception {
+		Scheduler s = scheduler();
+		try {
+			Scheduler.Worker w = s.createWorker();
+			int n = 1000;
+			int[] seen = new int[n];
+			AtomicInteger index = new AtomicInteger();
+			CountDownLatch latch = new CountDownLatch(n);
+			for (int i = 0; i < n; i++) {
+				int v = i;
+				w.schedule(() -> {
+					seen[index.getAndIncrement()] = v;
+					latch.countDown();
+				});
+			}
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			for (int i = 0; i < n; i++) {
+				assertThat(seen[i]).isEqualTo(i);
+			}
+			w.dispose();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+}
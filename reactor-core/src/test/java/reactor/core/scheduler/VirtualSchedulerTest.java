@@ -0,0 +1,304 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newVirtual("virtualTest");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeMaxThreads() throws Exception {
+		Schedulers.newVirtual("test", -1, 10);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeQueueCapacity() throws Exception {
+		Schedulers.newVirtual("test", 10, -1);
+	}
+
+	@Test
+	public void threadNaming() throws Exception {
+		Scheduler s = Schedulers.newVirtual("naming");
+		try {
+			StepVerifier.create(Mono.fromCallable(() -> Thread.currentThread().getName())
+			                        .subscribeOn(s))
+			            .assertNext(name -> assertThat(name).startsWith("naming-"))
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void fallbackPoolIsBounded() throws Exception {
+		VirtualScheduler s = new VirtualScheduler(2,
+				100,
+				new Schedulers.SchedulerThreadFactory("bounded", true, VirtualScheduler.COUNTER),
+				false);
+		try {
+			Set<Thread> threads = ConcurrentHashMap.newKeySet();
+			CountDownLatch latch = new CountDownLatch(50);
+			for (int i = 0; i < 50; i++) {
+				s.schedule(() -> {
+					threads.add(Thread.currentThread());
+					try {
+						Thread.sleep(5);
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					latch.countDown();
+				});
+			}
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(threads).hasSize(2);
+			assertThat(s.scan(Scannable.IntAttr.CAPACITY)).isEqualTo(2);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void pendingTasksAreCapped() throws Exception {
+		VirtualScheduler s = new VirtualScheduler(1,
+				3,
+				new Schedulers.SchedulerThreadFactory("capped", true, VirtualScheduler.COUNTER),
+				false);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		try {
+			s.schedule(() -> {
+				started.countDown();
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+			AtomicInteger ran = new AtomicInteger();
+			Scheduler.Worker w = s.createWorker();
+			for (int i = 0; i < 3; i++) {
+				assertThat(w.schedule(ran::incrementAndGet)).isNotSameAs(Scheduler.REJECTED);
+			}
+			assertThat(s.scan(Scannable.IntAttr.BUFFERED)).isEqualTo(3);
+			assertThat(Scannable.from(w).scan(Scannable.IntAttr.BUFFERED)).isEqualTo(3);
+			assertThat(Scannable.from(w).scan(Scannable.ScannableAttr.PARENT)).isSameAs(s);
+
+			assertThat(w.schedule(ran::incrementAndGet)).isSameAs(Scheduler.REJECTED);
+			assertThat(s.schedule(ran::incrementAndGet)).isSameAs(Scheduler.REJECTED);
+
+			release.countDown();
+			while (ran.get() != 3) {
+				Thread.sleep(10);
+			}
+			assertThat(s.scan(Scannable.IntAttr.BUFFERED)).isZero();
+		}
+		finally {
+			release.countDown();
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void workerTasksRunInOrder() throws Exception {
+		Scheduler s = scheduler();
+		try {
+			Scheduler.Worker w = s.createWorker();
+			int n = 1000;
+			int[] seen = new int[n];
+			AtomicInteger index = new AtomicInteger();
+			CountDownLatch latch = new CountDownLatch(n);
+			for (int i = 0; i < n; i++) {
+				int v = i;
+				w.schedule(() -> {
+					seen[index.getAndIncrement()] = v;
+					latch.countDown();
+				});
+			}
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			for (int i = 0; i < n; i++) {
+				assertThat(seen[i]).isEqualTo(i);
+			}
+			w.dispose();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void disposedWorkerCancelsDelayedTasks() throws Exception {
+		Scheduler s = scheduler();
+		try {
+			Scheduler.Worker w = s.createWorker();
+			AtomicInteger ran = new AtomicInteger();
+			Disposable d = w.schedule(ran::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+			w.dispose();
+
+			assertThat(d.isDisposed()).isTrue();
+			Thread.sleep(200);
+			assertThat(ran.get()).isZero();
+			assertThat(Scannable.from(s).scan(Scannable.IntAttr.BUFFERED)).isZero();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void blockingBridge() {
+		Scheduler s = scheduler();
+		try {
+			StepVerifier.create(Flux.range(1, 100)
+			                        .flatMap(i -> Mono.fromCallable(() -> {
+				                        Thread.sleep(10);
+				                        return i;
+			                        })
+			                                          .subscribeOn(s))
+			                        .count())
+			            .expectNext(100L)
+			            .verifyComplete();
+
+			StepVerifier.create(Mono.delay(Duration.ofMillis(50), s))
+			            .expectNext(0L)
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+	@Test(timeout = 10000)
+	public void slowPeriodicTaskDoesNotOverlap() throws Exception {
+		Scheduler s = Schedulers.newVirtual("periodic");
+		try {
+			AtomicInteger running = new AtomicInteger();
+			AtomicInteger maxRunning = new AtomicInteger();
+			CountDownLatch runs = new CountDownLatch(3);
+			s.schedulePeriodically(() -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(50);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				running.decrementAndGet();
+				runs.countDown();
+			}, 0, 5, TimeUnit.MILLISECONDS);
+
+			assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(maxRunning.get()).isEqualTo(1);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void slowPeriodicWorkerTaskDoesNotPileUp() throws Exception {
+		Scheduler s = Schedulers.newVirtual("periodicWorker");
+		Scheduler.Worker w = s.createWorker();
+		try {
+			CountDownLatch runs = new CountDownLatch(3);
+			w.schedulePeriodically(() -> {
+				try {
+					Thread.sleep(50);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				runs.countDown();
+			}, 0, 5, TimeUnit.MILLISECONDS);
+
+			assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(Scannable.from(w).scan(Scannable.IntAttr.BUFFERED)).isLessThanOrEqualTo(1);
+		}
+		finally {
+			w.dispose();
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void periodicTaskRejectedByCapIsDisposed() throws Exception {
+		VirtualScheduler s = new VirtualScheduler(1,
+				1,
+				new Schedulers.SchedulerThreadFactory("cappedPeriodic", true, VirtualScheduler.COUNTER),
+				false);
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+		try {
+			s.schedule(() -> {
+				started.countDown();
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(s.schedule(() -> {})).isNotSameAs(Scheduler.REJECTED);
+
+			AtomicInteger ran = new AtomicInteger();
+			Scheduler.Worker w = s.createWorker();
+			Disposable periodic = s.schedulePeriodically(ran::incrementAndGet, 0, 5, TimeUnit.MILLISECONDS);
+			Disposable workerPeriodic = w.schedulePeriodically(ran::incrementAndGet, 0, 5, TimeUnit.MILLISECONDS);
+			Disposable delayed = w.schedule(ran::incrementAndGet, 5, TimeUnit.MILLISECONDS);
+
+			while (!periodic.isDisposed() || !workerPeriodic.isDisposed() || !delayed.isDisposed()) {
+				Thread.sleep(10);
+			}
+			assertThat(s.scan(Scannable.IntAttr.BUFFERED)).isEqualTo(1);
+
+			release.countDown();
+			while (s.scan(Scannable.IntAttr.BUFFERED) != 0) {
+				Thread.sleep(10);
+			}
+			Thread.sleep(50);
+			assertThat(ran.get()).isZero();
+		}
+		finally {
+			release.countDown();
+			s.dispose();
+		}
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WorkStealingSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newWorkStealing("workStealingTest", 4);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeParallelism() throws Exception {
+		Schedulers.newWorkStealing("test", -1);
+	}
+
+	@Test
+	public void threadNaming() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("naming", 2);
+		try {
+			StepVerifier.create(Flux.just(1)
+			                        .publishOn(s)
+			                        .map(v -> Thread.currentThread().getName()))
+			            .assertNext(name -> assertThat(name).startsWith("naming-"))
+			            .verifyComplete();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void threadsAreNumberedConsecutively() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("numbering", 2, true);
+		try {
+			CountDownLatch started = new CountDownLatch(2);
+			CountDownLatch release = new CountDownLatch(1);
+			List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+			for (int i = 0; i < 2; i++) {
+				s.schedule(() -> {
+					threads.add(Thread.currentThread());
+					started.countDown();
+					try {
+						release.await();
+					}
+					catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			}
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			release.countDown();
+
+			assertThat(threads).allMatch(Thread::isDaemon);
+			long[] ids = threads.stream()
+			                    .mapToLong(t -> Long.parseLong(t.getName()
+			                                                    .substring("numbering-".length())))
+			                    .sorted()
+			                    .toArray();
+			assertThat(ids[1] - ids[0]).isEqualTo(1L);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void workerTasksRunInOrder() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("order", 4);
+		try {
+			Scheduler.Worker w = s.createWorker();
+			int n = 10_000;
+			List<Integer> seen = Collections.synchronizedList(new ArrayList<>(n));
+			AtomicInteger concurrent = new AtomicInteger();
+			AtomicInteger overlaps = new AtomicInteger();
+			CountDownLatch latch = new CountDownLatch(1);
+
+			for (int i = 0; i < n; i++) {
+				int v = i;
+				w.schedule(() -> {
+					if (concurrent.getAndIncrement() != 0) {
+						overlaps.incrementAndGet();
+					}
+					seen.add(v);
+					concurrent.decrementAndGet();
+					if (v == n - 1) {
+						latch.countDown();
+					}
+				});
+			}
+
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(overlaps.get()).isZero();
+			assertThat(seen).hasSize(n);
+			for (int i = 0; i < n; i++) {
+				assertThat(seen.get(i)).isEqualTo(i);
+			}
+			w.dispose();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void blockedWorkerDoesNotStallOthers() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("stealing", 2);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			Scheduler.Worker slow = s.createWorker();
+			slow.schedule(() -> {
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+
+			int workers = 16;
+			CountDownLatch done = new CountDownLatch(workers);
+			for (int i = 0; i < workers; i++) {
+				s.createWorker()
+				 .schedule(done::countDown);
+			}
+
+			assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+		}
+		finally {
+			release.countDown();
+			s.dispose();
+		}
+	}
+
+	@Test
+	public void smokeTestInterval() {
+		Scheduler s = scheduler();
+
+		try {
+			StepVerifier.create(Flux.interval(Duration.ofMillis(100), Duration.ofMillis(200), s))
+			            .expectSubscription()
+			            .expectNoEvent(Duration.ofMillis(50))
+			            .expectNext(0L)
+			            .expectNoEvent(Duration.ofMillis(150))
+			            .expectNext(1L)
+			            .thenCancel()
+			            .verify();
+		}
+		finally {
+			s.dispose();
+		}
+	}
+	@Test(timeout = 10000)
+	public void slowPeriodicTaskDoesNotOverlap() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("periodic", 4);
+		try {
+			AtomicInteger running = new AtomicInteger();
+			AtomicInteger maxRunning = new AtomicInteger();
+			CountDownLatch runs = new CountDownLatch(3);
+			s.schedulePeriodically(() -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				try {
+					Thread.sleep(50);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				running.decrementAndGet();
+				runs.countDown();
+			}, 0, 5, TimeUnit.MILLISECONDS);
+
+			assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(maxRunning.get()).isEqualTo(1);
+		}
+		finally {
+			s.dispose();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void slowPeriodicWorkerTaskDoesNotPileUp() throws Exception {
+		Scheduler s = Schedulers.newWorkStealing("periodicWorker", 4);
+		Scheduler.Worker w = s.createWorker();
+		try {
+			CountDownLatch runs = new CountDownLatch(3);
+			w.schedulePeriodically(() -> {
+				try {
+					Thread.sleep(50);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				runs.countDown();
+			}, 0, 5, TimeUnit.MILLISECONDS);
+
+			assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(((WorkStealingScheduler.WorkStealingWorker) w).queue.size())
+					.isLessThanOrEqualTo(1);
+		}
+		finally {
+			w.dispose();
+			s.dispose();
+		}
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MpscQueueTest {
+
+	@Test
+	public void boundedIsFifoAndRejectsWhenFull() {
+		Queue<Integer> q = QueueSupplier.<Integer>mpsc(8).get();
+		assertThat(q).isInstanceOf(MpscArrayQueue.class);
+		assertThat(q.poll()).isNull();
+		assertThat(q.isEmpty()).isTrue();
+
+		for (int i = 0; i < 8; i++) {
+			assertThat(q.offer(i)).isTrue();
+		}
+		assertThat(q.offer(8)).isFalse();
+		assertThat(q.size()).isEqualTo(8);
+		assertThat(q.peek()).isEqualTo(0);
+
+		for (int round = 0; round < 100; round++) {
+			assertThat(q.poll()).isEqualTo(round);
+			assertThat(q.offer(round + 8)).isTrue();
+			assertThat(q.offer(-1)).isFalse();
+		}
+
+		q.clear();
+		assertThat(q.isEmpty()).isTrue();
+		assertThat(q.size()).isZero();
+	}
+
+	@Test
+	public void unboundedIsFifoAcrossLinks() {
+		Queue<Integer> q = QueueSupplier.<Integer>mpscUnbounded(8).get();
+		assertThat(q).isInstanceOf(MpscLinkedArrayQueue.class);
+		assertThat(q.poll()).isNull();
+
+		int n = 1000;
+		for (int i = 0; i < n; i++) {
+			assertThat(q.offer(i)).isTrue();
+		}
+		assertThat(q.size()).isEqualTo(n);
+
+		for (int i = 0; i < n; i++) {
+			assertThat(q.peek()).isEqualTo(i);
+			assertThat(q.poll()).isEqualTo(i);
+		}
+		assertThat(q.poll()).isNull();
+		assertThat(q.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void unboundedInterleaved() {
+		Queue<Integer> q = QueueSupplier.<Integer>mpscUnbounded(8).get();
+		int expected = 0;
+		int next = 0;
+		for (int round = 0; round < 200; round++) {
+			for (int i = 0; i < round % 13; i++) {
+				q.offer(next++);
+			}
+			for (int i = 0; i < round % 7; i++) {
+				Integer v = q.poll();
+				if (v == null) {
+					break;
+				}
+				assertThat(v).isEqualTo(expected++);
+			}
+		}
+		Integer v;
+		while ((v = q.poll()) != null) {
+			assertThat(v).isEqualTo(expected++);
+		}
+		assertThat(expected).isEqualTo(next);
+	}
+
+	@Test
+	public void suppliers() {
+		assertThat(QueueSupplier.mpsc(Integer.MAX_VALUE)
+		                        .get()).isInstanceOf(MpscLinkedArrayQueue.class);
+		assertThat(QueueSupplier.mpsc(QueueSupplier.XS_BUFFER_SIZE)
+		                        .get()).isInstanceOf(MpscArrayQueue.class);
+		assertThat(QueueSupplier.mpsc(QueueSupplier.SMALL_BUFFER_SIZE)
+		                        .get()).isInstanceOf(MpscArrayQueue.class);
+		assertThat(QueueSupplier.mpscUnbounded(Integer.MAX_VALUE)
+		                        .get()).isInstanceOf(MpscLinkedArrayQueue.class);
+	}
+
+	@Test(timeout = 30000)
+	public void boundedConcurrentProducers() throws Exception {
+		concurrentProducers(QueueSupplier.<long[]>mpsc(64).get());
+	}
+
+	@Test(timeout = 30000)
+	public void unboundedConcurrentProducers() throws Exception {
+		concurrentProducers(QueueSupplier.<long[]>mpscUnbounded(8).get());
+	}
+
+	static void concurrentProducers(Queue<long[]> q) throws Exception {
+		int producers = 4;
+		int n = 100_000;
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			long id = p;
+			threads[p] = new Thread(() -> {
+				try {
+					start.await();
+				}
+				catch (InterruptedException e) {
+					return;
+				}
+				for (long i = 0; i < n; i++) {
+					long[] v = {id, i};
+					while (!q.offer(v)) {
+						Thread.yield();
+					}
+				}
+			});
+			threads[p].start();
+		}
+
+		long[] last = new long[producers];
+		for (int p = 0; p < producers; p++) {
+			last[p] = -1;
+		}
+		start.countDown();
+
+		long received = 0;
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+		while (received < (long) producers * n && System.nanoTime() < deadline) {
+			long[] v = q.poll();
+			if (v == null) {
+				Thread.yield();
+				continue;
+			}
+			int id = (int) v[0];
+			//each producer's values come out in order
+			assertThat(v[1]).isEqualTo(last[id] + 1);
+			last[id] = v[1];
+			received++;
+		}
+
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertThat(received).isEqualTo((long) producers * n);
+		assertThat(q.poll()).isNull();
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2017 Pivotal Software Inc, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package reactor.util.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.junit.Test;
+import reactor.core.Scannable;
+import reactor.core.publisher.TopicProcessor;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WaitStrategyTest {
+
+	static final Runnable NOOP = () -> {};
+
+	//a cursor that reaches the awaited sequence after a number of reads
+	static LongSupplier cursorAfterReads(AtomicLong reads, long n, long sequence) {
+		return () -> reads.incrementAndGet() % n == 0 ? sequence : sequence - 1;
+	}
+
+	@Test
+	public void adaptiveReportsSpinWhenWaitsAreShort() throws Exception {
+		WaitStrategy.Adaptive strategy =
+				(WaitStrategy.Adaptive) WaitStrategy.adaptive(1000, 10, WaitStrategy.parking(0));
+		assertThat(Scannable.from(strategy).scan(WaitStrategy.PhaseAttr.PHASE)).isNull();
+
+		AtomicLong reads = new AtomicLong();
+		for (int i = 0; i < WaitStrategy.Adaptive.WINDOW; i++) {
+			assertThat(strategy.waitFor(5L, cursorAfterReads(reads, 10, 5L), NOOP)).isEqualTo(5L);
+		}
+
+		assertThat(Scannable.from(strategy).scan(WaitStrategy.PhaseAttr.PHASE)).isEqualTo(WaitStrategy.Phase.SPIN);
+	}
+
+	@Test
+	public void adaptiveReportsBlockAndShrinksWhenWaitsAreLong() throws Exception {
+		WaitStrategy.Adaptive strategy =
+				(WaitStrategy.Adaptive) WaitStrategy.adaptive(1000, 10, WaitStrategy.parking(0));
+		WaitStrategy.Adaptive.State state = strategy.states.get();
+		state.spinBudget = 1000;
+		state.yieldBudget = 2;
+
+		for (int i = 0; i < 2 * WaitStrategy.Adaptive.WINDOW; i++) {
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(2);
+			assertThat(strategy.waitFor(1L, () -> System.nanoTime() > deadline ? 1L : 0L, NOOP))
+					.isEqualTo(1L);
+		}
+
+		assertThat(strategy.scan(WaitStrategy.PhaseAttr.PHASE)).isEqualTo(WaitStrategy.Phase.BLOCK);
+		assertThat(state.spinBudget).isLessThan(1000);
+		assertThat(state.yieldBudget).isLessThan(2);
+	}
+
+	@Test
+	public void adaptiveGrowsSpinsOnLateSpinHits() {
+		WaitStrategy.Adaptive strategy =
+				(WaitStrategy.Adaptive) WaitStrategy.adaptive(256, 10, WaitStrategy.busySpin());
+		WaitStrategy.Adaptive.State state = strategy.states.get();
+		assertThat(state.spinBudget).isEqualTo(WaitStrategy.Adaptive.MIN_SPINS);
+
+		for (int round = 0; round < 4; round++) {
+			for (int i = 0; i < WaitStrategy.Adaptive.WINDOW; i++) {
+				state.spinHits++;
+				state.lateSpins++;
+				strategy.adapt(state);
+			}
+		}
+
+		assertThat(state.spinBudget).isEqualTo(256);
+		assertThat(strategy.scan(WaitStrategy.PhaseAttr.PHASE)).isEqualTo(WaitStrategy.Phase.SPIN);
+	}
+
+	@Test
+	public void adaptiveGrowsYieldsOnShortBlocks() {
+		WaitStrategy.Adaptive strategy =
+				(WaitStrategy.Adaptive) WaitStrategy.adaptive(256, 10, WaitStrategy.busySpin());
+		WaitStrategy.Adaptive.State state = strategy.states.get();
+
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < WaitStrategy.Adaptive.WINDOW; i++) {
+				state.blocks++;
+				state.shortBlocks++;
+				strategy.adapt(state);
+			}
+		}
+		assertThat(state.yieldBudget).isEqualTo(4);
+		assertThat(strategy.scan(WaitStrategy.PhaseAttr.PHASE)).isEqualTo(WaitStrategy.Phase.BLOCK);
+
+		//once yielding catches the waits, spinning a bit longer is cheaper
+		for (int i = 0; i < WaitStrategy.Adaptive.WINDOW; i++) {
+			state.yieldHits++;
+			strategy.adapt(state);
+		}
+		assertThat(state.spinBudget).isEqualTo(WaitStrategy.Adaptive.MIN_SPINS * 2);
+		assertThat(strategy.scan(WaitStrategy.PhaseAttr.PHASE)).isEqualTo(WaitStrategy.Phase.YIELD);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void adaptiveRejectsZeroSpins() {
+		WaitStrategy.adaptive(0, 10, WaitStrategy.busySpin());
+	}
+
+	@Test
+	public void adaptiveWithTopicProcessor() {
+		TopicProcessor<Integer> processor = TopicProcessor.<Integer>builder()
+				.name("adaptive")
+				.bufferSize(16)
+				.waitStrategy(WaitStrategy.adaptive())
+				.build();
+
+		StepVerifier.create(processor)
+		            .then(() -> {
+			            for (int i = 0; i < 100; i++) {
+				            processor.onNext(i);
+			            }
+			            processor.onComplete();
+		            })
+		            .expectNextCount(100)
+		            .expectComplete()
+		            .verify(Duration.ofSeconds(5));
+	}
+}